@@ -0,0 +1,219 @@
+package volucris.engine.physics.jolt.benchmark;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import volucris.engine.physics.jolt.Jolt;
+import volucris.engine.physics.jolt.JoltEnums.Activation;
+import volucris.engine.physics.jolt.body.Body;
+import volucris.engine.physics.jolt.body.BodyCreationSettings;
+import volucris.engine.physics.jolt.body.BodyEnums.MotionType;
+import volucris.engine.physics.jolt.body.BodyInterface;
+import volucris.engine.physics.jolt.broadPhaseLayerInterface.BroadPhaseLayerInterfaceTable;
+import volucris.engine.physics.jolt.filter.BodyFilter;
+import volucris.engine.physics.jolt.filter.BroadPhaseLayerFilter;
+import volucris.engine.physics.jolt.filter.ObjectLayerFilter;
+import volucris.engine.physics.jolt.filter.ShapeFilter;
+import volucris.engine.physics.jolt.jobSystem.JobSystemThreadPool;
+import volucris.engine.physics.jolt.jobSystem.JobSystemThreadPoolConfig;
+import volucris.engine.physics.jolt.objectLayerPairFilter.ObjectLayerPairFilterTable;
+import volucris.engine.physics.jolt.objectVsBroadPhaseLayerFilter.ObjectVsBroadPhaseLayerFilter;
+import volucris.engine.physics.jolt.objectVsBroadPhaseLayerFilter.ObjectVsBroadPhaseLayerFilterTable;
+import volucris.engine.physics.jolt.physicsSystem.PhysicsSettings;
+import volucris.engine.physics.jolt.physicsSystem.PhysicsSystem;
+import volucris.engine.physics.jolt.physicsSystem.PhysicsSystemSettings;
+import volucris.engine.physics.jolt.shape.BoxShape;
+import volucris.engine.physics.jolt.shape.Shape;
+import volucris.engine.physics.jolt.shape.SphereShape;
+
+/**
+ * Physics system with a static floor shared by all benchmarks. Dynamic bodies
+ * are placed in a grid above the floor, they do not sleep so every step does
+ * the same amount of work.
+ */
+//@formatter:off
+final class BenchmarkScene {
+
+	static final int NON_MOVING = 0;
+	static final int MOVING = 1;
+
+	static final float DELTA_TIME = 1f / 60f;
+
+	private static boolean initialized;
+
+	private final JobSystemThreadPool jobSystem;
+	private final PhysicsSystem physicsSystem;
+	private final BodyInterface bodyInterface;
+
+	private final BroadPhaseLayerFilter broadPhaseLayerFilter;
+	private final ObjectLayerFilter objectLayerFilter;
+	private final BodyFilter bodyFilter;
+	private final ShapeFilter shapeFilter;
+
+	private final SphereShape sphere;
+
+	private int gridIndex;
+
+	BenchmarkScene(int maxBodies) {
+		init();
+
+		JobSystemThreadPoolConfig config = new JobSystemThreadPoolConfig(PhysicsSettings.MAX_PHYSICS_JOBS, PhysicsSettings.MAX_PHYSICS_BARRIERS, -1);
+		jobSystem = new JobSystemThreadPool(config);
+
+		ObjectLayerPairFilterTable objectLayerPairFilter = new ObjectLayerPairFilterTable(2);
+		objectLayerPairFilter.enableCollision(NON_MOVING, MOVING);
+		objectLayerPairFilter.enableCollision(MOVING, MOVING);
+
+		BroadPhaseLayerInterfaceTable broadPhaseLayerInterface = new BroadPhaseLayerInterfaceTable(2, 2);
+		broadPhaseLayerInterface.mapObjectToBroadPhaseLayer(NON_MOVING, (byte) 0);
+		broadPhaseLayerInterface.mapObjectToBroadPhaseLayer(MOVING, (byte) 1);
+
+		ObjectVsBroadPhaseLayerFilter objectVsBroadPhaseLayerFilter = new ObjectVsBroadPhaseLayerFilterTable(broadPhaseLayerInterface, 2, objectLayerPairFilter, 2);
+
+		PhysicsSystemSettings settings = new PhysicsSystemSettings();
+		settings.setMaxBodies(maxBodies + 1);
+		settings.setMaxBodyPairs(Math.max(1024, maxBodies * 4));
+		settings.setMaxContactConstraints(Math.max(1024, maxBodies * 4));
+		settings.setBroadPhaseLayerInterface(broadPhaseLayerInterface);
+		settings.setObjectVsBroadPhaseLayerFilter(objectVsBroadPhaseLayerFilter);
+		settings.setObjectLayerPairFilter(objectLayerPairFilter);
+
+		physicsSystem = new PhysicsSystem(settings);
+		bodyInterface = physicsSystem.getBodyInterface();
+
+		broadPhaseLayerFilter = new BroadPhaseLayerFilter() {
+			@Override
+			protected boolean shouldCollide(byte layer) {
+				return true;
+			}
+		};
+
+		objectLayerFilter = new ObjectLayerFilter() {
+			@Override
+			protected boolean shouldCollide(int layer) {
+				return true;
+			}
+		};
+
+		bodyFilter = new BodyFilter() {
+			@Override
+			protected boolean shouldCollide(int bodyId) {
+				return true;
+			}
+
+			@Override
+			protected boolean shouldCollideLocked(Body body) {
+				return true;
+			}
+		};
+
+		shapeFilter = new ShapeFilter() {
+			@Override
+			protected boolean shouldCollide(Shape shape2, int subShapeIDShape2) {
+				return true;
+			}
+
+			@Override
+			protected boolean shouldCollide(Shape shape1, int subShapeIDShape1, Shape shape2, int subShapeIDShape2) {
+				return true;
+			}
+		};
+
+		BoxShape floorShape = new BoxShape(new Vector3f(1000, 1, 1000));
+		BodyCreationSettings floorSettings = new BodyCreationSettings(floorShape, new Vector3f(0, -1, 0), new Quaternionf(), MotionType.STATIC, NON_MOVING);
+		bodyInterface.createAndAddBody(floorSettings, Activation.DONT_ACTIVATE);
+
+		sphere = new SphereShape(0.5f);
+	}
+
+	/**
+	 * Jolt can only be initialized once per JVM, JMH runs every benchmark in its
+	 * own fork.
+	 */
+	static synchronized void init() {
+		if (initialized)
+			return;
+
+		if (!Jolt.init())
+			throw new IllegalStateException("Cannot initialize Jolt.");
+
+		initialized = true;
+	}
+
+	/**
+	 * Adds dynamic spheres in a grid of 100 x 100 per layer.
+	 */
+	int[] addSpheres(int count) {
+		int[] bodyIds = new int[count];
+
+		for (int i = 0; i < count; i++)
+			bodyIds[i] = addSphere().getID();
+
+		physicsSystem.optimizeBroadPhase();
+
+		return bodyIds;
+	}
+
+	/**
+	 * Adds a dynamic sphere at the next grid position.
+	 */
+	Body addSphere() {
+		BodyCreationSettings settings = new BodyCreationSettings(sphere, nextGridPosition(new Vector3f()), new Quaternionf(), MotionType.DYNAMIC, MOVING);
+		settings.setAllowsleeping(false);
+
+		Body body = bodyInterface.createBody(settings);
+		bodyInterface.addBody(body.getID(), Activation.ACTIVATE);
+
+		return body;
+	}
+
+	/**
+	 * Next free spot in the grid, 3 m apart so composite objects like ragdolls and
+	 * vehicles fit.
+	 */
+	Vector3f nextGridPosition(Vector3f target) {
+		return gridPosition(gridIndex++, target);
+	}
+
+	static Vector3f gridPosition(int index, Vector3f target) {
+		return target.set((index % 100 - 50) * 3f, 1 + index / 10_000 * 3f, (index / 100 % 100 - 50) * 3f);
+	}
+
+	/**
+	 * Lets the bodies come to rest on the floor.
+	 */
+	void settle(int steps) {
+		for (int i = 0; i < steps; i++)
+			step();
+	}
+
+	void step() {
+		physicsSystem.update(DELTA_TIME, 1, jobSystem);
+	}
+
+	PhysicsSystem getPhysicsSystem() {
+		return physicsSystem;
+	}
+
+	BodyInterface getBodyInterface() {
+		return bodyInterface;
+	}
+
+	BroadPhaseLayerFilter getBroadPhaseLayerFilter() {
+		return broadPhaseLayerFilter;
+	}
+
+	ObjectLayerFilter getObjectLayerFilter() {
+		return objectLayerFilter;
+	}
+
+	BodyFilter getBodyFilter() {
+		return bodyFilter;
+	}
+
+	ShapeFilter getShapeFilter() {
+		return shapeFilter;
+	}
+
+}
+//@formatter:on
@@ -0,0 +1,138 @@
+package volucris.engine.physics.jolt.benchmark;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import volucris.engine.physics.jolt.JoltEnums.Activation;
+import volucris.engine.physics.jolt.body.Body;
+import volucris.engine.physics.jolt.body.BodyCreationSettings;
+import volucris.engine.physics.jolt.body.BodyEnums.MotionType;
+import volucris.engine.physics.jolt.body.BodyInterface;
+import volucris.engine.physics.jolt.math.Quat;
+import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.shape.SphereShape;
+
+/**
+ * Cost of single downcalls through {@link Body} and {@link BodyInterface}. The
+ * batch benchmark reads all bodies at once and reports the time per body.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class BodyBenchmark {
+
+	private static final int BODY_COUNT = 1000;
+
+	private BenchmarkScene scene;
+	private BodyInterface bodyInterface;
+
+	private Body body;
+	private int bodyId;
+	private int[] bodyIds;
+
+	private Vector3f vector;
+	private Vector3f force;
+
+	private MemorySegment positions;
+	private MemorySegment rotations;
+	private MemorySegment heapPosition;
+
+	@Setup
+	public void setup() {
+		scene = new BenchmarkScene(BODY_COUNT + 1);
+		bodyInterface = scene.getBodyInterface();
+
+		bodyIds = scene.addSpheres(BODY_COUNT);
+
+		BodyCreationSettings settings = new BodyCreationSettings(new SphereShape(0.5f), new Vector3f(0, 10, 0),
+				new Quaternionf(), MotionType.DYNAMIC, BenchmarkScene.MOVING);
+		body = bodyInterface.createBody(settings);
+		bodyId = body.getID();
+		bodyInterface.addBody(bodyId, Activation.ACTIVATE);
+
+		vector = new Vector3f();
+		force = new Vector3f(0, 1, 0);
+
+		Arena arena = Arena.ofAuto();
+		positions = arena.allocate(Vec3.LAYOUT(), BODY_COUNT);
+		rotations = arena.allocate(Quat.LAYOUT(), BODY_COUNT);
+		heapPosition = MemorySegment.ofArray(new float[3]);
+	}
+
+	@Benchmark
+	public Vector3f bodyGetPosition() {
+		return body.getPosition(vector);
+	}
+
+	@Benchmark
+	public MemorySegment bodyGetPositionHeap() {
+		body.getPosition(heapPosition);
+		return heapPosition;
+	}
+
+	@Benchmark
+	public Vector3f bodyGetLinearVelocity() {
+		return body.getLinearVelocity(vector);
+	}
+
+	@Benchmark
+	public void bodySetLinearVelocity() {
+		body.setLinearVelocity(force);
+	}
+
+	@Benchmark
+	public void bodyAddForce() {
+		body.addForce(force);
+	}
+
+	@Benchmark
+	public boolean bodyIsActive() {
+		return body.isActive();
+	}
+
+	@Benchmark
+	public Vector3f bodyInterfaceGetPosition() {
+		return bodyInterface.getPosition(bodyId, vector);
+	}
+
+	@Benchmark
+	public Vector3f bodyInterfaceGetLinearVelocity() {
+		return bodyInterface.getLinearVelocity(bodyId, vector);
+	}
+
+	@Benchmark
+	public void bodyInterfaceSetLinearVelocity() {
+		bodyInterface.setLinearVelocity(bodyId, force);
+	}
+
+	@Benchmark
+	public void bodyInterfaceAddForce() {
+		bodyInterface.addForce(bodyId, force);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BODY_COUNT)
+	public MemorySegment bodyInterfaceGetPositionsAndRotations() {
+		bodyInterface.getPositionsAndRotations(bodyIds, BODY_COUNT, positions, rotations);
+		return positions;
+	}
+
+}
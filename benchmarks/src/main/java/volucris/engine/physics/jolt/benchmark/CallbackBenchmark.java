@@ -0,0 +1,137 @@
+package volucris.engine.physics.jolt.benchmark;
+
+import java.lang.foreign.Arena;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import volucris.engine.physics.jolt.ContactListener;
+import volucris.engine.physics.jolt.ContactManifold;
+import volucris.engine.physics.jolt.ContactSettings;
+import volucris.engine.physics.jolt.Jolt;
+import volucris.engine.physics.jolt.SubShapeIDPair;
+import volucris.engine.physics.jolt.JoltEnums.ValidateResult;
+import volucris.engine.physics.jolt.body.Body;
+import volucris.engine.physics.jolt.raycast.CollideShapeResult;
+
+/**
+ * Cost of calling from native code into Java. The step benchmark is run
+ * without a contact listener and with listeners that handle some or all
+ * events, the difference is the upcall overhead of the resting contacts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class CallbackBenchmark {
+
+	private static final int BODY_COUNT = 1000;
+
+	@Param({ "none", "persisted", "all" })
+	public String listener;
+
+	private BenchmarkScene scene;
+	private ContactListener contactListener;
+
+	private long[] bodyAddresses;
+
+	@Setup
+	public void setup() {
+		scene = new BenchmarkScene(BODY_COUNT);
+
+		bodyAddresses = new long[BODY_COUNT];
+		for (int i = 0; i < BODY_COUNT; i++)
+			bodyAddresses[i] = scene.addSphere().memorySegment().address();
+
+		scene.getPhysicsSystem().optimizeBroadPhase();
+
+		contactListener = switch (listener) {
+		case "none" -> null;
+		case "persisted" -> new CountingContactListener(ContactListener.EVENT_PERSISTED);
+		case "all" -> new CountingContactListener(ContactListener.EVENT_ALL);
+		default -> throw new IllegalArgumentException("Unknown listener: " + listener);
+		};
+
+		if (contactListener != null)
+			scene.getPhysicsSystem().setContactListener(contactListener);
+
+		scene.settle(60);
+	}
+
+	/**
+	 * One step with 1000 resting contacts.
+	 */
+	@Benchmark
+	public void contactListenerStep() {
+		scene.step();
+	}
+
+	/**
+	 * Lookup of the Java object of a native body, done for every body passed to a
+	 * callback.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BODY_COUNT)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public void joltGetBody(Blackhole blackhole) {
+		for (long address : bodyAddresses)
+			blackhole.consume(Jolt.getBody(address));
+	}
+
+	private static final class CountingContactListener extends ContactListener {
+
+		private final LongAdder validated;
+		private final LongAdder added;
+		private final LongAdder persisted;
+		private final LongAdder removed;
+
+		private CountingContactListener(int events) {
+			super(Arena.ofAuto(), true, events);
+
+			validated = new LongAdder();
+			added = new LongAdder();
+			persisted = new LongAdder();
+			removed = new LongAdder();
+		}
+
+		@Override
+		public ValidateResult onContactValidate(Body body1, Body body2, Vector3f baseOffset,
+				CollideShapeResult result) {
+			validated.increment();
+			return ValidateResult.ACCEPT_ALL_CONTACTS_FOR_THIS_BODY_PAIR;
+		}
+
+		@Override
+		public void onContactAdded(Body body1, Body body2, ContactManifold manifold, ContactSettings settings) {
+			added.increment();
+		}
+
+		@Override
+		public void onContactPersisted(Body body1, Body body2, ContactManifold manifold, ContactSettings settings) {
+			persisted.increment();
+		}
+
+		@Override
+		public void onContactRemoved(SubShapeIDPair subShapePair) {
+			removed.increment();
+		}
+
+	}
+
+}
@@ -0,0 +1,90 @@
+package volucris.engine.physics.jolt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import volucris.engine.physics.jolt.character.CharacterVirtual;
+import volucris.engine.physics.jolt.character.CharacterVirtualSettings;
+import volucris.engine.physics.jolt.physicsSystem.PhysicsSystem;
+import volucris.engine.physics.jolt.shape.CapsuleShape;
+
+/**
+ * Updates the given number of virtual characters walking between 1000
+ * spheres, followed by one physics step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class CharacterBenchmark {
+
+	private static final int OBSTACLE_COUNT = 1000;
+
+	@Param({ "1", "64", "256" })
+	public int characters;
+
+	private BenchmarkScene scene;
+	private PhysicsSystem physicsSystem;
+
+	private CharacterVirtual[] virtuals;
+	private Vector3f velocity;
+
+	private int tick;
+
+	@Setup
+	public void setup() {
+		scene = new BenchmarkScene(OBSTACLE_COUNT + characters);
+		scene.addSpheres(OBSTACLE_COUNT);
+
+		physicsSystem = scene.getPhysicsSystem();
+
+		CharacterVirtualSettings settings = new CharacterVirtualSettings();
+		settings.setShape(new CapsuleShape(0.6f, 0.3f));
+		settings.setMaxSlopeAngle((float) Math.toRadians(45));
+
+		Vector3f position = new Vector3f();
+		Quaternionf rotation = new Quaternionf();
+
+		virtuals = new CharacterVirtual[characters];
+		for (int i = 0; i < characters; i++) {
+			// Between the spheres of the grid.
+			BenchmarkScene.gridPosition(i * OBSTACLE_COUNT / characters, position).add(1.5f, 0.5f, 1.5f);
+			virtuals[i] = new CharacterVirtual(settings, position, rotation, physicsSystem);
+		}
+
+		velocity = new Vector3f();
+
+		scene.settle(60);
+	}
+
+	@Benchmark
+	public void update() {
+		// Walk back and forth so the characters keep running into the spheres.
+		float direction = (tick++ / 120 & 1) == 0 ? 1 : -1;
+		velocity.set(2 * direction, -9.81f * BenchmarkScene.DELTA_TIME, 2 * direction);
+
+		for (CharacterVirtual character : virtuals) {
+			character.setLinearVelocity(velocity);
+			character.update(BenchmarkScene.DELTA_TIME, BenchmarkScene.MOVING, physicsSystem, scene.getBodyFilter(),
+					scene.getShapeFilter());
+		}
+
+		scene.step();
+	}
+
+}
@@ -0,0 +1,123 @@
+package volucris.engine.physics.jolt.benchmark;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import volucris.engine.physics.jolt.math.AABox;
+import volucris.engine.physics.jolt.query.BroadPhaseQuery;
+import volucris.engine.physics.jolt.query.NarrowPhaseQuery;
+import volucris.engine.physics.jolt.raycast.CastShapeCollectorCallback;
+import volucris.engine.physics.jolt.raycast.CollideShapeBodyCollectorCallback;
+import volucris.engine.physics.jolt.raycast.RayCastResult;
+import volucris.engine.physics.jolt.raycast.ShapeCastResult;
+import volucris.engine.physics.jolt.raycast.ShapeCastSettings;
+import volucris.engine.physics.jolt.shape.SphereShape;
+
+/**
+ * Queries against 10k resting spheres. The shape cast and box query report
+ * every hit through an upcall, so their time includes the callback dispatch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class QueryBenchmark {
+
+	private static final int BODY_COUNT = 10_000;
+
+	private BenchmarkScene scene;
+
+	private NarrowPhaseQuery narrowPhaseQuery;
+	private BroadPhaseQuery broadPhaseQuery;
+
+	private Vector3f rayOrigin;
+	private Vector3f rayDirection;
+	private RayCastResult rayHit;
+
+	private SphereShape castSphere;
+	private Matrix4f castTransform;
+	private Vector3f castDirection;
+	private Vector3f baseOffset;
+	private ShapeCastSettings castSettings;
+	private CastShapeCollectorCallback castCollector;
+
+	private AABox box;
+	private CollideShapeBodyCollectorCallback boxCollector;
+
+	private int hits;
+
+	@Setup
+	public void setup() {
+		scene = new BenchmarkScene(BODY_COUNT);
+		scene.addSpheres(BODY_COUNT);
+		scene.settle(60);
+
+		narrowPhaseQuery = scene.getPhysicsSystem().getNarrowPhaseQuery();
+		broadPhaseQuery = scene.getPhysicsSystem().getBroadPhaseQuery();
+
+		rayOrigin = new Vector3f(-200, 0.5f, 0.1f);
+		rayDirection = new Vector3f(400, 0, 0);
+		rayHit = new RayCastResult();
+
+		castSphere = new SphereShape(1f);
+		castTransform = new Matrix4f().translation(0.1f, 20, 0.1f);
+		castDirection = new Vector3f(0, -40, 0);
+		baseOffset = new Vector3f();
+		castSettings = new ShapeCastSettings();
+		castCollector = new CastShapeCollectorCallback() {
+			@Override
+			protected void castShapeCollectorCallback(MemorySegment context, ShapeCastResult result) {
+				hits++;
+			}
+		};
+
+		box = new AABox();
+		box.setMin(new Vector3f(-10, 0, -10));
+		box.setMax(new Vector3f(10, 2, 10));
+		boxCollector = new CollideShapeBodyCollectorCallback() {
+			@Override
+			protected void collideShapeBodyCollectorCallback(MemorySegment context, int bodyId) {
+				hits++;
+			}
+		};
+	}
+
+	@Benchmark
+	public boolean narrowPhaseCastRay() {
+		return narrowPhaseQuery.castRay(rayOrigin, rayDirection, rayHit, scene.getBroadPhaseLayerFilter(),
+				scene.getObjectLayerFilter(), scene.getBodyFilter());
+	}
+
+	@Benchmark
+	public int narrowPhaseCastShape() {
+		hits = 0;
+		narrowPhaseQuery.castShape(castSphere, castTransform, castDirection, castSettings, baseOffset, castCollector,
+				scene.getBroadPhaseLayerFilter(), scene.getObjectLayerFilter(), scene.getBodyFilter(),
+				scene.getShapeFilter());
+		return hits;
+	}
+
+	@Benchmark
+	public int broadPhaseCollideAABox() {
+		hits = 0;
+		broadPhaseQuery.collideAABox(box, boxCollector, MemorySegment.NULL, scene.getBroadPhaseLayerFilter(),
+				scene.getObjectLayerFilter());
+		return hits;
+	}
+
+}
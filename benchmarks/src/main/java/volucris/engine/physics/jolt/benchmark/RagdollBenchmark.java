@@ -0,0 +1,150 @@
+package volucris.engine.physics.jolt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import volucris.engine.physics.jolt.JoltEnums.Activation;
+import volucris.engine.physics.jolt.body.BodyEnums.MotionType;
+import volucris.engine.physics.jolt.constraint.ConstraintEnums.ConstraintSpace;
+import volucris.engine.physics.jolt.constraint.SwingTwistConstraintSettings;
+import volucris.engine.physics.jolt.ragdoll.Ragdoll;
+import volucris.engine.physics.jolt.ragdoll.RagdollSettings;
+import volucris.engine.physics.jolt.ragdoll.Skeleton;
+import volucris.engine.physics.jolt.shape.CapsuleShape;
+
+/**
+ * One physics step with the given number of seven part ragdolls falling over
+ * and lying on the floor.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class RagdollBenchmark {
+
+	//@formatter:off
+	private static final String[] JOINTS = { "pelvis", "spine", "head", "upperArmL", "upperArmR", "upperLegL", "upperLegR" };
+	private static final int[] PARENTS = { -1, 0, 1, 1, 1, 0, 0 };
+
+	/**
+	 * Part centers relative to the ragdoll position.
+	 */
+	private static final float[][] OFFSETS = {
+			{ 0, 1.0f, 0 }, { 0, 1.4f, 0 }, { 0, 1.85f, 0 },
+			{ -0.45f, 1.5f, 0 }, { 0.45f, 1.5f, 0 },
+			{ -0.15f, 0.5f, 0 }, { 0.15f, 0.5f, 0 }
+		};
+	//@formatter:on
+
+	@Param({ "16", "128", "512" })
+	public int ragdolls;
+
+	private BenchmarkScene scene;
+
+	@Setup
+	public void setup() {
+		scene = new BenchmarkScene(ragdolls * JOINTS.length);
+
+		RagdollSettings settings = createSettings();
+		Vector3f position = new Vector3f();
+
+		Matrix4f[] jointMatrices = new Matrix4f[JOINTS.length];
+		for (int i = 0; i < JOINTS.length; i++)
+			jointMatrices[i] = new Matrix4f().translation(offset(i));
+
+		for (int i = 0; i < ragdolls; i++) {
+			scene.nextGridPosition(position);
+
+			Ragdoll ragdoll = settings.createRagdoll(scene.getPhysicsSystem(), i, 0);
+			ragdoll.setPose(position, jointMatrices, true);
+			ragdoll.addToPhysicsSystem(Activation.ACTIVATE);
+		}
+
+		scene.getPhysicsSystem().optimizeBroadPhase();
+		scene.settle(60);
+	}
+
+	@Benchmark
+	public void step() {
+		scene.step();
+	}
+
+	private static RagdollSettings createSettings() {
+		Skeleton skeleton = new Skeleton();
+		for (int i = 0; i < JOINTS.length; i++) {
+			if (PARENTS[i] < 0)
+				skeleton.addJoint(JOINTS[i]);
+			else
+				skeleton.addJoint(JOINTS[i], PARENTS[i]);
+		}
+
+		RagdollSettings settings = new RagdollSettings();
+		settings.setSkeleton(skeleton);
+		settings.resizeParts(JOINTS.length);
+
+		CapsuleShape capsule = new CapsuleShape(0.15f, 0.1f);
+		Quaternionf identity = new Quaternionf();
+
+		for (int i = 0; i < JOINTS.length; i++) {
+			Vector3f position = offset(i);
+
+			settings.setPartShape(i, capsule);
+			settings.setPartPosition(i, position);
+			settings.setPartRotation(i, identity);
+			settings.setPartMotionType(i, MotionType.DYNAMIC);
+			settings.setPartObjectLayer(i, BenchmarkScene.MOVING);
+
+			if (PARENTS[i] < 0)
+				continue;
+
+			Vector3f parent = offset(PARENTS[i]);
+			Vector3f joint = new Vector3f(parent).add(position).mul(0.5f);
+			Vector3f twist = new Vector3f(position).sub(parent).normalize();
+			Vector3f plane = new Vector3f(twist).cross(0, 0, 1).normalize();
+
+			SwingTwistConstraintSettings constraint = new SwingTwistConstraintSettings();
+			constraint.setSpace(ConstraintSpace.WORLD_SPACE);
+			constraint.setPosition1(joint);
+			constraint.setPosition2(joint);
+			constraint.setTwistAxis1(twist);
+			constraint.setTwistAxis2(twist);
+			constraint.setPlaneAxis1(plane);
+			constraint.setPlaneAxis2(plane);
+			constraint.setNormalHalfConeAngle((float) Math.toRadians(45));
+			constraint.setPlaneHalfConeAngle((float) Math.toRadians(45));
+			constraint.setTwistMinAngle((float) Math.toRadians(-30));
+			constraint.setTwistMaxAngle((float) Math.toRadians(30));
+
+			settings.setPartToParent(i, constraint);
+		}
+
+		settings.stabilize();
+		settings.disableParentChildCollisions();
+		settings.calculateBodyIndexToConstraintIndex();
+		settings.calculateConstraintIndexToBodyIdxPair();
+
+		return settings;
+	}
+
+	private static Vector3f offset(int part) {
+		float[] offset = OFFSETS[part];
+		return new Vector3f(offset[0], offset[1], offset[2]);
+	}
+
+}
@@ -0,0 +1,66 @@
+package volucris.engine.physics.jolt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import volucris.engine.physics.jolt.physicsSystem.RollbackBuffer;
+
+/**
+ * Capturing and restoring the state of all bodies with a
+ * {@link RollbackBuffer} of 8 frames.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class RollbackBenchmark {
+
+	private static final int FRAMES = 8;
+
+	@Param({ "1000", "10000" })
+	public int bodies;
+
+	private RollbackBuffer rollback;
+
+	private long tick;
+
+	@Setup
+	public void setup() {
+		BenchmarkScene scene = new BenchmarkScene(bodies);
+		scene.addSpheres(bodies);
+		scene.settle(60);
+
+		rollback = new RollbackBuffer(scene.getPhysicsSystem(), FRAMES);
+
+		// Fill the buffer so restore always finds its frame.
+		for (tick = 0; tick < FRAMES; tick++) {
+			rollback.capture(tick);
+			scene.step();
+		}
+	}
+
+	@Benchmark
+	public int capture() {
+		return rollback.capture(tick++);
+	}
+
+	@Benchmark
+	public boolean restore() {
+		// The oldest stored frame, like after a late input.
+		return rollback.restore(tick - FRAMES);
+	}
+
+}
@@ -0,0 +1,46 @@
+package volucris.engine.physics.jolt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One physics step of a scene with the given number of awake spheres resting
+ * on the floor.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class SceneBenchmark {
+
+	@Param({ "1000", "10000", "50000" })
+	public int bodies;
+
+	private BenchmarkScene scene;
+
+	@Setup
+	public void setup() {
+		scene = new BenchmarkScene(bodies);
+		scene.addSpheres(bodies);
+		scene.settle(60);
+	}
+
+	@Benchmark
+	public void step() {
+		scene.step();
+	}
+
+}
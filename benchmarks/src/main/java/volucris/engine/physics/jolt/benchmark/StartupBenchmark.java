@@ -0,0 +1,48 @@
+package volucris.engine.physics.jolt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to first step in a fresh JVM: loading the native library, creating the
+ * physics system, adding bodies and stepping once. Every measurement runs in
+ * its own fork because the bindings link their functions only once per JVM, so
+ * the linking mode is passed as a system property to the fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class StartupBenchmark {
+
+	private static final int BODY_COUNT = 100;
+
+	@Benchmark
+	@Fork(value = 20, jvmArgsAppend = { "--enable-native-access=ALL-UNNAMED", "-Dvolucris.jolt.lazyDowncalls=true" })
+	public void firstStepLazy() {
+		firstStep();
+	}
+
+	@Benchmark
+	@Fork(value = 20, jvmArgsAppend = { "--enable-native-access=ALL-UNNAMED", "-Dvolucris.jolt.lazyDowncalls=false" })
+	public void firstStepEager() {
+		firstStep();
+	}
+
+	private static void firstStep() {
+		BenchmarkScene scene = new BenchmarkScene(BODY_COUNT);
+		scene.addSpheres(BODY_COUNT);
+		scene.step();
+	}
+
+}
@@ -0,0 +1,145 @@
+package volucris.engine.physics.jolt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import volucris.engine.physics.jolt.JoltEnums.Activation;
+import volucris.engine.physics.jolt.body.Body;
+import volucris.engine.physics.jolt.body.BodyCreationSettings;
+import volucris.engine.physics.jolt.body.BodyEnums.MotionType;
+import volucris.engine.physics.jolt.body.BodyInterface;
+import volucris.engine.physics.jolt.constraint.VehicleConstraint;
+import volucris.engine.physics.jolt.constraint.VehicleConstraintSettings;
+import volucris.engine.physics.jolt.physicsSystem.PhysicsSystem;
+import volucris.engine.physics.jolt.shape.BoxShape;
+import volucris.engine.physics.jolt.vehicle.VehicleCollisionTesterRay;
+import volucris.engine.physics.jolt.vehicle.VehicleDifferentialSettings;
+import volucris.engine.physics.jolt.vehicle.WheelSettingsWV;
+import volucris.engine.physics.jolt.vehicle.WheeledVehicleController;
+import volucris.engine.physics.jolt.vehicle.WheeledVehicleControllerSettings;
+
+/**
+ * One physics step with the given number of four wheeled cars driving back and
+ * forth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class VehicleBenchmark {
+
+	private static final float HALF_WIDTH = 0.9f;
+	private static final float HALF_LENGTH = 2f;
+	private static final float HALF_HEIGHT = 0.2f;
+	private static final float WHEEL_RADIUS = 0.3f;
+
+	@Param({ "1", "16", "64" })
+	public int vehicles;
+
+	private BenchmarkScene scene;
+
+	private WheeledVehicleController[] controllers;
+
+	private int tick;
+
+	@Setup
+	public void setup() {
+		scene = new BenchmarkScene(vehicles);
+
+		PhysicsSystem physicsSystem = scene.getPhysicsSystem();
+		BodyInterface bodyInterface = scene.getBodyInterface();
+
+		BoxShape chassis = new BoxShape(HALF_WIDTH, HALF_HEIGHT, HALF_LENGTH);
+		VehicleConstraintSettings settings = createSettings();
+		VehicleCollisionTesterRay tester = new VehicleCollisionTesterRay(BenchmarkScene.MOVING, new Vector3f(0, 1, 0),
+				(float) Math.toRadians(80));
+
+		Vector3f position = new Vector3f();
+
+		controllers = new WheeledVehicleController[vehicles];
+		for (int i = 0; i < vehicles; i++) {
+			scene.nextGridPosition(position).add(0, 0.5f, 0);
+
+			BodyCreationSettings bodySettings = new BodyCreationSettings(chassis, position, new Quaternionf(),
+					MotionType.DYNAMIC, BenchmarkScene.MOVING);
+			bodySettings.setAllowsleeping(false);
+
+			Body body = bodyInterface.createBody(bodySettings);
+			bodyInterface.addBody(body.getID(), Activation.ACTIVATE);
+
+			VehicleConstraint constraint = new VehicleConstraint(body, settings);
+			constraint.setVehicleCollisionTester(tester);
+
+			physicsSystem.addConstraint(constraint);
+			physicsSystem.addStepListener(constraint.asPhysicsStepListener());
+
+			controllers[i] = constraint.getController().asWheeledVehicleController();
+		}
+
+		physicsSystem.optimizeBroadPhase();
+		scene.settle(60);
+	}
+
+	@Benchmark
+	public void step() {
+		// Reverse every two seconds so the cars stay on the floor.
+		float forward = (tick++ / 120 & 1) == 0 ? 1 : -1;
+		for (WheeledVehicleController controller : controllers)
+			controller.setDriverInput(forward, 0.3f, 0, 0);
+
+		scene.step();
+	}
+
+	private static VehicleConstraintSettings createSettings() {
+		float[][] positions = {
+				{ HALF_WIDTH, -0.1f, HALF_LENGTH - 0.5f },
+				{ -HALF_WIDTH, -0.1f, HALF_LENGTH - 0.5f },
+				{ HALF_WIDTH, -0.1f, -HALF_LENGTH + 0.5f },
+				{ -HALF_WIDTH, -0.1f, -HALF_LENGTH + 0.5f } };
+
+		WheelSettingsWV[] wheels = new WheelSettingsWV[positions.length];
+		for (int i = 0; i < wheels.length; i++) {
+			WheelSettingsWV wheel = new WheelSettingsWV();
+			wheel.setPosition(new Vector3f(positions[i][0], positions[i][1], positions[i][2]));
+			wheel.setRadius(WHEEL_RADIUS);
+			wheel.setWidth(0.1f);
+			wheel.setSuspensionMinLength(0.3f);
+			wheel.setSuspensionMaxLength(0.5f);
+
+			// Only the front wheels steer.
+			if (i >= 2)
+				wheel.setMaxSteerAngle(0);
+
+			wheels[i] = wheel;
+		}
+
+		VehicleDifferentialSettings differential = new VehicleDifferentialSettings();
+		differential.setLeftWheel(1);
+		differential.setRightWheel(0);
+
+		WheeledVehicleControllerSettings controller = new WheeledVehicleControllerSettings();
+		controller.setDifferentials(differential);
+
+		VehicleConstraintSettings settings = new VehicleConstraintSettings();
+		settings.setWheels(wheels);
+		settings.setVehicleController(controller);
+
+		return settings;
+	}
+
+}
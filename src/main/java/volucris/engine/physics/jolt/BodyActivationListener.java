@@ -13,6 +13,8 @@ import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 
+import volucris.engine.physics.jolt.metrics.UpcallMetrics;
+import volucris.engine.physics.jolt.metrics.UpcallType;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
 import static java.lang.foreign.ValueLayout.*;
@@ -155,14 +157,24 @@ public abstract class BodyActivationListener {
 
 	@SuppressWarnings("unused")
 	private static void onBodyActivated(MemorySegment userData, int bodyId, long bodyUserData) {
-		BodyActivationListener listener = BODY_ACTIVATION_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
-		listener.onBodyActivated(bodyId, bodyUserData);
+		long start = UpcallMetrics.begin();
+		try {
+			BodyActivationListener listener = BODY_ACTIVATION_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			listener.onBodyActivated(bodyId, bodyUserData);
+		} finally {
+			UpcallMetrics.end(UpcallType.BODY_ACTIVATED, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static void onBodyDeactivated(MemorySegment userData, int bodyId, long bodyUserData) {
-		BodyActivationListener listener = BODY_ACTIVATION_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
-		listener.onBodyDeactivated(bodyId, bodyUserData);
+		long start = UpcallMetrics.begin();
+		try {
+			BodyActivationListener listener = BODY_ACTIVATION_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			listener.onBodyDeactivated(bodyId, bodyUserData);
+		} finally {
+			UpcallMetrics.end(UpcallType.BODY_DEACTIVATED, start);
+		}
 	}
 
 	public MemorySegment memorySegment() {
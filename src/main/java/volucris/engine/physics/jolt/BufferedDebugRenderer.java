@@ -0,0 +1,276 @@
+package volucris.engine.physics.jolt;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+
+import org.joml.Vector3f;
+
+import volucris.engine.physics.jolt.JoltEnums.CastShadow;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Debug renderer that collects everything Jolt draws into off-heap buffers
+ * instead of handing each primitive to Java objects.
+ * <p>
+ * Lines and triangles are appended to vertex buffers of {@link #VERTEX_SIZE}
+ * bytes per vertex: position as three floats followed by the color as an int.
+ * The buffers grow as needed and can be uploaded to the GPU in one call each,
+ * e.g. through {@link MemorySegment#asByteBuffer()}. Texts are stored as raw
+ * UTF-8 bytes, strings are only created when {@link #getText(int)} is called.
+ * <p>
+ * A frame is typically drawn with
+ *
+ * <pre>
+ * renderer.clear();
+ * physicsSystem.drawBodies(settings, renderer);
+ * upload(renderer.getLineVertices(), renderer.getTriangleVertices());
+ * </pre>
+ *
+ * The renderer is not thread-safe.
+ */
+public final class BufferedDebugRenderer extends DebugRenderer {
+
+	/**
+	 * Size of a vertex in bytes.
+	 */
+	public static final int VERTEX_SIZE = 16;
+
+	private static final int TEXT_SIZE = 28;
+
+	private final VertexBuffer lines;
+	private final VertexBuffer triangles;
+	private final VertexBuffer texts;
+	private final VertexBuffer textBytes;
+
+	private int lineVertexCount;
+	private int triangleVertexCount;
+	private int textCount;
+
+	public BufferedDebugRenderer() {
+		this(4096, 4096);
+	}
+
+	/**
+	 * @param lineCapacity     initial number of lines
+	 * @param triangleCapacity initial number of triangles
+	 */
+	public BufferedDebugRenderer(int lineCapacity, int triangleCapacity) {
+		lines = new VertexBuffer(Math.max(1, lineCapacity) * 2L * VERTEX_SIZE);
+		triangles = new VertexBuffer(Math.max(1, triangleCapacity) * 3L * VERTEX_SIZE);
+		texts = new VertexBuffer(16L * TEXT_SIZE);
+		textBytes = new VertexBuffer(256);
+	}
+
+	@Override
+	protected void drawLine(MemorySegment from, MemorySegment to, int color) {
+		long offset = lines.reserve(2L * VERTEX_SIZE);
+		MemorySegment buffer = lines.segment;
+
+		MemorySegment.copy(from, 0, buffer, offset, 12);
+		buffer.set(JAVA_INT, offset + 12, color);
+		MemorySegment.copy(to, 0, buffer, offset + VERTEX_SIZE, 12);
+		buffer.set(JAVA_INT, offset + VERTEX_SIZE + 12, color);
+
+		lineVertexCount += 2;
+	}
+
+	@Override
+	protected void drawTriangle(MemorySegment v1, MemorySegment v2, MemorySegment v3, int color,
+			CastShadow castShadow) {
+		long offset = triangles.reserve(3L * VERTEX_SIZE);
+		MemorySegment buffer = triangles.segment;
+
+		MemorySegment.copy(v1, 0, buffer, offset, 12);
+		buffer.set(JAVA_INT, offset + 12, color);
+		MemorySegment.copy(v2, 0, buffer, offset + VERTEX_SIZE, 12);
+		buffer.set(JAVA_INT, offset + VERTEX_SIZE + 12, color);
+		MemorySegment.copy(v3, 0, buffer, offset + 2 * VERTEX_SIZE, 12);
+		buffer.set(JAVA_INT, offset + 2 * VERTEX_SIZE + 12, color);
+
+		triangleVertexCount += 3;
+	}
+
+	@Override
+	protected void drawText3D(MemorySegment position, MemorySegment str, int color, float height) {
+		long length = 0;
+		while (str.get(JAVA_BYTE, length) != 0)
+			length++;
+
+		long textOffset = textBytes.reserve(length);
+		MemorySegment.copy(str, 0, textBytes.segment, textOffset, length);
+
+		long offset = texts.reserve(TEXT_SIZE);
+		MemorySegment.copy(position, 0, texts.segment, offset, 12);
+		writeText(offset, color, height, textOffset, length);
+	}
+
+	@Override
+	protected void drawLine(Vector3f from, Vector3f to, int color) {
+		long offset = lines.reserve(2L * VERTEX_SIZE);
+		writeVertex(lines.segment, offset, from, color);
+		writeVertex(lines.segment, offset + VERTEX_SIZE, to, color);
+
+		lineVertexCount += 2;
+	}
+
+	@Override
+	protected void drawTriangle(Vector3f v1, Vector3f v2, Vector3f v3, int color, CastShadow castShadow) {
+		long offset = triangles.reserve(3L * VERTEX_SIZE);
+		writeVertex(triangles.segment, offset, v1, color);
+		writeVertex(triangles.segment, offset + VERTEX_SIZE, v2, color);
+		writeVertex(triangles.segment, offset + 2 * VERTEX_SIZE, v3, color);
+
+		triangleVertexCount += 3;
+	}
+
+	@Override
+	protected void drawText3D(Vector3f position, String str, int color, float height) {
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+
+		long textOffset = textBytes.reserve(bytes.length);
+		MemorySegment.copy(bytes, 0, textBytes.segment, JAVA_BYTE, textOffset, bytes.length);
+
+		long offset = texts.reserve(TEXT_SIZE);
+		texts.segment.set(JAVA_FLOAT, offset, position.x);
+		texts.segment.set(JAVA_FLOAT, offset + 4, position.y);
+		texts.segment.set(JAVA_FLOAT, offset + 8, position.z);
+		writeText(offset, color, height, textOffset, bytes.length);
+	}
+
+	/**
+	 * Empties all buffers, the memory is kept for the next frame.
+	 */
+	public void clear() {
+		lines.size = 0;
+		triangles.size = 0;
+		texts.size = 0;
+		textBytes.size = 0;
+
+		lineVertexCount = 0;
+		triangleVertexCount = 0;
+		textCount = 0;
+	}
+
+	/**
+	 * The line vertices drawn since the last clear, two per line. Valid until the
+	 * next draw call or clear.
+	 */
+	public MemorySegment getLineVertices() {
+		return lines.segment.asSlice(0, lines.size);
+	}
+
+	public int getLineVertexCount() {
+		return lineVertexCount;
+	}
+
+	/**
+	 * The triangle vertices drawn since the last clear, three per triangle. Valid
+	 * until the next draw call or clear.
+	 */
+	public MemorySegment getTriangleVertices() {
+		return triangles.segment.asSlice(0, triangles.size);
+	}
+
+	public int getTriangleVertexCount() {
+		return triangleVertexCount;
+	}
+
+	public int getTextCount() {
+		return textCount;
+	}
+
+	public Vector3f getTextPosition(int index, Vector3f target) {
+		long offset = textOffset(index);
+
+		float x = texts.segment.get(JAVA_FLOAT, offset);
+		float y = texts.segment.get(JAVA_FLOAT, offset + 4);
+		float z = texts.segment.get(JAVA_FLOAT, offset + 8);
+
+		return target.set(x, y, z);
+	}
+
+	public int getTextColor(int index) {
+		return texts.segment.get(JAVA_INT, textOffset(index) + 12);
+	}
+
+	public float getTextHeight(int index) {
+		return texts.segment.get(JAVA_FLOAT, textOffset(index) + 16);
+	}
+
+	/**
+	 * The UTF-8 bytes of the text, without terminator.
+	 */
+	public MemorySegment getTextBytes(int index) {
+		long offset = textOffset(index);
+
+		long start = texts.segment.get(JAVA_INT, offset + 20);
+		long length = texts.segment.get(JAVA_INT, offset + 24);
+
+		return textBytes.segment.asSlice(start, length);
+	}
+
+	public String getText(int index) {
+		MemorySegment bytes = getTextBytes(index);
+		return new String(bytes.toArray(JAVA_BYTE), StandardCharsets.UTF_8);
+	}
+
+	private void writeText(long offset, int color, float height, long textOffset, long length) {
+		MemorySegment buffer = texts.segment;
+		buffer.set(JAVA_INT, offset + 12, color);
+		buffer.set(JAVA_FLOAT, offset + 16, height);
+		buffer.set(JAVA_INT, offset + 20, (int) textOffset);
+		buffer.set(JAVA_INT, offset + 24, (int) length);
+
+		textCount++;
+	}
+
+	private long textOffset(int index) {
+		if (index < 0 || index >= textCount)
+			throw new IndexOutOfBoundsException(index);
+
+		return (long) index * TEXT_SIZE;
+	}
+
+	private static void writeVertex(MemorySegment buffer, long offset, Vector3f position, int color) {
+		buffer.set(JAVA_FLOAT, offset, position.x);
+		buffer.set(JAVA_FLOAT, offset + 4, position.y);
+		buffer.set(JAVA_FLOAT, offset + 8, position.z);
+		buffer.set(JAVA_INT, offset + 12, color);
+	}
+
+	/**
+	 * Off-heap buffer that doubles its capacity when full. Replaced segments are
+	 * freed by the garbage collector.
+	 */
+	private static final class VertexBuffer {
+
+		private MemorySegment segment;
+		private long size;
+
+		private VertexBuffer(long capacity) {
+			segment = Arena.ofAuto().allocate(capacity, 4);
+		}
+
+		/**
+		 * @return the offset of the reserved bytes
+		 */
+		private long reserve(long bytes) {
+			long offset = size;
+			long required = offset + bytes;
+
+			if (required > segment.byteSize()) {
+				long capacity = Math.max(required, segment.byteSize() * 2);
+				MemorySegment grown = Arena.ofAuto().allocate(capacity, 4);
+				MemorySegment.copy(segment, 0, grown, 0, offset);
+				segment = grown;
+			}
+
+			size = required;
+			return offset;
+		}
+
+	}
+
+}
@@ -0,0 +1,437 @@
+package volucris.engine.physics.jolt;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.joml.Vector3f;
+
+import volucris.engine.physics.jolt.body.Body;
+import volucris.engine.physics.jolt.jobSystem.JobSystem;
+import volucris.engine.physics.jolt.physicsSystem.PhysicsSystem;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * A {@link ContactListener} that does not process contacts in the callbacks,
+ * but copies every added, persisted and removed contact into a bounded off-heap
+ * ring buffer. After {@link PhysicsSystem#update(float, int, JobSystem)}
+ * returns, the events can be processed on the calling thread with
+ * {@link #poll(ContactEvent)} or {@link #drain(Consumer)}, where it is safe to
+ * use the locking body interfaces again.
+ * <p>
+ * Any number of jolt threads can add events at the same time without locking.
+ * When the buffer is full, new events are dropped and counted, see
+ * {@link #getOverflowCount()}. Only a single thread may read events at a time.
+ * <p>
+ * The queue does not handle {@link #EVENT_VALIDATE}, so all contacts are
+ * accepted without calling into Java.
+ */
+public class ContactEventQueue extends ContactListener {
+
+	private static final VarHandle SEQUENCE;
+
+	private static final long SEQUENCE_OFFSET = 0;
+	private static final long TYPE_OFFSET = 8;
+	private static final long BODY_1_ID_OFFSET = 12;
+	private static final long BODY_2_ID_OFFSET = 16;
+	private static final long SUB_SHAPE_ID_1_OFFSET = 20;
+	private static final long SUB_SHAPE_ID_2_OFFSET = 24;
+	private static final long NORMAL_OFFSET = 28;
+	private static final long PENETRATION_DEPTH_OFFSET = 40;
+	private static final long POINT_COUNT_OFFSET = 44;
+	private static final long POINTS_OFFSET = 48;
+
+	private static final ContactEventType[] TYPES;
+
+	private static final ThreadLocal<Vector3f> VECTOR;
+
+	private final MemorySegment buffer;
+
+	private final int capacity;
+	private final int mask;
+	private final int maxPoints;
+	private final long recordSize;
+
+	private final AtomicLong writePosition;
+	private long readPosition;
+
+	private final LongAdder[] overflowCounts;
+
+	static {
+		SEQUENCE = JAVA_LONG.varHandle();
+
+		TYPES = ContactEventType.values();
+
+		VECTOR = ThreadLocal.withInitial(Vector3f::new);
+	}
+
+	/**
+	 * Creates a queue for 4096 events with up to 4 contact points each.
+	 */
+	public ContactEventQueue() {
+		this(4096, 4);
+	}
+
+	public ContactEventQueue(int capacity, int maxPoints) {
+		this(capacity, maxPoints, Arena.ofAuto());
+	}
+
+	/**
+	 * @param capacity  maximum number of events that can be queued, rounded up to
+	 *                  a power of two
+	 * @param maxPoints maximum number of contact points stored per event, further
+	 *                  points of a manifold are not stored
+	 * @param arena     arena for the buffer, must be accessible from the jolt
+	 *                  threads
+	 */
+	public ContactEventQueue(int capacity, int maxPoints, Arena arena) {
+		super(arena, true, EVENT_ADDED | EVENT_PERSISTED | EVENT_REMOVED);
+
+		if (capacity < 1 || capacity > 1 << 30)
+			throw new IllegalArgumentException("Capacity must be between 1 and 2^30.");
+		if (maxPoints < 0)
+			throw new IllegalArgumentException("Max points must not be negative.");
+
+		this.capacity = nextPowerOfTwo(capacity);
+		this.mask = this.capacity - 1;
+		this.maxPoints = maxPoints;
+
+		// Sequence, header and two world space points per contact point, aligned to 8 bytes.
+		recordSize = (POINTS_OFFSET + maxPoints * 24L + 7) & ~7L;
+
+		buffer = arena.allocate(recordSize * this.capacity, 8);
+		for (int i = 0; i < this.capacity; i++)
+			SEQUENCE.setRelease(buffer, i * recordSize + SEQUENCE_OFFSET, (long) i);
+
+		writePosition = new AtomicLong();
+
+		overflowCounts = new LongAdder[TYPES.length];
+		for (int i = 0; i < TYPES.length; i++)
+			overflowCounts[i] = new LongAdder();
+	}
+
+	@Override
+	public void onContactAdded(Body body1, Body body2, ContactManifold manifold, ContactSettings settings) {
+		push(ContactEventType.ADDED, body1, body2, manifold);
+	}
+
+	@Override
+	public void onContactPersisted(Body body1, Body body2, ContactManifold manifold, ContactSettings settings) {
+		push(ContactEventType.PERSISTED, body1, body2, manifold);
+	}
+
+	@Override
+	public void onContactRemoved(SubShapeIDPair subShapePair) {
+		long offset = reserve(ContactEventType.REMOVED);
+		if (offset < 0)
+			return;
+
+		buffer.set(JAVA_INT, offset + BODY_1_ID_OFFSET, subShapePair.getBody1Id());
+		buffer.set(JAVA_INT, offset + BODY_2_ID_OFFSET, subShapePair.getBody2Id());
+		buffer.set(JAVA_INT, offset + SUB_SHAPE_ID_1_OFFSET, subShapePair.getSubShapeId1());
+		buffer.set(JAVA_INT, offset + SUB_SHAPE_ID_2_OFFSET, subShapePair.getSubShapeId2());
+
+		setVector(offset + NORMAL_OFFSET, 0, 0, 0);
+		buffer.set(JAVA_FLOAT, offset + PENETRATION_DEPTH_OFFSET, 0);
+		buffer.set(JAVA_INT, offset + POINT_COUNT_OFFSET, 0);
+
+		publish(offset);
+	}
+
+	private void push(ContactEventType type, Body body1, Body body2, ContactManifold manifold) {
+		long offset = reserve(type);
+		if (offset < 0)
+			return;
+
+		Vector3f vector = VECTOR.get();
+
+		buffer.set(JAVA_INT, offset + BODY_1_ID_OFFSET, body1.getID());
+		buffer.set(JAVA_INT, offset + BODY_2_ID_OFFSET, body2.getID());
+		buffer.set(JAVA_INT, offset + SUB_SHAPE_ID_1_OFFSET, manifold.getSubShapeID1());
+		buffer.set(JAVA_INT, offset + SUB_SHAPE_ID_2_OFFSET, manifold.getSubShapeID2());
+
+		manifold.getWorldSpaceNormal(vector);
+		setVector(offset + NORMAL_OFFSET, vector.x, vector.y, vector.z);
+
+		buffer.set(JAVA_FLOAT, offset + PENETRATION_DEPTH_OFFSET, manifold.getPenetrationDepth());
+
+		int pointCount = Math.min(manifold.getPointCount(), maxPoints);
+		buffer.set(JAVA_INT, offset + POINT_COUNT_OFFSET, pointCount);
+
+		for (int i = 0; i < pointCount; i++) {
+			long pointOffset = offset + POINTS_OFFSET + i * 24L;
+
+			manifold.getWorldSpaceContactPointOn1(i, vector);
+			setVector(pointOffset, vector.x, vector.y, vector.z);
+
+			manifold.getWorldSpaceContactPointOn2(i, vector);
+			setVector(pointOffset + 12, vector.x, vector.y, vector.z);
+		}
+
+		publish(offset);
+	}
+
+	/**
+	 * Claims the next free record.
+	 *
+	 * @return the offset of the record or -1 if the buffer is full
+	 */
+	private long reserve(ContactEventType type) {
+		long position = writePosition.get();
+		while (true) {
+			long offset = (position & mask) * recordSize;
+			long sequence = (long) SEQUENCE.getAcquire(buffer, offset + SEQUENCE_OFFSET);
+
+			if (sequence == position) {
+				if (writePosition.compareAndSet(position, position + 1)) {
+					buffer.set(JAVA_INT, offset + TYPE_OFFSET, type.ordinal());
+					return offset;
+				}
+
+				position = writePosition.get();
+			} else if (sequence < position) {
+				// The record still holds an event from the previous round.
+				overflowCounts[type.ordinal()].increment();
+				return -1;
+			} else {
+				position = writePosition.get();
+			}
+		}
+	}
+
+	private void publish(long offset) {
+		long sequence = (long) SEQUENCE.get(buffer, offset + SEQUENCE_OFFSET);
+		SEQUENCE.setRelease(buffer, offset + SEQUENCE_OFFSET, sequence + 1);
+	}
+
+	private void setVector(long offset, float x, float y, float z) {
+		buffer.set(JAVA_FLOAT, offset, x);
+		buffer.set(JAVA_FLOAT, offset + 4, y);
+		buffer.set(JAVA_FLOAT, offset + 8, z);
+	}
+
+	/**
+	 * Copies the oldest event into the target and removes it from the queue.
+	 *
+	 * @return false if there are no events
+	 */
+	public boolean poll(ContactEvent target) {
+		long offset = (readPosition & mask) * recordSize;
+		long sequence = (long) SEQUENCE.getAcquire(buffer, offset + SEQUENCE_OFFSET);
+
+		if (sequence != readPosition + 1)
+			return false;
+
+		target.read(buffer, offset, maxPoints);
+
+		SEQUENCE.setRelease(buffer, offset + SEQUENCE_OFFSET, readPosition + capacity);
+		readPosition++;
+
+		return true;
+	}
+
+	/**
+	 * Passes all queued events to the consumer and removes them from the queue.
+	 * The event object is reused for every event.
+	 *
+	 * @return the number of events
+	 */
+	public int drain(Consumer<ContactEvent> consumer) {
+		return drain(consumer, new ContactEvent(maxPoints));
+	}
+
+	/**
+	 * Like {@link #drain(Consumer)}, but reads every event into the given object.
+	 */
+	public int drain(Consumer<ContactEvent> consumer, ContactEvent event) {
+		int count = 0;
+		while (poll(event)) {
+			consumer.accept(event);
+			count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Removes all queued events.
+	 */
+	public void clear() {
+		ContactEvent event = new ContactEvent(0);
+		while (poll(event))
+			;
+	}
+
+	/**
+	 * Number of queued events. Only exact while no jolt thread adds events.
+	 */
+	public int size() {
+		return (int) Math.min(Math.max(writePosition.get() - readPosition, 0), capacity);
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int getMaxPoints() {
+		return maxPoints;
+	}
+
+	/**
+	 * Total number of events that were dropped because the queue was full.
+	 */
+	public long getOverflowCount() {
+		long count = 0;
+		for (LongAdder overflowCount : overflowCounts)
+			count += overflowCount.sum();
+
+		return count;
+	}
+
+	/**
+	 * Number of events of the given type that were dropped because the queue was
+	 * full.
+	 */
+	public long getOverflowCount(ContactEventType type) {
+		return overflowCounts[type.ordinal()].sum();
+	}
+
+	public void resetOverflowCounts() {
+		for (LongAdder overflowCount : overflowCounts)
+			overflowCount.reset();
+	}
+
+	private static int nextPowerOfTwo(int value) {
+		return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+	}
+
+	public enum ContactEventType {
+
+		ADDED,
+
+		PERSISTED,
+
+		/**
+		 * Removed events have no normal, penetration depth or contact points.
+		 */
+		REMOVED;
+
+	}
+
+	/**
+	 * A copy of a queued contact event. The object can be reused for multiple
+	 * events.
+	 */
+	public static final class ContactEvent {
+
+		private final float[] points;
+
+		private ContactEventType type;
+
+		private int body1ID;
+		private int body2ID;
+
+		private int subShapeID1;
+		private int subShapeID2;
+
+		private float normalX;
+		private float normalY;
+		private float normalZ;
+
+		private float penetrationDepth;
+
+		private int pointCount;
+
+		/**
+		 * @param maxPoints maximum number of contact points that are copied, should
+		 *                  match {@link ContactEventQueue#getMaxPoints()}
+		 */
+		public ContactEvent(int maxPoints) {
+			points = new float[maxPoints * 6];
+		}
+
+		private void read(MemorySegment buffer, long offset, int maxPoints) {
+			type = TYPES[buffer.get(JAVA_INT, offset + TYPE_OFFSET)];
+
+			body1ID = buffer.get(JAVA_INT, offset + BODY_1_ID_OFFSET);
+			body2ID = buffer.get(JAVA_INT, offset + BODY_2_ID_OFFSET);
+
+			subShapeID1 = buffer.get(JAVA_INT, offset + SUB_SHAPE_ID_1_OFFSET);
+			subShapeID2 = buffer.get(JAVA_INT, offset + SUB_SHAPE_ID_2_OFFSET);
+
+			normalX = buffer.get(JAVA_FLOAT, offset + NORMAL_OFFSET);
+			normalY = buffer.get(JAVA_FLOAT, offset + NORMAL_OFFSET + 4);
+			normalZ = buffer.get(JAVA_FLOAT, offset + NORMAL_OFFSET + 8);
+
+			penetrationDepth = buffer.get(JAVA_FLOAT, offset + PENETRATION_DEPTH_OFFSET);
+
+			pointCount = Math.min(buffer.get(JAVA_INT, offset + POINT_COUNT_OFFSET), points.length / 6);
+
+			MemorySegment.copy(buffer, JAVA_FLOAT, offset + POINTS_OFFSET, points, 0, pointCount * 6);
+		}
+
+		public ContactEventType getType() {
+			return type;
+		}
+
+		public int getBody1ID() {
+			return body1ID;
+		}
+
+		public int getBody2ID() {
+			return body2ID;
+		}
+
+		public int getSubShapeID1() {
+			return subShapeID1;
+		}
+
+		public int getSubShapeID2() {
+			return subShapeID2;
+		}
+
+		/**
+		 * @see ContactManifold#getWorldSpaceNormal(Vector3f)
+		 */
+		public Vector3f getWorldSpaceNormal(Vector3f target) {
+			return target.set(normalX, normalY, normalZ);
+		}
+
+		/**
+		 * @see ContactManifold#getPenetrationDepth()
+		 */
+		public float getPenetrationDepth() {
+			return penetrationDepth;
+		}
+
+		/**
+		 * Number of stored contact points, at most the max points of the queue.
+		 */
+		public int getPointCount() {
+			return pointCount;
+		}
+
+		public Vector3f getWorldSpaceContactPointOn1(int index, Vector3f target) {
+			int i = checkPointIndex(index) * 6;
+			return target.set(points[i], points[i + 1], points[i + 2]);
+		}
+
+		public Vector3f getWorldSpaceContactPointOn2(int index, Vector3f target) {
+			int i = checkPointIndex(index) * 6;
+			return target.set(points[i + 3], points[i + 4], points[i + 5]);
+		}
+
+		private int checkPointIndex(int index) {
+			if (index < 0 || index >= pointCount)
+				throw new IndexOutOfBoundsException(index);
+
+			return index;
+		}
+
+	}
+
+}
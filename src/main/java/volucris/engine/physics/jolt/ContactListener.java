@@ -12,6 +12,7 @@ import java.lang.invoke.VarHandle;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.function.Supplier;
 
 import org.joml.Vector3f;
 
@@ -19,6 +20,8 @@ import volucris.engine.physics.jolt.JoltEnums.ValidateResult;
 import volucris.engine.physics.jolt.body.Body;
 import volucris.engine.physics.jolt.body.BodyEnums.MotionQuality;
 import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.UpcallMetrics;
+import volucris.engine.physics.jolt.metrics.UpcallType;
 import volucris.engine.physics.jolt.physicsSystem.PhysicsSystem;
 import volucris.engine.physics.jolt.raycast.CollideShapeResult;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
@@ -51,9 +54,32 @@ import static volucris.engine.physics.jolt.utils.FFMUtils.*;
  * followed by an OnContactPersisted for the same body/sub shape pair. This
  * happens when a body collides both in the discrete and the continuous
  * collision detection stage.
+ * <p>
+ * By default a listener passes the same {@link ContactManifold},
+ * {@link ContactSettings}, {@link CollideShapeResult} and
+ * {@link SubShapeIDPair} objects to every callback, so callbacks coming from
+ * different threads overwrite each other's data. Create the listener with
+ * {@code perThreadViews} enabled (or enable
+ * {@link Jolt#setPerThreadScratchBuffers(boolean)} before creating it) to give
+ * every calling thread its own set of these objects. They are created on the
+ * first callback of a thread and reused afterwards.
+ * <p>
+ * Every callback is a transition from native code into Java. A listener that
+ * only needs some of the events should pass the matching {@code EVENT_*} flags
+ * to the constructor and only override those callbacks. Jolt's procs are shared
+ * by all listeners, so a callback is only left out on the native side if no
+ * living listener handles it. Listeners should therefore be created while no
+ * physics update is running.
  */
 public abstract class ContactListener {
 
+	public static final int EVENT_VALIDATE = 1;
+	public static final int EVENT_ADDED = 1 << 1;
+	public static final int EVENT_PERSISTED = 1 << 2;
+	public static final int EVENT_REMOVED = 1 << 3;
+
+	public static final int EVENT_ALL = EVENT_VALIDATE | EVENT_ADDED | EVENT_PERSISTED | EVENT_REMOVED;
+
 	private static final ArrayList<WeakReference<ContactListener>> CONTACT_LISTENERS;
 
 	private static final StructLayout LAYOUT;
@@ -79,14 +105,9 @@ public abstract class ContactListener {
 	private final MemorySegment jphContactListener;
 	private final MemorySegment userData;
 
-	private ContactManifold manifold;
-	private CollideShapeResult result;
-	private ContactSettings settings;
-	private SubShapeIDPair pair;
-
-	private Vector3f vector;
+	private final int events;
 
-	private Vec3 vecTmp;
+	private final Supplier<CallbackViews> views;
 
 	static {
 		// @formatter:off
@@ -111,7 +132,6 @@ public abstract class ContactListener {
 		JPH_CONTACT_LISTENER_PROCS = arena.allocate(LAYOUT);
 
 		fillProcs(arena);
-		setProcs();
 
 		CONTACT_LISTENERS = new ArrayList<WeakReference<ContactListener>>();
 	}
@@ -121,6 +141,29 @@ public abstract class ContactListener {
 	}
 
 	public ContactListener(Arena arena) {
+		this(arena, Jolt.isPerThreadScratchBuffers());
+	}
+
+	/**
+	 * @param perThreadViews if every calling thread should get its own objects
+	 *                       passed to the callbacks
+	 */
+	public ContactListener(Arena arena, boolean perThreadViews) {
+		this(arena, perThreadViews, EVENT_ALL);
+	}
+
+	/**
+	 * @param perThreadViews if every calling thread should get its own objects
+	 *                       passed to the callbacks
+	 * @param events         the callbacks this listener handles, a combination of
+	 *                       the {@code EVENT_*} flags
+	 */
+	public ContactListener(Arena arena, boolean perThreadViews, int events) {
+		if ((events & ~EVENT_ALL) != 0)
+			throw new IllegalArgumentException("Unknown contact listener events: " + events);
+
+		this.events = events;
+
 		try {
 			int index = count++;
 
@@ -133,14 +176,15 @@ public abstract class ContactListener {
 
 			CONTACT_LISTENERS.add(index, new WeakReference<ContactListener>(this));
 
-			manifold = new ContactManifold(arena);
-			result = new CollideShapeResult(arena);
-			settings = new ContactSettings(arena);
-			pair = new SubShapeIDPair(arena);
-
-			vecTmp = new Vec3(arena);
+			updateProcs();
 
-			vector = new Vector3f();
+			if (perThreadViews) {
+				ThreadLocal<CallbackViews> threadViews = ThreadLocal.withInitial(CallbackViews::new);
+				views = threadViews::get;
+			} else {
+				CallbackViews sharedViews = new CallbackViews(arena);
+				views = () -> sharedViews;
+			}
 
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
@@ -172,8 +216,13 @@ public abstract class ContactListener {
 	 * inBaseOffset.
 	 * <p>
 	 * Do not store a reference to the objects. They will be reused internally.
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_VALIDATE}. Accepts all
+	 * contacts by default.
 	 */
-	public abstract ValidateResult onContactValidate(Body body1, Body body2, Vector3f baseOffset, CollideShapeResult result);
+	public ValidateResult onContactValidate(Body body1, Body body2, Vector3f baseOffset, CollideShapeResult result) {
+		return ValidateResult.ACCEPT_ALL_CONTACTS_FOR_THIS_BODY_PAIR;
+	}
 
 	/**
 	 * Called whenever a new contact point is detected.
@@ -196,8 +245,11 @@ public abstract class ContactListener {
 	 * the impact sound to play (see: EstimateCollisionResponse).
 	 * <p>
 	 * Do not store a reference to the objects. They will be reused internally.
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_ADDED}.
 	 */
-	public abstract void onContactAdded(Body body1, Body body2, ContactManifold manifold, ContactSettings settings);
+	public void onContactAdded(Body body1, Body body2, ContactManifold manifold, ContactSettings settings) {
+	}
 
 	/**
 	 * Called whenever a contact is detected that was also detected last update.
@@ -220,9 +272,11 @@ public abstract class ContactListener {
 	 * child shape.
 	 * <p>
 	 * Do not store a reference to the objects. They will be reused internally.
-	 * 
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_PERSISTED}.
 	 */
-	public abstract void onContactPersisted(Body body1, Body body2, ContactManifold manifold, ContactSettings settings);
+	public void onContactPersisted(Body body1, Body body2, ContactManifold manifold, ContactSettings settings) {
+	}
 
 	/**
 	 * Called whenever a contact was detected last update but is not detected
@@ -252,9 +306,11 @@ public abstract class ContactListener {
 	 * between the two bodies, use PhysicsSystem::WereBodiesInContact.
 	 * <p>
 	 * Do not store a reference to the objects. They will be reused internally.
-	 * 
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_REMOVED}.
 	 */
-	public abstract void onContactRemoved(SubShapeIDPair subShapePair);
+	public void onContactRemoved(SubShapeIDPair subShapePair) {
+	}
 
 	private static void setProcs() {
 		try {
@@ -292,14 +348,38 @@ public abstract class ContactListener {
 		ON_CONTACT_ADDED_ADDR = upcallStub(onContactAddedHandle, onContactAdded, arena);
 		ON_CONTACT_PERSISTED_ADDR = upcallStub(onContactPersistedHandle, onContactPersisted, arena);
 		ON_CONTACT_REMOVED_ADDR = upcallStub(onContactRemovedHandle, onContactRemoved, arena);
-		
-		ON_CONTACT_VALIDATE.set(JPH_CONTACT_LISTENER_PROCS, ON_CONTACT_VALIDATE_ADDR);
-		ON_CONTACT_ADDED.set(JPH_CONTACT_LISTENER_PROCS, ON_CONTACT_ADDED_ADDR);
-		ON_CONTACT_PERSISTED.set(JPH_CONTACT_LISTENER_PROCS, ON_CONTACT_PERSISTED_ADDR);
-		ON_CONTACT_REMOVED.set(JPH_CONTACT_LISTENER_PROCS, ON_CONTACT_REMOVED_ADDR);
 		//@formatter:on
 	}
 
+	/**
+	 * Installs the upcalls for all events handled by at least one living listener
+	 * and leaves the others NULL, so jolt uses its default behavior for them
+	 * without calling into Java.
+	 */
+	private static synchronized void updateProcs() {
+		int handled = 0;
+		for (WeakReference<ContactListener> reference : CONTACT_LISTENERS) {
+			ContactListener listener = reference == null ? null : reference.get();
+			if (listener != null)
+				handled |= listener.events;
+		}
+
+		MemorySegment procs = JPH_CONTACT_LISTENER_PROCS;
+		ON_CONTACT_VALIDATE.set(procs, (handled & EVENT_VALIDATE) != 0 ? ON_CONTACT_VALIDATE_ADDR : MemorySegment.NULL);
+		ON_CONTACT_ADDED.set(procs, (handled & EVENT_ADDED) != 0 ? ON_CONTACT_ADDED_ADDR : MemorySegment.NULL);
+		ON_CONTACT_PERSISTED.set(procs, (handled & EVENT_PERSISTED) != 0 ? ON_CONTACT_PERSISTED_ADDR : MemorySegment.NULL);
+		ON_CONTACT_REMOVED.set(procs, (handled & EVENT_REMOVED) != 0 ? ON_CONTACT_REMOVED_ADDR : MemorySegment.NULL);
+
+		setProcs();
+	}
+
+	/**
+	 * The callbacks this listener handles.
+	 */
+	public int getEvents() {
+		return events;
+	}
+
 	private static void destroy(MemorySegment segment) {
 		try {
 			MethodHandle method = JPH_CONTACT_LISTENER_DESTROY;
@@ -313,79 +393,143 @@ public abstract class ContactListener {
 	@SuppressWarnings("unused")
 	private static int onContactValidate(MemorySegment userData, MemorySegment body1, MemorySegment body2,
 			MemorySegment baseOffset, MemorySegment collisionResult) {
+		long start = UpcallMetrics.begin();
+		try {
+			ContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_VALIDATE) == 0)
+				return ValidateResult.ACCEPT_ALL_CONTACTS_FOR_THIS_BODY_PAIR.id();
 
-		ContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			Body firstBody = Jolt.getBody(body1.address());
+			if (firstBody == null && !body1.equals(MemorySegment.NULL))
+				firstBody = new Body(body1);
 
-		Body firstBody = Jolt.getBody(body1.address());
-		if (firstBody == null && !body1.equals(MemorySegment.NULL))
-			firstBody = new Body(body1);
+			Body secondBody = Jolt.getBody(body2.address());
+			if (secondBody == null && !body2.equals(MemorySegment.NULL))
+				secondBody = new Body(body2);
 
-		Body secondBody = Jolt.getBody(body2.address());
-		if (secondBody == null && !body2.equals(MemorySegment.NULL))
-			secondBody = new Body(body2);
+			CallbackViews views = listener.views.get();
 
-		listener.vecTmp.set(baseOffset);
-		Vector3f offset = listener.vecTmp.get(listener.vector);
+			views.vecTmp.set(baseOffset);
+			Vector3f offset = views.vecTmp.get(views.vector);
 
-		listener.result.set(collisionResult);
+			views.result.set(collisionResult);
 
-		ValidateResult result = listener.onContactValidate(firstBody, secondBody, offset, listener.result);
+			ValidateResult result = listener.onContactValidate(firstBody, secondBody, offset, views.result);
 
-		return result.id();
+			return result.id();
+		} finally {
+			UpcallMetrics.end(UpcallType.CONTACT_VALIDATE, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static void onContactAdded(MemorySegment userData, MemorySegment body1, MemorySegment body2,
 			MemorySegment manifold, MemorySegment settings) {
+		long start = UpcallMetrics.begin();
+		try {
+			ContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_ADDED) == 0)
+				return;
 
-		ContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			Body firstBody = Jolt.getBody(body1.address());
+			if (firstBody == null && !body1.equals(MemorySegment.NULL))
+				firstBody = new Body(body1);
 
-		Body firstBody = Jolt.getBody(body1.address());
-		if (firstBody == null && !body1.equals(MemorySegment.NULL))
-			firstBody = new Body(body1);
+			Body secondBody = Jolt.getBody(body2.address());
+			if (secondBody == null && !body2.equals(MemorySegment.NULL))
+				secondBody = new Body(body2);
 
-		Body secondBody = Jolt.getBody(body2.address());
-		if (secondBody == null && !body2.equals(MemorySegment.NULL))
-			secondBody = new Body(body2);
+			CallbackViews views = listener.views.get();
 
-		listener.manifold.set(manifold);
-		listener.settings.set(settings);
+			views.manifold.set(manifold);
+			views.settings.set(settings);
 
-		listener.onContactAdded(firstBody, secondBody, listener.manifold, listener.settings);
+			listener.onContactAdded(firstBody, secondBody, views.manifold, views.settings);
+		} finally {
+			UpcallMetrics.end(UpcallType.CONTACT_ADDED, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static void onContactPersisted(MemorySegment userData, MemorySegment body1, MemorySegment body2,
 			MemorySegment manifold, MemorySegment settings) {
+		long start = UpcallMetrics.begin();
+		try {
+			ContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_PERSISTED) == 0)
+				return;
 
-		ContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			Body firstBody = Jolt.getBody(body1.address());
+			if (firstBody == null && !body1.equals(MemorySegment.NULL))
+				firstBody = new Body(body1);
 
-		Body firstBody = Jolt.getBody(body1.address());
-		if (firstBody == null && !body1.equals(MemorySegment.NULL))
-			firstBody = new Body(body1);
+			Body secondBody = Jolt.getBody(body2.address());
+			if (secondBody == null && !body2.equals(MemorySegment.NULL))
+				secondBody = new Body(body2);
 
-		Body secondBody = Jolt.getBody(body2.address());
-		if (secondBody == null && !body2.equals(MemorySegment.NULL))
-			secondBody = new Body(body2);
+			CallbackViews views = listener.views.get();
 
-		listener.manifold.set(manifold);
-		listener.settings.set(settings);
+			views.manifold.set(manifold);
+			views.settings.set(settings);
 
-		listener.onContactPersisted(firstBody, secondBody, listener.manifold, listener.settings);
+			listener.onContactPersisted(firstBody, secondBody, views.manifold, views.settings);
+		} finally {
+			UpcallMetrics.end(UpcallType.CONTACT_PERSISTED, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static void onContactRemoved(MemorySegment userData, MemorySegment subShapePair) {
+		long start = UpcallMetrics.begin();
+		try {
+			ContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_REMOVED) == 0)
+				return;
 
-		ContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			CallbackViews views = listener.views.get();
 
-		listener.pair.set(subShapePair);
+			views.pair.set(subShapePair);
 
-		listener.onContactRemoved(listener.pair);
+			listener.onContactRemoved(views.pair);
+		} finally {
+			UpcallMetrics.end(UpcallType.CONTACT_REMOVED, start);
+		}
 	}
 
 	public MemorySegment memorySegment() {
 		return jphContactListener;
 	}
 
+	/**
+	 * The objects handed to the callbacks, either one set per listener or one set
+	 * per thread.
+	 */
+	private static final class CallbackViews {
+
+		private final ContactManifold manifold;
+		private final CollideShapeResult result;
+		private final ContactSettings settings;
+		private final SubShapeIDPair pair;
+
+		private final Vector3f vector;
+
+		private final Vec3 vecTmp;
+
+		private CallbackViews() {
+			this(Arena.ofAuto());
+		}
+
+		private CallbackViews(Arena arena) {
+			manifold = new ContactManifold(arena);
+			result = new CollideShapeResult(arena);
+			settings = new ContactSettings(arena);
+			pair = new SubShapeIDPair(arena);
+
+			vecTmp = new Vec3(arena);
+
+			vector = new Vector3f();
+		}
+
+	}
+
 }
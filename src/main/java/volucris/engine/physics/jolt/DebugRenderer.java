@@ -569,16 +569,53 @@ public abstract class DebugRenderer {
 		}
 	}
 
+	/**
+	 * Called by the native DrawLine callback with pointers to two JPH_Vec3 that
+	 * are only valid during the call. Converts them and calls
+	 * {@link #drawLine(Vector3f, Vector3f, int)}.
+	 */
+	protected void drawLine(MemorySegment from, MemorySegment to, int color) {
+		vecTmp.set(from);
+		Vector3f fromVector = vecTmp.get(vector1);
+		vecTmp.set(to);
+		Vector3f toVector = vecTmp.get(vector2);
+
+		drawLine(fromVector, toVector, color);
+	}
+
+	/**
+	 * Called by the native DrawTriangle callback with pointers to three JPH_Vec3
+	 * that are only valid during the call. Converts them and calls
+	 * {@link #drawTriangle(Vector3f, Vector3f, Vector3f, int, CastShadow)}.
+	 */
+	protected void drawTriangle(MemorySegment v1, MemorySegment v2, MemorySegment v3, int color,
+			CastShadow castShadow) {
+		vecTmp.set(v1);
+		Vector3f vertex1 = vecTmp.get(vector1);
+		vecTmp.set(v2);
+		Vector3f vertex2 = vecTmp.get(vector2);
+		vecTmp.set(v3);
+		Vector3f vertex3 = vecTmp.get(vector3);
+
+		drawTriangle(vertex1, vertex2, vertex3, color, castShadow);
+	}
+
+	/**
+	 * Called by the native DrawText3D callback with a pointer to a JPH_Vec3 and a
+	 * null-terminated UTF-8 string that are only valid during the call. Converts
+	 * them and calls {@link #drawText3D(Vector3f, String, int, float)}.
+	 */
+	protected void drawText3D(MemorySegment position, MemorySegment str, int color, float height) {
+		vecTmp.set(position);
+		Vector3f pos = vecTmp.get(vector1);
+
+		drawText3D(pos, str.getString(0), color, height);
+	}
+
 	@SuppressWarnings("unused")
 	private static void drawLine(MemorySegment userData, MemorySegment from, MemorySegment to, int color) {
 		DebugRenderer renderer = RENDERERS.get(userData.get(JAVA_INT, 0)).get();
-
-		renderer.vecTmp.set(from);
-		Vector3f fromVector = renderer.vecTmp.get(renderer.vector1);
-		renderer.vecTmp.set(to);
-		Vector3f toVector = renderer.vecTmp.get(renderer.vector2);
-
-		renderer.drawLine(fromVector, toVector, color);
+		renderer.drawLine(from, to, color);
 	}
 
 	@SuppressWarnings("unused")
@@ -586,27 +623,16 @@ public abstract class DebugRenderer {
 			int color, int castShadow) {
 		DebugRenderer renderer = RENDERERS.get(userData.get(JAVA_INT, 0)).get();
 
-		renderer.vecTmp.set(v1);
-		Vector3f vertex1 = renderer.vecTmp.get(renderer.vector1);
-		renderer.vecTmp.set(v2);
-		Vector3f vertex2 = renderer.vecTmp.get(renderer.vector2);
-		renderer.vecTmp.set(v3);
-		Vector3f vertex3 = renderer.vecTmp.get(renderer.vector3);
-
 		CastShadow shadow = castShadow == CastShadow.OFF.id() ? CastShadow.OFF : CastShadow.ON;
 
-		renderer.drawTriangle(vertex1, vertex2, vertex3, color, shadow);
+		renderer.drawTriangle(v1, v2, v3, color, shadow);
 	}
 
 	@SuppressWarnings("unused")
 	private static void drawText3D(MemorySegment userData, MemorySegment position, MemorySegment str, int color,
 			float height) {
 		DebugRenderer renderer = RENDERERS.get(userData.get(JAVA_INT, 0)).get();
-
-		renderer.vecTmp.set(position);
-		Vector3f pos = renderer.vecTmp.get(renderer.vector1);
-
-		renderer.drawText3D(pos, str.getString(0), color, height);
+		renderer.drawText3D(position, str, color, height);
 	}
 
 	public MemorySegment memorySegment() {
@@ -1,9 +1,12 @@
 package volucris.engine.physics.jolt;
 
 import java.lang.invoke.MethodHandle;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-
-import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 import volucris.engine.physics.jolt.body.Body;
 import volucris.engine.physics.jolt.callbacks.AssertFailureCallback;
@@ -15,6 +18,7 @@ import volucris.engine.physics.jolt.physicsSystem.PhysicsSystem;
 import volucris.engine.physics.jolt.ragdoll.RagdollSettings;
 import volucris.engine.physics.jolt.ragdoll.Skeleton;
 import volucris.engine.physics.jolt.shape.Shape;
+import volucris.engine.physics.jolt.utils.ConcurrentLongObjectMap;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 import volucris.engine.physics.jolt.utils.NativeLibraryLoader;
 import volucris.engine.physics.jolt.vehicle.LinearCurve;
@@ -33,23 +37,28 @@ public final class Jolt {
 	private static final MethodHandle JPH_SET_TRACE_HANDLER;
 	private static final MethodHandle JPH_SET_ASSERT_FAILURE_HANDLER;
 
-	private static final LongObjectHashMap<Body> BODIES;
-	private static final LongObjectHashMap<WeakReference<PhysicsSystem>> PHYSICS_SYSTEMS;
-	private static final LongObjectHashMap<WeakReference<Shape>> SHAPES;
-	private static final LongObjectHashMap<WeakReference<PhysicsMaterial>> MATERIALS;
-	private static final LongObjectHashMap<WeakReference<GroupFilter>> GROUP_FILTERS;
-	private static final LongObjectHashMap<WeakReference<Skeleton>> SKELETONS;
-	private static final LongObjectHashMap<WeakReference<CharacterVirtual>> CHARACTER_VIRTUALS;
-	private static final LongObjectHashMap<WeakReference<Wheel>> WHEELS;
-	private static final LongObjectHashMap<WeakReference<WheelSettings>> WHEEL_SETTINGS;
-	private static final LongObjectHashMap<WeakReference<VehicleTransmissionSettings>> TRANSMISSION_SETTINGS;
-	private static final LongObjectHashMap<WeakReference<VehicleController>> VEHICLE_CONTROLLERS;
-	private static final LongObjectHashMap<WeakReference<Constraint>> CONSTRAINTS;
-	private static final LongObjectHashMap<WeakReference<LinearCurve>> LINEAR_CURVES;
-	private static final LongObjectHashMap<WeakReference<RagdollSettings>> RAGDOLL_SETTINGS;
-
-	private static final LongObjectHashMap<Object> INTERNAL_USER_DATA;
-	private static final LongObjectHashMap<Object> USER_DATA;
+	private static final ConcurrentLongObjectMap<Body> BODIES;
+	private static final ConcurrentLongObjectMap<RegistryReference<PhysicsSystem>> PHYSICS_SYSTEMS;
+	private static final ConcurrentLongObjectMap<RegistryReference<Shape>> SHAPES;
+	private static final ConcurrentLongObjectMap<RegistryReference<PhysicsMaterial>> MATERIALS;
+	private static final ConcurrentLongObjectMap<RegistryReference<GroupFilter>> GROUP_FILTERS;
+	private static final ConcurrentLongObjectMap<RegistryReference<Skeleton>> SKELETONS;
+	private static final ConcurrentLongObjectMap<RegistryReference<CharacterVirtual>> CHARACTER_VIRTUALS;
+	private static final ConcurrentLongObjectMap<RegistryReference<Wheel>> WHEELS;
+	private static final ConcurrentLongObjectMap<RegistryReference<WheelSettings>> WHEEL_SETTINGS;
+	private static final ConcurrentLongObjectMap<RegistryReference<VehicleTransmissionSettings>> TRANSMISSION_SETTINGS;
+	private static final ConcurrentLongObjectMap<RegistryReference<VehicleController>> VEHICLE_CONTROLLERS;
+	private static final ConcurrentLongObjectMap<RegistryReference<Constraint>> CONSTRAINTS;
+	private static final ConcurrentLongObjectMap<RegistryReference<LinearCurve>> LINEAR_CURVES;
+	private static final ConcurrentLongObjectMap<RegistryReference<RagdollSettings>> RAGDOLL_SETTINGS;
+
+	private static final ConcurrentLongObjectMap<Object> INTERNAL_USER_DATA;
+	private static final ConcurrentLongObjectMap<Object> USER_DATA;
+
+	private static final ReferenceQueue<Object> REFERENCE_QUEUE;
+	private static final LongAdder PURGED_ENTRIES;
+
+	private static volatile boolean perThreadScratchBuffers;
 
 	static {
 		NativeLibraryLoader.loadLibrary("natives/jolt", "jolt");
@@ -61,23 +70,26 @@ public final class Jolt {
 		JPH_SET_ASSERT_FAILURE_HANDLER = downcallHandleVoid("JPH_SetAssertFailureHandler", ADDRESS);
 		//@formatter:on
 
-		BODIES = new LongObjectHashMap<Body>(500);
-		PHYSICS_SYSTEMS = new LongObjectHashMap<WeakReference<PhysicsSystem>>();
-		SHAPES = new LongObjectHashMap<WeakReference<Shape>>(500);
-		MATERIALS = new LongObjectHashMap<WeakReference<PhysicsMaterial>>();
-		GROUP_FILTERS = new LongObjectHashMap<WeakReference<GroupFilter>>();
-		SKELETONS = new LongObjectHashMap<WeakReference<Skeleton>>();
-		CHARACTER_VIRTUALS = new LongObjectHashMap<WeakReference<CharacterVirtual>>();
-		WHEELS = new LongObjectHashMap<WeakReference<Wheel>>();
-		WHEEL_SETTINGS = new LongObjectHashMap<WeakReference<WheelSettings>>();
-		TRANSMISSION_SETTINGS = new LongObjectHashMap<WeakReference<VehicleTransmissionSettings>>();
-		VEHICLE_CONTROLLERS = new LongObjectHashMap<WeakReference<VehicleController>>();
-		CONSTRAINTS = new LongObjectHashMap<WeakReference<Constraint>>();
-		LINEAR_CURVES = new LongObjectHashMap<WeakReference<LinearCurve>>();
-		RAGDOLL_SETTINGS = new LongObjectHashMap<WeakReference<RagdollSettings>>();
-
-		INTERNAL_USER_DATA = new LongObjectHashMap<Object>();
-		USER_DATA = new LongObjectHashMap<Object>();
+		BODIES = new ConcurrentLongObjectMap<Body>(500);
+		PHYSICS_SYSTEMS = new ConcurrentLongObjectMap<RegistryReference<PhysicsSystem>>();
+		SHAPES = new ConcurrentLongObjectMap<RegistryReference<Shape>>(500);
+		MATERIALS = new ConcurrentLongObjectMap<RegistryReference<PhysicsMaterial>>();
+		GROUP_FILTERS = new ConcurrentLongObjectMap<RegistryReference<GroupFilter>>();
+		SKELETONS = new ConcurrentLongObjectMap<RegistryReference<Skeleton>>();
+		CHARACTER_VIRTUALS = new ConcurrentLongObjectMap<RegistryReference<CharacterVirtual>>();
+		WHEELS = new ConcurrentLongObjectMap<RegistryReference<Wheel>>();
+		WHEEL_SETTINGS = new ConcurrentLongObjectMap<RegistryReference<WheelSettings>>();
+		TRANSMISSION_SETTINGS = new ConcurrentLongObjectMap<RegistryReference<VehicleTransmissionSettings>>();
+		VEHICLE_CONTROLLERS = new ConcurrentLongObjectMap<RegistryReference<VehicleController>>();
+		CONSTRAINTS = new ConcurrentLongObjectMap<RegistryReference<Constraint>>();
+		LINEAR_CURVES = new ConcurrentLongObjectMap<RegistryReference<LinearCurve>>();
+		RAGDOLL_SETTINGS = new ConcurrentLongObjectMap<RegistryReference<RagdollSettings>>();
+
+		INTERNAL_USER_DATA = new ConcurrentLongObjectMap<Object>();
+		USER_DATA = new ConcurrentLongObjectMap<Object>();
+
+		REFERENCE_QUEUE = new ReferenceQueue<Object>();
+		PURGED_ENTRIES = new LongAdder();
 	}
 
 	private Jolt() {
@@ -143,19 +155,39 @@ public final class Jolt {
 		}
 	}
 
+	/**
+	 * Lets {@link volucris.engine.physics.jolt.body.Body Body},
+	 * {@link volucris.engine.physics.jolt.body.BodyInterface BodyInterface},
+	 * {@link volucris.engine.physics.jolt.query.NarrowPhaseQuery NarrowPhaseQuery},
+	 * {@link volucris.engine.physics.jolt.query.BroadPhaseQuery BroadPhaseQuery}
+	 * and {@link PhysicsSystem} use one set of scratch buffers per calling thread
+	 * instead of one per object, so that multiple threads can call them at the
+	 * same time. Only affects objects that are created after this call, so enable
+	 * it before creating the physics system.
+	 */
+	public static void setPerThreadScratchBuffers(boolean enabled) {
+		perThreadScratchBuffers = enabled;
+	}
+
+	/**
+	 * @see #setPerThreadScratchBuffers(boolean)
+	 */
+	public static boolean isPerThreadScratchBuffers() {
+		return perThreadScratchBuffers;
+	}
+
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addPhysicsSystem(long address, PhysicsSystem system) {
-		if (!PHYSICS_SYSTEMS.containsKey(address))
-			PHYSICS_SYSTEMS.put(address, new WeakReference<PhysicsSystem>(system));
+		register(PHYSICS_SYSTEMS, address, system);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static PhysicsSystem getPhysicsSystem(long address) {
-		return PHYSICS_SYSTEMS.get(address).get();
+		return lookup(PHYSICS_SYSTEMS, address);
 	}
 
 	/**
@@ -169,8 +201,7 @@ public final class Jolt {
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addBody(long address, Body body) {
-		if (!BODIES.containsKey(address))
-			BODIES.put(address, body);
+		BODIES.putIfAbsent(address, body);
 	}
 
 	/**
@@ -185,21 +216,23 @@ public final class Jolt {
 	 */
 	public static void removeBody(long address) {
 		BODIES.remove(address);
+
+		INTERNAL_USER_DATA.remove(address);
+		USER_DATA.remove(address);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addShape(long address, Shape shape) {
-		if (!SHAPES.containsKey(address))
-			SHAPES.put(address, new WeakReference<Shape>(shape));
+		register(SHAPES, address, shape);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static Shape getShape(long address) {
-		return SHAPES.get(address).get();
+		return lookup(SHAPES, address);
 	}
 
 	/**
@@ -207,21 +240,23 @@ public final class Jolt {
 	 */
 	public static void removeShape(long address) {
 		SHAPES.remove(address);
+
+		INTERNAL_USER_DATA.remove(address);
+		USER_DATA.remove(address);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addMaterial(long address, PhysicsMaterial material) {
-		if (!MATERIALS.containsKey(address))
-			MATERIALS.put(address, new WeakReference<PhysicsMaterial>(material));
+		register(MATERIALS, address, material);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static PhysicsMaterial getMaterial(long address) {
-		return MATERIALS.get(address).get();
+		return lookup(MATERIALS, address);
 	}
 
 	/**
@@ -235,15 +270,14 @@ public final class Jolt {
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addGroupFilter(long address, GroupFilter group) {
-		if (!GROUP_FILTERS.containsKey(address))
-			GROUP_FILTERS.put(address, new WeakReference<GroupFilter>(group));
+		register(GROUP_FILTERS, address, group);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static GroupFilter getGroupFilter(long address) {
-		return GROUP_FILTERS.get(address).get();
+		return lookup(GROUP_FILTERS, address);
 	}
 
 	/**
@@ -257,15 +291,14 @@ public final class Jolt {
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addSkeleton(long address, Skeleton skeleton) {
-		if (!SKELETONS.containsKey(address))
-			SKELETONS.put(address, new WeakReference<Skeleton>(skeleton));
+		register(SKELETONS, address, skeleton);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static Skeleton getSkeleton(long address) {
-		return SKELETONS.get(address).get();
+		return lookup(SKELETONS, address);
 	}
 
 	/**
@@ -279,15 +312,14 @@ public final class Jolt {
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addCharacterVirtual(long address, CharacterVirtual character) {
-		if (!CHARACTER_VIRTUALS.containsKey(address))
-			CHARACTER_VIRTUALS.put(address, new WeakReference<CharacterVirtual>(character));
+		register(CHARACTER_VIRTUALS, address, character);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static CharacterVirtual getCharacterVirtual(long address) {
-		return CHARACTER_VIRTUALS.get(address).get();
+		return lookup(CHARACTER_VIRTUALS, address);
 	}
 
 	/**
@@ -301,15 +333,14 @@ public final class Jolt {
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addWheelSettings(long address, WheelSettings settings) {
-		if (!WHEEL_SETTINGS.containsKey(address))
-			WHEEL_SETTINGS.put(address, new WeakReference<WheelSettings>(settings));
+		register(WHEEL_SETTINGS, address, settings);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static WheelSettings getWheelSettings(long address) {
-		return WHEEL_SETTINGS.get(address).get();
+		return lookup(WHEEL_SETTINGS, address);
 	}
 
 	/**
@@ -323,15 +354,14 @@ public final class Jolt {
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addWheel(long address, Wheel wheel) {
-		if (!WHEELS.containsKey(address))
-			WHEELS.put(address, new WeakReference<Wheel>(wheel));
+		register(WHEELS, address, wheel);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static Wheel getWheel(long address) {
-		return WHEELS.get(address).get();
+		return lookup(WHEELS, address);
 	}
 
 	/**
@@ -345,15 +375,14 @@ public final class Jolt {
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addVehicleTransmissionSettings(long address, VehicleTransmissionSettings settings) {
-		if (!TRANSMISSION_SETTINGS.containsKey(address))
-			TRANSMISSION_SETTINGS.put(address, new WeakReference<VehicleTransmissionSettings>(settings));
+		register(TRANSMISSION_SETTINGS, address, settings);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static VehicleTransmissionSettings getVehicleTransmissionSettings(long address) {
-		return TRANSMISSION_SETTINGS.get(address).get();
+		return lookup(TRANSMISSION_SETTINGS, address);
 	}
 
 	/**
@@ -367,15 +396,14 @@ public final class Jolt {
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addVehicleController(long address, VehicleController controller) {
-		if (!VEHICLE_CONTROLLERS.containsKey(address))
-			VEHICLE_CONTROLLERS.put(address, new WeakReference<VehicleController>(controller));
+		register(VEHICLE_CONTROLLERS, address, controller);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static VehicleController getVehicleController(long address) {
-		return VEHICLE_CONTROLLERS.get(address).get();
+		return lookup(VEHICLE_CONTROLLERS, address);
 	}
 
 	/**
@@ -389,15 +417,14 @@ public final class Jolt {
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addConstraint(long address, Constraint constraint) {
-		if (!CONSTRAINTS.containsKey(address))
-			CONSTRAINTS.put(address, new WeakReference<Constraint>(constraint));
+		register(CONSTRAINTS, address, constraint);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static Constraint getConstraint(long address) {
-		return CONSTRAINTS.get(address).get();
+		return lookup(CONSTRAINTS, address);
 	}
 
 	/**
@@ -405,21 +432,23 @@ public final class Jolt {
 	 */
 	public static void removeConstraint(long address) {
 		CONSTRAINTS.remove(address);
+
+		INTERNAL_USER_DATA.remove(address);
+		USER_DATA.remove(address);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addLinearCurve(long address, LinearCurve curve) {
-		if (!LINEAR_CURVES.containsKey(address))
-			LINEAR_CURVES.put(address, new WeakReference<LinearCurve>(curve));
+		register(LINEAR_CURVES, address, curve);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static LinearCurve getLinearCurve(long address) {
-		return LINEAR_CURVES.get(address).get();
+		return lookup(LINEAR_CURVES, address);
 	}
 
 	/**
@@ -433,15 +462,14 @@ public final class Jolt {
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static void addRagdollSettings(long address, RagdollSettings settings) {
-		if (!RAGDOLL_SETTINGS.containsKey(address))
-			RAGDOLL_SETTINGS.put(address, new WeakReference<RagdollSettings>(settings));
+		register(RAGDOLL_SETTINGS, address, settings);
 	}
 
 	/**
 	 * DO NOT CALL. INTERNAL USE ONLY.
 	 */
 	public static RagdollSettings getRagdollSettings(long address) {
-		return RAGDOLL_SETTINGS.get(address).get();
+		return lookup(RAGDOLL_SETTINGS, address);
 	}
 
 	/**
@@ -467,4 +495,92 @@ public final class Jolt {
 		return USER_DATA.get(address);
 	}
 
+	/**
+	 * Removes the entries of all wrapper objects that have been garbage collected
+	 * from the internal registries. This also happens automatically whenever an
+	 * object is registered, so there is usually no need to call this.
+	 */
+	public static void purgeRegistries() {
+		Reference<?> reference;
+		while ((reference = REFERENCE_QUEUE.poll()) != null)
+			((RegistryReference<?>) reference).purge();
+	}
+
+	/**
+	 * Number of entries per internal registry, for monitoring. Each call creates a
+	 * new map.
+	 */
+	public static Map<String, Integer> getRegistrySizes() {
+		Map<String, Integer> sizes = new LinkedHashMap<String, Integer>();
+		sizes.put("bodies", BODIES.size());
+		sizes.put("physicsSystems", PHYSICS_SYSTEMS.size());
+		sizes.put("shapes", SHAPES.size());
+		sizes.put("materials", MATERIALS.size());
+		sizes.put("groupFilters", GROUP_FILTERS.size());
+		sizes.put("skeletons", SKELETONS.size());
+		sizes.put("characterVirtuals", CHARACTER_VIRTUALS.size());
+		sizes.put("wheels", WHEELS.size());
+		sizes.put("wheelSettings", WHEEL_SETTINGS.size());
+		sizes.put("transmissionSettings", TRANSMISSION_SETTINGS.size());
+		sizes.put("vehicleControllers", VEHICLE_CONTROLLERS.size());
+		sizes.put("constraints", CONSTRAINTS.size());
+		sizes.put("linearCurves", LINEAR_CURVES.size());
+		sizes.put("ragdollSettings", RAGDOLL_SETTINGS.size());
+		sizes.put("internalUserData", INTERNAL_USER_DATA.size());
+		sizes.put("userData", USER_DATA.size());
+		return sizes;
+	}
+
+	/**
+	 * Total number of registry entries that have been removed because their
+	 * wrapper object was garbage collected.
+	 */
+	public static long getPurgedRegistryEntries() {
+		return PURGED_ENTRIES.sum();
+	}
+
+	private static <T> void register(ConcurrentLongObjectMap<RegistryReference<T>> registry, long address,
+			T object) {
+		purgeRegistries();
+
+		RegistryReference<T> current = registry.get(address);
+		if (current != null && current.get() != null)
+			return;
+
+		// Either the address is new or it belonged to an object that has been
+		// collected and whose native memory has been reused.
+		registry.put(address, new RegistryReference<T>(object, address, registry));
+	}
+
+	private static <T> T lookup(ConcurrentLongObjectMap<RegistryReference<T>> registry, long address) {
+		RegistryReference<T> reference = registry.get(address);
+		if (reference == null)
+			return null;
+
+		return reference.get();
+	}
+
+	/**
+	 * Weak registry entry that knows where it is stored, so it can remove itself
+	 * once it has been enqueued.
+	 */
+	private static final class RegistryReference<T> extends WeakReference<T> {
+
+		private final long address;
+		private final ConcurrentLongObjectMap<RegistryReference<T>> registry;
+
+		private RegistryReference(T referent, long address, ConcurrentLongObjectMap<RegistryReference<T>> registry) {
+			super(referent, REFERENCE_QUEUE);
+
+			this.address = address;
+			this.registry = registry;
+		}
+
+		private void purge() {
+			if (registry.remove(address, this))
+				PURGED_ENTRIES.increment();
+		}
+
+	}
+
 }
@@ -43,18 +43,18 @@ public final class MotionProperties {
 
 	static {
 		//@formatter:off
-		JPH_MOTION_PROPERTIES_GET_ALLOWED_DOFS = downcallHandle("JPH_MotionProperties_GetAllowedDOFs", JAVA_INT, ADDRESS);
-		JPH_MOTION_PROPERTIES_SET_LINEAR_DAMPING = downcallHandleVoid("JPH_MotionProperties_SetLinearDamping", ADDRESS, JAVA_FLOAT);
-		JPH_MOTION_PROPERTIES_GET_LINEAR_DAMPING = downcallHandle("JPH_MotionProperties_GetLinearDamping", JAVA_FLOAT, ADDRESS);
-		JPH_MOTION_PROPERTIES_SET_ANGULAR_DAMPING = downcallHandleVoid("JPH_MotionProperties_SetAngularDamping", ADDRESS, JAVA_FLOAT);
-		JPH_MOTION_PROPERTIES_GET_ANGULAR_DAMPING = downcallHandle("JPH_MotionProperties_GetAngularDamping", JAVA_FLOAT, ADDRESS);
+		JPH_MOTION_PROPERTIES_GET_ALLOWED_DOFS = criticalDowncallHandle("JPH_MotionProperties_GetAllowedDOFs", false, JAVA_INT, ADDRESS);
+		JPH_MOTION_PROPERTIES_SET_LINEAR_DAMPING = criticalDowncallHandleVoid("JPH_MotionProperties_SetLinearDamping", false, ADDRESS, JAVA_FLOAT);
+		JPH_MOTION_PROPERTIES_GET_LINEAR_DAMPING = criticalDowncallHandle("JPH_MotionProperties_GetLinearDamping", false, JAVA_FLOAT, ADDRESS);
+		JPH_MOTION_PROPERTIES_SET_ANGULAR_DAMPING = criticalDowncallHandleVoid("JPH_MotionProperties_SetAngularDamping", false, ADDRESS, JAVA_FLOAT);
+		JPH_MOTION_PROPERTIES_GET_ANGULAR_DAMPING = criticalDowncallHandle("JPH_MotionProperties_GetAngularDamping", false, JAVA_FLOAT, ADDRESS);
 		JPH_MOTION_PROPERTIES_SET_MASS_PROPERTIES = downcallHandleVoid("JPH_MotionProperties_SetMassProperties", ADDRESS, JAVA_INT, ADDRESS);
-		JPH_MOTION_PROPERTIES_GET_INVERSE_MASS_UNCHECKED = downcallHandle("JPH_MotionProperties_GetInverseMassUnchecked", JAVA_FLOAT, ADDRESS);
-		JPH_MOTION_PROPERTIES_SET_INVERSE_MASS = downcallHandleVoid("JPH_MotionProperties_SetInverseMass", ADDRESS, JAVA_FLOAT);
-		JPH_MOTION_PROPERTIES_GET_INVERSE_INERTIA_DIAGONAL = downcallHandleVoid("JPH_MotionProperties_GetInverseInertiaDiagonal", ADDRESS, ADDRESS);
-		JPH_MOTION_PROPERTIES_GET_INERTIA_ROTATION = downcallHandleVoid("JPH_MotionProperties_GetInertiaRotation", ADDRESS, ADDRESS);
-		JPH_MOTION_PROPERTIES_SET_INVERSE_INERTIA = downcallHandleVoid("JPH_MotionProperties_SetInverseInertia", ADDRESS, ADDRESS, ADDRESS);
-		JPH_MOTION_PROPERTIES_SCALE_TO_MASS = downcallHandleVoid("JPH_MotionProperties_ScaleToMass", ADDRESS, JAVA_FLOAT);
+		JPH_MOTION_PROPERTIES_GET_INVERSE_MASS_UNCHECKED = criticalDowncallHandle("JPH_MotionProperties_GetInverseMassUnchecked", false, JAVA_FLOAT, ADDRESS);
+		JPH_MOTION_PROPERTIES_SET_INVERSE_MASS = criticalDowncallHandleVoid("JPH_MotionProperties_SetInverseMass", false, ADDRESS, JAVA_FLOAT);
+		JPH_MOTION_PROPERTIES_GET_INVERSE_INERTIA_DIAGONAL = criticalDowncallHandleVoid("JPH_MotionProperties_GetInverseInertiaDiagonal", false, ADDRESS, ADDRESS);
+		JPH_MOTION_PROPERTIES_GET_INERTIA_ROTATION = criticalDowncallHandleVoid("JPH_MotionProperties_GetInertiaRotation", false, ADDRESS, ADDRESS);
+		JPH_MOTION_PROPERTIES_SET_INVERSE_INERTIA = criticalDowncallHandleVoid("JPH_MotionProperties_SetInverseInertia", false, ADDRESS, ADDRESS, ADDRESS);
+		JPH_MOTION_PROPERTIES_SCALE_TO_MASS = criticalDowncallHandleVoid("JPH_MotionProperties_ScaleToMass", false, ADDRESS, JAVA_FLOAT);
 		//@formatter:on
 	}
 
@@ -12,6 +12,8 @@ import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 
+import volucris.engine.physics.jolt.metrics.UpcallMetrics;
+import volucris.engine.physics.jolt.metrics.UpcallType;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
 import static java.lang.foreign.ValueLayout.*;
@@ -150,11 +152,16 @@ public abstract class PhysicsStepListener {
 
 	@SuppressWarnings("unused")
 	private static void onStep(MemorySegment userData, MemorySegment context) {
-		PhysicsStepListener listener = STEP_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+		long start = UpcallMetrics.begin();
+		try {
+			PhysicsStepListener listener = STEP_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
 
-		listener.context.set(context);
+			listener.context.set(context);
 
-		listener.onStep(listener.context);
+			listener.onStep(listener.context);
+		} finally {
+			UpcallMetrics.end(UpcallType.STEP_LISTENER, start);
+		}
 	}
 
 	public MemorySegment memorySegment() {
@@ -3,6 +3,7 @@ package volucris.engine.physics.jolt.body;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.invoke.MethodHandle;
+import java.util.function.Supplier;
 
 import org.joml.Matrix4f;
 import org.joml.Quaternionf;
@@ -13,13 +14,11 @@ import volucris.engine.physics.jolt.MotionProperties;
 import volucris.engine.physics.jolt.filter.CollisionGroup;
 import volucris.engine.physics.jolt.jobSystem.JobSystem;
 import volucris.engine.physics.jolt.math.AABox;
-import volucris.engine.physics.jolt.math.Mat4;
-import volucris.engine.physics.jolt.math.Quat;
-import volucris.engine.physics.jolt.math.Vec3;
 import volucris.engine.physics.jolt.physicsSystem.PhysicsSettings;
 import volucris.engine.physics.jolt.physicsSystem.PhysicsSystem;
 import volucris.engine.physics.jolt.shape.Shape;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
+import volucris.engine.physics.jolt.utils.ScratchBuffers;
 import volucris.engine.physics.jolt.body.BodyEnums.BodyType;
 import volucris.engine.physics.jolt.body.BodyEnums.MotionType;
 import volucris.engine.physics.jolt.JoltEnums.Activation;
@@ -129,88 +128,81 @@ public final class Body {
 
 	private final MemorySegment jphBody;
 
-	private Quat quatTmp;
-
-	private Mat4 matTmp;
-
-	private Vec3 vecTmp;
-	private Vec3 vecTmp2;
-	private Vec3 vecTmp3;
-	private Vec3 vecTmp4;
+	private final Supplier<ScratchBuffers> scratch;
 
 	static {
 		//@formatter:off
-		JPH_BODY_GET_ID = downcallHandle("JPH_Body_GetID", JAVA_INT, ADDRESS);
-		JPH_BODY_GET_BODY_TYPE = downcallHandle("JPH_Body_GetBodyType", JAVA_INT, ADDRESS);
-		JPH_BODY_IS_RIGID_BODY = downcallHandle("JPH_Body_IsRigidBody", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_IS_SOFT_BODY = downcallHandle("JPH_Body_IsSoftBody", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_IS_ACTIVE = downcallHandle("JPH_Body_IsActive", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_IS_STATIC = downcallHandle("JPH_Body_IsStatic", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_IS_KINEMATIC = downcallHandle("JPH_Body_IsKinematic", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_IS_DYNAMIC = downcallHandle("JPH_Body_IsDynamic", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_CAN_BE_KINEMATIC_OR_DYNAMIC = downcallHandle("JPH_Body_CanBeKinematicOrDynamic", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_SET_IS_SENSOR = downcallHandleVoid("JPH_Body_SetIsSensor", ADDRESS, JAVA_BOOLEAN);
-		JPH_BODY_IS_SENSOR = downcallHandle("JPH_Body_IsSensor", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_SET_COLLIDE_KINEMATIC_VS_NON_DYNAMIC = downcallHandleVoid("JPH_Body_SetCollideKinematicVsNonDynamic", ADDRESS, JAVA_BOOLEAN);
-		JPH_BODY_GET_COLLIDE_KINEMATIC_VS_NON_DYNAMIC = downcallHandle("JPH_Body_GetCollideKinematicVsNonDynamic", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_SET_USE_MANIFOLD_REDUCTION = downcallHandleVoid("JPH_Body_SetUseManifoldReduction", ADDRESS, JAVA_BOOLEAN);
-		JPH_BODY_GET_USE_MANIFOLD_REDUCTION = downcallHandle("JPH_Body_GetUseManifoldReduction", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_GET_USE_MANIFOLD_REDUCTION_WITH_BODY = downcallHandle("JPH_Body_GetUseManifoldReductionWithBody", JAVA_BOOLEAN, ADDRESS, ADDRESS);
-		JPH_BODY_SET_APPLY_GYROSCOPIC_FORCE = downcallHandleVoid("JPH_Body_SetApplyGyroscopicForce", ADDRESS, JAVA_BOOLEAN);
-		JPH_BODY_GET_APPLY_GYROSCOPIC_FORCE = downcallHandle("JPH_Body_GetApplyGyroscopicForce", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_SET_ENHANCED_INTERNAL_EDGE_REMOVAL = downcallHandleVoid("JPH_Body_SetEnhancedInternalEdgeRemoval", ADDRESS, JAVA_BOOLEAN);
-		JPH_BODY_GET_ENHANCED_INTERNAL_EDGE_REMOVAL = downcallHandle("JPH_Body_GetEnhancedInternalEdgeRemoval", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_GET_ENHANCED_INTERNAL_EDGE_REMOVAL_WITH_BODY = downcallHandle("JPH_Body_GetEnhancedInternalEdgeRemovalWithBody", JAVA_BOOLEAN, ADDRESS, ADDRESS);
-		JPH_BODY_GET_MOTION_TYPE = downcallHandle("JPH_Body_GetMotionType", JAVA_INT, ADDRESS);
+		JPH_BODY_GET_ID = criticalDowncallHandle("JPH_Body_GetID", false, JAVA_INT, ADDRESS);
+		JPH_BODY_GET_BODY_TYPE = criticalDowncallHandle("JPH_Body_GetBodyType", false, JAVA_INT, ADDRESS);
+		JPH_BODY_IS_RIGID_BODY = criticalDowncallHandle("JPH_Body_IsRigidBody", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_IS_SOFT_BODY = criticalDowncallHandle("JPH_Body_IsSoftBody", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_IS_ACTIVE = criticalDowncallHandle("JPH_Body_IsActive", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_IS_STATIC = criticalDowncallHandle("JPH_Body_IsStatic", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_IS_KINEMATIC = criticalDowncallHandle("JPH_Body_IsKinematic", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_IS_DYNAMIC = criticalDowncallHandle("JPH_Body_IsDynamic", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_CAN_BE_KINEMATIC_OR_DYNAMIC = criticalDowncallHandle("JPH_Body_CanBeKinematicOrDynamic", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_SET_IS_SENSOR = criticalDowncallHandleVoid("JPH_Body_SetIsSensor", false, ADDRESS, JAVA_BOOLEAN);
+		JPH_BODY_IS_SENSOR = criticalDowncallHandle("JPH_Body_IsSensor", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_SET_COLLIDE_KINEMATIC_VS_NON_DYNAMIC = criticalDowncallHandleVoid("JPH_Body_SetCollideKinematicVsNonDynamic", false, ADDRESS, JAVA_BOOLEAN);
+		JPH_BODY_GET_COLLIDE_KINEMATIC_VS_NON_DYNAMIC = criticalDowncallHandle("JPH_Body_GetCollideKinematicVsNonDynamic", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_SET_USE_MANIFOLD_REDUCTION = criticalDowncallHandleVoid("JPH_Body_SetUseManifoldReduction", false, ADDRESS, JAVA_BOOLEAN);
+		JPH_BODY_GET_USE_MANIFOLD_REDUCTION = criticalDowncallHandle("JPH_Body_GetUseManifoldReduction", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_GET_USE_MANIFOLD_REDUCTION_WITH_BODY = criticalDowncallHandle("JPH_Body_GetUseManifoldReductionWithBody", false, JAVA_BOOLEAN, ADDRESS, ADDRESS);
+		JPH_BODY_SET_APPLY_GYROSCOPIC_FORCE = criticalDowncallHandleVoid("JPH_Body_SetApplyGyroscopicForce", false, ADDRESS, JAVA_BOOLEAN);
+		JPH_BODY_GET_APPLY_GYROSCOPIC_FORCE = criticalDowncallHandle("JPH_Body_GetApplyGyroscopicForce", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_SET_ENHANCED_INTERNAL_EDGE_REMOVAL = criticalDowncallHandleVoid("JPH_Body_SetEnhancedInternalEdgeRemoval", false, ADDRESS, JAVA_BOOLEAN);
+		JPH_BODY_GET_ENHANCED_INTERNAL_EDGE_REMOVAL = criticalDowncallHandle("JPH_Body_GetEnhancedInternalEdgeRemoval", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_GET_ENHANCED_INTERNAL_EDGE_REMOVAL_WITH_BODY = criticalDowncallHandle("JPH_Body_GetEnhancedInternalEdgeRemovalWithBody", false, JAVA_BOOLEAN, ADDRESS, ADDRESS);
+		JPH_BODY_GET_MOTION_TYPE = criticalDowncallHandle("JPH_Body_GetMotionType", false, JAVA_INT, ADDRESS);
 		JPH_BODY_SET_MOTION_TYPE = downcallHandleVoid("JPH_Body_SetMotionType", ADDRESS, JAVA_INT);
-		JPH_BODY_GET_BROAD_PHASE_LAYER = downcallHandle("JPH_Body_GetBroadPhaseLayer", JAVA_BYTE, ADDRESS);
-		JPH_BODY_GET_OBJECT_LAYER = downcallHandle("JPH_Body_GetObjectLayer", JAVA_INT, ADDRESS);
+		JPH_BODY_GET_BROAD_PHASE_LAYER = criticalDowncallHandle("JPH_Body_GetBroadPhaseLayer", false, JAVA_BYTE, ADDRESS);
+		JPH_BODY_GET_OBJECT_LAYER = criticalDowncallHandle("JPH_Body_GetObjectLayer", false, JAVA_INT, ADDRESS);
 		JPH_BODY_GET_COLLISION_GROUP = downcallHandleVoid("JPH_Body_GetCollisionGroup", ADDRESS, ADDRESS);
 		JPH_BODY_SET_COLLISION_GROUP = downcallHandleVoid("JPH_Body_SetCollisionGroup", ADDRESS, ADDRESS);
-		JPH_BODY_GET_ALLOW_SLEEPING = downcallHandle("JPH_Body_GetAllowSleeping", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_SET_ALLOW_SLEEPING = downcallHandleVoid("JPH_Body_SetAllowSleeping", ADDRESS, JAVA_BOOLEAN);
-		JPH_BODY_RESET_SLEEP_TIMER = downcallHandleVoid("JPH_Body_ResetSleepTimer", ADDRESS);
-		JPH_BODY_GET_FRICTION = downcallHandle("JPH_Body_GetFriction", JAVA_FLOAT, ADDRESS);
-		JPH_BODY_SET_FRICTION = downcallHandleVoid("JPH_Body_SetFriction", ADDRESS, JAVA_FLOAT);
-		JPH_BODY_GET_RESTITUTION = downcallHandle("JPH_Body_GetRestitution", JAVA_FLOAT, ADDRESS);
-		JPH_BODY_SET_RESTITUTION = downcallHandleVoid("JPH_Body_SetRestitution", ADDRESS, JAVA_FLOAT);
-		JPH_BODY_GET_LINEAR_VELOCITY = downcallHandleVoid("JPH_Body_GetLinearVelocity", ADDRESS, ADDRESS);
-		JPH_BODY_SET_LINEAR_VELOCITY = downcallHandleVoid("JPH_Body_SetLinearVelocity", ADDRESS, ADDRESS);
-		JPH_BODY_SET_LINEAR_VELOCITY_CLAMPED = downcallHandleVoid("JPH_Body_SetLinearVelocityClamped", ADDRESS, ADDRESS);
-		JPH_BODY_GET_ANGULAR_VELOCITY = downcallHandleVoid("JPH_Body_GetAngularVelocity", ADDRESS, ADDRESS);
-		JPH_BODY_SET_ANGULAR_VELOCITY = downcallHandleVoid("JPH_Body_SetAngularVelocity", ADDRESS, ADDRESS);
-		JPH_BODY_SET_ANGULAR_VELOCITY_CLAMPED = downcallHandleVoid("JPH_Body_SetAngularVelocityClamped", ADDRESS, ADDRESS);
-		JPH_BODY_GET_POINT_VELOCITY_COM = downcallHandleVoid("JPH_Body_GetPointVelocityCOM", ADDRESS, ADDRESS, ADDRESS);
-		JPH_BODY_GET_POINT_VELOCITY = downcallHandleVoid("JPH_Body_GetPointVelocity", ADDRESS, ADDRESS, ADDRESS);
-		JPH_BODY_ADD_FORCE = downcallHandleVoid("JPH_Body_AddForce", ADDRESS, ADDRESS);
-		JPH_BODY_ADD_FORCE_AT_POSITION = downcallHandleVoid("JPH_Body_AddForceAtPosition", ADDRESS, ADDRESS, ADDRESS);
-		JPH_BODY_ADD_TORQUE = downcallHandleVoid("JPH_Body_AddTorque", ADDRESS, ADDRESS);
-		JPH_BODY_GET_ACCUMULATED_FORCE = downcallHandleVoid("JPH_Body_GetAccumulatedForce", ADDRESS, ADDRESS);
-		JPH_BODY_GET_ACCUMULATED_TORQUE = downcallHandleVoid("JPH_Body_GetAccumulatedTorque", ADDRESS, ADDRESS);
-		JPH_BODY_RESET_FORCE = downcallHandleVoid("JPH_Body_ResetForce", ADDRESS);
-		JPH_BODY_RESET_TORQUE = downcallHandleVoid("JPH_Body_ResetTorque", ADDRESS);
-		JPH_BODY_RESET_MOTION = downcallHandleVoid("JPH_Body_ResetMotion", ADDRESS);
-		JPH_BODY_GET_INVERSE_INERTIA = downcallHandleVoid("JPH_Body_GetInverseInertia", ADDRESS, ADDRESS);
-		JPH_BODY_ADD_IMPULSE = downcallHandleVoid("JPH_Body_AddImpulse", ADDRESS, ADDRESS);
-		JPH_BODY_ADD_IMPULSE_AT_POSITION = downcallHandleVoid("JPH_Body_AddImpulseAtPosition", ADDRESS, ADDRESS, ADDRESS);
-		JPH_BODY_ADD_ANGULAR_IMPULSE = downcallHandleVoid("JPH_Body_AddAngularImpulse", ADDRESS, ADDRESS);
-		JPH_BODY_MOVE_KINEMATIC = downcallHandleVoid("JPH_Body_MoveKinematic", ADDRESS, ADDRESS, ADDRESS, JAVA_FLOAT);
+		JPH_BODY_GET_ALLOW_SLEEPING = criticalDowncallHandle("JPH_Body_GetAllowSleeping", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_SET_ALLOW_SLEEPING = criticalDowncallHandleVoid("JPH_Body_SetAllowSleeping", false, ADDRESS, JAVA_BOOLEAN);
+		JPH_BODY_RESET_SLEEP_TIMER = criticalDowncallHandleVoid("JPH_Body_ResetSleepTimer", false, ADDRESS);
+		JPH_BODY_GET_FRICTION = criticalDowncallHandle("JPH_Body_GetFriction", false, JAVA_FLOAT, ADDRESS);
+		JPH_BODY_SET_FRICTION = criticalDowncallHandleVoid("JPH_Body_SetFriction", false, ADDRESS, JAVA_FLOAT);
+		JPH_BODY_GET_RESTITUTION = criticalDowncallHandle("JPH_Body_GetRestitution", false, JAVA_FLOAT, ADDRESS);
+		JPH_BODY_SET_RESTITUTION = criticalDowncallHandleVoid("JPH_Body_SetRestitution", false, ADDRESS, JAVA_FLOAT);
+		JPH_BODY_GET_LINEAR_VELOCITY = criticalDowncallHandleVoid("JPH_Body_GetLinearVelocity", true, ADDRESS, ADDRESS);
+		JPH_BODY_SET_LINEAR_VELOCITY = criticalDowncallHandleVoid("JPH_Body_SetLinearVelocity", false, ADDRESS, ADDRESS);
+		JPH_BODY_SET_LINEAR_VELOCITY_CLAMPED = criticalDowncallHandleVoid("JPH_Body_SetLinearVelocityClamped", false, ADDRESS, ADDRESS);
+		JPH_BODY_GET_ANGULAR_VELOCITY = criticalDowncallHandleVoid("JPH_Body_GetAngularVelocity", true, ADDRESS, ADDRESS);
+		JPH_BODY_SET_ANGULAR_VELOCITY = criticalDowncallHandleVoid("JPH_Body_SetAngularVelocity", false, ADDRESS, ADDRESS);
+		JPH_BODY_SET_ANGULAR_VELOCITY_CLAMPED = criticalDowncallHandleVoid("JPH_Body_SetAngularVelocityClamped", false, ADDRESS, ADDRESS);
+		JPH_BODY_GET_POINT_VELOCITY_COM = criticalDowncallHandleVoid("JPH_Body_GetPointVelocityCOM", false, ADDRESS, ADDRESS, ADDRESS);
+		JPH_BODY_GET_POINT_VELOCITY = criticalDowncallHandleVoid("JPH_Body_GetPointVelocity", false, ADDRESS, ADDRESS, ADDRESS);
+		JPH_BODY_ADD_FORCE = criticalDowncallHandleVoid("JPH_Body_AddForce", false, ADDRESS, ADDRESS);
+		JPH_BODY_ADD_FORCE_AT_POSITION = criticalDowncallHandleVoid("JPH_Body_AddForceAtPosition", false, ADDRESS, ADDRESS, ADDRESS);
+		JPH_BODY_ADD_TORQUE = criticalDowncallHandleVoid("JPH_Body_AddTorque", false, ADDRESS, ADDRESS);
+		JPH_BODY_GET_ACCUMULATED_FORCE = criticalDowncallHandleVoid("JPH_Body_GetAccumulatedForce", false, ADDRESS, ADDRESS);
+		JPH_BODY_GET_ACCUMULATED_TORQUE = criticalDowncallHandleVoid("JPH_Body_GetAccumulatedTorque", false, ADDRESS, ADDRESS);
+		JPH_BODY_RESET_FORCE = criticalDowncallHandleVoid("JPH_Body_ResetForce", false, ADDRESS);
+		JPH_BODY_RESET_TORQUE = criticalDowncallHandleVoid("JPH_Body_ResetTorque", false, ADDRESS);
+		JPH_BODY_RESET_MOTION = criticalDowncallHandleVoid("JPH_Body_ResetMotion", false, ADDRESS);
+		JPH_BODY_GET_INVERSE_INERTIA = criticalDowncallHandleVoid("JPH_Body_GetInverseInertia", false, ADDRESS, ADDRESS);
+		JPH_BODY_ADD_IMPULSE = criticalDowncallHandleVoid("JPH_Body_AddImpulse", false, ADDRESS, ADDRESS);
+		JPH_BODY_ADD_IMPULSE_AT_POSITION = criticalDowncallHandleVoid("JPH_Body_AddImpulseAtPosition", false, ADDRESS, ADDRESS, ADDRESS);
+		JPH_BODY_ADD_ANGULAR_IMPULSE = criticalDowncallHandleVoid("JPH_Body_AddAngularImpulse", false, ADDRESS, ADDRESS);
+		JPH_BODY_MOVE_KINEMATIC = criticalDowncallHandleVoid("JPH_Body_MoveKinematic", false, ADDRESS, ADDRESS, ADDRESS, JAVA_FLOAT);
 		JPH_BODY_APPLY_BUOYANCY_IMPULSE = downcallHandle("JPH_Body_ApplyBuoyancyImpulse", JAVA_BOOLEAN, ADDRESS, ADDRESS, ADDRESS, JAVA_FLOAT, JAVA_FLOAT, JAVA_FLOAT, ADDRESS, ADDRESS, JAVA_FLOAT);
-		JPH_BODY_IS_IN_BROAD_PHASE = downcallHandle("JPH_Body_IsInBroadPhase", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_IS_COLLISION_CACHE_INVALID = downcallHandle("JPH_Body_IsCollisionCacheInvalid", JAVA_BOOLEAN, ADDRESS);
-		JPH_BODY_GET_SHAPE = downcallHandle("JPH_Body_GetShape", ADDRESS, ADDRESS);
-		JPH_BODY_GET_POSITION = downcallHandleVoid("JPH_Body_GetPosition", ADDRESS, ADDRESS);
-		JPH_BODY_GET_ROTATION = downcallHandleVoid("JPH_Body_GetRotation", ADDRESS, ADDRESS);
-		JPH_BODY_GET_WORLD_TRANSFORM = downcallHandleVoid("JPH_Body_GetWorldTransform", ADDRESS, ADDRESS);
-		JPH_BODY_GET_CENTER_OF_MASS_POSITION = downcallHandleVoid("JPH_Body_GetCenterOfMassPosition", ADDRESS, ADDRESS);
-		JPH_BODY_GET_CENTER_OF_MASS_TRANSFORM = downcallHandleVoid("JPH_Body_GetCenterOfMassTransform", ADDRESS, ADDRESS);
-		JPH_BODY_GET_INVERSE_CENTER_OF_MASS_TRANSFORM = downcallHandleVoid("JPH_Body_GetInverseCenterOfMassTransform", ADDRESS, ADDRESS);
-		JPH_BODY_GET_WORLD_SPACE_BOUNDS = downcallHandleVoid("JPH_Body_GetWorldSpaceBounds", ADDRESS, ADDRESS);
+		JPH_BODY_IS_IN_BROAD_PHASE = criticalDowncallHandle("JPH_Body_IsInBroadPhase", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_IS_COLLISION_CACHE_INVALID = criticalDowncallHandle("JPH_Body_IsCollisionCacheInvalid", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_BODY_GET_SHAPE = criticalDowncallHandle("JPH_Body_GetShape", false, ADDRESS, ADDRESS);
+		JPH_BODY_GET_POSITION = criticalDowncallHandleVoid("JPH_Body_GetPosition", true, ADDRESS, ADDRESS);
+		JPH_BODY_GET_ROTATION = criticalDowncallHandleVoid("JPH_Body_GetRotation", true, ADDRESS, ADDRESS);
+		JPH_BODY_GET_WORLD_TRANSFORM = criticalDowncallHandleVoid("JPH_Body_GetWorldTransform", false, ADDRESS, ADDRESS);
+		JPH_BODY_GET_CENTER_OF_MASS_POSITION = criticalDowncallHandleVoid("JPH_Body_GetCenterOfMassPosition", false, ADDRESS, ADDRESS);
+		JPH_BODY_GET_CENTER_OF_MASS_TRANSFORM = criticalDowncallHandleVoid("JPH_Body_GetCenterOfMassTransform", false, ADDRESS, ADDRESS);
+		JPH_BODY_GET_INVERSE_CENTER_OF_MASS_TRANSFORM = criticalDowncallHandleVoid("JPH_Body_GetInverseCenterOfMassTransform", false, ADDRESS, ADDRESS);
+		JPH_BODY_GET_WORLD_SPACE_BOUNDS = criticalDowncallHandleVoid("JPH_Body_GetWorldSpaceBounds", false, ADDRESS, ADDRESS);
 		JPH_BODY_GET_WORLD_SPACE_SURFACE_NORMAL = downcallHandleVoid("JPH_Body_GetWorldSpaceSurfaceNormal", ADDRESS, JAVA_INT, ADDRESS, ADDRESS);
-		JPH_BODY_GET_MOTION_PROPERTIES = downcallHandle("JPH_Body_GetMotionProperties", ADDRESS, ADDRESS);
-		JPH_BODY_GET_MOTION_PROPERTIES_UNCHECKED = downcallHandle("JPH_Body_GetMotionPropertiesUnchecked", ADDRESS, ADDRESS);
-		JPH_BODY_SET_USER_DATA = downcallHandleVoid("JPH_Body_SetUserData", ADDRESS, JAVA_LONG);
-		JPH_BODY_GET_USER_DATA = downcallHandle("JPH_Body_GetUserData", JAVA_LONG, ADDRESS);
+		JPH_BODY_GET_MOTION_PROPERTIES = criticalDowncallHandle("JPH_Body_GetMotionProperties", false, ADDRESS, ADDRESS);
+		JPH_BODY_GET_MOTION_PROPERTIES_UNCHECKED = criticalDowncallHandle("JPH_Body_GetMotionPropertiesUnchecked", false, ADDRESS, ADDRESS);
+		JPH_BODY_SET_USER_DATA = criticalDowncallHandleVoid("JPH_Body_SetUserData", false, ADDRESS, JAVA_LONG);
+		JPH_BODY_GET_USER_DATA = criticalDowncallHandle("JPH_Body_GetUserData", false, JAVA_LONG, ADDRESS);
 		JPH_BODY_GET_FIXED_TO_WORLD_BODY = downcallHandle("JPH_Body_GetFixedToWorldBody", ADDRESS);
 		//@formatter:on
 	}
@@ -224,14 +216,7 @@ public final class Body {
 
 		Jolt.addBody(segment.address(), this);
 
-		quatTmp = new Quat(arena);
-
-		matTmp = new Mat4(arena);
-
-		vecTmp = new Vec3(arena);
-		vecTmp2 = new Vec3(arena);
-		vecTmp3 = new Vec3(arena);
-		vecTmp4 = new Vec3(arena);
+		scratch = ScratchBuffers.createShared(arena);
 	}
 
 	/**
@@ -772,10 +757,12 @@ public final class Body {
 	 * Get world space linear velocity of the center of mass (unit: m/s)
 	 */
 	public Vector3f getLinearVelocity(Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_GET_LINEAR_VELOCITY;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
-			return vecTmp.get(target);
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
+			return tmp.vec().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get linear velocity: " + className);
@@ -789,17 +776,40 @@ public final class Body {
 		return getLinearVelocity(new Vector3f());
 	}
 
+	/**
+	 * Writes the world space linear velocity of the center of mass as 3 floats to
+	 * the start of target. The target can be a heap segment, e.g.
+	 * {@code MemorySegment.ofArray(float[])}, as long as critical downcalls are
+	 * enabled.
+	 * 
+	 * @see volucris.engine.physics.jolt.utils.FFMUtils#isCriticalDowncalls()
+	 */
+	public void getLinearVelocity(MemorySegment target) {
+		if (target.byteSize() < 3 * Float.BYTES)
+			throw new IndexOutOfBoundsException("Target is too small: " + target.byteSize());
+
+		try {
+			MethodHandle method = JPH_BODY_GET_LINEAR_VELOCITY;
+			method.invokeExact(jphBody, target);
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot get linear velocity: " + className);
+		}
+	}
+
 	/**
 	 * Set world space linear velocity of the center of mass (unit: m/s). If you
 	 * want the body to wake up when it is sleeping, use
 	 * {@link BodyInterface#setLinearVelocity(int, Vector3f)} instead.
 	 */
 	public void setLinearVelocity(Vector3f linearVelocity) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(linearVelocity);
+			tmp.vec().set(linearVelocity);
 
 			MethodHandle method = JPH_BODY_SET_LINEAR_VELOCITY;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set linear velocity: " + className);
@@ -813,11 +823,13 @@ public final class Body {
 	 * {@link BodyInterface#setLinearVelocity(int, Vector3f)} instead.
 	 */
 	public void setLinearVelocityClamped(Vector3f linearVelocity) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(linearVelocity);
+			tmp.vec().set(linearVelocity);
 
 			MethodHandle method = JPH_BODY_SET_LINEAR_VELOCITY_CLAMPED;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set linear velocity clamped: " + className);
@@ -828,10 +840,12 @@ public final class Body {
 	 * Get world space angular velocity of the center of mass (unit: rad/s)
 	 */
 	public Vector3f getAngularVelocity(Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_GET_ANGULAR_VELOCITY;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
-			return vecTmp.get(target);
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
+			return tmp.vec().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get angular velocity: " + className);
@@ -845,6 +859,27 @@ public final class Body {
 		return getAngularVelocity(new Vector3f());
 	}
 
+	/**
+	 * Writes the world space angular velocity of the center of mass as 3 floats to
+	 * the start of target. The target can be a heap segment, e.g.
+	 * {@code MemorySegment.ofArray(float[])}, as long as critical downcalls are
+	 * enabled.
+	 * 
+	 * @see volucris.engine.physics.jolt.utils.FFMUtils#isCriticalDowncalls()
+	 */
+	public void getAngularVelocity(MemorySegment target) {
+		if (target.byteSize() < 3 * Float.BYTES)
+			throw new IndexOutOfBoundsException("Target is too small: " + target.byteSize());
+
+		try {
+			MethodHandle method = JPH_BODY_GET_ANGULAR_VELOCITY;
+			method.invokeExact(jphBody, target);
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot get angular velocity: " + className);
+		}
+	}
+
 	/**
 	 * Set world space angular velocity of the center of mass (unit: rad/s). If you
 	 * want the body to wake up when it is sleeping, use
@@ -852,11 +887,13 @@ public final class Body {
 	 * BodyInterface.setAngularVelocity} instead.
 	 */
 	public void setAngularVelocity(Vector3f angularVelocity) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(angularVelocity);
+			tmp.vec().set(angularVelocity);
 
 			MethodHandle method = JPH_BODY_SET_ANGULAR_VELOCITY;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set angular velocity: " + className);
@@ -871,11 +908,13 @@ public final class Body {
 	 * BodyInterface.setAngularVelocity} instead.
 	 */
 	public void setAngularVelocityClamped(Vector3f angularVelocity) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(angularVelocity);
+			tmp.vec().set(angularVelocity);
 
 			MethodHandle method = JPH_BODY_SET_ANGULAR_VELOCITY_CLAMPED;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set angular velocity clamped: " + className);
@@ -887,13 +926,15 @@ public final class Body {
 	 * body) of the body (unit: m/s)
 	 */
 	public Vector3f getPointVelocityCOM(Vector3f pointRelativeToCOM, Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(pointRelativeToCOM);
+			tmp.vec().set(pointRelativeToCOM);
 
 			MethodHandle method = JPH_BODY_GET_POINT_VELOCITY_COM;
-			method.invokeExact(jphBody, vecTmp.memorySegment(), vecTmp2.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment(), tmp.vec2().memorySegment());
 
-			return vecTmp2.get(target);
+			return tmp.vec2().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get point velocity COM: " + className);
@@ -913,13 +954,15 @@ public final class Body {
 	 * the body (unit: m/s)
 	 */
 	public Vector3f getPointVelocity(Vector3f point, Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(point);
+			tmp.vec().set(point);
 
 			MethodHandle method = JPH_BODY_GET_POINT_VELOCITY;
-			method.invokeExact(jphBody, vecTmp.memorySegment(), vecTmp2.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment(), tmp.vec2().memorySegment());
 
-			return vecTmp2.get(target);
+			return tmp.vec2().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get point velocity: " + className);
@@ -942,11 +985,13 @@ public final class Body {
 	 * instead.
 	 */
 	public void addForce(Vector3f force) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(force);
+			tmp.vec().set(force);
 
 			MethodHandle method = JPH_BODY_ADD_FORCE;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add force: " + className);
@@ -961,12 +1006,14 @@ public final class Body {
 	 * instead.
 	 */
 	public void addForceAtPosition(Vector3f force, Vector3f position) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(force);
-			vecTmp2.set(position);
+			tmp.vec().set(force);
+			tmp.vec2().set(position);
 
 			MethodHandle method = JPH_BODY_ADD_FORCE_AT_POSITION;
-			method.invokeExact(jphBody, vecTmp.memorySegment(), vecTmp2.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment(), tmp.vec2().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add force at position: " + className);
@@ -981,11 +1028,13 @@ public final class Body {
 	 * instead.
 	 */
 	public void addTorque(Vector3f torque) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(torque);
+			tmp.vec().set(torque);
 
 			MethodHandle method = JPH_BODY_ADD_TORQUE;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add torque: " + className);
@@ -993,11 +1042,13 @@ public final class Body {
 	}
 
 	public Vector3f getAccumulatedForce(Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_GET_ACCUMULATED_FORCE;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
 
-			return vecTmp.get(target);
+			return tmp.vec().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get accumulated force: " + className);
@@ -1005,11 +1056,13 @@ public final class Body {
 	}
 
 	public Vector3f getAccumulatedTorque(Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_GET_ACCUMULATED_TORQUE;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
 
-			return vecTmp.get(target);
+			return tmp.vec().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get accumulated torque: " + className);
@@ -1050,11 +1103,13 @@ public final class Body {
 	 * Get inverse inertia tensor in world space.
 	 */
 	public Matrix4f getInverseInertia(Matrix4f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_GET_INVERSE_INERTIA;
-			method.invokeExact(jphBody, matTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.mat().memorySegment());
 
-			return matTmp.get(target);
+			return tmp.mat().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get inverse inertia: " + className);
@@ -1074,11 +1129,13 @@ public final class Body {
 	 * BodyInterface.addImpulse} instead.
 	 */
 	public void addImpulse(Vector3f impulse) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(impulse);
+			tmp.vec().set(impulse);
 
 			MethodHandle method = JPH_BODY_ADD_IMPULSE;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add impulse: " + className);
@@ -1092,12 +1149,14 @@ public final class Body {
 	 * BodyInterface.addImpulse}
 	 */
 	public void addImpulseAtPosition(Vector3f impulse, Vector3f position) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(impulse);
-			vecTmp2.set(position);
+			tmp.vec().set(impulse);
+			tmp.vec2().set(position);
 
 			MethodHandle method = JPH_BODY_ADD_IMPULSE_AT_POSITION;
-			method.invokeExact(jphBody, vecTmp.memorySegment(), vecTmp2.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment(), tmp.vec2().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add impulse add position: " + className);
@@ -1111,11 +1170,13 @@ public final class Body {
 	 * BodyInterface.addAngularImpulse} instead.
 	 */
 	public void addAngularImpulse(Vector3f angularImpulse) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(angularImpulse);
+			tmp.vec().set(angularImpulse);
 
 			MethodHandle method = JPH_BODY_ADD_ANGULAR_IMPULSE;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add angular impulse: " + className);
@@ -1130,12 +1191,14 @@ public final class Body {
 	 * BodyInterface.moveKinematic} instead.
 	 */
 	public void moveKinematic(Vector3f targetPosition, Quaternionf targetRotation, float deltaTime) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(targetPosition);
-			quatTmp.set(targetRotation);
+			tmp.vec().set(targetPosition);
+			tmp.quat().set(targetRotation);
 
 			MethodHandle method = JPH_BODY_MOVE_KINEMATIC;
-			method.invokeExact(jphBody, vecTmp.memorySegment(), quatTmp.memorySegment(), deltaTime);
+			method.invokeExact(jphBody, tmp.vec().memorySegment(), tmp.quat().memorySegment(), deltaTime);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot move kinematic: " + className);
@@ -1168,15 +1231,17 @@ public final class Body {
 	 */
 	public boolean applyBuoyancyImpulse(Vector3f surfacePosition, Vector3f surfaceNormal, float buoyancy,
 			float linearDrag, float angularDrag, Vector3f fluidVelocity, Vector3f gravity, float deltaTime) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(surfacePosition);
-			vecTmp2.set(surfaceNormal);
-			vecTmp3.set(fluidVelocity);
-			vecTmp4.set(gravity);
+			tmp.vec().set(surfacePosition);
+			tmp.vec2().set(surfaceNormal);
+			tmp.vec3().set(fluidVelocity);
+			tmp.vec4().set(gravity);
 
 			MethodHandle method = JPH_BODY_APPLY_BUOYANCY_IMPULSE;
-			return (boolean) method.invokeExact(jphBody, vecTmp.memorySegment(), vecTmp2.memorySegment(), buoyancy,
-					linearDrag, angularDrag, vecTmp3.memorySegment(), vecTmp4.memorySegment(), deltaTime);
+			return (boolean) method.invokeExact(jphBody, tmp.vec().memorySegment(), tmp.vec2().memorySegment(), buoyancy,
+					linearDrag, angularDrag, tmp.vec3().memorySegment(), tmp.vec4().memorySegment(), deltaTime);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot apply buoyancy impulse: " + className);
@@ -1236,11 +1301,13 @@ public final class Body {
 	 * World space position of the body.
 	 */
 	public Vector3f getPosition(Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_GET_POSITION;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
 
-			return vecTmp.get(target);
+			return tmp.vec().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get position: " + className);
@@ -1254,15 +1321,38 @@ public final class Body {
 		return getPosition(new Vector3f());
 	}
 
+	/**
+	 * Writes the world space position (x, y, z) as 3 floats to the start of
+	 * target. The target can be a heap segment, e.g.
+	 * {@code MemorySegment.ofArray(float[])}, as long as critical downcalls are
+	 * enabled.
+	 * 
+	 * @see volucris.engine.physics.jolt.utils.FFMUtils#isCriticalDowncalls()
+	 */
+	public void getPosition(MemorySegment target) {
+		if (target.byteSize() < 3 * Float.BYTES)
+			throw new IndexOutOfBoundsException("Target is too small: " + target.byteSize());
+
+		try {
+			MethodHandle method = JPH_BODY_GET_POSITION;
+			method.invokeExact(jphBody, target);
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot get position: " + className);
+		}
+	}
+
 	/**
 	 * World space rotation of the body.
 	 */
 	public Quaternionf getRotation(Quaternionf target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_GET_ROTATION;
-			method.invokeExact(jphBody, quatTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.quat().memorySegment());
 
-			return quatTmp.get(target);
+			return tmp.quat().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get rotation: " + className);
@@ -1276,15 +1366,38 @@ public final class Body {
 		return getRotation(new Quaternionf());
 	}
 
+	/**
+	 * Writes the world space rotation (x, y, z, w) as 4 floats to the start of
+	 * target. The target can be a heap segment, e.g.
+	 * {@code MemorySegment.ofArray(float[])}, as long as critical downcalls are
+	 * enabled.
+	 * 
+	 * @see volucris.engine.physics.jolt.utils.FFMUtils#isCriticalDowncalls()
+	 */
+	public void getRotation(MemorySegment target) {
+		if (target.byteSize() < 4 * Float.BYTES)
+			throw new IndexOutOfBoundsException("Target is too small: " + target.byteSize());
+
+		try {
+			MethodHandle method = JPH_BODY_GET_ROTATION;
+			method.invokeExact(jphBody, target);
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot get rotation: " + className);
+		}
+	}
+
 	/**
 	 * Calculates the transform of this body.
 	 */
 	public Matrix4f getWorldTransform(Matrix4f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_GET_WORLD_TRANSFORM;
-			method.invokeExact(jphBody, matTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.mat().memorySegment());
 
-			return matTmp.get(target);
+			return tmp.mat().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get world transform: " + className);
@@ -1302,11 +1415,13 @@ public final class Body {
 	 * Gets the world space position of this body's center of mass.
 	 */
 	public Vector3f getCenterOfMassPosition(Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_GET_CENTER_OF_MASS_POSITION;
-			method.invokeExact(jphBody, vecTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.vec().memorySegment());
 
-			return vecTmp.get(target);
+			return tmp.vec().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get center of mass position: " + className);
@@ -1324,11 +1439,13 @@ public final class Body {
 	 * Calculates the transform for this body's center of mass.
 	 */
 	public Matrix4f getCenterOfMassTransform(Matrix4f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_GET_CENTER_OF_MASS_TRANSFORM;
-			method.invokeExact(jphBody, matTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.mat().memorySegment());
 
-			return matTmp.get(target);
+			return tmp.mat().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get center of mass transform: " + className);
@@ -1346,11 +1463,13 @@ public final class Body {
 	 * Calculates the inverse of the transform for this body's center of mass.
 	 */
 	public Matrix4f getInverseCenterOfMassTransform(Matrix4f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_GET_INVERSE_CENTER_OF_MASS_TRANSFORM;
-			method.invokeExact(jphBody, matTmp.memorySegment());
+			method.invokeExact(jphBody, tmp.mat().memorySegment());
 
-			return matTmp.get(target);
+			return tmp.mat().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get inverse center of mass transform: " + className);
@@ -1391,13 +1510,15 @@ public final class Body {
 	 * position on this body.
 	 */
 	public Vector3f getWorldSpaceSurfaceNormal(float subShapeId, Vector3f position, Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(position);
+			tmp.vec().set(position);
 
 			MethodHandle method = JPH_BODY_GET_WORLD_SPACE_SURFACE_NORMAL;
-			method.invokeExact(jphBody, subShapeId, vecTmp.memorySegment(), vecTmp2.memorySegment());
+			method.invokeExact(jphBody, subShapeId, tmp.vec().memorySegment(), tmp.vec2().memorySegment());
 
-			return vecTmp2.get(target);
+			return tmp.vec2().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get world space surface normal: " + className);
@@ -1,9 +1,10 @@
 package volucris.engine.physics.jolt.body;
 
 import java.lang.foreign.Arena;
-import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.MemorySegment;
 import java.lang.invoke.MethodHandle;
+import java.nio.FloatBuffer;
+import java.util.function.Supplier;
 
 import org.joml.Matrix4f;
 import org.joml.Quaternionf;
@@ -19,11 +20,12 @@ import volucris.engine.physics.jolt.filter.BroadPhaseLayerFilter;
 import volucris.engine.physics.jolt.filter.CollisionGroup;
 import volucris.engine.physics.jolt.filter.ObjectLayerFilter;
 import volucris.engine.physics.jolt.math.AABox;
-import volucris.engine.physics.jolt.math.Mat4;
 import volucris.engine.physics.jolt.math.Quat;
 import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.BodyEvent;
 import volucris.engine.physics.jolt.shape.Shape;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
+import volucris.engine.physics.jolt.utils.ScratchBuffers;
 
 import static java.lang.foreign.ValueLayout.*;
 import static volucris.engine.physics.jolt.utils.FFMUtils.*;
@@ -119,14 +121,7 @@ public final class BodyInterface {
 
 	private final MemorySegment jphBodyInterface;
 
-	private Quat quatTmp;
-
-	private Mat4 matTmp;
-
-	private Vec3 vecTmp;
-	private Vec3 vecTmp2;
-	private Vec3 vecTmp3;
-	private Vec3 vecTmp4;
+	private final Supplier<ScratchBuffers> scratch;
 
 	static {
 		//@formatter:off
@@ -220,14 +215,7 @@ public final class BodyInterface {
 	public BodyInterface(MemorySegment segment, Arena arena) {
 		jphBodyInterface = segment;
 
-		quatTmp = new Quat(arena);
-
-		matTmp = new Mat4(arena);
-
-		vecTmp = new Vec3(arena);
-		vecTmp2 = new Vec3(arena);
-		vecTmp3 = new Vec3(arena);
-		vecTmp4 = new Vec3(arena);
+		scratch = ScratchBuffers.create(arena);
 	}
 
 	/**
@@ -246,8 +234,13 @@ public final class BodyInterface {
 	 */
 	public void destroyBody(int bodyId) {
 		try {
+			BodyEvent event = new BodyEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BODY_INTERFACE_DESTROY_BODY;
 			method.invokeExact(jphBodyInterface, bodyId);
+
+			BodyEvent.commit(event, "destroy", 1);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot destroy body: " + className);
@@ -261,8 +254,14 @@ public final class BodyInterface {
 	 */
 	public int createAndAddBody(BodyCreationSettings settings, Activation activation) {
 		try {
+			BodyEvent event = new BodyEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BODY_INTERFACE_CREATE_AND_ADD_BODY;
-			return (int) method.invokeExact(jphBodyInterface, settings.memorySegment(), activation.id());
+			int id = (int) method.invokeExact(jphBodyInterface, settings.memorySegment(), activation.id());
+
+			BodyEvent.commit(event, "createAndAdd", 1);
+			return id;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot create and add body: " + className);
@@ -276,9 +275,14 @@ public final class BodyInterface {
 	 */
 	public Body createBody(BodyCreationSettings settings) {
 		try {
+			BodyEvent event = new BodyEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BODY_INTERFACE_CREATE_BODY;
 			MemorySegment segment = (MemorySegment) method.invokeExact(jphBodyInterface, settings.memorySegment());
 
+			BodyEvent.commit(event, "create", 1);
+
 			if (segment.equals(MemorySegment.NULL))
 				return null;
 
@@ -300,9 +304,14 @@ public final class BodyInterface {
 	 */
 	public Body createBodyWithID(int id, BodyCreationSettings settings) {
 		try {
+			BodyEvent event = new BodyEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BODY_INTERFACE_CREATE_BODY_WITH_ID;
 			MemorySegment segment = (MemorySegment) method.invokeExact(jphBodyInterface, id, settings.memorySegment());
 
+			BodyEvent.commit(event, "createWithID", 1);
+
 			if (segment.equals(MemorySegment.NULL))
 				return null;
 
@@ -326,9 +335,14 @@ public final class BodyInterface {
 	 */
 	public Body createBodyWithoutID(BodyCreationSettings settings) {
 		try {
+			BodyEvent event = new BodyEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BODY_INTERFACE_CREATE_BODY_WITHOUT_ID;
 			MemorySegment segment = (MemorySegment) method.invokeExact(jphBodyInterface, settings.memorySegment());
 
+			BodyEvent.commit(event, "createWithoutID", 1);
+
 			if (segment.equals(MemorySegment.NULL))
 				return null;
 
@@ -347,9 +361,14 @@ public final class BodyInterface {
 	 */
 	public void destroyBodyWithoutID(Body body) {
 		try {
+			BodyEvent event = new BodyEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BODY_INTERFACE_DESTROY_BODY_WITHOUT_ID;
 			method.invokeExact(jphBodyInterface, body.memorySegment());
 
+			BodyEvent.commit(event, "destroyWithoutID", 1);
+
 			Jolt.removeBody(body.memorySegment().address());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
@@ -494,8 +513,13 @@ public final class BodyInterface {
 	 */
 	public void addBody(int bodyId, Activation activation) {
 		try {
+			BodyEvent event = new BodyEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BODY_INTERFACE_ADD_BODY;
 			method.invokeExact(jphBodyInterface, bodyId, activation.id());
+
+			BodyEvent.commit(event, "add", 1);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add body: " + className);
@@ -508,8 +532,13 @@ public final class BodyInterface {
 	 */
 	public void removeBody(int bodyId) {
 		try {
+			BodyEvent event = new BodyEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BODY_INTERFACE_REMOVE_BODY;
 			method.invokeExact(jphBodyInterface, bodyId);
+
+			BodyEvent.commit(event, "remove", 1);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot remove body: " + className);
@@ -518,8 +547,13 @@ public final class BodyInterface {
 
 	public void removeAndDestroyBody(int bodyId) {
 		try {
+			BodyEvent event = new BodyEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BODY_INTERFACE_REMOVE_AND_DESTROY_BODY;
 			method.invokeExact(jphBodyInterface, bodyId);
+
+			BodyEvent.commit(event, "removeAndDestroy", 1);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot remove and destroy body: " + className);
@@ -566,11 +600,13 @@ public final class BodyInterface {
 	}
 
 	public void setLinearVelocity(int bodyId, Vector3f linearVelocity) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(linearVelocity);
+			tmp.vec().set(linearVelocity);
 
 			MethodHandle method = JPH_BODY_INTERFACE_SET_LINEAR_VELOCITY;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set linear velocity: " + className);
@@ -578,10 +614,12 @@ public final class BodyInterface {
 	}
 
 	public Vector3f getLinearVelocity(int bodyId, Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_INTERFACE_GET_LINEAR_VELOCITY;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment());
-			return vecTmp.get(target);
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment());
+			return tmp.vec().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get linear velocity: " + className);
@@ -593,11 +631,13 @@ public final class BodyInterface {
 	}
 
 	public Vector3f getCenterOfMassPosition(int bodyId, Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_INTERFACE_GET_CENTER_OF_MASS_POSITION;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment());
 
-			return vecTmp.get(target);
+			return tmp.vec().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get center of mass position: " + className);
@@ -676,11 +716,13 @@ public final class BodyInterface {
 	}
 
 	public void setPosition(int bodyId, Vector3f position, Activation activation) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(position);
+			tmp.vec().set(position);
 
 			MethodHandle method = JPH_BODY_INTERFACE_SET_POSITION;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(), activation.id());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(), activation.id());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set position: " + className);
@@ -688,11 +730,13 @@ public final class BodyInterface {
 	}
 
 	public Vector3f getPosition(int bodyId, Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_INTERFACE_GET_POSITION;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment());
 
-			return vecTmp.get(target);
+			return tmp.vec().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get position: " + className);
@@ -704,11 +748,13 @@ public final class BodyInterface {
 	}
 
 	public void setRotation(int bodyId, Quaternionf rotation, Activation activation) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			quatTmp.set(rotation);
+			tmp.quat().set(rotation);
 
 			MethodHandle method = JPH_BODY_INTERFACE_SET_ROTATION;
-			method.invokeExact(jphBodyInterface, bodyId, quatTmp.memorySegment(), activation.id());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.quat().memorySegment(), activation.id());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set rotation: " + className);
@@ -716,11 +762,13 @@ public final class BodyInterface {
 	}
 
 	public Quaternionf getRotation(int bodyId, Quaternionf target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_INTERFACE_GET_ROTATION;
-			method.invokeExact(jphBodyInterface, bodyId, quatTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.quat().memorySegment());
 
-			return quatTmp.get(target);
+			return tmp.quat().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get rotation: " + className);
@@ -732,14 +780,16 @@ public final class BodyInterface {
 	}
 
 	public void setPositionAndRotation(int bodyId, Vector3f position, Quaternionf rotation, Activation activation) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(position);
-			quatTmp.set(rotation);
+			tmp.vec().set(position);
+			tmp.quat().set(rotation);
 
 			int id = activation.id();
 
 			MethodHandle method = JPH_BODY_INTERFACE_SET_POSITION_AND_ROTATION;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(), quatTmp.memorySegment(), id);
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(), tmp.quat().memorySegment(), id);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set position and rotation: " + className);
@@ -754,14 +804,16 @@ public final class BodyInterface {
 	 */
 	public void setPositionAndRotationWhenChanged(int bodyId, Vector3f position, Quaternionf rotation,
 			Activation activation) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(position);
-			quatTmp.set(rotation);
+			tmp.vec().set(position);
+			tmp.quat().set(rotation);
 
 			int id = activation.id();
 
 			MethodHandle method = JPH_BODY_INTERFACE_SET_POSITION_AND_ROTATION_WHEN_CHANGED;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(), quatTmp.memorySegment(), id);
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(), tmp.quat().memorySegment(), id);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set position and rotation when changed: " + className);
@@ -769,18 +821,234 @@ public final class BodyInterface {
 	}
 
 	public void getPositionAndRotation(int bodyId, Vector3f posTarget, Quaternionf rotTarget) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_INTERFACE_GET_POSITION_AND_ROTATION;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(), quatTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(), tmp.quat().memorySegment());
 
-			vecTmp.get(posTarget);
-			quatTmp.get(rotTarget);
+			tmp.vec().get(posTarget);
+			tmp.quat().get(rotTarget);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get position and rotation: " + className);
 		}
 	}
 
+	/**
+	 * Bulk version of {@link #getPositionAndRotation(int, Vector3f, Quaternionf)}.
+	 * <p>
+	 * Reads the first count bodies of bodyIds. The positions segment is filled with
+	 * tightly packed JPH_Vec3 (x, y, z) and the rotations segment with tightly
+	 * packed JPH_Quat (x, y, z, w), one element per body in the order of bodyIds.
+	 * Jolt writes straight into the given segments, so no Java objects are
+	 * created per body.
+	 */
+	public void getPositionsAndRotations(int[] bodyIds, int count, MemorySegment positions,
+			MemorySegment rotations) {
+		getBodyStates(bodyIds, count, positions, rotations, null, null);
+	}
+
+	/**
+	 * Bulk read of the motion state of count bodies into structure of arrays
+	 * segments, ready to be uploaded to e.g. a GPU instance buffer.
+	 * <p>
+	 * Positions, linear velocities and angular velocities are written as tightly
+	 * packed JPH_Vec3 (x, y, z), rotations as tightly packed JPH_Quat (x, y, z,
+	 * w), one element per body in the order of bodyIds. Any of the segments may be
+	 * null to skip that property.
+	 */
+	public void getBodyStates(int[] bodyIds, int count, MemorySegment positions, MemorySegment rotations,
+			MemorySegment linearVelocities, MemorySegment angularVelocities) {
+		try {
+			long vecSize = Vec3.LAYOUT().byteSize();
+			long quatSize = Quat.LAYOUT().byteSize();
+
+			for (int i = 0; i < count; i++) {
+				int bodyId = bodyIds[i];
+
+				if (positions != null && rotations != null) {
+					MemorySegment posAddr = positions.asSlice(i * vecSize, Vec3.LAYOUT());
+					MemorySegment rotAddr = rotations.asSlice(i * quatSize, Quat.LAYOUT());
+
+					MethodHandle method = JPH_BODY_INTERFACE_GET_POSITION_AND_ROTATION;
+					method.invokeExact(jphBodyInterface, bodyId, posAddr, rotAddr);
+				} else if (positions != null) {
+					MemorySegment posAddr = positions.asSlice(i * vecSize, Vec3.LAYOUT());
+
+					MethodHandle method = JPH_BODY_INTERFACE_GET_POSITION;
+					method.invokeExact(jphBodyInterface, bodyId, posAddr);
+				} else if (rotations != null) {
+					MemorySegment rotAddr = rotations.asSlice(i * quatSize, Quat.LAYOUT());
+
+					MethodHandle method = JPH_BODY_INTERFACE_GET_ROTATION;
+					method.invokeExact(jphBodyInterface, bodyId, rotAddr);
+				}
+
+				if (linearVelocities != null && angularVelocities != null) {
+					MemorySegment linVAddr = linearVelocities.asSlice(i * vecSize, Vec3.LAYOUT());
+					MemorySegment angVAddr = angularVelocities.asSlice(i * vecSize, Vec3.LAYOUT());
+
+					MethodHandle method = JPH_BODY_INTERFACE_GET_LINEAR_AND_ANGULAR_VELOCITY;
+					method.invokeExact(jphBodyInterface, bodyId, linVAddr, angVAddr);
+				} else if (linearVelocities != null) {
+					MemorySegment linVAddr = linearVelocities.asSlice(i * vecSize, Vec3.LAYOUT());
+
+					MethodHandle method = JPH_BODY_INTERFACE_GET_LINEAR_VELOCITY;
+					method.invokeExact(jphBodyInterface, bodyId, linVAddr);
+				} else if (angularVelocities != null) {
+					MemorySegment angVAddr = angularVelocities.asSlice(i * vecSize, Vec3.LAYOUT());
+
+					MethodHandle method = JPH_BODY_INTERFACE_GET_ANGULAR_VELOCITY;
+					method.invokeExact(jphBodyInterface, bodyId, angVAddr);
+				}
+			}
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot get body states: " + className);
+		}
+	}
+
+	/**
+	 * Buffer version of
+	 * {@link #getBodyStates(int[], int, MemorySegment, MemorySegment, MemorySegment, MemorySegment)}.
+	 * The buffers must be direct buffers in native byte order. Data is written
+	 * starting at the current position of each buffer, the buffer positions are
+	 * not modified.
+	 * 
+	 * @throws IllegalArgumentException if a buffer is not in native byte order
+	 */
+	public void getBodyStates(int[] bodyIds, int count, FloatBuffer positions, FloatBuffer rotations,
+			FloatBuffer linearVelocities, FloatBuffer angularVelocities) {
+		MemorySegment posAddr = positions == null ? null : ofBuffer(positions);
+		MemorySegment rotAddr = rotations == null ? null : ofBuffer(rotations);
+		MemorySegment linVAddr = linearVelocities == null ? null : ofBuffer(linearVelocities);
+		MemorySegment angVAddr = angularVelocities == null ? null : ofBuffer(angularVelocities);
+
+		getBodyStates(bodyIds, count, posAddr, rotAddr, linVAddr, angVAddr);
+	}
+
+	/**
+	 * Bulk write of the motion state of count bodies from structure of arrays
+	 * segments, the counterpart of
+	 * {@link #getBodyStates(int[], int, MemorySegment, MemorySegment, MemorySegment, MemorySegment)}
+	 * with the same layout. Any of the segments may be null to leave that property
+	 * untouched. The activation mode applies to the whole batch.
+	 * <p>
+	 * The segments are passed to jolt directly, nothing is staged through
+	 * temporaries.
+	 */
+	public void setBodyStates(int[] bodyIds, int count, MemorySegment positions, MemorySegment rotations,
+			MemorySegment linearVelocities, MemorySegment angularVelocities, Activation activation) {
+		try {
+			long vecSize = Vec3.LAYOUT().byteSize();
+			long quatSize = Quat.LAYOUT().byteSize();
+
+			int id = activation.id();
+
+			boolean setTransform = positions != null && rotations != null;
+			boolean setVelocity = linearVelocities != null && angularVelocities != null;
+
+			for (int i = 0; i < count; i++) {
+				int bodyId = bodyIds[i];
+
+				MemorySegment posAddr = positions == null ? null : positions.asSlice(i * vecSize, Vec3.LAYOUT());
+				MemorySegment rotAddr = rotations == null ? null : rotations.asSlice(i * quatSize, Quat.LAYOUT());
+
+				MemorySegment linVAddr = null;
+				if (linearVelocities != null)
+					linVAddr = linearVelocities.asSlice(i * vecSize, Vec3.LAYOUT());
+
+				MemorySegment angVAddr = null;
+				if (angularVelocities != null)
+					angVAddr = angularVelocities.asSlice(i * vecSize, Vec3.LAYOUT());
+
+				if (setTransform && setVelocity) {
+					MethodHandle method = JPH_BODY_INTERFACE_SET_POSITION_ROTATION_AND_VELOCITY;
+					method.invokeExact(jphBodyInterface, bodyId, posAddr, rotAddr, linVAddr, angVAddr);
+
+					// Jolt only activates the body here if the velocity is not zero.
+					if (activation == Activation.ACTIVATE) {
+						MethodHandle activate = JPH_BODY_INTERFACE_ACTIVATE_BODY;
+						activate.invokeExact(jphBodyInterface, bodyId);
+					}
+					continue;
+				}
+
+				if (setTransform) {
+					MethodHandle method = JPH_BODY_INTERFACE_SET_POSITION_AND_ROTATION;
+					method.invokeExact(jphBodyInterface, bodyId, posAddr, rotAddr, id);
+				} else if (posAddr != null) {
+					MethodHandle method = JPH_BODY_INTERFACE_SET_POSITION;
+					method.invokeExact(jphBodyInterface, bodyId, posAddr, id);
+				} else if (rotAddr != null) {
+					MethodHandle method = JPH_BODY_INTERFACE_SET_ROTATION;
+					method.invokeExact(jphBodyInterface, bodyId, rotAddr, id);
+				}
+
+				if (setVelocity) {
+					MethodHandle method = JPH_BODY_INTERFACE_SET_LINEAR_AND_ANGULAR_VELOCITY;
+					method.invokeExact(jphBodyInterface, bodyId, linVAddr, angVAddr);
+				} else if (linVAddr != null) {
+					MethodHandle method = JPH_BODY_INTERFACE_SET_LINEAR_VELOCITY;
+					method.invokeExact(jphBodyInterface, bodyId, linVAddr);
+				} else if (angVAddr != null) {
+					MethodHandle method = JPH_BODY_INTERFACE_SET_ANGULAR_VELOCITY;
+					method.invokeExact(jphBodyInterface, bodyId, angVAddr);
+				}
+			}
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot set body states: " + className);
+		}
+	}
+
+	/**
+	 * Buffer version of
+	 * {@link #setBodyStates(int[], int, MemorySegment, MemorySegment, MemorySegment, MemorySegment, Activation)}.
+	 * The buffers must be direct buffers in native byte order. Data is read
+	 * starting at the current position of each buffer, the buffer positions are
+	 * not modified.
+	 * 
+	 * @throws IllegalArgumentException if a buffer is not in native byte order
+	 */
+	public void setBodyStates(int[] bodyIds, int count, FloatBuffer positions, FloatBuffer rotations,
+			FloatBuffer linearVelocities, FloatBuffer angularVelocities, Activation activation) {
+		MemorySegment posAddr = positions == null ? null : ofBuffer(positions);
+		MemorySegment rotAddr = rotations == null ? null : ofBuffer(rotations);
+		MemorySegment linVAddr = linearVelocities == null ? null : ofBuffer(linearVelocities);
+		MemorySegment angVAddr = angularVelocities == null ? null : ofBuffer(angularVelocities);
+
+		setBodyStates(bodyIds, count, posAddr, rotAddr, linVAddr, angVAddr, activation);
+	}
+
+	/**
+	 * Bulk version of
+	 * {@link #setPositionAndRotationWhenChanged(int, Vector3f, Quaternionf, Activation)}.
+	 * The segments use the same layout as
+	 * {@link #getPositionsAndRotations(int[], int, MemorySegment, MemorySegment)}.
+	 */
+	public void setPositionsAndRotationsWhenChanged(int[] bodyIds, int count, MemorySegment positions,
+			MemorySegment rotations, Activation activation) {
+		try {
+			long vecSize = Vec3.LAYOUT().byteSize();
+			long quatSize = Quat.LAYOUT().byteSize();
+
+			int id = activation.id();
+
+			MethodHandle method = JPH_BODY_INTERFACE_SET_POSITION_AND_ROTATION_WHEN_CHANGED;
+			for (int i = 0; i < count; i++) {
+				MemorySegment posAddr = positions.asSlice(i * vecSize, Vec3.LAYOUT());
+				MemorySegment rotAddr = rotations.asSlice(i * quatSize, Quat.LAYOUT());
+
+				method.invokeExact(jphBodyInterface, bodyIds[i], posAddr, rotAddr, id);
+			}
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot set positions and rotations when changed: " + className);
+		}
+	}
+
 	/**
 	 * Set the complete motion state of a body. Note that the linear velocity is the
 	 * velocity of the center of mass, which may not coincide with the position of
@@ -789,21 +1057,27 @@ public final class BodyInterface {
 	 */
 	public void setPositionRotationAndVelocity(int bodyId, Vector3f position, Quaternionf rotation,
 			Vector3f linearVelocity, Vector3f angularVelocity, Activation activation) {
-		try {
-			vecTmp.set(position);
-			quatTmp.set(rotation);
-			vecTmp2.set(linearVelocity);
-			vecTmp3.set(angularVelocity);
+		ScratchBuffers tmp = scratch.get();
 
-			int id = activation.id();
+		try {
+			tmp.vec().set(position);
+			tmp.quat().set(rotation);
+			tmp.vec2().set(linearVelocity);
+			tmp.vec3().set(angularVelocity);
 
-			MemorySegment posAddr = vecTmp.memorySegment();
-			MemorySegment rotAddr = quatTmp.memorySegment();
-			MemorySegment linVAddr = vecTmp2.memorySegment();
-			MemorySegment angVAddr = vecTmp3.memorySegment();
+			MemorySegment posAddr = tmp.vec().memorySegment();
+			MemorySegment rotAddr = tmp.quat().memorySegment();
+			MemorySegment linVAddr = tmp.vec2().memorySegment();
+			MemorySegment angVAddr = tmp.vec3().memorySegment();
 
 			MethodHandle method = JPH_BODY_INTERFACE_SET_POSITION_ROTATION_AND_VELOCITY;
-			method.invokeExact(jphBodyInterface, bodyId, posAddr, rotAddr, linVAddr, angVAddr, id);
+			method.invokeExact(jphBodyInterface, bodyId, posAddr, rotAddr, linVAddr, angVAddr);
+
+			// Jolt only activates the body here if the velocity is not zero.
+			if (activation == Activation.ACTIVATE) {
+				MethodHandle activate = JPH_BODY_INTERFACE_ACTIVATE_BODY;
+				activate.invokeExact(jphBodyInterface, bodyId);
+			}
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set position rotation and velocity: " + className);
@@ -891,13 +1165,15 @@ public final class BodyInterface {
 	 */
 	public void notifyShapeChanged(int bodyId, Vector3f previousCenterOfMass, boolean updateMassProperties,
 			Activation activation) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(previousCenterOfMass);
+			tmp.vec().set(previousCenterOfMass);
 
 			int id = activation.id();
 
 			MethodHandle method = JPH_BODY_INTERFACE_NOTIFY_SHAPE_CHANGED;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(), updateMassProperties, id);
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(), updateMassProperties, id);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot notify shape changed: " + className);
@@ -923,14 +1199,38 @@ public final class BodyInterface {
 	 * activate them.
 	 */
 	public void activateBodies(int... bodyIds) {
-		try (Arena arena = Arena.ofConfined()) {
-			MemorySegment array = arena.allocate(MemoryLayout.sequenceLayout(bodyIds.length, JAVA_INT));
+		ScratchBuffers tmp = scratch.get();
 
-			for (int i = 0; i < bodyIds.length; i++)
-				array.setAtIndex(JAVA_INT, i, bodyIds[i]);
+		try {
+			MemorySegment array = tmp.ints(bodyIds.length);
+			MemorySegment.copy(bodyIds, 0, array, JAVA_INT, 0, bodyIds.length);
+
+			BodyEvent event = new BodyEvent();
+			event.begin();
 
 			MethodHandle method = JPH_BODY_INTERFACE_ACTIVATE_BODIES;
 			method.invokeExact(jphBodyInterface, array, bodyIds.length);
+
+			BodyEvent.commit(event, "activate", bodyIds.length);
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot activate bodies: " + className);
+		}
+	}
+
+	/**
+	 * Like {@link #activateBodies(int...)}, but reads count body IDs from a
+	 * native int array, so the IDs are not copied.
+	 */
+	public void activateBodies(MemorySegment bodyIds, int count) {
+		try {
+			BodyEvent event = new BodyEvent();
+			event.begin();
+
+			MethodHandle method = JPH_BODY_INTERFACE_ACTIVATE_BODIES;
+			method.invokeExact(jphBodyInterface, bodyIds, count);
+
+			BodyEvent.commit(event, "activate", count);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot activate bodies: " + className);
@@ -974,14 +1274,38 @@ public final class BodyInterface {
 	 * deactivate them.
 	 */
 	public void deactivateBodies(int... bodyIds) {
-		try (Arena arena = Arena.ofConfined()) {
-			MemorySegment array = arena.allocate(MemoryLayout.sequenceLayout(bodyIds.length, JAVA_INT));
+		ScratchBuffers tmp = scratch.get();
+
+		try {
+			MemorySegment array = tmp.ints(bodyIds.length);
+			MemorySegment.copy(bodyIds, 0, array, JAVA_INT, 0, bodyIds.length);
 
-			for (int i = 0; i < bodyIds.length; i++)
-				array.setAtIndex(JAVA_INT, i, bodyIds[i]);
+			BodyEvent event = new BodyEvent();
+			event.begin();
 
 			MethodHandle method = JPH_BODY_INTERFACE_DEACTIVATE_BODIES;
 			method.invokeExact(jphBodyInterface, array, bodyIds.length);
+
+			BodyEvent.commit(event, "deactivate", bodyIds.length);
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot deactivate bodies: " + className);
+		}
+	}
+
+	/**
+	 * Like {@link #deactivateBodies(int...)}, but reads count body IDs from a
+	 * native int array, so the IDs are not copied.
+	 */
+	public void deactivateBodies(MemorySegment bodyIds, int count) {
+		try {
+			BodyEvent event = new BodyEvent();
+			event.begin();
+
+			MethodHandle method = JPH_BODY_INTERFACE_DEACTIVATE_BODIES;
+			method.invokeExact(jphBodyInterface, bodyIds, count);
+
+			BodyEvent.commit(event, "deactivate", count);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot deactivate bodies: " + className);
@@ -1019,11 +1343,13 @@ public final class BodyInterface {
 	}
 
 	public Matrix4f getWorldTransform(int bodyId, Matrix4f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_INTERFACE_GET_WORLD_TRANSFORM;
-			method.invokeExact(jphBodyInterface, bodyId, matTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.mat().memorySegment());
 
-			return matTmp.get(target);
+			return tmp.mat().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get world transform: " + className);
@@ -1035,11 +1361,13 @@ public final class BodyInterface {
 	}
 
 	public Matrix4f getCenterOfMassTransform(int bodyId, Matrix4f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_INTERFACE_GET_CENTER_OF_MASS_TRANSFORM;
-			method.invokeExact(jphBodyInterface, bodyId, matTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.mat().memorySegment());
 
-			return matTmp.get(target);
+			return tmp.mat().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get center of mass transform: " + className);
@@ -1056,34 +1384,78 @@ public final class BodyInterface {
 	 * needed)
 	 */
 	public void moveKinematic(int bodyId, Vector3f targetPosition, Quaternionf targetRotation, float deltaTime) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(targetPosition);
-			quatTmp.set(targetRotation);
+			tmp.vec().set(targetPosition);
+			tmp.quat().set(targetRotation);
 
 			MethodHandle method = JPH_BODY_INTERFACE_MOVE_KINEMATIC;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(), quatTmp.memorySegment(), deltaTime);
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(), tmp.quat().memorySegment(), deltaTime);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot: " + className);
 		}
 	}
 
+	/**
+	 * Bulk version of
+	 * {@link #moveKinematic(int, Vector3f, Quaternionf, float)}. Moves the first
+	 * count bodies of bodyIds to the target positions (tightly packed JPH_Vec3) and
+	 * rotations (tightly packed JPH_Quat) in deltaTime seconds.
+	 */
+	public void moveKinematic(int[] bodyIds, int count, MemorySegment targetPositions,
+			MemorySegment targetRotations, float deltaTime) {
+		try {
+			long vecSize = Vec3.LAYOUT().byteSize();
+			long quatSize = Quat.LAYOUT().byteSize();
+
+			MethodHandle method = JPH_BODY_INTERFACE_MOVE_KINEMATIC;
+			for (int i = 0; i < count; i++) {
+				MemorySegment posAddr = targetPositions.asSlice(i * vecSize, Vec3.LAYOUT());
+				MemorySegment rotAddr = targetRotations.asSlice(i * quatSize, Quat.LAYOUT());
+
+				method.invokeExact(jphBodyInterface, bodyIds[i], posAddr, rotAddr, deltaTime);
+			}
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot move kinematic bodies: " + className);
+		}
+	}
+
+	/**
+	 * Buffer version of
+	 * {@link #moveKinematic(int[], int, MemorySegment, MemorySegment, float)}. The
+	 * buffers must be direct buffers in native byte order.
+	 * 
+	 * @throws IllegalArgumentException if a buffer is not in native byte order
+	 */
+	public void moveKinematic(int[] bodyIds, int count, FloatBuffer targetPositions, FloatBuffer targetRotations,
+			float deltaTime) {
+		MemorySegment posAddr = ofBuffer(targetPositions);
+		MemorySegment rotAddr = ofBuffer(targetRotations);
+
+		moveKinematic(bodyIds, count, posAddr, rotAddr, deltaTime);
+	}
+
 	/**
 	 * @see Body#applyBuoyancyImpulse(Vector3f, Vector3f, float, float, float,
 	 *      Vector3f, Vector3f, float)
 	 */
 	public boolean applyBuoyancyImpulse(int bodyId, Vector3f surfacePosition, Vector3f surfaceNormal, float buoyancy,
 			float linearDrag, float angularDrag, Vector3f fluidVelocity, Vector3f gravity, float deltaTime) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(surfacePosition);
-			vecTmp2.set(surfaceNormal);
-			vecTmp3.set(fluidVelocity);
-			vecTmp4.set(gravity);
+			tmp.vec().set(surfacePosition);
+			tmp.vec2().set(surfaceNormal);
+			tmp.vec3().set(fluidVelocity);
+			tmp.vec4().set(gravity);
 
 			MethodHandle method = JPH_BODY_INTERFACE_APPLY_BUOYANCY_IMPULSE;
-			return (boolean) method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(),
-					vecTmp2.memorySegment(), buoyancy, linearDrag, angularDrag, vecTmp3.memorySegment(),
-					vecTmp4.memorySegment(), deltaTime);
+			return (boolean) method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(),
+					tmp.vec2().memorySegment(), buoyancy, linearDrag, angularDrag, tmp.vec3().memorySegment(),
+					tmp.vec4().memorySegment(), deltaTime);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot apply buoyancy impulse: " + className);
@@ -1094,12 +1466,14 @@ public final class BodyInterface {
 	 * @see #getLinearAndAngularVelocity(int, Vector3f, Vector3f)
 	 */
 	public void setLinearAndAngularVelocity(int bodyId, Vector3f linearVelocity, Vector3f angularVelocity) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(linearVelocity);
-			vecTmp2.set(angularVelocity);
+			tmp.vec().set(linearVelocity);
+			tmp.vec2().set(angularVelocity);
 
 			MethodHandle method = JPH_BODY_INTERFACE_SET_LINEAR_AND_ANGULAR_VELOCITY;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(), vecTmp2.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(), tmp.vec2().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set linear and angular velocity: " + className);
@@ -1113,12 +1487,14 @@ public final class BodyInterface {
 	 * 𝑉𝑒𝑙𝑜𝑐𝑖𝑡𝑦𝐶𝑂𝑀=𝑉𝑒𝑙𝑜𝑐𝑖𝑡𝑦−𝐴𝑛𝑔𝑢𝑙𝑎𝑟𝑉𝑒𝑙𝑜𝑐𝑖𝑡𝑦×𝑆ℎ𝑎𝑝𝑒𝐶𝑂𝑀
 	 */
 	public void getLinearAndAngularVelocity(int bodyId, Vector3f linearVelocity, Vector3f angularVelocity) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_INTERFACE_GET_LINEAR_AND_ANGULAR_VELOCITY;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(), vecTmp2.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(), tmp.vec2().memorySegment());
 
-			vecTmp.get(linearVelocity);
-			vecTmp2.get(angularVelocity);
+			tmp.vec().get(linearVelocity);
+			tmp.vec2().get(angularVelocity);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get linear and angular velocity: " + className);
@@ -1129,11 +1505,13 @@ public final class BodyInterface {
 	 * Add velocity to current velocity.
 	 */
 	public void addLinearVelocity(int bodyId, Vector3f linearVelocity) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(linearVelocity);
+			tmp.vec().set(linearVelocity);
 
 			MethodHandle method = JPH_BODY_INTERFACE_ADD_LINEAR_VELOCITY;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add linear velocity: " + className);
@@ -1144,12 +1522,14 @@ public final class BodyInterface {
 	 * Add linear and angular to current velocities.
 	 */
 	public void addLinearAndAngularVelocity(int bodyId, Vector3f linearVelocity, Vector3f angularVelocity) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(linearVelocity);
-			vecTmp2.set(angularVelocity);
+			tmp.vec().set(linearVelocity);
+			tmp.vec2().set(angularVelocity);
 
 			MethodHandle method = JPH_BODY_INTERFACE_ADD_LINEAR_AND_ANGULAR_VELOCITY;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(), vecTmp2.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(), tmp.vec2().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add linear and angular velocity: " + className);
@@ -1157,11 +1537,13 @@ public final class BodyInterface {
 	}
 
 	public void setAngularVelocity(int bodyId, Vector3f angularVelocity) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(angularVelocity);
+			tmp.vec().set(angularVelocity);
 
 			MethodHandle method = JPH_BODY_INTERFACE_SET_ANGULAR_VELOCITY;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set angular velocity: " + className);
@@ -1169,10 +1551,12 @@ public final class BodyInterface {
 	}
 
 	public Vector3f getAngularVelocity(int bodyId, Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_INTERFACE_GET_ANGULAR_VELOCITY;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment());
-			return vecTmp.get(target);
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment());
+			return tmp.vec().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get angular velocity: " + className);
@@ -1184,13 +1568,15 @@ public final class BodyInterface {
 	 * of the body.
 	 */
 	public Vector3f getPointVelocity(int bodyId, Vector3f point, Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(point);
+			tmp.vec().set(point);
 
 			MethodHandle method = JPH_BODY_INTERFACE_GET_POINT_VELOCITY;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(), vecTmp2.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(), tmp.vec2().memorySegment());
 
-			return vecTmp2.get(target);
+			return tmp.vec2().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get point velocity: " + className);
@@ -1204,11 +1590,13 @@ public final class BodyInterface {
 	 * @see Body#addForce(Vector3f)
 	 */
 	public void addForce(int bodyId, Vector3f force) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(force);
+			tmp.vec().set(force);
 
 			MethodHandle method = JPH_BODY_INTERFACE_ADD_FORCE;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add force: " + className);
@@ -1222,12 +1610,14 @@ public final class BodyInterface {
 	 * @see Body#addForceAtPosition(Vector3f, Vector3f)
 	 */
 	public void addForce(int bodyId, Vector3f force, Vector3f point) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(force);
-			vecTmp2.set(point);
+			tmp.vec().set(force);
+			tmp.vec2().set(point);
 
 			MethodHandle method = JPH_BODY_INTERFACE_ADD_FORCE2;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(), vecTmp2.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(), tmp.vec2().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add force: " + className);
@@ -1241,11 +1631,13 @@ public final class BodyInterface {
 	 * @see Body#addTorque(Vector3f)
 	 */
 	public void addTorque(int bodyId, Vector3f torque) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(torque);
+			tmp.vec().set(torque);
 
 			MethodHandle method = JPH_BODY_INTERFACE_ADD_TORQUE;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add torque: " + className);
@@ -1260,12 +1652,14 @@ public final class BodyInterface {
 	 * {@link Body#addTorque(Vector3f)}
 	 */
 	public void addForceAndTorque(int bodyId, Vector3f force, Vector3f torque) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(force);
-			vecTmp2.set(torque);
+			tmp.vec().set(force);
+			tmp.vec2().set(torque);
 
 			MethodHandle method = JPH_BODY_INTERFACE_ADD_FORCE_AND_TORQUE;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(), vecTmp2.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(), tmp.vec2().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add force and torque: " + className);
@@ -1279,11 +1673,13 @@ public final class BodyInterface {
 	 * Applied at center of mass.
 	 */
 	public void addImpulse(int bodyId, Vector3f impulse) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(impulse);
+			tmp.vec().set(impulse);
 
 			MethodHandle method = JPH_BODY_INTERFACE_ADD_IMPULSE;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add impulse: " + className);
@@ -1297,12 +1693,14 @@ public final class BodyInterface {
 	 * Applied at point.
 	 */
 	public void addImpulse(int bodyId, Vector3f impulse, Vector3f point) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(impulse);
-			vecTmp2.set(point);
+			tmp.vec().set(impulse);
+			tmp.vec2().set(point);
 
 			MethodHandle method = JPH_BODY_INTERFACE_ADD_IMPULSE2;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment(), vecTmp2.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment(), tmp.vec2().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add impulse: " + className);
@@ -1310,11 +1708,13 @@ public final class BodyInterface {
 	}
 
 	public void addAngularImpulse(int bodyId, Vector3f impulse) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(impulse);
+			tmp.vec().set(impulse);
 
 			MethodHandle method = JPH_BODY_INTERFACE_ADD_ANGULAR_IMPULSE;
-			method.invokeExact(jphBodyInterface, bodyId, vecTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot add angular impulse: " + className);
@@ -1351,11 +1751,13 @@ public final class BodyInterface {
 	 * Get inverse inertia tensor in world space.
 	 */
 	public Matrix4f getInverseInertia(int bodyId, Matrix4f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 			MethodHandle method = JPH_BODY_INTERFACE_GET_INVERSE_INERTIA;
-			method.invokeExact(jphBodyInterface, bodyId, matTmp.memorySegment());
+			method.invokeExact(jphBodyInterface, bodyId, tmp.mat().memorySegment());
 
-			return matTmp.get(target);
+			return tmp.mat().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get inverse inertia: " + className);
@@ -0,0 +1,162 @@
+package volucris.engine.physics.jolt.character;
+
+import java.util.Arrays;
+
+import org.joml.Vector3f;
+
+/**
+ * The contacts a {@link CharacterVirtual} gained and lost during a single
+ * update, collected by a {@link CharacterContactListener} with batched contact
+ * changes enabled. Contacts with bodies and with other characters are stored
+ * together, {@link #isAddedCharacter(int)} and
+ * {@link #isRemovedCharacter(int)} tell them apart.
+ * <p>
+ * Do not store a reference to the object. It will be reused internally.
+ */
+public final class CharacterContactBatch {
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	private int addedCount;
+	private int[] addedIds;
+	private int[] addedSubShapeIds;
+	private boolean[] addedCharacters;
+	private float[] addedPositions;
+	private float[] addedNormals;
+
+	private int removedCount;
+	private int[] removedIds;
+	private int[] removedSubShapeIds;
+	private boolean[] removedCharacters;
+
+	CharacterContactBatch() {
+		addedIds = new int[INITIAL_CAPACITY];
+		addedSubShapeIds = new int[INITIAL_CAPACITY];
+		addedCharacters = new boolean[INITIAL_CAPACITY];
+		addedPositions = new float[INITIAL_CAPACITY * 3];
+		addedNormals = new float[INITIAL_CAPACITY * 3];
+
+		removedIds = new int[INITIAL_CAPACITY];
+		removedSubShapeIds = new int[INITIAL_CAPACITY];
+		removedCharacters = new boolean[INITIAL_CAPACITY];
+	}
+
+	void added(int id, int subShapeId, boolean character, float px, float py, float pz, float nx, float ny,
+			float nz) {
+
+		if (addedCount == addedIds.length) {
+			int capacity = addedCount * 2;
+			addedIds = Arrays.copyOf(addedIds, capacity);
+			addedSubShapeIds = Arrays.copyOf(addedSubShapeIds, capacity);
+			addedCharacters = Arrays.copyOf(addedCharacters, capacity);
+			addedPositions = Arrays.copyOf(addedPositions, capacity * 3);
+			addedNormals = Arrays.copyOf(addedNormals, capacity * 3);
+		}
+
+		int i = addedCount++;
+		addedIds[i] = id;
+		addedSubShapeIds[i] = subShapeId;
+		addedCharacters[i] = character;
+
+		addedPositions[i * 3] = px;
+		addedPositions[i * 3 + 1] = py;
+		addedPositions[i * 3 + 2] = pz;
+
+		addedNormals[i * 3] = nx;
+		addedNormals[i * 3 + 1] = ny;
+		addedNormals[i * 3 + 2] = nz;
+	}
+
+	void removed(int id, int subShapeId, boolean character) {
+		if (removedCount == removedIds.length) {
+			int capacity = removedCount * 2;
+			removedIds = Arrays.copyOf(removedIds, capacity);
+			removedSubShapeIds = Arrays.copyOf(removedSubShapeIds, capacity);
+			removedCharacters = Arrays.copyOf(removedCharacters, capacity);
+		}
+
+		int i = removedCount++;
+		removedIds[i] = id;
+		removedSubShapeIds[i] = subShapeId;
+		removedCharacters[i] = character;
+	}
+
+	void clear() {
+		addedCount = 0;
+		removedCount = 0;
+	}
+
+	public boolean isEmpty() {
+		return addedCount == 0 && removedCount == 0;
+	}
+
+	public int getAddedCount() {
+		return addedCount;
+	}
+
+	/**
+	 * The body ID, or the character ID if {@link #isAddedCharacter(int)}.
+	 */
+	public int getAddedId(int index) {
+		return addedIds[checkAdded(index)];
+	}
+
+	public int getAddedSubShapeId(int index) {
+		return addedSubShapeIds[checkAdded(index)];
+	}
+
+	public boolean isAddedCharacter(int index) {
+		return addedCharacters[checkAdded(index)];
+	}
+
+	/**
+	 * World space contact position.
+	 */
+	public Vector3f getAddedPosition(int index, Vector3f target) {
+		int i = checkAdded(index) * 3;
+		return target.set(addedPositions[i], addedPositions[i + 1], addedPositions[i + 2]);
+	}
+
+	/**
+	 * World space contact normal.
+	 */
+	public Vector3f getAddedNormal(int index, Vector3f target) {
+		int i = checkAdded(index) * 3;
+		return target.set(addedNormals[i], addedNormals[i + 1], addedNormals[i + 2]);
+	}
+
+	public int getRemovedCount() {
+		return removedCount;
+	}
+
+	/**
+	 * The body ID, or the character ID if {@link #isRemovedCharacter(int)}. The
+	 * body or character may not exist anymore.
+	 */
+	public int getRemovedId(int index) {
+		return removedIds[checkRemoved(index)];
+	}
+
+	public int getRemovedSubShapeId(int index) {
+		return removedSubShapeIds[checkRemoved(index)];
+	}
+
+	public boolean isRemovedCharacter(int index) {
+		return removedCharacters[checkRemoved(index)];
+	}
+
+	private int checkAdded(int index) {
+		if (index < 0 || index >= addedCount)
+			throw new IndexOutOfBoundsException(index);
+
+		return index;
+	}
+
+	private int checkRemoved(int index) {
+		if (index < 0 || index >= removedCount)
+			throw new IndexOutOfBoundsException(index);
+
+		return index;
+	}
+
+}
@@ -19,6 +19,8 @@ import volucris.engine.physics.jolt.Jolt;
 import volucris.engine.physics.jolt.PhysicsMaterial;
 import volucris.engine.physics.jolt.body.Body;
 import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.UpcallMetrics;
+import volucris.engine.physics.jolt.metrics.UpcallType;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
 import static java.lang.foreign.ValueLayout.*;
@@ -28,9 +30,38 @@ import static volucris.engine.physics.jolt.utils.FFMUtils.*;
  * This class receives callbacks when a virtual character hits something. Once
  * created, register it on a CharacterVirtual by using the character's
  * SetListener method.
+ * <p>
+ * Every callback is a transition from native code into Java, and the solve
+ * callbacks are called for every contact in every solver iteration. A listener
+ * that only needs some of the callbacks should pass the matching
+ * {@code EVENT_*} flags to the constructor and only override those callbacks.
+ * Jolt's procs are shared by all listeners, so a callback is only left out on
+ * the native side if no living listener handles it.
+ * <p>
+ * With batched contact changes, the added and removed callbacks are not
+ * forwarded one by one. Instead the contacts are collected and passed to
+ * {@link #onContactsChanged(CharacterVirtual, CharacterContactBatch)} once the
+ * update, extended update, refresh of contacts or
+ * {@link CharacterVirtual#finishTrackingContactChanges()} call of the
+ * character returns. Batched added contacts keep the default
+ * {@link CharacterContactSettings}.
  */
 public abstract class CharacterContactListener {
 
+	public static final int EVENT_ADJUST_BODY_VELOCITY = 1;
+	public static final int EVENT_CONTACT_VALIDATE = 1 << 1;
+	public static final int EVENT_CHARACTER_CONTACT_VALIDATE = 1 << 2;
+	public static final int EVENT_CONTACT_ADDED = 1 << 3;
+	public static final int EVENT_CONTACT_PERSISTED = 1 << 4;
+	public static final int EVENT_CONTACT_REMOVED = 1 << 5;
+	public static final int EVENT_CHARACTER_CONTACT_ADDED = 1 << 6;
+	public static final int EVENT_CHARACTER_CONTACT_PERSISTED = 1 << 7;
+	public static final int EVENT_CHARACTER_CONTACT_REMOVED = 1 << 8;
+	public static final int EVENT_CONTACT_SOLVE = 1 << 9;
+	public static final int EVENT_CHARACTER_CONTACT_SOLVE = 1 << 10;
+
+	public static final int EVENT_ALL = (1 << 11) - 1;
+
 	private static final ArrayList<WeakReference<CharacterContactListener>> CONTACT_LISTENERS;
 
 	private static final StructLayout LAYOUT;
@@ -70,6 +101,11 @@ public abstract class CharacterContactListener {
 	private final MemorySegment jphCharacterContactListener;
 	private final MemorySegment userData;
 
+	private final int events;
+	private final boolean batchContactChanges;
+
+	private final ThreadLocal<CharacterContactBatch> batch;
+
 	private CharacterContactSettings settings;
 
 	private Vector3f vectorTmp;
@@ -118,7 +154,6 @@ public abstract class CharacterContactListener {
 		JPH_CHARACTER_CONTACT_LISTENER_PROCS = arena.allocate(LAYOUT);
 
 		fillProcs(arena);
-		setProcs();
 
 		CONTACT_LISTENERS = new ArrayList<WeakReference<CharacterContactListener>>();
 	}
@@ -128,6 +163,26 @@ public abstract class CharacterContactListener {
 	}
 
 	public CharacterContactListener(Arena arena) {
+		this(arena, EVENT_ALL, false);
+	}
+
+	/**
+	 * @param events              the callbacks this listener handles, a combination
+	 *                            of the {@code EVENT_*} flags
+	 * @param batchContactChanges if handled added and removed contacts should be
+	 *                            passed to
+	 *                            {@link #onContactsChanged(CharacterVirtual, CharacterContactBatch)}
+	 *                            once per update
+	 */
+	public CharacterContactListener(Arena arena, int events, boolean batchContactChanges) {
+		if ((events & ~EVENT_ALL) != 0)
+			throw new IllegalArgumentException("Unknown character contact listener events: " + events);
+
+		this.events = events;
+		this.batchContactChanges = batchContactChanges;
+
+		batch = batchContactChanges ? ThreadLocal.withInitial(CharacterContactBatch::new) : null;
+
 		try {
 			int index = count++;
 
@@ -140,6 +195,8 @@ public abstract class CharacterContactListener {
 
 			CONTACT_LISTENERS.add(index, new WeakReference<CharacterContactListener>(this));
 
+			updateProcs();
+
 			vecTmp = new Vec3(arena);
 
 			vectorTmp = new Vector3f();
@@ -163,31 +220,44 @@ public abstract class CharacterContactListener {
 	 * read its properties freely.
 	 * <p>
 	 * Do not store a reference to the objects. They will be reused internally.
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_ADJUST_BODY_VELOCITY}.
 	 */
-	protected abstract void onAdjustBodyVelocity(CharacterVirtual character, Body body2, Vector3f linearVelocity,
-			Vector3f angularVelocity);
+	protected void onAdjustBodyVelocity(CharacterVirtual character, Body body2, Vector3f linearVelocity,
+			Vector3f angularVelocity) {
+	}
 
 	/**
 	 * Checks if a character can collide with specified body. Return true if the
 	 * contact is valid.
 	 * <p>
 	 * Do not store a reference to the objects. They will be reused internally.
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_CONTACT_VALIDATE}.
 	 */
-	protected abstract boolean onContactValidate(CharacterVirtual character, int bodyId2, int subShapeId2);
+	protected boolean onContactValidate(CharacterVirtual character, int bodyId2, int subShapeId2) {
+		return true;
+	}
 
 	/**
 	 * Same as {@link #onContactValidate(CharacterVirtual, int, int)
 	 * onContactValidate} but when colliding with a CharacterVirtual.
 	 * <p>
 	 * Do not store a reference to the objects. They will be reused internally.
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_CHARACTER_CONTACT_VALIDATE}.
 	 */
-	protected abstract boolean onCharacterContactValidate(CharacterVirtual character, CharacterVirtual otherCharacter,
-			int subShapeId);
+	protected boolean onCharacterContactValidate(CharacterVirtual character, CharacterVirtual otherCharacter,
+			int subShapeId) {
+		return true;
+	}
 
 	/**
 	 * Called whenever the character collides with a body for the first time.
 	 * <p>
 	 * Do not store a reference to the objects. They will be reused internally.
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_CONTACT_ADDED}.
 	 * 
 	 * @param character       Character that is being solved
 	 * @param bodyId2         ID of body that is being hit
@@ -197,13 +267,16 @@ public abstract class CharacterContactListener {
 	 * @param settings        Settings returned by the contact callback to indicate
 	 *                        how the character should behave
 	 */
-	protected abstract void onContactAdded(CharacterVirtual character, int bodyId2, int subShapeId,
-			Vector3f contactPosition, Vector3f contactNormal, CharacterContactSettings settings);
+	protected void onContactAdded(CharacterVirtual character, int bodyId2, int subShapeId,
+			Vector3f contactPosition, Vector3f contactNormal, CharacterContactSettings settings) {
+	}
 
 	/**
 	 * Called whenever the character persists colliding with a body.
 	 * <p>
 	 * Do not store a reference to the objects. They will be reused internally.
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_CONTACT_PERSISTED}.
 	 * 
 	 * @param character       Character that is being solved
 	 * @param bodyId2         ID of body that is being hit
@@ -213,8 +286,9 @@ public abstract class CharacterContactListener {
 	 * @param settings        Settings returned by the contact callback to indicate
 	 *                        how the character should behave
 	 */
-	protected abstract void onContactPersisted(CharacterVirtual character, int bodyId2, int subShapeId,
-			Vector3f contactPosition, Vector3f contactNormal, CharacterContactSettings settings);
+	protected void onContactPersisted(CharacterVirtual character, int bodyId2, int subShapeId,
+			Vector3f contactPosition, Vector3f contactNormal, CharacterContactSettings settings) {
+	}
 
 	/**
 	 * Called whenever the character loses contact with a body. Note that there is
@@ -222,28 +296,37 @@ public abstract class CharacterContactListener {
 	 * body may have been deleted since the last update.
 	 * <p>
 	 * Do not store a reference to the objects. They will be reused internally.
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_CONTACT_REMOVED}.
 	 * 
 	 * @param character  Character that is being solved
 	 * @param bodyId2    Id of the body that is being hit
 	 * @param subShapeId Sub shape ID of shape that is being hit
 	 */
-	protected abstract void onContactRemoved(CharacterVirtual character, int bodyId2, int subShapeId);
+	protected void onContactRemoved(CharacterVirtual character, int bodyId2, int subShapeId) {
+	}
 
 	/**
 	 * Same as
 	 * {@link #onContactAdded(CharacterVirtual, int, int, Vector3f, Vector3f, CharacterContactSettings)
 	 * OnContactAdded} but when colliding with a CharacterVirtual.
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_CHARACTER_CONTACT_ADDED}.
 	 */
-	protected abstract void onCharacterContactAdded(CharacterVirtual character, CharacterVirtual otherCharacter,
-			int subShapeId2, Vector3f contactPosition, Vector3f contactNormal, CharacterContactSettings settings);
+	protected void onCharacterContactAdded(CharacterVirtual character, CharacterVirtual otherCharacter,
+			int subShapeId2, Vector3f contactPosition, Vector3f contactNormal, CharacterContactSettings settings) {
+	}
 
 	/**
 	 * Same as
 	 * {@link #onContactPersisted(CharacterVirtual, int, int, Vector3f, Vector3f, CharacterContactSettings)
 	 * OnContactPersisted} but when colliding with a CharacterVirtual.
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_CHARACTER_CONTACT_PERSISTED}.
 	 */
-	protected abstract void onCharacterContactPersisted(CharacterVirtual character, CharacterVirtual otherCharacter,
-			int subShapeId2, Vector3f contactPosition, Vector3f contactNormal, CharacterContactSettings settings);
+	protected void onCharacterContactPersisted(CharacterVirtual character, CharacterVirtual otherCharacter,
+			int subShapeId2, Vector3f contactPosition, Vector3f contactNormal, CharacterContactSettings settings) {
+	}
 
 	/**
 	 * Same as {@link #onContactRemoved(CharacterVirtual, int, int)
@@ -251,8 +334,11 @@ public abstract class CharacterContactListener {
 	 * otherCharacterID can be the ID of a character that has been deleted. This
 	 * happens if the character was in contact with this character during the last
 	 * update, but has been deleted since.
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_CHARACTER_CONTACT_REMOVED}.
 	 */
-	protected abstract void onCharacterContactRemoved(CharacterVirtual character, int otherCharacterId, int subShapeId);
+	protected void onCharacterContactRemoved(CharacterVirtual character, int otherCharacterId, int subShapeId) {
+	}
 
 	/**
 	 * Called whenever a contact is being used by the solver. Allows the listener to
@@ -260,6 +346,8 @@ public abstract class CharacterContactListener {
 	 * certain surfaces).
 	 * <p>
 	 * Do not store a reference to the objects. They will be reused internally.
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_CONTACT_SOLVE}.
 	 * 
 	 * @param character            Character that is being solved
 	 * @param bodyId2              ID of body that is being hit
@@ -277,18 +365,62 @@ public abstract class CharacterContactListener {
 	 *                             Can be modified by the listener to provide an
 	 *                             alternative velocity.
 	 */
-	protected abstract void onContactSolve(CharacterVirtual character, int bodyId2, int subShapeId2,
+	protected void onContactSolve(CharacterVirtual character, int bodyId2, int subShapeId2,
 			Vector3f contactPosition, Vector3f contactNormal, Vector3f contactVelocity, PhysicsMaterial contactMaterial,
-			Vector3f characterVelocity, Vector3f newCharacterVelocity);
+			Vector3f characterVelocity, Vector3f newCharacterVelocity) {
+	}
 
 	/**
 	 * Same as
 	 * {@link #onContactSolve(CharacterVirtual, int, int, Vector3f, Vector3f, Vector3f, PhysicsMaterial, Vector3f, Vector3f)
 	 * OnContactSolve} but when colliding with a CharacterVirtual.
+	 * <p>
+	 * Only called if the listener handles {@link #EVENT_CHARACTER_CONTACT_SOLVE}.
 	 */
-	protected abstract void onCharacterContactSolve(CharacterVirtual character, CharacterVirtual otherCharacter,
+	protected void onCharacterContactSolve(CharacterVirtual character, CharacterVirtual otherCharacter,
 			int subShapeId, Vector3f contactPosition, Vector3f contactNormal, Vector3f contactVelocity,
-			PhysicsMaterial contactMaterial, Vector3f characterVelocity, Vector3f newCharacterVelocity);
+			PhysicsMaterial contactMaterial, Vector3f characterVelocity, Vector3f newCharacterVelocity) {
+	}
+
+	/**
+	 * Called with the contacts the character gained and lost, if batched contact
+	 * changes are enabled and at least one contact changed. Only contains the
+	 * added and removed events the listener handles.
+	 * <p>
+	 * Do not store a reference to the objects. They will be reused internally.
+	 */
+	protected void onContactsChanged(CharacterVirtual character, CharacterContactBatch batch) {
+	}
+
+	/**
+	 * Passes the collected contact changes of the calling thread to
+	 * {@link #onContactsChanged(CharacterVirtual, CharacterContactBatch)}.
+	 */
+	void flushContactChanges(CharacterVirtual character) {
+		if (!batchContactChanges)
+			return;
+
+		CharacterContactBatch contacts = batch.get();
+		if (contacts.isEmpty())
+			return;
+
+		try {
+			onContactsChanged(character, contacts);
+		} finally {
+			contacts.clear();
+		}
+	}
+
+	/**
+	 * The callbacks this listener handles.
+	 */
+	public int getEvents() {
+		return events;
+	}
+
+	public boolean isBatchContactChanges() {
+		return batchContactChanges;
+	}
 
 	//@formatter:off	
 	private static void fillProcs(Arena arena) {
@@ -340,21 +472,42 @@ public abstract class CharacterContactListener {
 		ON_CHARACTER_CONTACT_REMOVED_ADDR = upcallStub(onCharacterContactRemovedHandle, onCharacterContactRemoved, arena);
 		ON_CONTACT_SOLVE_ADDR = upcallStub(onContactSolveHandle, onContactSolve, arena);
 		ON_CHARACTER_CONTACT_SOLVE_ADDR = upcallStub(onCharacterContactSolveHandle, onCharacterContactSolve, arena);
-		
-		ON_ADJUST_BODY_VELOCITY.set(JPH_CHARACTER_CONTACT_LISTENER_PROCS, ON_ADJUST_BODY_VELOCITY_ADDR);
-		ON_CONTACT_VALIDATE.set(JPH_CHARACTER_CONTACT_LISTENER_PROCS, ON_CONTACT_VALIDATE_ADDR);
-		ON_CHARACTER_CONTACT_VALIDATE.set(JPH_CHARACTER_CONTACT_LISTENER_PROCS, ON_CHARACTER_CONTACT_VALIDATE_ADDR);
-		ON_CONTACT_ADDED.set(JPH_CHARACTER_CONTACT_LISTENER_PROCS, ON_CONTACT_ADDED_ADDR);
-		ON_CONTACT_PERSISTED.set(JPH_CHARACTER_CONTACT_LISTENER_PROCS, ON_CONTACT_PERSISTED_ADDR);
-		ON_CONTACT_REMOVED.set(JPH_CHARACTER_CONTACT_LISTENER_PROCS, ON_CONTACT_REMOVED_ADDR);
-		ON_CHARACTER_CONTACT_ADDED.set(JPH_CHARACTER_CONTACT_LISTENER_PROCS, ON_CHARACTER_CONTACT_ADDED_ADDR);
-		ON_CHARACTER_CONTACT_PERSISTED.set(JPH_CHARACTER_CONTACT_LISTENER_PROCS, ON_CHARACTER_CONTACT_PERSISTED_ADDR);
-		ON_CHARACTER_CONTACT_REMOVED.set(JPH_CHARACTER_CONTACT_LISTENER_PROCS, ON_CHARACTER_CONTACT_REMOVED_ADDR);
-		ON_CONTACT_SOLVE.set(JPH_CHARACTER_CONTACT_LISTENER_PROCS, ON_CONTACT_SOLVE_ADDR);
-		ON_CHARACTER_CONTACT_SOLVE.set(JPH_CHARACTER_CONTACT_LISTENER_PROCS, ON_CHARACTER_CONTACT_SOLVE_ADDR);
 	}
 	//@formatter:on
 
+	/**
+	 * Installs the upcalls for all callbacks handled by at least one living
+	 * listener and leaves the others NULL, so jolt uses its default behavior for
+	 * them without calling into Java.
+	 */
+	private static synchronized void updateProcs() {
+		int handled = 0;
+		for (WeakReference<CharacterContactListener> reference : CONTACT_LISTENERS) {
+			CharacterContactListener listener = reference == null ? null : reference.get();
+			if (listener != null)
+				handled |= listener.events;
+		}
+
+		MemorySegment procs = JPH_CHARACTER_CONTACT_LISTENER_PROCS;
+		setProc(procs, ON_ADJUST_BODY_VELOCITY, ON_ADJUST_BODY_VELOCITY_ADDR, handled & EVENT_ADJUST_BODY_VELOCITY);
+		setProc(procs, ON_CONTACT_VALIDATE, ON_CONTACT_VALIDATE_ADDR, handled & EVENT_CONTACT_VALIDATE);
+		setProc(procs, ON_CHARACTER_CONTACT_VALIDATE, ON_CHARACTER_CONTACT_VALIDATE_ADDR, handled & EVENT_CHARACTER_CONTACT_VALIDATE);
+		setProc(procs, ON_CONTACT_ADDED, ON_CONTACT_ADDED_ADDR, handled & EVENT_CONTACT_ADDED);
+		setProc(procs, ON_CONTACT_PERSISTED, ON_CONTACT_PERSISTED_ADDR, handled & EVENT_CONTACT_PERSISTED);
+		setProc(procs, ON_CONTACT_REMOVED, ON_CONTACT_REMOVED_ADDR, handled & EVENT_CONTACT_REMOVED);
+		setProc(procs, ON_CHARACTER_CONTACT_ADDED, ON_CHARACTER_CONTACT_ADDED_ADDR, handled & EVENT_CHARACTER_CONTACT_ADDED);
+		setProc(procs, ON_CHARACTER_CONTACT_PERSISTED, ON_CHARACTER_CONTACT_PERSISTED_ADDR, handled & EVENT_CHARACTER_CONTACT_PERSISTED);
+		setProc(procs, ON_CHARACTER_CONTACT_REMOVED, ON_CHARACTER_CONTACT_REMOVED_ADDR, handled & EVENT_CHARACTER_CONTACT_REMOVED);
+		setProc(procs, ON_CONTACT_SOLVE, ON_CONTACT_SOLVE_ADDR, handled & EVENT_CONTACT_SOLVE);
+		setProc(procs, ON_CHARACTER_CONTACT_SOLVE, ON_CHARACTER_CONTACT_SOLVE_ADDR, handled & EVENT_CHARACTER_CONTACT_SOLVE);
+
+		setProcs();
+	}
+
+	private static void setProc(MemorySegment procs, VarHandle handle, MemorySegment address, int handled) {
+		handle.set(procs, handled != 0 ? address : MemorySegment.NULL);
+	}
+
 	private static void setProcs() {
 		try {
 			MethodHandle method = JPH_CHARACTER_CONTACT_LISTENER_SET_PROCS;
@@ -378,218 +531,302 @@ public abstract class CharacterContactListener {
 	@SuppressWarnings("unused")
 	private static void onAdjustBodyVelocity(MemorySegment userData, MemorySegment character, MemorySegment body2,
 			MemorySegment linearVelocity, MemorySegment angularVelocity) {
-
-		CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
-
-		CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
-		if (characterVirtual == null && !character.equals(MemorySegment.NULL))
-			characterVirtual = new CharacterVirtual(character);
-
-		Body body = Jolt.getBody(body2.address());
-		if (body == null && !body2.equals(MemorySegment.NULL))
-			body = new Body(body2);
-
-		listener.vecTmp.set(linearVelocity);
-		Vector3f linearVelocityVector = listener.vecTmp.get(listener.vectorTmp);
-		listener.vecTmp.set(angularVelocity);
-		Vector3f angularVelocityVector = listener.vecTmp.get(listener.vectorTmp2);
-
-		listener.onAdjustBodyVelocity(characterVirtual, body, linearVelocityVector, angularVelocityVector);
+		long start = UpcallMetrics.begin();
+		try {
+			CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_ADJUST_BODY_VELOCITY) == 0)
+				return;
+
+			CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
+			if (characterVirtual == null && !character.equals(MemorySegment.NULL))
+				characterVirtual = new CharacterVirtual(character);
+
+			Body body = Jolt.getBody(body2.address());
+			if (body == null && !body2.equals(MemorySegment.NULL))
+				body = new Body(body2);
+
+			listener.vecTmp.set(linearVelocity);
+			Vector3f linearVelocityVector = listener.vecTmp.get(listener.vectorTmp);
+			listener.vecTmp.set(angularVelocity);
+			Vector3f angularVelocityVector = listener.vecTmp.get(listener.vectorTmp2);
+
+			listener.onAdjustBodyVelocity(characterVirtual, body, linearVelocityVector, angularVelocityVector);
+		} finally {
+			UpcallMetrics.end(UpcallType.CHARACTER_CONTACT, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static boolean onContactValidate(MemorySegment userData, MemorySegment character, int bodyId2,
 			int subShapeId2) {
+		long start = UpcallMetrics.begin();
+		try {
+			CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_CONTACT_VALIDATE) == 0)
+				return true;
 
-		CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
-
-		CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
-		if (characterVirtual == null && !character.equals(MemorySegment.NULL))
-			characterVirtual = new CharacterVirtual(character);
+			CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
+			if (characterVirtual == null && !character.equals(MemorySegment.NULL))
+				characterVirtual = new CharacterVirtual(character);
 
-		return listener.onContactValidate(characterVirtual, bodyId2, subShapeId2);
+			return listener.onContactValidate(characterVirtual, bodyId2, subShapeId2);
+		} finally {
+			UpcallMetrics.end(UpcallType.CHARACTER_CONTACT, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static boolean onCharacterContactValidate(MemorySegment userData, MemorySegment character,
 			MemorySegment otherCharacter, int subShapeId2) {
+		long start = UpcallMetrics.begin();
+		try {
+			CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_CHARACTER_CONTACT_VALIDATE) == 0)
+				return true;
 
-		CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
-
-		CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
-		if (characterVirtual == null && !character.equals(MemorySegment.NULL))
-			characterVirtual = new CharacterVirtual(character);
+			CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
+			if (characterVirtual == null && !character.equals(MemorySegment.NULL))
+				characterVirtual = new CharacterVirtual(character);
 
-		CharacterVirtual otherCharacterVirtual = Jolt.getCharacterVirtual(otherCharacter.address());
-		if (otherCharacterVirtual == null && !otherCharacter.equals(MemorySegment.NULL))
-			otherCharacterVirtual = new CharacterVirtual(otherCharacter);
+			CharacterVirtual otherCharacterVirtual = Jolt.getCharacterVirtual(otherCharacter.address());
+			if (otherCharacterVirtual == null && !otherCharacter.equals(MemorySegment.NULL))
+				otherCharacterVirtual = new CharacterVirtual(otherCharacter);
 
-		return listener.onCharacterContactValidate(characterVirtual, otherCharacterVirtual, subShapeId2);
+			return listener.onCharacterContactValidate(characterVirtual, otherCharacterVirtual, subShapeId2);
+		} finally {
+			UpcallMetrics.end(UpcallType.CHARACTER_CONTACT, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static void onContactAdded(MemorySegment userData, MemorySegment character, int bodyId2, int subShapeId2,
 			MemorySegment contactPosition, MemorySegment contactNormal, MemorySegment ioSettings) {
-
-		CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
-
-		CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
-		if (characterVirtual == null && !character.equals(MemorySegment.NULL))
-			characterVirtual = new CharacterVirtual(character);
-
-		listener.vecTmp.set(contactPosition);
-		Vector3f position = listener.vecTmp.get(listener.vectorTmp);
-		listener.vecTmp.set(contactNormal);
-		Vector3f normal = listener.vecTmp.get(listener.vectorTmp2);
-
-		listener.settings.set(ioSettings);
-		CharacterContactSettings settings = listener.settings;
-
-		listener.onContactAdded(characterVirtual, bodyId2, subShapeId2, position, normal, settings);
-
-		long size = CharacterContactSettings.LAYOUT().byteSize();
-		MemorySegment.copy(listener.settings.memorySegment(), 0, ioSettings, 0, size);
+		long start = UpcallMetrics.begin();
+		try {
+			CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_CONTACT_ADDED) == 0)
+				return;
+
+			if (listener.batchContactChanges) {
+				listener.batch.get().added(bodyId2, subShapeId2, false, contactPosition.get(JAVA_FLOAT, 0),
+						contactPosition.get(JAVA_FLOAT, 4), contactPosition.get(JAVA_FLOAT, 8), contactNormal.get(JAVA_FLOAT, 0),
+						contactNormal.get(JAVA_FLOAT, 4), contactNormal.get(JAVA_FLOAT, 8));
+				return;
+			}
+
+			CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
+			if (characterVirtual == null && !character.equals(MemorySegment.NULL))
+				characterVirtual = new CharacterVirtual(character);
+
+			listener.vecTmp.set(contactPosition);
+			Vector3f position = listener.vecTmp.get(listener.vectorTmp);
+			listener.vecTmp.set(contactNormal);
+			Vector3f normal = listener.vecTmp.get(listener.vectorTmp2);
+
+			listener.settings.set(ioSettings);
+			CharacterContactSettings settings = listener.settings;
+
+			listener.onContactAdded(characterVirtual, bodyId2, subShapeId2, position, normal, settings);
+
+			long size = CharacterContactSettings.LAYOUT().byteSize();
+			MemorySegment.copy(listener.settings.memorySegment(), 0, ioSettings, 0, size);
+		} finally {
+			UpcallMetrics.end(UpcallType.CHARACTER_CONTACT, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static void onContactPersisted(MemorySegment userData, MemorySegment character, int bodyId2,
 			int subShapeId2, MemorySegment contactPosition, MemorySegment contactNormal, MemorySegment ioSettings) {
+		long start = UpcallMetrics.begin();
+		try {
+			CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_CONTACT_PERSISTED) == 0)
+				return;
 
-		CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
-
-		CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
-		if (characterVirtual == null && !character.equals(MemorySegment.NULL))
-			characterVirtual = new CharacterVirtual(character);
+			CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
+			if (characterVirtual == null && !character.equals(MemorySegment.NULL))
+				characterVirtual = new CharacterVirtual(character);
 
-		listener.vecTmp.set(contactPosition);
-		Vector3f positionVector = listener.vecTmp.get(listener.vectorTmp);
-		listener.vecTmp.set(contactNormal);
-		Vector3f normalVector = listener.vecTmp.get(listener.vectorTmp2);
+			listener.vecTmp.set(contactPosition);
+			Vector3f positionVector = listener.vecTmp.get(listener.vectorTmp);
+			listener.vecTmp.set(contactNormal);
+			Vector3f normalVector = listener.vecTmp.get(listener.vectorTmp2);
 
-		listener.settings.set(ioSettings);
-		CharacterContactSettings settings = listener.settings;
+			listener.settings.set(ioSettings);
+			CharacterContactSettings settings = listener.settings;
 
-		listener.onContactPersisted(characterVirtual, bodyId2, subShapeId2, positionVector, normalVector, settings);
+			listener.onContactPersisted(characterVirtual, bodyId2, subShapeId2, positionVector, normalVector, settings);
 
-		long size = CharacterContactSettings.LAYOUT().byteSize();
-		MemorySegment.copy(listener.settings.memorySegment(), 0, ioSettings, 0, size);
+			long size = CharacterContactSettings.LAYOUT().byteSize();
+			MemorySegment.copy(listener.settings.memorySegment(), 0, ioSettings, 0, size);
+		} finally {
+			UpcallMetrics.end(UpcallType.CHARACTER_CONTACT, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static void onContactRemoved(MemorySegment userData, MemorySegment character, int bodyId2,
 			int subShapeId2) {
-
-		CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
-
-		CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
-		if (characterVirtual == null && !character.equals(MemorySegment.NULL))
-			characterVirtual = new CharacterVirtual(character);
-
-		listener.onContactRemoved(characterVirtual, bodyId2, subShapeId2);
+		long start = UpcallMetrics.begin();
+		try {
+			CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_CONTACT_REMOVED) == 0)
+				return;
+
+			if (listener.batchContactChanges) {
+				listener.batch.get().removed(bodyId2, subShapeId2, false);
+				return;
+			}
+
+			CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
+			if (characterVirtual == null && !character.equals(MemorySegment.NULL))
+				characterVirtual = new CharacterVirtual(character);
+
+			listener.onContactRemoved(characterVirtual, bodyId2, subShapeId2);
+		} finally {
+			UpcallMetrics.end(UpcallType.CHARACTER_CONTACT, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static void onCharacterContactAdded(MemorySegment userData, MemorySegment character,
 			MemorySegment otherCharacter, int subShapeId2, MemorySegment contactPosition, MemorySegment contactNormal,
 			MemorySegment ioSettings) {
-
-		CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
-
-		CharacterVirtual character1 = Jolt.getCharacterVirtual(character.address());
-		if (character1 == null && !character.equals(MemorySegment.NULL))
-			character1 = new CharacterVirtual(character);
-
-		CharacterVirtual character2 = Jolt.getCharacterVirtual(otherCharacter.address());
-		if (character2 == null && !otherCharacter.equals(MemorySegment.NULL))
-			character2 = new CharacterVirtual(otherCharacter);
-
-		listener.vecTmp.set(contactPosition);
-		Vector3f position = listener.vecTmp.get(listener.vectorTmp);
-		listener.vecTmp.set(contactNormal);
-		Vector3f normal = listener.vecTmp.get(listener.vectorTmp2);
-
-		listener.settings.set(ioSettings);
-		CharacterContactSettings settings = listener.settings;
-
-		listener.onCharacterContactAdded(character1, character2, subShapeId2, position, normal, settings);
-
-		long size = CharacterContactSettings.LAYOUT().byteSize();
-		MemorySegment.copy(listener.settings.memorySegment(), 0, ioSettings, 0, size);
+		long start = UpcallMetrics.begin();
+		try {
+			CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_CHARACTER_CONTACT_ADDED) == 0)
+				return;
+
+			CharacterVirtual character1 = Jolt.getCharacterVirtual(character.address());
+			if (character1 == null && !character.equals(MemorySegment.NULL))
+				character1 = new CharacterVirtual(character);
+
+			CharacterVirtual character2 = Jolt.getCharacterVirtual(otherCharacter.address());
+			if (character2 == null && !otherCharacter.equals(MemorySegment.NULL))
+				character2 = new CharacterVirtual(otherCharacter);
+
+			if (listener.batchContactChanges) {
+				listener.batch.get().added(character2.getID(), subShapeId2, true, contactPosition.get(JAVA_FLOAT, 0),
+						contactPosition.get(JAVA_FLOAT, 4), contactPosition.get(JAVA_FLOAT, 8), contactNormal.get(JAVA_FLOAT, 0),
+						contactNormal.get(JAVA_FLOAT, 4), contactNormal.get(JAVA_FLOAT, 8));
+				return;
+			}
+
+			listener.vecTmp.set(contactPosition);
+			Vector3f position = listener.vecTmp.get(listener.vectorTmp);
+			listener.vecTmp.set(contactNormal);
+			Vector3f normal = listener.vecTmp.get(listener.vectorTmp2);
+
+			listener.settings.set(ioSettings);
+			CharacterContactSettings settings = listener.settings;
+
+			listener.onCharacterContactAdded(character1, character2, subShapeId2, position, normal, settings);
+
+			long size = CharacterContactSettings.LAYOUT().byteSize();
+			MemorySegment.copy(listener.settings.memorySegment(), 0, ioSettings, 0, size);
+		} finally {
+			UpcallMetrics.end(UpcallType.CHARACTER_CONTACT, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static void onCharacterContactPersisted(MemorySegment userData, MemorySegment character,
 			MemorySegment otherCharacter, int subShapeId2, MemorySegment contactPosition, MemorySegment contactNormal,
 			MemorySegment ioSettings) {
+		long start = UpcallMetrics.begin();
+		try {
+			CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_CHARACTER_CONTACT_PERSISTED) == 0)
+				return;
 
-		CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
-
-		CharacterVirtual character1 = Jolt.getCharacterVirtual(character.address());
-		if (character1 == null && !character.equals(MemorySegment.NULL))
-			character1 = new CharacterVirtual(character);
+			CharacterVirtual character1 = Jolt.getCharacterVirtual(character.address());
+			if (character1 == null && !character.equals(MemorySegment.NULL))
+				character1 = new CharacterVirtual(character);
 
-		CharacterVirtual character2 = Jolt.getCharacterVirtual(otherCharacter.address());
-		if (character2 == null && !otherCharacter.equals(MemorySegment.NULL))
-			character2 = new CharacterVirtual(otherCharacter);
+			CharacterVirtual character2 = Jolt.getCharacterVirtual(otherCharacter.address());
+			if (character2 == null && !otherCharacter.equals(MemorySegment.NULL))
+				character2 = new CharacterVirtual(otherCharacter);
 
-		listener.vecTmp.set(contactPosition);
-		Vector3f position = listener.vecTmp.get(listener.vectorTmp);
-		listener.vecTmp.set(contactNormal);
-		Vector3f normal = listener.vecTmp.get(listener.vectorTmp2);
+			listener.vecTmp.set(contactPosition);
+			Vector3f position = listener.vecTmp.get(listener.vectorTmp);
+			listener.vecTmp.set(contactNormal);
+			Vector3f normal = listener.vecTmp.get(listener.vectorTmp2);
 
-		listener.settings.set(ioSettings);
-		CharacterContactSettings settings = listener.settings;
+			listener.settings.set(ioSettings);
+			CharacterContactSettings settings = listener.settings;
 
-		listener.onCharacterContactPersisted(character1, character2, subShapeId2, position, normal, settings);
+			listener.onCharacterContactPersisted(character1, character2, subShapeId2, position, normal, settings);
 
-		long size = CharacterContactSettings.LAYOUT().byteSize();
-		MemorySegment.copy(listener.settings.memorySegment(), 0, ioSettings, 0, size);
+			long size = CharacterContactSettings.LAYOUT().byteSize();
+			MemorySegment.copy(listener.settings.memorySegment(), 0, ioSettings, 0, size);
+		} finally {
+			UpcallMetrics.end(UpcallType.CHARACTER_CONTACT, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static void onCharacterContactRemoved(MemorySegment userData, MemorySegment character, int otherCharacterId,
 			int subShapeId2) {
-
-		CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
-
-		CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
-		if (characterVirtual == null && !character.equals(MemorySegment.NULL))
-			characterVirtual = new CharacterVirtual(character);
-
-		listener.onCharacterContactRemoved(characterVirtual, otherCharacterId, subShapeId2);
+		long start = UpcallMetrics.begin();
+		try {
+			CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_CHARACTER_CONTACT_REMOVED) == 0)
+				return;
+
+			if (listener.batchContactChanges) {
+				listener.batch.get().removed(otherCharacterId, subShapeId2, true);
+				return;
+			}
+
+			CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
+			if (characterVirtual == null && !character.equals(MemorySegment.NULL))
+				characterVirtual = new CharacterVirtual(character);
+
+			listener.onCharacterContactRemoved(characterVirtual, otherCharacterId, subShapeId2);
+		} finally {
+			UpcallMetrics.end(UpcallType.CHARACTER_CONTACT, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static void onContactSolve(MemorySegment userData, MemorySegment character, int bodyId2, int subShapeId2,
 			MemorySegment contactPosition, MemorySegment contactNormal, MemorySegment contactVelocity,
 			MemorySegment contactMaterial, MemorySegment characterVelocity, MemorySegment newCharacterVelocity) {
-
-		CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
-
-		CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
-		if (characterVirtual == null && !character.equals(MemorySegment.NULL))
-			characterVirtual = new CharacterVirtual(character);
-
-		PhysicsMaterial material = Jolt.getMaterial(contactMaterial.address());
-		if (material == null && !contactMaterial.equals(MemorySegment.NULL))
-			material = new PhysicsMaterial(contactMaterial);
-
-		listener.vecTmp.set(contactPosition);
-		Vector3f position = listener.vecTmp.get(listener.vectorTmp);
-		listener.vecTmp.set(contactNormal);
-		Vector3f normal = listener.vecTmp.get(listener.vectorTmp2);
-		listener.vecTmp.set(contactVelocity);
-		Vector3f velocityContact = listener.vecTmp.get(listener.vectorTmp3);
-		listener.vecTmp.set(characterVelocity);
-		Vector3f velocityCharacter = listener.vecTmp.get(listener.vectorTmp4);
-		listener.vecTmp.set(newCharacterVelocity);
-		Vector3f velocityNew = listener.vecTmp.get(listener.vectorTmp5);
-
-		listener.onContactSolve(characterVirtual, bodyId2, subShapeId2, position, normal, velocityContact, material,
-				velocityCharacter, velocityNew);
-
-		listener.vecTmp.set(velocityNew);
-		MemorySegment.copy(listener.vecTmp.memorySegment(), 0, newCharacterVelocity, 0, Vec3.LAYOUT().byteSize());
+		long start = UpcallMetrics.begin();
+		try {
+			CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_CONTACT_SOLVE) == 0)
+				return;
+
+			CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
+			if (characterVirtual == null && !character.equals(MemorySegment.NULL))
+				characterVirtual = new CharacterVirtual(character);
+
+			PhysicsMaterial material = Jolt.getMaterial(contactMaterial.address());
+			if (material == null && !contactMaterial.equals(MemorySegment.NULL))
+				material = new PhysicsMaterial(contactMaterial);
+
+			listener.vecTmp.set(contactPosition);
+			Vector3f position = listener.vecTmp.get(listener.vectorTmp);
+			listener.vecTmp.set(contactNormal);
+			Vector3f normal = listener.vecTmp.get(listener.vectorTmp2);
+			listener.vecTmp.set(contactVelocity);
+			Vector3f velocityContact = listener.vecTmp.get(listener.vectorTmp3);
+			listener.vecTmp.set(characterVelocity);
+			Vector3f velocityCharacter = listener.vecTmp.get(listener.vectorTmp4);
+			listener.vecTmp.set(newCharacterVelocity);
+			Vector3f velocityNew = listener.vecTmp.get(listener.vectorTmp5);
+
+			listener.onContactSolve(characterVirtual, bodyId2, subShapeId2, position, normal, velocityContact, material,
+					velocityCharacter, velocityNew);
+
+			listener.vecTmp.set(velocityNew);
+			MemorySegment.copy(listener.vecTmp.memorySegment(), 0, newCharacterVelocity, 0, Vec3.LAYOUT().byteSize());
+		} finally {
+			UpcallMetrics.end(UpcallType.CHARACTER_CONTACT, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
@@ -597,37 +834,43 @@ public abstract class CharacterContactListener {
 			MemorySegment otherCharacter, int subShapeId2, MemorySegment contactPosition, MemorySegment contactNormal,
 			MemorySegment contactVelocity, MemorySegment contactMaterial, MemorySegment characterVelocity,
 			MemorySegment newCharacterVelocity) {
-
-		CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
-
-		CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
-		if (characterVirtual == null && !character.equals(MemorySegment.NULL))
-			characterVirtual = new CharacterVirtual(character);
-
-		CharacterVirtual otherCharacterVirtual = Jolt.getCharacterVirtual(otherCharacter.address());
-		if (otherCharacterVirtual == null && !otherCharacter.equals(MemorySegment.NULL))
-			otherCharacterVirtual = new CharacterVirtual(otherCharacter);
-
-		PhysicsMaterial material = Jolt.getMaterial(contactMaterial.address());
-		if (material == null && !contactMaterial.equals(MemorySegment.NULL))
-			material = new PhysicsMaterial(contactMaterial);
-
-		listener.vecTmp.set(contactPosition);
-		Vector3f position = listener.vecTmp.get(listener.vectorTmp);
-		listener.vecTmp.set(contactNormal);
-		Vector3f normal = listener.vecTmp.get(listener.vectorTmp2);
-		listener.vecTmp.set(contactVelocity);
-		Vector3f velocityContact = listener.vecTmp.get(listener.vectorTmp3);
-		listener.vecTmp.set(characterVelocity);
-		Vector3f velocityCharacter = listener.vecTmp.get(listener.vectorTmp4);
-		listener.vecTmp.set(newCharacterVelocity);
-		Vector3f velocityNew = listener.vecTmp.get(listener.vectorTmp5);
-
-		listener.onCharacterContactSolve(characterVirtual, otherCharacterVirtual, subShapeId2, position, normal,
-				velocityContact, material, velocityCharacter, velocityNew);
-
-		listener.vecTmp.set(velocityNew);
-		MemorySegment.copy(listener.vecTmp.memorySegment(), 0, newCharacterVelocity, 0, Vec3.LAYOUT().byteSize());
+		long start = UpcallMetrics.begin();
+		try {
+			CharacterContactListener listener = CONTACT_LISTENERS.get(userData.get(JAVA_INT, 0)).get();
+			if ((listener.events & EVENT_CHARACTER_CONTACT_SOLVE) == 0)
+				return;
+
+			CharacterVirtual characterVirtual = Jolt.getCharacterVirtual(character.address());
+			if (characterVirtual == null && !character.equals(MemorySegment.NULL))
+				characterVirtual = new CharacterVirtual(character);
+
+			CharacterVirtual otherCharacterVirtual = Jolt.getCharacterVirtual(otherCharacter.address());
+			if (otherCharacterVirtual == null && !otherCharacter.equals(MemorySegment.NULL))
+				otherCharacterVirtual = new CharacterVirtual(otherCharacter);
+
+			PhysicsMaterial material = Jolt.getMaterial(contactMaterial.address());
+			if (material == null && !contactMaterial.equals(MemorySegment.NULL))
+				material = new PhysicsMaterial(contactMaterial);
+
+			listener.vecTmp.set(contactPosition);
+			Vector3f position = listener.vecTmp.get(listener.vectorTmp);
+			listener.vecTmp.set(contactNormal);
+			Vector3f normal = listener.vecTmp.get(listener.vectorTmp2);
+			listener.vecTmp.set(contactVelocity);
+			Vector3f velocityContact = listener.vecTmp.get(listener.vectorTmp3);
+			listener.vecTmp.set(characterVelocity);
+			Vector3f velocityCharacter = listener.vecTmp.get(listener.vectorTmp4);
+			listener.vecTmp.set(newCharacterVelocity);
+			Vector3f velocityNew = listener.vecTmp.get(listener.vectorTmp5);
+
+			listener.onCharacterContactSolve(characterVirtual, otherCharacterVirtual, subShapeId2, position, normal,
+					velocityContact, material, velocityCharacter, velocityNew);
+
+			listener.vecTmp.set(velocityNew);
+			MemorySegment.copy(listener.vecTmp.memorySegment(), 0, newCharacterVelocity, 0, Vec3.LAYOUT().byteSize());
+		} finally {
+			UpcallMetrics.end(UpcallType.CHARACTER_CONTACT, start);
+		}
 	}
 
 	public MemorySegment memorySegment() {
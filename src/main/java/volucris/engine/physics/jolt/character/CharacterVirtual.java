@@ -14,6 +14,7 @@ import volucris.engine.physics.jolt.filter.ShapeFilter;
 import volucris.engine.physics.jolt.math.Mat4;
 import volucris.engine.physics.jolt.math.Quat;
 import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.CharacterUpdateEvent;
 import volucris.engine.physics.jolt.physicsSystem.PhysicsSystem;
 import volucris.engine.physics.jolt.shape.Shape;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
@@ -93,6 +94,8 @@ public final class CharacterVirtual extends CharacterBase {
 	private Vec3 vecTmp3;
 	private Vec3 vecTmp4;
 
+	private CharacterContactListener listener;
+
 	static {
 		//@formatter:off
 		JPH_CHARACTER_VIRTUAL_CREATE = downcallHandle("JPH_CharacterVirtual_Create", ADDRESS, ADDRESS, ADDRESS, ADDRESS, JAVA_LONG, ADDRESS);
@@ -253,6 +256,8 @@ public final class CharacterVirtual extends CharacterBase {
 		try {
 			MethodHandle method = JPH_CHARACTER_VIRTUAL_SET_LISTENER;
 			method.invokeExact(jphCharacter, listener.memorySegment());
+
+			this.listener = listener;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set listener: " + className);
@@ -763,6 +768,8 @@ public final class CharacterVirtual extends CharacterBase {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot finish tracking contact changes: " + className);
 		}
+
+		flushContactChanges();
 	}
 
 	/**
@@ -784,6 +791,9 @@ public final class CharacterVirtual extends CharacterBase {
 	 */
 	public void update(float deltaTime, int layer, PhysicsSystem system, BodyFilter bodyFilter,
 			ShapeFilter shapeFilter) {
+		CharacterUpdateEvent event = new CharacterUpdateEvent();
+		event.begin();
+
 		try {
 			MemorySegment charAddr = jphCharacter;
 			MemorySegment systemAddr = system.memorySegment();
@@ -796,6 +806,10 @@ public final class CharacterVirtual extends CharacterBase {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot call update: " + className);
 		}
+
+		flushContactChanges();
+
+		CharacterUpdateEvent.commit(event, false);
 	}
 
 	/**
@@ -822,6 +836,9 @@ public final class CharacterVirtual extends CharacterBase {
 	 */
 	public void extendedUpdate(float deltaTime, ExtendedUpdateSettings settings, int layer, PhysicsSystem system,
 			BodyFilter bodyFilter, ShapeFilter shapeFilter) {
+		CharacterUpdateEvent event = new CharacterUpdateEvent();
+		event.begin();
+
 		try {
 			MemorySegment charAddr = jphCharacter;
 			MemorySegment settAddr = settings.memorySegment();
@@ -835,6 +852,10 @@ public final class CharacterVirtual extends CharacterBase {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot call extended update: " + className);
 		}
+
+		flushContactChanges();
+
+		CharacterUpdateEvent.commit(event, true);
 	}
 
 	/**
@@ -853,6 +874,8 @@ public final class CharacterVirtual extends CharacterBase {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot refresh contacts: " + className);
 		}
+
+		flushContactChanges();
 	}
 
 	/**
@@ -1112,6 +1135,11 @@ public final class CharacterVirtual extends CharacterBase {
 		}
 	}
 
+	private void flushContactChanges() {
+		if (listener != null)
+			listener.flushContactChanges(this);
+	}
+
 	public MemorySegment memorySegment() {
 		return jphCharacter;
 	}
@@ -50,21 +50,21 @@ public sealed class Constraint permits TwoBodyConstraint, VehicleConstraint {
 	static {
 		//@formatter:off
 		JPH_CONSTRAINT_DESTROY = downcallHandleVoid("JPH_Constraint_Destroy", ADDRESS);
-		JPH_CONSTRAINT_GET_TYPE = downcallHandle("JPH_Constraint_GetType", JAVA_INT, ADDRESS);
-		JPH_CONSTRAINT_GET_SUB_TYPE = downcallHandle("JPH_Constraint_GetSubType", JAVA_INT, ADDRESS);
-		JPH_CONSTRAINT_GET_CONSTRAINT_PRIORITY = downcallHandle("JPH_Constraint_GetConstraintPriority", JAVA_INT, ADDRESS);
-		JPH_CONSTRAINT_SET_CONSTRAINT_PRIORITY = downcallHandleVoid("JPH_Constraint_SetConstraintPriority", ADDRESS, JAVA_INT);
-		JPH_CONSTRAINT_GET_NUM_VELOCITY_STEPS_OVERRIDE = downcallHandle("JPH_Constraint_GetNumVelocityStepsOverride", JAVA_INT, ADDRESS);
-		JPH_CONSTRAINT_SET_NUM_VELOCITY_STEPS_OVERRIDE = downcallHandleVoid("JPH_Constraint_SetNumVelocityStepsOverride", ADDRESS, JAVA_INT);
-		JPH_CONSTRAINT_GET_NUM_POSITION_STEPS_OVERRIDE = downcallHandle("JPH_Constraint_GetNumPositionStepsOverride", JAVA_INT, ADDRESS);
-		JPH_CONSTRAINT_SET_NUM_POSITION_STEPS_OVERRIDE = downcallHandleVoid("JPH_Constraint_SetNumPositionStepsOverride", ADDRESS, JAVA_INT);
-		JPH_CONSTRAINT_GET_ENABLED = downcallHandle("JPH_Constraint_GetEnabled", JAVA_BOOLEAN, ADDRESS);
-		JPH_CONSTRAINT_SET_ENABLED = downcallHandleVoid("JPH_Constraint_SetEnabled", ADDRESS, JAVA_BOOLEAN);
-		JPH_CONSTRAINT_GET_USER_DATA = downcallHandle("JPH_Constraint_GetUserData", JAVA_LONG, ADDRESS);
-		JPH_CONSTRAINT_SET_USER_DATA = downcallHandleVoid("JPH_Constraint_SetUserData", ADDRESS, JAVA_LONG);
+		JPH_CONSTRAINT_GET_TYPE = criticalDowncallHandle("JPH_Constraint_GetType", false, JAVA_INT, ADDRESS);
+		JPH_CONSTRAINT_GET_SUB_TYPE = criticalDowncallHandle("JPH_Constraint_GetSubType", false, JAVA_INT, ADDRESS);
+		JPH_CONSTRAINT_GET_CONSTRAINT_PRIORITY = criticalDowncallHandle("JPH_Constraint_GetConstraintPriority", false, JAVA_INT, ADDRESS);
+		JPH_CONSTRAINT_SET_CONSTRAINT_PRIORITY = criticalDowncallHandleVoid("JPH_Constraint_SetConstraintPriority", false, ADDRESS, JAVA_INT);
+		JPH_CONSTRAINT_GET_NUM_VELOCITY_STEPS_OVERRIDE = criticalDowncallHandle("JPH_Constraint_GetNumVelocityStepsOverride", false, JAVA_INT, ADDRESS);
+		JPH_CONSTRAINT_SET_NUM_VELOCITY_STEPS_OVERRIDE = criticalDowncallHandleVoid("JPH_Constraint_SetNumVelocityStepsOverride", false, ADDRESS, JAVA_INT);
+		JPH_CONSTRAINT_GET_NUM_POSITION_STEPS_OVERRIDE = criticalDowncallHandle("JPH_Constraint_GetNumPositionStepsOverride", false, JAVA_INT, ADDRESS);
+		JPH_CONSTRAINT_SET_NUM_POSITION_STEPS_OVERRIDE = criticalDowncallHandleVoid("JPH_Constraint_SetNumPositionStepsOverride", false, ADDRESS, JAVA_INT);
+		JPH_CONSTRAINT_GET_ENABLED = criticalDowncallHandle("JPH_Constraint_GetEnabled", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_CONSTRAINT_SET_ENABLED = criticalDowncallHandleVoid("JPH_Constraint_SetEnabled", false, ADDRESS, JAVA_BOOLEAN);
+		JPH_CONSTRAINT_GET_USER_DATA = criticalDowncallHandle("JPH_Constraint_GetUserData", false, JAVA_LONG, ADDRESS);
+		JPH_CONSTRAINT_SET_USER_DATA = criticalDowncallHandleVoid("JPH_Constraint_SetUserData", false, ADDRESS, JAVA_LONG);
 		JPH_CONSTRAINT_NOTIFY_SHAPE_CHANGED = downcallHandleVoid("JPH_Constraint_NotifyShapeChanged", ADDRESS, JAVA_INT, ADDRESS);
 		JPH_CONSTRAINT_RESET_WARM_START = downcallHandleVoid("JPH_Constraint_ResetWarmStart", ADDRESS);
-		JPH_CONSTRAINT_IS_ACTIVE = downcallHandle("JPH_Constraint_IsActive", JAVA_BOOLEAN, ADDRESS);
+		JPH_CONSTRAINT_IS_ACTIVE = criticalDowncallHandle("JPH_Constraint_IsActive", false, JAVA_BOOLEAN, ADDRESS);
 		JPH_CONSTRAINT_SETUP_VELOCITY_CONSTRAINT = downcallHandleVoid("JPH_Constraint_SetupVelocityConstraint", ADDRESS, JAVA_FLOAT);
 		JPH_CONSTRAINT_WARM_START_VELOCITY_CONSTRAINT = downcallHandleVoid("JPH_Constraint_WarmStartVelocityConstraint", ADDRESS, JAVA_FLOAT);
 		JPH_CONSTRAINT_SOLVE_VELOCITY_CONSTRAINT = downcallHandle("JPH_Constraint_SolveVelocityConstraint", JAVA_BOOLEAN, ADDRESS, JAVA_FLOAT);
@@ -15,6 +15,8 @@ import java.util.ArrayList;
 
 import volucris.engine.physics.jolt.Jolt;
 import volucris.engine.physics.jolt.body.Body;
+import volucris.engine.physics.jolt.metrics.UpcallMetrics;
+import volucris.engine.physics.jolt.metrics.UpcallType;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
 import static java.lang.foreign.ValueLayout.*;
@@ -158,19 +160,29 @@ public abstract class BodyFilter {
 
 	@SuppressWarnings("unused")
 	private static boolean shouldCollide(MemorySegment userData, int bodyId) {
-		BodyFilter filter = BODY_FILTERS.get(userData.get(JAVA_INT, 0)).get();
-		return filter.shouldCollide(bodyId);
+		long start = UpcallMetrics.begin();
+		try {
+			BodyFilter filter = BODY_FILTERS.get(userData.get(JAVA_INT, 0)).get();
+			return filter.shouldCollide(bodyId);
+		} finally {
+			UpcallMetrics.end(UpcallType.BODY_FILTER, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static boolean shouldCollideLocked(MemorySegment userData, MemorySegment body) {
-		BodyFilter filter = BODY_FILTERS.get(userData.get(JAVA_INT, 0)).get();
+		long start = UpcallMetrics.begin();
+		try {
+			BodyFilter filter = BODY_FILTERS.get(userData.get(JAVA_INT, 0)).get();
 
-		Body bodyObject = Jolt.getBody(body.address());
-		if (bodyObject == null)
-			bodyObject = new Body(body);
+			Body bodyObject = Jolt.getBody(body.address());
+			if (bodyObject == null)
+				bodyObject = new Body(body);
 
-		return filter.shouldCollideLocked(bodyObject);
+			return filter.shouldCollideLocked(bodyObject);
+		} finally {
+			UpcallMetrics.end(UpcallType.BODY_FILTER, start);
+		}
 	}
 
 	public MemorySegment memorySegment() {
@@ -13,6 +13,8 @@ import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 
+import volucris.engine.physics.jolt.metrics.UpcallMetrics;
+import volucris.engine.physics.jolt.metrics.UpcallType;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
 import static java.lang.foreign.ValueLayout.*;
@@ -138,8 +140,13 @@ public abstract class ObjectLayerFilter {
 
 	@SuppressWarnings("unused")
 	private static boolean shouldCollide(MemorySegment userData, int layer) {
-		ObjectLayerFilter filter = FILTERS.get(userData.get(JAVA_INT, 0)).get();
-		return filter.shouldCollide(layer);
+		long start = UpcallMetrics.begin();
+		try {
+			ObjectLayerFilter filter = FILTERS.get(userData.get(JAVA_INT, 0)).get();
+			return filter.shouldCollide(layer);
+		} finally {
+			UpcallMetrics.end(UpcallType.OBJECT_LAYER_FILTER, start);
+		}
 	}
 
 	public MemorySegment memorySegment() {
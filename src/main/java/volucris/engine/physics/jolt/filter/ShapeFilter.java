@@ -14,6 +14,8 @@ import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 
 import volucris.engine.physics.jolt.Jolt;
+import volucris.engine.physics.jolt.metrics.UpcallMetrics;
+import volucris.engine.physics.jolt.metrics.UpcallType;
 import volucris.engine.physics.jolt.shape.Shape;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
@@ -196,31 +198,41 @@ public abstract class ShapeFilter {
 
 	@SuppressWarnings("unused")
 	private static boolean shouldCollide(MemorySegment userData, MemorySegment shape2, MemorySegment subShapeIDShape2) {
-		ShapeFilter shapeFilter = SHAPE_FILTERS.get(userData.get(JAVA_INT, 0)).get();
+		long start = UpcallMetrics.begin();
+		try {
+			ShapeFilter shapeFilter = SHAPE_FILTERS.get(userData.get(JAVA_INT, 0)).get();
 
-		Shape shape = Jolt.getShape(shape2.address());
-		if (shape == null && !shape2.equals(MemorySegment.NULL))
-			shape = new Shape(shape2, false);
+			Shape shape = Jolt.getShape(shape2.address());
+			if (shape == null && !shape2.equals(MemorySegment.NULL))
+				shape = new Shape(shape2, false);
 
-		int subShapeId = subShapeIDShape2.reinterpret(JAVA_INT.byteSize()).get(JAVA_INT, 0);
-		return shapeFilter.shouldCollide(shape, subShapeId);
+			int subShapeId = subShapeIDShape2.reinterpret(JAVA_INT.byteSize()).get(JAVA_INT, 0);
+			return shapeFilter.shouldCollide(shape, subShapeId);
+		} finally {
+			UpcallMetrics.end(UpcallType.SHAPE_FILTER, start);
+		}
 	}
 
 	@SuppressWarnings("unused")
 	private static boolean shouldCollide(MemorySegment userData, MemorySegment shape1, MemorySegment subShapeIDShape1,
 			MemorySegment shape2, MemorySegment subShapeIDShape2) {
-		ShapeFilter shapeFilter = SHAPE_FILTERS.get(userData.get(JAVA_INT, 0)).get();
-
-		Shape firstShape = Jolt.getShape(shape1.address());
-		if (firstShape == null && !shape1.equals(MemorySegment.NULL))
-			firstShape = new Shape(shape1, false);
-		Shape secondShape = Jolt.getShape(shape2.address());
-		if (secondShape == null && !shape2.equals(MemorySegment.NULL))
-			secondShape = new Shape(shape2, false);
-
-		int firstShapeId = subShapeIDShape1.get(JAVA_INT, 0);
-		int secondShapeId = subShapeIDShape2.get(JAVA_INT, 0);
-		return shapeFilter.shouldCollide(firstShape, firstShapeId, secondShape, secondShapeId);
+		long start = UpcallMetrics.begin();
+		try {
+			ShapeFilter shapeFilter = SHAPE_FILTERS.get(userData.get(JAVA_INT, 0)).get();
+
+			Shape firstShape = Jolt.getShape(shape1.address());
+			if (firstShape == null && !shape1.equals(MemorySegment.NULL))
+				firstShape = new Shape(shape1, false);
+			Shape secondShape = Jolt.getShape(shape2.address());
+			if (secondShape == null && !shape2.equals(MemorySegment.NULL))
+				secondShape = new Shape(shape2, false);
+
+			int firstShapeId = subShapeIDShape1.get(JAVA_INT, 0);
+			int secondShapeId = subShapeIDShape2.get(JAVA_INT, 0);
+			return shapeFilter.shouldCollide(firstShape, firstShapeId, secondShape, secondShapeId);
+		} finally {
+			UpcallMetrics.end(UpcallType.SHAPE_FILTER, start);
+		}
 	}
 
 	public MemorySegment memorySegment() {
@@ -15,6 +15,8 @@ import java.util.ArrayList;
 
 import volucris.engine.physics.jolt.Jolt;
 import volucris.engine.physics.jolt.body.Body;
+import volucris.engine.physics.jolt.metrics.UpcallMetrics;
+import volucris.engine.physics.jolt.metrics.UpcallType;
 import volucris.engine.physics.jolt.physicsSystem.PhysicsSystem;
 import volucris.engine.physics.jolt.shape.Shape;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
@@ -162,30 +164,35 @@ public abstract class SimShapeFilter {
 	private static boolean shouldCollide(MemorySegment userData, MemorySegment body1, MemorySegment shape1,
 			MemorySegment subShapeIDOfShape1, MemorySegment body2, MemorySegment shape2,
 			MemorySegment subShapeIDOfShape2) {
+		long start = UpcallMetrics.begin();
+		try {
 
-		SimShapeFilter filter = SIM_SHAPE_FILTERS.get(userData.get(JAVA_INT, 0)).get();
+			SimShapeFilter filter = SIM_SHAPE_FILTERS.get(userData.get(JAVA_INT, 0)).get();
 
-		Body firstBody = Jolt.getBody(body1.address());
-		if (firstBody == null && !body1.equals(MemorySegment.NULL))
-			firstBody = new Body(body1);
+			Body firstBody = Jolt.getBody(body1.address());
+			if (firstBody == null && !body1.equals(MemorySegment.NULL))
+				firstBody = new Body(body1);
 
-		Shape firstShape = Jolt.getShape(shape1.address());
-		if (firstShape == null && !shape1.equals(MemorySegment.NULL))
-			firstShape = new Shape(shape1, false);
+			Shape firstShape = Jolt.getShape(shape1.address());
+			if (firstShape == null && !shape1.equals(MemorySegment.NULL))
+				firstShape = new Shape(shape1, false);
 
-		int subShapeId1 = subShapeIDOfShape1.get(JAVA_INT, 0);
+			int subShapeId1 = subShapeIDOfShape1.get(JAVA_INT, 0);
 
-		Body secondBody = Jolt.getBody(body2.address());
-		if (secondBody == null && !body2.equals(MemorySegment.NULL))
-			secondBody = new Body(body2);
+			Body secondBody = Jolt.getBody(body2.address());
+			if (secondBody == null && !body2.equals(MemorySegment.NULL))
+				secondBody = new Body(body2);
 
-		Shape secondShape = Jolt.getShape(shape2.address());
-		if (secondShape == null && !shape2.equals(MemorySegment.NULL))
-			secondShape = new Shape(shape2, false);
+			Shape secondShape = Jolt.getShape(shape2.address());
+			if (secondShape == null && !shape2.equals(MemorySegment.NULL))
+				secondShape = new Shape(shape2, false);
 
-		int subShapeId2 = subShapeIDOfShape2.get(JAVA_INT, 0);
+			int subShapeId2 = subShapeIDOfShape2.get(JAVA_INT, 0);
 
-		return filter.shouldCollide(firstBody, firstShape, subShapeId1, secondBody, secondShape, subShapeId2);
+			return filter.shouldCollide(firstBody, firstShape, subShapeId1, secondBody, secondShape, subShapeId2);
+		} finally {
+			UpcallMetrics.end(UpcallType.SIM_SHAPE_FILTER, start);
+		}
 	}
 
 	public MemorySegment memorySegment() {
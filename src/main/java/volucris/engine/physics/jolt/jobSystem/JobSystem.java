@@ -14,7 +14,7 @@ import static volucris.engine.physics.jolt.utils.FFMUtils.*;
  * threads. It allows dependencies between the jobs so that the jobs form a
  * graph.
  */
-public sealed class JobSystem permits JobSystemThreadPool {
+public sealed class JobSystem permits JobSystemThreadPool, JobSystemCallback {
 
 	private static final MethodHandle JPH_JOB_SYSTEM_DESTROY;
 
@@ -0,0 +1,186 @@
+package volucris.engine.physics.jolt.jobSystem;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import volucris.engine.physics.jolt.utils.JoltRuntimeException;
+
+import static java.lang.foreign.ValueLayout.*;
+import static volucris.engine.physics.jolt.utils.FFMUtils.*;
+
+/**
+ * Implementation of a JobSystem that runs the jobs of jolt on a Java
+ * {@link Executor}, e.g. a {@link ForkJoinPool}. This way the physics
+ * simulation can share its worker threads with the rest of the application
+ * instead of starting its own native threads like {@link JobSystemThreadPool}.
+ * <p>
+ * The thread that calls PhysicsSystem::Update also executes jobs while it waits
+ * for them to finish. If the executor rejects a job, the job is executed on the
+ * thread that queued it.
+ */
+public final class JobSystemCallback extends JobSystem {
+
+	private static final StructLayout LAYOUT;
+
+	private static final VarHandle CONTEXT;
+	private static final VarHandle QUEUE_JOB;
+	private static final VarHandle QUEUE_JOBS;
+	private static final VarHandle MAX_CONCURRENCY;
+	private static final VarHandle MAX_BARRIERS;
+
+	private static final MethodHandle JPH_JOB_SYSTEM_CALLBACK_CREATE;
+
+	private static final MethodHandle JOB_FUNCTION;
+
+	private static final FunctionDescriptor QUEUE_JOB_DESCR;
+	private static final FunctionDescriptor QUEUE_JOBS_DESCR;
+
+	private static final MethodHandle QUEUE_JOB_HANDLE;
+	private static final MethodHandle QUEUE_JOBS_HANDLE;
+
+	private final Dispatcher dispatcher;
+
+	static {
+		//@formatter:off
+		LAYOUT = MemoryLayout.structLayout(
+				ADDRESS.withName("context"),
+				ADDRESS.withName("queueJob"),
+				ADDRESS.withName("queueJobs"),
+				JAVA_INT.withName("maxConcurrency"),
+				JAVA_INT.withName("maxBarriers")
+			).withName("JobSystemConfig");
+
+		CONTEXT = varHandle(LAYOUT, "context");
+		QUEUE_JOB = varHandle(LAYOUT, "queueJob");
+		QUEUE_JOBS = varHandle(LAYOUT, "queueJobs");
+		MAX_CONCURRENCY = varHandle(LAYOUT, "maxConcurrency");
+		MAX_BARRIERS = varHandle(LAYOUT, "maxBarriers");
+
+		JPH_JOB_SYSTEM_CALLBACK_CREATE = downcallHandle("JPH_JobSystemCallback_Create", ADDRESS, ADDRESS.withTargetLayout(LAYOUT));
+
+		JOB_FUNCTION = functionPointerHandleVoid(ADDRESS);
+
+		Lookup lookup;
+		try {
+			lookup = MethodHandles.privateLookupIn(Dispatcher.class, MethodHandles.lookup());
+		} catch (IllegalAccessException e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot create private lookup: " + className);
+		}
+
+		QUEUE_JOB_DESCR = functionDescrVoid(ADDRESS, ADDRESS, ADDRESS);
+		QUEUE_JOBS_DESCR = functionDescrVoid(ADDRESS, ADDRESS, ADDRESS, JAVA_INT);
+
+		QUEUE_JOB_HANDLE = upcallHandle(lookup, Dispatcher.class, "queueJob", QUEUE_JOB_DESCR);
+		QUEUE_JOBS_HANDLE = upcallHandle(lookup, Dispatcher.class, "queueJobs", QUEUE_JOBS_DESCR);
+		//@formatter:on
+	}
+
+	/**
+	 * Runs the jobs on the pool, with the parallelism of the pool plus the
+	 * updating thread as max concurrency.
+	 */
+	public JobSystemCallback(ForkJoinPool pool) {
+		this(pool, pool.getParallelism() + 1);
+	}
+
+	public JobSystemCallback(Executor executor, int maxConcurrency) {
+		this(executor, maxConcurrency, 8, Arena.ofAuto());
+	}
+
+	/**
+	 * @param executor       the executor the jobs are submitted to
+	 * @param maxConcurrency maximum number of threads that execute jobs at the
+	 *                       same time, including the updating thread
+	 * @param maxBarriers    maximum number of barriers that can be in use at the
+	 *                       same time
+	 * @param arena          arena for the job system and its upcall stubs
+	 */
+	public JobSystemCallback(Executor executor, int maxConcurrency, int maxBarriers, Arena arena) {
+		if (maxConcurrency < 1)
+			throw new IllegalArgumentException("Max concurrency must be at least 1.");
+
+		Dispatcher dispatcher = new Dispatcher(executor);
+
+		MemorySegment segment;
+		try {
+			MemorySegment config = arena.allocate(LAYOUT);
+			CONTEXT.set(config, MemorySegment.NULL);
+			QUEUE_JOB.set(config, upcallStub(dispatcher, QUEUE_JOB_HANDLE, QUEUE_JOB_DESCR, arena));
+			QUEUE_JOBS.set(config, upcallStub(dispatcher, QUEUE_JOBS_HANDLE, QUEUE_JOBS_DESCR, arena));
+			MAX_CONCURRENCY.set(config, maxConcurrency);
+			MAX_BARRIERS.set(config, maxBarriers);
+
+			MethodHandle method = JPH_JOB_SYSTEM_CALLBACK_CREATE;
+			segment = (MemorySegment) method.invokeExact(config);
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot create job system callback: " + className);
+		}
+		super(segment, arena);
+
+		this.dispatcher = dispatcher;
+	}
+
+	public Executor getExecutor() {
+		return dispatcher.executor;
+	}
+
+	/**
+	 * Receives the jobs from jolt and submits them to the executor.
+	 */
+	private static final class Dispatcher {
+
+		private final Executor executor;
+
+		private Dispatcher(Executor executor) {
+			this.executor = executor;
+		}
+
+		@SuppressWarnings("unused")
+		private void queueJob(MemorySegment context, MemorySegment job, MemorySegment arg) {
+			submit(job, arg);
+		}
+
+		@SuppressWarnings("unused")
+		private void queueJobs(MemorySegment context, MemorySegment job, MemorySegment args, int count) {
+			MemorySegment array = args.reinterpret(ADDRESS.byteSize() * count);
+
+			for (int i = 0; i < count; i++)
+				submit(job, array.getAtIndex(ADDRESS, i));
+		}
+
+		private void submit(MemorySegment job, MemorySegment arg) {
+			Runnable task = () -> execute(job, arg);
+
+			// Nothing may escape the upcall, so any failure to hand over the job,
+			// not only a rejection, runs it on the calling thread.
+			try {
+				executor.execute(task);
+			} catch (Throwable e) {
+				task.run();
+			}
+		}
+
+		private static void execute(MemorySegment job, MemorySegment arg) {
+			try {
+				MethodHandle method = JOB_FUNCTION;
+				method.invokeExact(job, arg);
+			} catch (Throwable e) {
+				String className = e.getClass().getSimpleName();
+				throw new JoltRuntimeException("Cannot execute job: " + className);
+			}
+		}
+
+	}
+
+}
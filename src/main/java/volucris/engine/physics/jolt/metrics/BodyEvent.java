@@ -0,0 +1,43 @@
+package volucris.engine.physics.jolt.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+import volucris.engine.physics.jolt.body.BodyInterface;
+
+/**
+ * JFR event for creating, adding, removing, destroying, activating and
+ * deactivating bodies through {@link BodyInterface}. The batch functions record
+ * one event for all bodies.
+ */
+@Name("volucris.jolt.Body")
+@Label("Body Operation")
+@Category("Jolt Physics")
+@Description("Creation, insertion, removal, destruction, activation or deactivation of bodies")
+@Threshold("20 us")
+public final class BodyEvent extends Event {
+
+	@Label("Operation")
+	public String operation;
+
+	@Label("Body Count")
+	public int count;
+
+	/**
+	 * Commits the event if it is enabled and exceeds its threshold.
+	 */
+	public static void commit(BodyEvent event, String operation, int count) {
+		event.end();
+		if (!event.shouldCommit())
+			return;
+
+		event.operation = operation;
+		event.count = count;
+		event.commit();
+	}
+
+}
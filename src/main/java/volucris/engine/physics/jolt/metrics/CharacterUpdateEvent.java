@@ -0,0 +1,39 @@
+package volucris.engine.physics.jolt.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+import volucris.engine.physics.jolt.character.CharacterVirtual;
+
+/**
+ * JFR event for {@link CharacterVirtual#update} and
+ * {@link CharacterVirtual#extendedUpdate}.
+ */
+@Name("volucris.jolt.CharacterUpdate")
+@Label("Character Update")
+@Category("Jolt Physics")
+@Description("Update of a virtual character")
+@Threshold("20 us")
+public final class CharacterUpdateEvent extends Event {
+
+	@Label("Extended")
+	@Description("If the update included stair walking and sticking to the floor")
+	public boolean extended;
+
+	/**
+	 * Commits the event if it is enabled and exceeds its threshold.
+	 */
+	public static void commit(CharacterUpdateEvent event, boolean extended) {
+		event.end();
+		if (!event.shouldCommit())
+			return;
+
+		event.extended = extended;
+		event.commit();
+	}
+
+}
@@ -0,0 +1,36 @@
+package volucris.engine.physics.jolt.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import volucris.engine.physics.jolt.shape.ShapeSettings;
+
+/**
+ * JFR event for creating a shape from {@link ShapeSettings}, e.g. cooking a
+ * mesh or a convex hull.
+ */
+@Name("volucris.jolt.CreateShape")
+@Label("Create Shape")
+@Category("Jolt Physics")
+@Description("Shape created from shape settings")
+public final class CreateShapeEvent extends Event {
+
+	@Label("Settings")
+	public Class<?> settings;
+
+	/**
+	 * Commits the event if it is enabled and exceeds its threshold.
+	 */
+	public static void commit(CreateShapeEvent event, ShapeSettings settings) {
+		event.end();
+		if (!event.shouldCommit())
+			return;
+
+		event.settings = settings.getClass();
+		event.commit();
+	}
+
+}
@@ -0,0 +1,104 @@
+package volucris.engine.physics.jolt.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of durations in nanoseconds. Bucket i counts the
+ * durations below 2^i ns that did not fit into bucket i - 1, so percentiles
+ * are accurate to a factor of two. Recording never allocates and the values
+ * can be read from any thread while other threads keep recording.
+ */
+public final class LatencyHistogram {
+
+	/**
+	 * Bucket 39 ends at about 9 minutes, longer durations are counted in it as
+	 * well.
+	 */
+	public static final int BUCKET_COUNT = 40;
+
+	private final AtomicLongArray buckets;
+
+	private final AtomicLong count;
+	private final AtomicLong totalNanos;
+	private final AtomicLong maxNanos;
+
+	public LatencyHistogram() {
+		buckets = new AtomicLongArray(BUCKET_COUNT);
+
+		count = new AtomicLong();
+		totalNanos = new AtomicLong();
+		maxNanos = new AtomicLong();
+	}
+
+	public void record(long nanos) {
+		if (nanos < 0)
+			nanos = 0;
+
+		int bucket = Math.min(64 - Long.numberOfLeadingZeros(nanos), BUCKET_COUNT - 1);
+		buckets.incrementAndGet(bucket);
+
+		count.incrementAndGet();
+		totalNanos.addAndGet(nanos);
+
+		long max = maxNanos.get();
+		while (nanos > max && !maxNanos.compareAndSet(max, nanos))
+			max = maxNanos.get();
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getTotalNanos() {
+		return totalNanos.get();
+	}
+
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	public double getMeanNanos() {
+		long count = this.count.get();
+		return count == 0 ? 0 : (double) totalNanos.get() / count;
+	}
+
+	public long getBucketCount(int bucket) {
+		return buckets.get(bucket);
+	}
+
+	/**
+	 * Exclusive upper bound of the bucket in nanoseconds.
+	 */
+	public static long getBucketUpperBound(int bucket) {
+		return 1L << bucket;
+	}
+
+	/**
+	 * Upper bound of the bucket containing the given percentile, e.g. 0.99 for
+	 * the 99th percentile. Returns 0 if nothing was recorded.
+	 */
+	public long getPercentileNanos(double percentile) {
+		if (percentile < 0 || percentile > 1)
+			throw new IllegalArgumentException("Percentile must be between 0 and 1: " + percentile);
+
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++)
+			total += buckets.get(i);
+
+		if (total == 0)
+			return 0;
+
+		long rank = (long) Math.ceil(percentile * total);
+
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += buckets.get(i);
+			if (seen >= rank && seen > 0)
+				return Math.min(getBucketUpperBound(i), maxNanos.get());
+		}
+
+		return maxNanos.get();
+	}
+
+}
@@ -0,0 +1,83 @@
+package volucris.engine.physics.jolt.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import volucris.engine.physics.jolt.physicsSystem.PhysicsSystem;
+import volucris.engine.physics.jolt.physicsSystem.PhysicsUpdateError;
+
+/**
+ * Statistics of a single {@link PhysicsSystem}, filled by
+ * {@link PhysicsSystem#update(float, int, volucris.engine.physics.jolt.jobSystem.JobSystem)}
+ * once registered through {@link PhysicsSystem#setMetrics(PhysicsMetrics)}.
+ * All values can be read from any thread while the simulation is running.
+ * <p>
+ * Callback counts are global because listeners and filters can be shared
+ * between systems, see {@link UpcallMetrics}.
+ */
+public final class PhysicsMetrics {
+
+	private static final PhysicsUpdateError[] ERRORS = PhysicsUpdateError.values();
+
+	private final LatencyHistogram updateTime;
+
+	private final AtomicLongArray errors;
+
+	private volatile int numBodies;
+	private volatile int numActiveBodies;
+
+	public PhysicsMetrics() {
+		updateTime = new LatencyHistogram();
+		errors = new AtomicLongArray(ERRORS.length);
+	}
+
+	/**
+	 * Records one update.
+	 * 
+	 * @param error the error flags returned by jolt, several errors can occur in
+	 *              the same update
+	 */
+	public void recordUpdate(long nanos, int error, int numBodies, int numActiveBodies) {
+		updateTime.record(nanos);
+
+		for (PhysicsUpdateError value : ERRORS) {
+			if (value.id() != 0 && (error & value.id()) != 0)
+				errors.incrementAndGet(value.ordinal());
+		}
+
+		this.numBodies = numBodies;
+		this.numActiveBodies = numActiveBodies;
+	}
+
+	/**
+	 * Wall time of every update.
+	 */
+	public LatencyHistogram getUpdateTime() {
+		return updateTime;
+	}
+
+	public long getUpdateCount() {
+		return updateTime.getCount();
+	}
+
+	/**
+	 * How many updates reported the given error.
+	 */
+	public long getErrorCount(PhysicsUpdateError error) {
+		return errors.get(error.ordinal());
+	}
+
+	/**
+	 * Number of bodies after the last update.
+	 */
+	public int getNumBodies() {
+		return numBodies;
+	}
+
+	/**
+	 * Number of active rigid bodies after the last update.
+	 */
+	public int getNumActiveBodies() {
+		return numActiveBodies;
+	}
+
+}
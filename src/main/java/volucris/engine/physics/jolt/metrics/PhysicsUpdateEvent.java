@@ -0,0 +1,48 @@
+package volucris.engine.physics.jolt.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import volucris.engine.physics.jolt.physicsSystem.PhysicsSystem;
+
+/**
+ * JFR event for {@link PhysicsSystem#update}. Like every event in this package
+ * it is committed on the calling thread, so the native time lines up with the
+ * GC and allocation events of the same recording.
+ */
+@Name("volucris.jolt.PhysicsUpdate")
+@Label("Physics Update")
+@Category("Jolt Physics")
+@Description("Simulation step of a physics system")
+public final class PhysicsUpdateEvent extends Event {
+
+	@Label("Delta Time")
+	@Timespan(Timespan.NANOSECONDS)
+	public long deltaTime;
+
+	@Label("Collision Steps")
+	public int collisionSteps;
+
+	@Label("Error")
+	@Description("Error flags returned by jolt, 0 if the update succeeded")
+	public int error;
+
+	/**
+	 * Commits the event if it is enabled and exceeds its threshold.
+	 */
+	public static void commit(PhysicsUpdateEvent event, float deltaTime, int collisionSteps, int error) {
+		event.end();
+		if (!event.shouldCommit())
+			return;
+
+		event.deltaTime = (long) (deltaTime * 1_000_000_000d);
+		event.collisionSteps = collisionSteps;
+		event.error = error;
+		event.commit();
+	}
+
+}
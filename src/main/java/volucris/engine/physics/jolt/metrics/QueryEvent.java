@@ -0,0 +1,45 @@
+package volucris.engine.physics.jolt.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+import volucris.engine.physics.jolt.query.BroadPhaseQuery;
+import volucris.engine.physics.jolt.query.NarrowPhaseQuery;
+
+/**
+ * JFR event for the queries of {@link NarrowPhaseQuery} and
+ * {@link BroadPhaseQuery}. Only queries slower than the threshold are recorded
+ * by default, a game can run thousands of them per frame.
+ */
+@Name("volucris.jolt.Query")
+@Label("Physics Query")
+@Category("Jolt Physics")
+@Description("Ray cast, shape cast or collision query")
+@Threshold("20 us")
+public final class QueryEvent extends Event {
+
+	@Label("Query")
+	public String query;
+
+	@Label("Hit")
+	@Description("If the query found at least one hit")
+	public boolean hit;
+
+	/**
+	 * Commits the event if it is enabled and exceeds its threshold.
+	 */
+	public static void commit(QueryEvent event, String query, boolean hit) {
+		event.end();
+		if (!event.shouldCommit())
+			return;
+
+		event.query = query;
+		event.hit = hit;
+		event.commit();
+	}
+
+}
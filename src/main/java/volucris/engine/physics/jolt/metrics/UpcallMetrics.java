@@ -0,0 +1,91 @@
+package volucris.engine.physics.jolt.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of calls and time spent in every {@link UpcallType}, summed over all
+ * listeners, filters and threads. Callbacks run on the job threads, so the
+ * counters are striped to keep the threads from contending on them.
+ * <p>
+ * Disabled by default, see {@link #setEnabled(boolean)}, because timing a
+ * callback costs two {@link System#nanoTime()} calls, which is noticeable for
+ * filters that are called thousands of times per step.
+ */
+public final class UpcallMetrics {
+
+	private static volatile boolean enabled;
+
+	private static final UpcallType[] TYPES = UpcallType.values();
+
+	private static final LongAdder[] COUNTS;
+	private static final LongAdder[] NANOS;
+
+	static {
+		COUNTS = new LongAdder[TYPES.length];
+		NANOS = new LongAdder[TYPES.length];
+
+		for (int i = 0; i < TYPES.length; i++) {
+			COUNTS[i] = new LongAdder();
+			NANOS[i] = new LongAdder();
+		}
+	}
+
+	private UpcallMetrics() {
+
+	}
+
+	/**
+	 * Called when entering a callback.
+	 * 
+	 * @return the value to pass to {@link #end(UpcallType, long)}
+	 */
+	public static long begin() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Called when leaving a callback.
+	 */
+	public static void end(UpcallType type, long start) {
+		if (start == 0)
+			return;
+
+		COUNTS[type.ordinal()].increment();
+		NANOS[type.ordinal()].add(System.nanoTime() - start);
+	}
+
+	/**
+	 * Sets if callbacks are counted. Can be changed at any time, callbacks that
+	 * are running while it changes may or may not be counted.
+	 */
+	public static void setEnabled(boolean enabled) {
+		UpcallMetrics.enabled = enabled;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static long getCount(UpcallType type) {
+		return COUNTS[type.ordinal()].sum();
+	}
+
+	/**
+	 * Time spent in Java for the callback type, including the user code.
+	 */
+	public static long getTotalNanos(UpcallType type) {
+		return NANOS[type.ordinal()].sum();
+	}
+
+	/**
+	 * Resets all counters. Calls running at the same time may be lost or
+	 * counted.
+	 */
+	public static void reset() {
+		for (int i = 0; i < TYPES.length; i++) {
+			COUNTS[i].reset();
+			NANOS[i].reset();
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+package volucris.engine.physics.jolt.metrics;
+
+import volucris.engine.physics.jolt.BodyActivationListener;
+import volucris.engine.physics.jolt.ContactListener;
+import volucris.engine.physics.jolt.PhysicsStepListener;
+import volucris.engine.physics.jolt.character.CharacterContactListener;
+import volucris.engine.physics.jolt.filter.BodyFilter;
+import volucris.engine.physics.jolt.filter.BroadPhaseLayerFilter;
+import volucris.engine.physics.jolt.filter.ObjectLayerFilter;
+import volucris.engine.physics.jolt.filter.ShapeFilter;
+import volucris.engine.physics.jolt.filter.SimShapeFilter;
+
+/**
+ * The callbacks from jolt into Java counted by {@link UpcallMetrics}.
+ */
+public enum UpcallType {
+
+	/**
+	 * {@link ContactListener#onContactValidate}
+	 */
+	CONTACT_VALIDATE,
+
+	/**
+	 * {@link ContactListener#onContactAdded}
+	 */
+	CONTACT_ADDED,
+
+	/**
+	 * {@link ContactListener#onContactPersisted}
+	 */
+	CONTACT_PERSISTED,
+
+	/**
+	 * {@link ContactListener#onContactRemoved}
+	 */
+	CONTACT_REMOVED,
+
+	/**
+	 * {@link BodyActivationListener#onBodyActivated}
+	 */
+	BODY_ACTIVATED,
+
+	/**
+	 * {@link BodyActivationListener#onBodyDeactivated}
+	 */
+	BODY_DEACTIVATED,
+
+	/**
+	 * {@link PhysicsStepListener#onStep}
+	 */
+	STEP_LISTENER,
+
+	/**
+	 * {@link BroadPhaseLayerFilter}
+	 */
+	BROAD_PHASE_LAYER_FILTER,
+
+	/**
+	 * {@link ObjectLayerFilter}
+	 */
+	OBJECT_LAYER_FILTER,
+
+	/**
+	 * {@link BodyFilter}
+	 */
+	BODY_FILTER,
+
+	/**
+	 * {@link ShapeFilter}
+	 */
+	SHAPE_FILTER,
+
+	/**
+	 * {@link SimShapeFilter}
+	 */
+	SIM_SHAPE_FILTER,
+
+	/**
+	 * All callbacks of {@link CharacterContactListener}.
+	 */
+	CHARACTER_CONTACT;
+
+}
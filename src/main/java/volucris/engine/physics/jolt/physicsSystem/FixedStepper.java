@@ -0,0 +1,265 @@
+package volucris.engine.physics.jolt.physicsSystem;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import volucris.engine.physics.jolt.jobSystem.JobSystem;
+import volucris.engine.physics.jolt.math.Quat;
+import volucris.engine.physics.jolt.math.Vec3;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Steps a {@link PhysicsSystem} with a fixed time step and interpolates the body
+ * transforms for rendering.
+ * <p>
+ * {@link #advance(float)} adds the elapsed frame time to an accumulator and
+ * simulates as many fixed steps as fit into it. When several steps are due,
+ * all but the last are simulated in one update with one collision step per
+ * fixed step, followed by a second update for the last step, so there are never
+ * more than two updates per frame. The transforms before and after the last
+ * fixed step are kept off-heap, and the interpolated transforms can be read
+ * without allocating, using {@link #getAlpha()} or any other factor.
+ * <p>
+ * Rotations are interpolated with a normalized linear interpolation along the
+ * shortest path, which is indistinguishable from a slerp for the small
+ * rotations of a single step.
+ */
+public final class FixedStepper {
+
+	private static final long VEC3_SIZE = Vec3.LAYOUT().byteSize();
+	private static final long QUAT_SIZE = Quat.LAYOUT().byteSize();
+
+	private final PhysicsSystem system;
+	private final JobSystem jobSystem;
+
+	private final float fixedDeltaTime;
+	private final int maxSteps;
+
+	private PhysicsSnapshot previous;
+	private PhysicsSnapshot current;
+
+	private float accumulator;
+
+	private long step;
+
+	private PhysicsUpdateError lastError;
+
+	private final Vector3f vectorTmp;
+	private final Quaternionf quaternionTmp;
+
+	/**
+	 * Steps with 60 Hz and simulates at most 4 steps per frame.
+	 */
+	public FixedStepper(PhysicsSystem system, JobSystem jobSystem) {
+		this(system, jobSystem, 1f / 60f, 4);
+	}
+
+	public FixedStepper(PhysicsSystem system, JobSystem jobSystem, float fixedDeltaTime, int maxSteps) {
+		this(system, jobSystem, fixedDeltaTime, maxSteps, system.getMaxBodies(), Arena.ofAuto());
+	}
+
+	/**
+	 * @param fixedDeltaTime duration of a single step
+	 * @param maxSteps       maximum number of steps per call to
+	 *                       {@link #advance(float)}, time beyond that is dropped
+	 *                       so a slow frame cannot cause even slower frames
+	 * @param maxBodies      maximum number of bodies that are interpolated
+	 */
+	public FixedStepper(PhysicsSystem system, JobSystem jobSystem, float fixedDeltaTime, int maxSteps, int maxBodies,
+			Arena arena) {
+
+		if (fixedDeltaTime <= 0)
+			throw new IllegalArgumentException("Fixed delta time must be positive.");
+		if (maxSteps < 1)
+			throw new IllegalArgumentException("Max steps must be at least 1.");
+
+		this.system = system;
+		this.jobSystem = jobSystem;
+		this.fixedDeltaTime = fixedDeltaTime;
+		this.maxSteps = maxSteps;
+
+		previous = new PhysicsSnapshot(maxBodies, arena);
+		current = new PhysicsSnapshot(maxBodies, arena);
+
+		lastError = PhysicsUpdateError.NONE;
+
+		vectorTmp = new Vector3f();
+		quaternionTmp = new Quaternionf();
+
+		current.capture(system, step, lastError);
+		previous.capture(system, step, lastError);
+	}
+
+	/**
+	 * Advances the simulation by the elapsed time.
+	 *
+	 * @return the number of fixed steps that have been simulated
+	 */
+	public int advance(float elapsedTime) {
+		accumulator += elapsedTime;
+
+		int steps = (int) (accumulator / fixedDeltaTime);
+		if (steps == 0)
+			return 0;
+
+		if (steps > maxSteps) {
+			steps = maxSteps;
+			accumulator = steps * fixedDeltaTime;
+		}
+
+		accumulator -= steps * fixedDeltaTime;
+
+		lastError = PhysicsUpdateError.NONE;
+
+		if (steps > 1) {
+			// Catch up on all but the last step in one update, the last step runs in
+			// a second update below so it can be interpolated.
+			lastError = system.update((steps - 1) * fixedDeltaTime, steps - 1, jobSystem);
+			previous.capture(system, step + steps - 1, lastError);
+		} else {
+			PhysicsSnapshot swap = previous;
+			previous = current;
+			current = swap;
+		}
+
+		PhysicsUpdateError error = system.update(fixedDeltaTime, 1, jobSystem);
+		if (error != PhysicsUpdateError.NONE)
+			lastError = error;
+
+		step += steps;
+		current.capture(system, step, lastError);
+
+		return steps;
+	}
+
+	/**
+	 * How far the accumulated time is between the last and the next step, in
+	 * [0, 1).
+	 */
+	public float getAlpha() {
+		return accumulator / fixedDeltaTime;
+	}
+
+	/**
+	 * Number of bodies in the current state.
+	 */
+	public int getBodyCount() {
+		return current.getBodyCount();
+	}
+
+	public int getBodyID(int index) {
+		return current.getBodyID(index);
+	}
+
+	public Vector3f getInterpolatedPosition(int index, Vector3f target) {
+		return getInterpolatedPosition(index, getAlpha(), target);
+	}
+
+	public Vector3f getInterpolatedPosition(int index, float alpha, Vector3f target) {
+		current.getPosition(index, target);
+		if (!hasPrevious(index))
+			return target;
+
+		float x = lerp(previous.position(index, 0), target.x, alpha);
+		float y = lerp(previous.position(index, 1), target.y, alpha);
+		float z = lerp(previous.position(index, 2), target.z, alpha);
+
+		return target.set(x, y, z);
+	}
+
+	public Quaternionf getInterpolatedRotation(int index, Quaternionf target) {
+		return getInterpolatedRotation(index, getAlpha(), target);
+	}
+
+	public Quaternionf getInterpolatedRotation(int index, float alpha, Quaternionf target) {
+		current.getRotation(index, target);
+		if (!hasPrevious(index))
+			return target;
+
+		float x = previous.rotation(index, 0);
+		float y = previous.rotation(index, 1);
+		float z = previous.rotation(index, 2);
+		float w = previous.rotation(index, 3);
+
+		// Take the shortest path.
+		float sign = x * target.x + y * target.y + z * target.z + w * target.w < 0 ? -1 : 1;
+
+		float ix = lerp(x, target.x * sign, alpha);
+		float iy = lerp(y, target.y * sign, alpha);
+		float iz = lerp(z, target.z * sign, alpha);
+		float iw = lerp(w, target.w * sign, alpha);
+
+		return target.set(ix, iy, iz, iw).normalize();
+	}
+
+	/**
+	 * Writes the interpolated transforms of all bodies, packed like
+	 * {@link PhysicsSystem#getBodyStates(int[], MemorySegment, MemorySegment, MemorySegment, MemorySegment)
+	 * getBodyStates}. Either segment may be null.
+	 *
+	 * @return the number of bodies that have been written
+	 */
+	public int getInterpolatedTransforms(float alpha, MemorySegment positions, MemorySegment rotations) {
+		Vector3f position = vectorTmp;
+		Quaternionf rotation = quaternionTmp;
+
+		int count = getBodyCount();
+		for (int i = 0; i < count; i++) {
+			if (positions != null) {
+				getInterpolatedPosition(i, alpha, position);
+
+				long offset = i * VEC3_SIZE;
+				positions.set(JAVA_FLOAT, offset, position.x);
+				positions.set(JAVA_FLOAT, offset + 4, position.y);
+				positions.set(JAVA_FLOAT, offset + 8, position.z);
+			}
+
+			if (rotations != null) {
+				getInterpolatedRotation(i, alpha, rotation);
+
+				long offset = i * QUAT_SIZE;
+				rotations.set(JAVA_FLOAT, offset, rotation.x);
+				rotations.set(JAVA_FLOAT, offset + 4, rotation.y);
+				rotations.set(JAVA_FLOAT, offset + 8, rotation.z);
+				rotations.set(JAVA_FLOAT, offset + 12, rotation.w);
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * The last error reported by an update, {@link PhysicsUpdateError#NONE} if the
+	 * last call to {@link #advance(float)} had no errors.
+	 */
+	public PhysicsUpdateError getLastError() {
+		return lastError;
+	}
+
+	/**
+	 * Number of simulated fixed steps.
+	 */
+	public long getStep() {
+		return step;
+	}
+
+	public float getFixedDeltaTime() {
+		return fixedDeltaTime;
+	}
+
+	/**
+	 * Bodies that have been added since the previous state are not interpolated.
+	 */
+	private boolean hasPrevious(int index) {
+		return index < previous.getBodyCount() && previous.getBodyID(index) == current.getBodyID(index);
+	}
+
+	private static float lerp(float from, float to, float alpha) {
+		return from + (to - from) * alpha;
+	}
+
+}
@@ -0,0 +1,172 @@
+package volucris.engine.physics.jolt.physicsSystem;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.VarHandle;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import volucris.engine.physics.jolt.math.Quat;
+import volucris.engine.physics.jolt.math.Vec3;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * The body transforms after a completed step of a {@link PhysicsStepper}. The
+ * positions and rotations are stored off-heap, packed like
+ * {@link PhysicsSystem#getBodyStates(int[], MemorySegment, MemorySegment, MemorySegment, MemorySegment)
+ * getBodyStates}.
+ * <p>
+ * Snapshots are double buffered, so this is not a persistent copy: the snapshot
+ * of step n is reused and overwritten once step n + 2 has been simulated. Copy
+ * the data if it has to outlive that. Readers that might take longer than a
+ * step read {@link #getStep()} first, then the body count, error and body data,
+ * and finally call {@link #validate(long)} with the step read before. The data
+ * is only consistent if that returns true:
+ * 
+ * <pre>
+ * long step = snapshot.getStep();
+ * // read getBodyCount(), getPosition(...), ...
+ * boolean consistent = snapshot.validate(step); // else retry with the newer one
+ * </pre>
+ */
+public final class PhysicsSnapshot {
+
+	private static final long VEC3_SIZE = Vec3.LAYOUT().byteSize();
+	private static final long QUAT_SIZE = Quat.LAYOUT().byteSize();
+
+	private final int[] bodyIds;
+	private final MemorySegment bodyIdArray;
+
+	private final MemorySegment positions;
+	private final MemorySegment rotations;
+
+	private volatile long step;
+
+	private int bodyCount;
+
+	private PhysicsUpdateError error;
+
+	PhysicsSnapshot(int maxBodies, Arena arena) {
+		bodyIds = new int[maxBodies];
+		bodyIdArray = arena.allocate((long) Integer.BYTES * maxBodies, 4);
+
+		positions = arena.allocate(VEC3_SIZE * maxBodies, 4);
+		rotations = arena.allocate(QUAT_SIZE * maxBodies, 4);
+
+		step = -1;
+		error = PhysicsUpdateError.NONE;
+	}
+
+	/**
+	 * Overwrites the snapshot with the current state of the system.
+	 */
+	void capture(PhysicsSystem system, long step, PhysicsUpdateError error) {
+		this.step = -1;
+
+		// Keep the data writes below from becoming visible before the -1.
+		VarHandle.storeStoreFence();
+
+		// Not the scratch buffers of the system, which the other threads may use.
+		bodyCount = system.getBodyStates(bodyIds, bodyIdArray, positions, rotations, null, null);
+		this.error = error;
+
+		this.step = step;
+	}
+
+	/**
+	 * Number of the step this snapshot was taken after, starting at 0. -1 while
+	 * the snapshot is being written.
+	 */
+	public long getStep() {
+		return step;
+	}
+
+	/**
+	 * Checks after reading if the snapshot still holds the given step, i.e. that
+	 * it was not overwritten while the data was read.
+	 * 
+	 * @param step the value of {@link #getStep()} read before the data
+	 */
+	public boolean validate(long step) {
+		// Keep the data reads before from moving after the check.
+		VarHandle.loadLoadFence();
+		return step >= 0 && this.step == step;
+	}
+
+	public int getBodyCount() {
+		return bodyCount;
+	}
+
+	public PhysicsUpdateError getUpdateError() {
+		return error;
+	}
+
+	public int getBodyID(int index) {
+		return bodyIds[checkIndex(index)];
+	}
+
+	/**
+	 * Index of the body in this snapshot or -1.
+	 */
+	public int indexOf(int bodyId) {
+		for (int i = 0; i < bodyCount; i++) {
+			if (bodyIds[i] == bodyId)
+				return i;
+		}
+
+		return -1;
+	}
+
+	public Vector3f getPosition(int index, Vector3f target) {
+		long offset = checkIndex(index) * VEC3_SIZE;
+
+		float x = positions.get(JAVA_FLOAT, offset);
+		float y = positions.get(JAVA_FLOAT, offset + 4);
+		float z = positions.get(JAVA_FLOAT, offset + 8);
+
+		return target.set(x, y, z);
+	}
+
+	public Quaternionf getRotation(int index, Quaternionf target) {
+		long offset = checkIndex(index) * QUAT_SIZE;
+
+		float x = rotations.get(JAVA_FLOAT, offset);
+		float y = rotations.get(JAVA_FLOAT, offset + 4);
+		float z = rotations.get(JAVA_FLOAT, offset + 8);
+		float w = rotations.get(JAVA_FLOAT, offset + 12);
+
+		return target.set(x, y, z, w);
+	}
+
+	/**
+	 * Read-only view of the packed positions of all bodies in the snapshot.
+	 */
+	public MemorySegment getPositions() {
+		return positions.asSlice(0, bodyCount * VEC3_SIZE).asReadOnly();
+	}
+
+	/**
+	 * Read-only view of the packed rotations of all bodies in the snapshot.
+	 */
+	public MemorySegment getRotations() {
+		return rotations.asSlice(0, bodyCount * QUAT_SIZE).asReadOnly();
+	}
+
+	float position(int index, int component) {
+		return positions.get(JAVA_FLOAT, index * VEC3_SIZE + component * 4L);
+	}
+
+	float rotation(int index, int component) {
+		return rotations.get(JAVA_FLOAT, index * QUAT_SIZE + component * 4L);
+	}
+
+	private int checkIndex(int index) {
+		if (index < 0 || index >= bodyCount)
+			throw new IndexOutOfBoundsException(index);
+
+		return index;
+	}
+
+}
@@ -0,0 +1,113 @@
+package volucris.engine.physics.jolt.physicsSystem;
+
+import java.lang.foreign.Arena;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import volucris.engine.physics.jolt.jobSystem.JobSystem;
+
+/**
+ * Runs {@link PhysicsSystem#update(float, int, JobSystem)} on a dedicated
+ * thread, so the calling thread does not wait for the simulation.
+ * <p>
+ * Every step returns a future that completes with a {@link PhysicsSnapshot} of
+ * the body transforms after the step. The latest completed snapshot is also
+ * available through {@link #getLatestSnapshot()} without locking, so other
+ * threads can render or run game logic on the last step while the next one is
+ * simulated. Steps are executed in the order they are requested.
+ * <p>
+ * There are only two snapshots, used alternately. The snapshot returned for
+ * step n stays unchanged while step n + 1 is simulated and is overwritten when
+ * step n + 2 completes, see {@link PhysicsSnapshot} for detecting that.
+ * <p>
+ * While a step is running, the physics system must not be modified from other
+ * threads. The snapshots are captured without the scratch buffers of the
+ * system, so reading the system from other threads does not corrupt them.
+ * Waiting for the returned future is fine on virtual threads, since the native
+ * update itself runs on the stepper's platform thread.
+ */
+public final class PhysicsStepper implements AutoCloseable {
+
+	private final PhysicsSystem system;
+	private final JobSystem jobSystem;
+
+	private final ExecutorService executor;
+
+	private final PhysicsSnapshot[] snapshots;
+
+	private volatile PhysicsSnapshot latest;
+
+	private long step;
+
+	public PhysicsStepper(PhysicsSystem system, JobSystem jobSystem) {
+		this(system, jobSystem, system.getMaxBodies());
+	}
+
+	public PhysicsStepper(PhysicsSystem system, JobSystem jobSystem, int maxBodies) {
+		this(system, jobSystem, maxBodies, Arena.ofAuto());
+	}
+
+	/**
+	 * @param maxBodies maximum number of bodies in a snapshot
+	 * @param arena     arena for the snapshots, must be accessible from all threads
+	 *                  that read them
+	 */
+	public PhysicsStepper(PhysicsSystem system, JobSystem jobSystem, int maxBodies, Arena arena) {
+		this.system = system;
+		this.jobSystem = jobSystem;
+
+		snapshots = new PhysicsSnapshot[] { new PhysicsSnapshot(maxBodies, arena),
+				new PhysicsSnapshot(maxBodies, arena) };
+
+		executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Jolt Physics Stepper");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Queues a physics update. The snapshot the future completes with is only
+	 * valid until the step after next completes.
+	 *
+	 * @see PhysicsSystem#update(float, int, JobSystem)
+	 */
+	public CompletableFuture<PhysicsSnapshot> step(float deltaTime, int collisionSteps) {
+		return CompletableFuture.supplyAsync(() -> update(deltaTime, collisionSteps), executor);
+	}
+
+	private PhysicsSnapshot update(float deltaTime, int collisionSteps) {
+		PhysicsUpdateError error = system.update(deltaTime, collisionSteps, jobSystem);
+
+		// Write into the snapshot that is not the latest one.
+		PhysicsSnapshot snapshot = snapshots[(int) (step & 1)];
+		snapshot.capture(system, step, error);
+		step++;
+
+		latest = snapshot;
+
+		return snapshot;
+	}
+
+	/**
+	 * The snapshot of the last completed step or null if no step has completed
+	 * yet. It is overwritten when the step after next completes.
+	 */
+	public PhysicsSnapshot getLatestSnapshot() {
+		return latest;
+	}
+
+	public PhysicsSystem getPhysicsSystem() {
+		return system;
+	}
+
+	/**
+	 * Stops the stepper thread after the queued steps have finished.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+}
@@ -4,6 +4,7 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.MemorySegment;
 import java.lang.invoke.MethodHandle;
+import java.util.function.Supplier;
 
 import org.joml.Vector3f;
 
@@ -13,6 +14,7 @@ import volucris.engine.physics.jolt.DebugRenderer;
 import volucris.engine.physics.jolt.DrawSettings;
 import volucris.engine.physics.jolt.Jolt;
 import volucris.engine.physics.jolt.PhysicsStepListener;
+import volucris.engine.physics.jolt.body.Body;
 import volucris.engine.physics.jolt.body.BodyEnums.BodyType;
 import volucris.engine.physics.jolt.body.BodyInterface;
 import volucris.engine.physics.jolt.body.BodyLockInterface;
@@ -20,10 +22,12 @@ import volucris.engine.physics.jolt.constraint.Constraint;
 import volucris.engine.physics.jolt.filter.BodyDrawFilter;
 import volucris.engine.physics.jolt.filter.SimShapeFilter;
 import volucris.engine.physics.jolt.jobSystem.JobSystem;
-import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.PhysicsMetrics;
+import volucris.engine.physics.jolt.metrics.PhysicsUpdateEvent;
 import volucris.engine.physics.jolt.query.BroadPhaseQuery;
 import volucris.engine.physics.jolt.query.NarrowPhaseQuery;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
+import volucris.engine.physics.jolt.utils.ScratchBuffers;
 
 import static java.lang.foreign.ValueLayout.*;
 import static volucris.engine.physics.jolt.utils.FFMUtils.*;
@@ -87,7 +91,9 @@ public final class PhysicsSystem {
 	private final NarrowPhaseQuery narrowPhaseQuery;
 	private final NarrowPhaseQuery narrowPhaseQueryNoLock;
 
-	private Vec3 vecTmp;
+	private final Supplier<ScratchBuffers> scratch;
+
+	private PhysicsMetrics metrics;
 
 	static {
 		//@formatter:off
@@ -144,7 +150,7 @@ public final class PhysicsSystem {
 		narrowPhaseQuery = createNarrowPhaseQuery(arena);
 		narrowPhaseQueryNoLock = createNarrowPhaseQueryNoLock(arena);
 
-		vecTmp = new Vec3(arena);
+		scratch = ScratchBuffers.create(arena);
 
 		Jolt.addPhysicsSystem(jphPhysicsSystem.address(), this);
 	}
@@ -183,7 +189,7 @@ public final class PhysicsSystem {
 		narrowPhaseQuery = createNarrowPhaseQuery(arena);
 		narrowPhaseQueryNoLock = createNarrowPhaseQueryNoLock(arena);
 
-		vecTmp = new Vec3(arena);
+		scratch = ScratchBuffers.create(arena);
 
 		Jolt.addPhysicsSystem(jphPhysicsSystem.address(), this);
 	}
@@ -343,9 +349,22 @@ public final class PhysicsSystem {
 		try {
 			MemorySegment jobSystemAddr = jobSystem.memorySegment();
 
+			PhysicsMetrics metrics = this.metrics;
+			long start = metrics != null ? System.nanoTime() : 0;
+
+			PhysicsUpdateEvent event = new PhysicsUpdateEvent();
+			event.begin();
+
 			MethodHandle method = JPH_PHYSICS_SYSTEM_UPDATE;
 			int error = (int) method.invokeExact(jphPhysicsSystem, deltaTime, collisionSteps, jobSystemAddr);
 
+			PhysicsUpdateEvent.commit(event, deltaTime, collisionSteps, error);
+
+			if (metrics != null) {
+				long nanos = System.nanoTime() - start;
+				metrics.recordUpdate(nanos, error, getNumBodies(), getNumActiveBodies(BodyType.RIGID_BODY));
+			}
+
 			if (error == PhysicsUpdateError.NONE.id())
 				return PhysicsUpdateError.NONE;
 			else if (error == PhysicsUpdateError.MANIFOLD_CACHE_FULL.id())
@@ -502,6 +521,18 @@ public final class PhysicsSystem {
 		}
 	}
 
+	/**
+	 * Records the duration, errors and body counts of every update into the given
+	 * metrics. Pass null to stop recording.
+	 */
+	public void setMetrics(PhysicsMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	public PhysicsMetrics getMetrics() {
+		return metrics;
+	}
+
 	/**
 	 * Gets the current amount of bodies that are in the body manager.
 	 */
@@ -565,9 +596,11 @@ public final class PhysicsSystem {
 	 * Set gravity value.
 	 */
 	public void setGravity(float x, float y, float z) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(x, y, z);
-			JPH_PHYSICS_SYSTEM_SET_GRAVITY.invokeExact(jphPhysicsSystem, vecTmp.memorySegment());
+			tmp.vec().set(x, y, z);
+			JPH_PHYSICS_SYSTEM_SET_GRAVITY.invokeExact(jphPhysicsSystem, tmp.vec().memorySegment());
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot set gravity: " + className);
@@ -578,9 +611,11 @@ public final class PhysicsSystem {
 	 * 
 	 */
 	public Vector3f getGravity(Vector3f target) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			JPH_PHYSICS_SYSTEM_GET_GRAVITY.invokeExact(jphPhysicsSystem, vecTmp.memorySegment());
-			return vecTmp.get(target);
+			JPH_PHYSICS_SYSTEM_GET_GRAVITY.invokeExact(jphPhysicsSystem, tmp.vec().memorySegment());
+			return tmp.vec().get(target);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot get gravity: " + className);
@@ -716,13 +751,11 @@ public final class PhysicsSystem {
 	 * Get copy of the list of all bodies under protection of a lock.
 	 */
 	public int[] getBodies(int[] target) {
-		try (Arena arena = Arena.ofConfined()) {
-			int count = target.length > getNumBodies() ? getNumBodies() : target.length;
+		ScratchBuffers tmp = scratch.get();
 
-			MemorySegment array = arena.allocate(MemoryLayout.sequenceLayout(count, JAVA_INT));
-
-			MethodHandle method = JPH_PHYSICS_SYSTEM_GET_BODIES;
-			method.invokeExact(jphPhysicsSystem, array, count);
+		try {
+			MemorySegment array = tmp.ints(target.length);
+			int count = getBodies(array, target.length);
 
 			MemorySegment.copy(array, JAVA_INT, 0, target, 0, count);
 
@@ -733,6 +766,106 @@ public final class PhysicsSystem {
 		}
 	}
 
+	/**
+	 * Writes up to max body IDs to array and returns how many were written. The
+	 * array is filled with invalid IDs first, so the count is taken from the same
+	 * native call as the IDs.
+	 */
+	private int getBodies(MemorySegment array, int max) throws Throwable {
+		array.asSlice(0, (long) max * Integer.BYTES).fill((byte) 0xFF);
+
+		MethodHandle method = JPH_PHYSICS_SYSTEM_GET_BODIES;
+		method.invokeExact(jphPhysicsSystem, array, max);
+
+		// The IDs are written from the start, find the first invalid one.
+		int low = 0;
+		int high = max;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (Body.isIDValid(array.getAtIndex(JAVA_INT, mid)))
+				low = mid + 1;
+			else
+				high = mid;
+		}
+
+		return low;
+	}
+
+	/**
+	 * Reads the motion state of all bodies in one pass. The IDs of the bodies are
+	 * written to bodyIds (see {@link #getBodies(int[])}), the length of bodyIds
+	 * limits the number of bodies that are read. See
+	 * {@link BodyInterface#getBodyStates(int[], int, MemorySegment, MemorySegment, MemorySegment, MemorySegment)}
+	 * for the layout of the segments, any of them may be null.
+	 *
+	 * @return the number of bodies that have been written
+	 * @see #getActiveBodyStates(int[], MemorySegment, MemorySegment, MemorySegment, MemorySegment)
+	 */
+	public int getBodyStates(int[] bodyIds, MemorySegment positions, MemorySegment rotations,
+			MemorySegment linearVelocities, MemorySegment angularVelocities) {
+		MemorySegment array = scratch.get().ints(bodyIds.length);
+		return getBodyStates(bodyIds, array, positions, rotations, linearVelocities, angularVelocities);
+	}
+
+	/**
+	 * Like
+	 * {@link #getBodyStates(int[], MemorySegment, MemorySegment, MemorySegment, MemorySegment)},
+	 * but stages the IDs in the given native int array instead of the scratch
+	 * buffers, so it can run on another thread than the other calls.
+	 */
+	int getBodyStates(int[] bodyIds, MemorySegment array, MemorySegment positions, MemorySegment rotations,
+			MemorySegment linearVelocities, MemorySegment angularVelocities) {
+		int count;
+		try {
+			count = getBodies(array, bodyIds.length);
+
+			MemorySegment.copy(array, JAVA_INT, 0, bodyIds, 0, count);
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot get bodies: " + className);
+		}
+
+		bodyInterface.getBodyStates(bodyIds, count, positions, rotations, linearVelocities, angularVelocities);
+
+		return count;
+	}
+
+	/**
+	 * Like
+	 * {@link #getBodyStates(int[], MemorySegment, MemorySegment, MemorySegment, MemorySegment)},
+	 * but only reads the bodies that are active, so sleeping and static bodies
+	 * are skipped. The C API has no list of active bodies, so every body is
+	 * checked with {@link BodyInterface#isActive(int)}.
+	 *
+	 * @return the number of bodies that have been written
+	 */
+	public int getActiveBodyStates(int[] bodyIds, MemorySegment positions, MemorySegment rotations,
+			MemorySegment linearVelocities, MemorySegment angularVelocities) {
+		ScratchBuffers tmp = scratch.get();
+
+		int count = 0;
+		try {
+			int maxBodies = getMaxBodies();
+
+			MemorySegment array = tmp.ints(maxBodies);
+			int numBodies = getBodies(array, maxBodies);
+
+			for (int i = 0; i < numBodies && count < bodyIds.length; i++) {
+				int bodyId = array.getAtIndex(JAVA_INT, i);
+
+				if (bodyInterface.isActive(bodyId))
+					bodyIds[count++] = bodyId;
+			}
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot get active bodies: " + className);
+		}
+
+		bodyInterface.getBodyStates(bodyIds, count, positions, rotations, linearVelocities, angularVelocities);
+
+		return count;
+	}
+
 	/**
 	 * Get a list of all constraints.
 	 */
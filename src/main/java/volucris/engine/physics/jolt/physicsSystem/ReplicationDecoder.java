@@ -0,0 +1,187 @@
+package volucris.engine.physics.jolt.physicsSystem;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import volucris.engine.physics.jolt.JoltEnums.Activation;
+import volucris.engine.physics.jolt.body.BodyInterface;
+import volucris.engine.physics.jolt.math.Quat;
+import volucris.engine.physics.jolt.math.Vec3;
+
+import static java.lang.foreign.ValueLayout.*;
+import static volucris.engine.physics.jolt.physicsSystem.ReplicationEncoder.*;
+
+/**
+ * Decodes the packets of a {@link ReplicationEncoder} and applies them to the
+ * bodies with the same IDs.
+ * <p>
+ * {@link #decode(ByteBuffer)} reconstructs the transforms of the bodies in a
+ * packet into off-heap buffers. They are then written to the bodies in one
+ * batch, either directly with {@link #apply(Activation)} or by moving kinematic
+ * bodies with {@link #applyKinematic(float)}. Packets must be decoded in the
+ * order they have been encoded.
+ */
+public final class ReplicationDecoder {
+
+	private static final long VEC3_SIZE = Vec3.LAYOUT().byteSize();
+	private static final long QUAT_SIZE = Quat.LAYOUT().byteSize();
+
+	private final BodyInterface bodyInterface;
+
+	private final float precision;
+
+	private final int[] baselineIds;
+	private final int[] baselineX;
+	private final int[] baselineY;
+	private final int[] baselineZ;
+	private final int[] baselineRotations;
+
+	private final int[] bodyIds;
+	private final MemorySegment positions;
+	private final MemorySegment rotations;
+
+	private final float[] rotationTmp;
+
+	private long tick;
+	private int bodyCount;
+
+	public ReplicationDecoder(BodyInterface bodyInterface, int maxBodies) {
+		this(bodyInterface, 0.001f, maxBodies, Arena.ofAuto());
+	}
+
+	/**
+	 * @param precision the precision of the encoder
+	 * @param maxBodies the maximum number of bodies of the encoding physics system
+	 */
+	public ReplicationDecoder(BodyInterface bodyInterface, float precision, int maxBodies, Arena arena) {
+		if (precision <= 0)
+			throw new IllegalArgumentException("Precision must be positive.");
+
+		this.bodyInterface = bodyInterface;
+		this.precision = precision;
+
+		baselineIds = new int[maxBodies];
+		baselineX = new int[maxBodies];
+		baselineY = new int[maxBodies];
+		baselineZ = new int[maxBodies];
+		baselineRotations = new int[maxBodies];
+
+		bodyIds = new int[maxBodies];
+		positions = arena.allocate(VEC3_SIZE * maxBodies, 4);
+		rotations = arena.allocate(QUAT_SIZE * maxBodies, 4);
+
+		rotationTmp = new float[4];
+
+		tick = -1;
+
+		reset();
+	}
+
+	/**
+	 * Reads one packet from the buffer, starting at its position.
+	 *
+	 * @return the number of bodies in the packet
+	 */
+	public int decode(ByteBuffer buffer) {
+		long packetTick = buffer.getLong();
+		int count = buffer.getInt();
+
+		if (count < 0 || count > bodyIds.length)
+			throw new IllegalArgumentException("Invalid body count: " + count);
+
+		float[] rotation = rotationTmp;
+
+		for (int i = 0; i < count; i++) {
+			int bodyId = buffer.getInt();
+			int flags = buffer.get();
+
+			int index = bodyId & BODY_INDEX_MASK;
+
+			// The first update of a body must contain its complete transform.
+			int complete = POSITION | ROTATION;
+			if (baselineIds[index] != bodyId && (flags & (complete | POSITION_DELTA)) != complete)
+				throw new IllegalStateException("Missing baseline for body " + bodyId);
+
+			if ((flags & POSITION_DELTA) != 0) {
+				baselineX[index] += buffer.getShort();
+				baselineY[index] += buffer.getShort();
+				baselineZ[index] += buffer.getShort();
+			} else if ((flags & POSITION) != 0) {
+				baselineX[index] = buffer.getInt();
+				baselineY[index] = buffer.getInt();
+				baselineZ[index] = buffer.getInt();
+			}
+
+			if ((flags & ROTATION) != 0)
+				baselineRotations[index] = buffer.getInt();
+
+			baselineIds[index] = bodyId;
+
+			decodeRotation(baselineRotations[index], rotation);
+
+			long offset = i * QUAT_SIZE;
+			rotations.set(JAVA_FLOAT, offset, rotation[0]);
+			rotations.set(JAVA_FLOAT, offset + 4, rotation[1]);
+			rotations.set(JAVA_FLOAT, offset + 8, rotation[2]);
+			rotations.set(JAVA_FLOAT, offset + 12, rotation[3]);
+
+			offset = i * VEC3_SIZE;
+			positions.set(JAVA_FLOAT, offset, baselineX[index] * precision);
+			positions.set(JAVA_FLOAT, offset + 4, baselineY[index] * precision);
+			positions.set(JAVA_FLOAT, offset + 8, baselineZ[index] * precision);
+
+			bodyIds[i] = bodyId;
+		}
+
+		tick = packetTick;
+		bodyCount = count;
+
+		return count;
+	}
+
+	/**
+	 * Sets the position and rotation of the bodies of the last packet.
+	 */
+	public void apply(Activation activation) {
+		bodyInterface.setPositionsAndRotationsWhenChanged(bodyIds, bodyCount, positions, rotations, activation);
+	}
+
+	/**
+	 * Moves the kinematic bodies of the last packet to their transforms in
+	 * deltaTime seconds, usually the time between two packets.
+	 */
+	public void applyKinematic(float deltaTime) {
+		bodyInterface.moveKinematic(bodyIds, bodyCount, positions, rotations, deltaTime);
+	}
+
+	/**
+	 * Forgets all baselines, for when the encoder resets the client.
+	 */
+	public void reset() {
+		Arrays.fill(baselineIds, -1);
+	}
+
+	/**
+	 * Tick of the last packet or -1.
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * Number of bodies in the last packet.
+	 */
+	public int getBodyCount() {
+		return bodyCount;
+	}
+
+	public int getBodyID(int index) {
+		if (index < 0 || index >= bodyCount)
+			throw new IndexOutOfBoundsException(index);
+
+		return bodyIds[index];
+	}
+
+}
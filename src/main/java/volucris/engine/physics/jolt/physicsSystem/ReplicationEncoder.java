@@ -0,0 +1,382 @@
+package volucris.engine.physics.jolt.physicsSystem;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import volucris.engine.physics.jolt.math.Quat;
+import volucris.engine.physics.jolt.math.Vec3;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Encodes body transforms into compact delta packets for network replication.
+ * <p>
+ * {@link #capture()} reads the transforms of all bodies once per tick and
+ * quantizes them: positions to a grid with the configured precision, rotations
+ * with the smallest three encoding into 32 bits. {@link #encode(Client, long,
+ * ByteBuffer)} then writes, per client, only the bodies whose quantized
+ * transform differs from the last one sent to that client. Position changes
+ * that fit into 16 bits per axis are sent as deltas. Every body is compared,
+ * including sleeping and static ones, so bodies that were deferred or moved
+ * without being activated are still sent.
+ * <p>
+ * The baseline of a client is the last state written for it, so packets must
+ * be delivered reliably and in order, e.g. over a TCP stream. Call
+ * {@link Client#reset()} to send a full state, e.g. after a client reconnects.
+ * <p>
+ * A packet is laid out as the tick (long) and the number of bodies (int),
+ * followed per body by the body ID (int), a flags byte, the position as three
+ * shorts (delta) or three ints (absolute) and the rotation as an int. The
+ * {@link ReplicationDecoder} reads packets of this layout. Adding and removing
+ * bodies is not part of the packets.
+ */
+public final class ReplicationEncoder {
+
+	static final int POSITION = 1;
+	static final int POSITION_DELTA = 1 << 1;
+	static final int ROTATION = 1 << 2;
+
+	static final int HEADER_SIZE = Long.BYTES + Integer.BYTES;
+	static final int MAX_BODY_SIZE = Integer.BYTES + 1 + 3 * Integer.BYTES + Integer.BYTES;
+
+	static final int BODY_INDEX_MASK = 0x007FFFFF;
+
+	private static final long VEC3_SIZE = Vec3.LAYOUT().byteSize();
+	private static final long QUAT_SIZE = Quat.LAYOUT().byteSize();
+
+	private static final float SQRT2 = (float) Math.sqrt(2);
+	private static final int COMPONENT_MAX = (1 << 10) - 1;
+
+	private final PhysicsSystem system;
+
+	private final float precision;
+	private final float inversePrecision;
+
+	private final int maxBodies;
+
+	private final int[] bodyIds;
+	private final MemorySegment positions;
+	private final MemorySegment rotations;
+
+	private final int[] quantizedX;
+	private final int[] quantizedY;
+	private final int[] quantizedZ;
+	private final int[] quantizedRotations;
+
+	private int bodyCount;
+
+	/**
+	 * Quantizes positions to millimeters.
+	 */
+	public ReplicationEncoder(PhysicsSystem system) {
+		this(system, 0.001f);
+	}
+
+	public ReplicationEncoder(PhysicsSystem system, float precision) {
+		this(system, precision, Arena.ofAuto());
+	}
+
+	/**
+	 * @param precision size of the grid positions are quantized to, must be the
+	 *                  same for the decoder
+	 */
+	public ReplicationEncoder(PhysicsSystem system, float precision, Arena arena) {
+		if (precision <= 0)
+			throw new IllegalArgumentException("Precision must be positive.");
+
+		this.system = system;
+		this.precision = precision;
+		this.inversePrecision = 1f / precision;
+		this.maxBodies = system.getMaxBodies();
+
+		// Baselines of the clients are indexed by the index part of the body ID.
+		bodyIds = new int[maxBodies];
+		positions = arena.allocate(VEC3_SIZE * maxBodies, 4);
+		rotations = arena.allocate(QUAT_SIZE * maxBodies, 4);
+
+		quantizedX = new int[maxBodies];
+		quantizedY = new int[maxBodies];
+		quantizedZ = new int[maxBodies];
+		quantizedRotations = new int[maxBodies];
+	}
+
+	/**
+	 * Reads and quantizes the transforms of all bodies. Call once per tick before
+	 * encoding the packets of the clients.
+	 *
+	 * @return the number of bodies that have been captured
+	 */
+	public int capture() {
+		int count = system.getBodyStates(bodyIds, positions, rotations, null, null);
+
+		for (int i = 0; i < count; i++) {
+			long offset = i * VEC3_SIZE;
+			quantizedX[i] = quantize(positions.get(JAVA_FLOAT, offset));
+			quantizedY[i] = quantize(positions.get(JAVA_FLOAT, offset + 4));
+			quantizedZ[i] = quantize(positions.get(JAVA_FLOAT, offset + 8));
+
+			offset = i * QUAT_SIZE;
+			float x = rotations.get(JAVA_FLOAT, offset);
+			float y = rotations.get(JAVA_FLOAT, offset + 4);
+			float z = rotations.get(JAVA_FLOAT, offset + 8);
+			float w = rotations.get(JAVA_FLOAT, offset + 12);
+			quantizedRotations[i] = encodeRotation(x, y, z, w);
+		}
+
+		bodyCount = count;
+
+		return count;
+	}
+
+	/**
+	 * Creates the baseline for a new client, the first packet contains all
+	 * bodies.
+	 */
+	public Client createClient() {
+		return new Client(maxBodies);
+	}
+
+	/**
+	 * Writes the changes since the last packet of the client into the buffer,
+	 * starting at its position. Bodies that do not fit into the buffer are sent
+	 * with the next packet.
+	 *
+	 * @return the number of bodies that have been written
+	 */
+	public int encode(Client client, long tick, ByteBuffer buffer) {
+		if (buffer.remaining() < HEADER_SIZE)
+			throw new IllegalArgumentException("Buffer is too small for the packet header.");
+
+		buffer.putLong(tick);
+		int countPosition = buffer.position();
+		buffer.putInt(0);
+
+		int written = 0;
+
+		for (int i = 0; i < bodyCount; i++) {
+			int bodyId = bodyIds[i];
+			int index = bodyId & BODY_INDEX_MASK;
+
+			boolean known = client.bodyIds[index] == bodyId;
+
+			int x = quantizedX[i];
+			int y = quantizedY[i];
+			int z = quantizedZ[i];
+			int rotation = quantizedRotations[i];
+
+			int flags = 0;
+
+			if (!known || x != client.x[index] || y != client.y[index] || z != client.z[index]) {
+				flags |= POSITION;
+
+				if (known && fitsShort(x - client.x[index]) && fitsShort(y - client.y[index])
+						&& fitsShort(z - client.z[index]))
+					flags |= POSITION_DELTA;
+			}
+
+			if (!known || rotation != client.rotations[index])
+				flags |= ROTATION;
+
+			if (flags == 0)
+				continue;
+
+			if (buffer.remaining() < MAX_BODY_SIZE)
+				break;
+
+			buffer.putInt(bodyId);
+			buffer.put((byte) flags);
+
+			if ((flags & POSITION_DELTA) != 0) {
+				buffer.putShort((short) (x - client.x[index]));
+				buffer.putShort((short) (y - client.y[index]));
+				buffer.putShort((short) (z - client.z[index]));
+			} else if ((flags & POSITION) != 0) {
+				buffer.putInt(x);
+				buffer.putInt(y);
+				buffer.putInt(z);
+			}
+
+			if ((flags & ROTATION) != 0)
+				buffer.putInt(rotation);
+
+			client.bodyIds[index] = bodyId;
+			client.x[index] = x;
+			client.y[index] = y;
+			client.z[index] = z;
+			client.rotations[index] = rotation;
+
+			written++;
+		}
+
+		buffer.putInt(countPosition, written);
+
+		return written;
+	}
+
+	/**
+	 * Number of bodies in the last capture.
+	 */
+	public int getBodyCount() {
+		return bodyCount;
+	}
+
+	public float getPrecision() {
+		return precision;
+	}
+
+	private int quantize(float value) {
+		return Math.round(value * inversePrecision);
+	}
+
+	private static boolean fitsShort(int value) {
+		return value >= Short.MIN_VALUE && value <= Short.MAX_VALUE;
+	}
+
+	/**
+	 * Packs a unit quaternion into the index of its largest component (2 bits)
+	 * and the other three components with 10 bits each. The largest component is
+	 * made positive, which does not change the rotation.
+	 */
+	static int encodeRotation(float x, float y, float z, float w) {
+		float ax = Math.abs(x);
+		float ay = Math.abs(y);
+		float az = Math.abs(z);
+		float aw = Math.abs(w);
+
+		int largest = 0;
+		float max = ax;
+		if (ay > max) {
+			largest = 1;
+			max = ay;
+		}
+		if (az > max) {
+			largest = 2;
+			max = az;
+		}
+		if (aw > max)
+			largest = 3;
+
+		float a, b, c, largestValue;
+		switch (largest) {
+		case 0 -> {
+			a = y;
+			b = z;
+			c = w;
+			largestValue = x;
+		}
+		case 1 -> {
+			a = x;
+			b = z;
+			c = w;
+			largestValue = y;
+		}
+		case 2 -> {
+			a = x;
+			b = y;
+			c = w;
+			largestValue = z;
+		}
+		default -> {
+			a = x;
+			b = y;
+			c = z;
+			largestValue = w;
+		}
+		}
+
+		if (largestValue < 0) {
+			a = -a;
+			b = -b;
+			c = -c;
+		}
+
+		return largest << 30 | encodeComponent(a) << 20 | encodeComponent(b) << 10 | encodeComponent(c);
+	}
+
+	/**
+	 * Unpacks a rotation of {@link #encodeRotation(float, float, float, float)}
+	 * into x, y, z, w.
+	 */
+	static void decodeRotation(int packed, float[] target) {
+		int largest = packed >>> 30;
+
+		float a = decodeComponent(packed >>> 20);
+		float b = decodeComponent(packed >>> 10);
+		float c = decodeComponent(packed);
+
+		float largestValue = (float) Math.sqrt(Math.max(0, 1 - a * a - b * b - c * c));
+
+		switch (largest) {
+		case 0 -> {
+			target[0] = largestValue;
+			target[1] = a;
+			target[2] = b;
+			target[3] = c;
+		}
+		case 1 -> {
+			target[0] = a;
+			target[1] = largestValue;
+			target[2] = b;
+			target[3] = c;
+		}
+		case 2 -> {
+			target[0] = a;
+			target[1] = b;
+			target[2] = largestValue;
+			target[3] = c;
+		}
+		default -> {
+			target[0] = a;
+			target[1] = b;
+			target[2] = c;
+			target[3] = largestValue;
+		}
+		}
+	}
+
+	/**
+	 * The three smallest components are in [-1/sqrt(2), 1/sqrt(2)].
+	 */
+	private static int encodeComponent(float value) {
+		float normalized = Math.clamp(value * SQRT2 * 0.5f + 0.5f, 0f, 1f);
+		return Math.round(normalized * COMPONENT_MAX);
+	}
+
+	private static float decodeComponent(int bits) {
+		float normalized = (bits & COMPONENT_MAX) / (float) COMPONENT_MAX;
+		return (normalized * 2f - 1f) / SQRT2;
+	}
+
+	/**
+	 * The quantized transforms last sent to a client.
+	 */
+	public static final class Client {
+
+		private final int[] bodyIds;
+		private final int[] x;
+		private final int[] y;
+		private final int[] z;
+		private final int[] rotations;
+
+		private Client(int maxBodies) {
+			bodyIds = new int[maxBodies];
+			x = new int[maxBodies];
+			y = new int[maxBodies];
+			z = new int[maxBodies];
+			rotations = new int[maxBodies];
+
+			reset();
+		}
+
+		/**
+		 * Forgets the baseline, the next packet contains all bodies.
+		 */
+		public void reset() {
+			Arrays.fill(bodyIds, -1);
+		}
+
+	}
+
+}
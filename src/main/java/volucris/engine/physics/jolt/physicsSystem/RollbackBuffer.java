@@ -0,0 +1,236 @@
+package volucris.engine.physics.jolt.physicsSystem;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import volucris.engine.physics.jolt.JoltEnums.Activation;
+import volucris.engine.physics.jolt.body.BodyEnums.MotionType;
+import volucris.engine.physics.jolt.body.BodyInterface;
+import volucris.engine.physics.jolt.math.Quat;
+import volucris.engine.physics.jolt.math.Vec3;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Ring buffer of full body states for rollback networking. Every frame stores
+ * position, rotation, linear and angular velocity, motion type and activation
+ * state of all bodies in the system. The memory for all frames is allocated
+ * off-heap up front, capturing and restoring creates no objects per body.
+ * <p>
+ * Static bodies are not stored, since writing their transforms would update
+ * their bounds in the broad phase on every restore. Moving a static body or
+ * changing the motion type of a body from or to static is not rolled back.
+ * <p>
+ * Restoring only writes the state of bodies, the set of bodies in the system
+ * must be the same as at the time of the capture.
+ */
+public final class RollbackBuffer {
+
+	private static final long VEC3_SIZE = Vec3.LAYOUT().byteSize();
+	private static final long QUAT_SIZE = Quat.LAYOUT().byteSize();
+
+	private static final int ACTIVE = 1 << 2;
+	private static final int MOTION_TYPE_MASK = 3;
+
+	private static final MotionType[] MOTION_TYPES;
+
+	private final PhysicsSystem system;
+	private final BodyInterface bodyInterface;
+
+	private final Frame[] frames;
+
+	private final MemorySegment activeIds;
+	private final MemorySegment inactiveIds;
+
+	static {
+		MOTION_TYPES = new MotionType[MOTION_TYPE_MASK + 1];
+		for (MotionType type : MotionType.values())
+			MOTION_TYPES[type.id()] = type;
+	}
+
+	public RollbackBuffer(PhysicsSystem system, int frameCount) {
+		this(system, frameCount, system.getMaxBodies(), Arena.ofAuto());
+	}
+
+	/**
+	 * @param frameCount number of frames that are kept, older frames are
+	 *                   overwritten
+	 * @param maxBodies  maximum number of bodies per frame
+	 */
+	public RollbackBuffer(PhysicsSystem system, int frameCount, int maxBodies, Arena arena) {
+		if (frameCount < 1)
+			throw new IllegalArgumentException("Frame count must be at least 1.");
+
+		this.system = system;
+		this.bodyInterface = system.getBodyInterface();
+
+		// Rounded up so every frame starts 4 byte aligned like its vectors.
+		long frameSize = (maxBodies * (VEC3_SIZE * 3 + QUAT_SIZE + 1) + 3) & ~3;
+		MemorySegment memory = arena.allocate(frameSize * frameCount, 4);
+
+		frames = new Frame[frameCount];
+		for (int i = 0; i < frameCount; i++)
+			frames[i] = new Frame(memory.asSlice(i * frameSize, frameSize), maxBodies);
+
+		activeIds = arena.allocate(JAVA_INT, maxBodies);
+		inactiveIds = arena.allocate(JAVA_INT, maxBodies);
+	}
+
+	/**
+	 * Stores the state of all non-static bodies as the given tick, overwriting
+	 * the oldest frame.
+	 *
+	 * @return the number of bodies that have been captured
+	 */
+	public int capture(long tick) {
+		Frame frame = frames[slot(tick)];
+
+		frame.tick = -1;
+
+		int count = system.getBodyStates(frame.bodyIds, frame.positions, frame.rotations, frame.linearVelocities,
+				frame.angularVelocities);
+
+		// Drop the static bodies by moving the others to the front.
+		int stored = 0;
+		for (int i = 0; i < count; i++) {
+			int bodyId = frame.bodyIds[i];
+
+			MotionType motionType = bodyInterface.getMotionType(bodyId);
+			if (motionType == MotionType.STATIC)
+				continue;
+
+			if (stored != i)
+				frame.move(i, stored);
+
+			int state = motionType.id();
+			if (bodyInterface.isActive(bodyId))
+				state |= ACTIVE;
+
+			frame.states.set(JAVA_BYTE, stored, (byte) state);
+			stored++;
+		}
+
+		frame.count = stored;
+		frame.tick = tick;
+
+		return stored;
+	}
+
+	/**
+	 * Writes the state stored for the given tick back to the bodies.
+	 *
+	 * @return false if the tick is not in the buffer anymore
+	 */
+	public boolean restore(long tick) {
+		Frame frame = frames[slot(tick)];
+		if (frame.tick != tick)
+			return false;
+
+		int count = frame.count;
+
+		for (int i = 0; i < count; i++) {
+			int bodyId = frame.bodyIds[i];
+
+			MotionType motionType = MOTION_TYPES[frame.states.get(JAVA_BYTE, i) & MOTION_TYPE_MASK];
+			if (bodyInterface.getMotionType(bodyId) != motionType)
+				bodyInterface.setMotionType(bodyId, motionType, Activation.DONT_ACTIVATE);
+		}
+
+		bodyInterface.setBodyStates(frame.bodyIds, count, frame.positions, frame.rotations, frame.linearVelocities,
+				frame.angularVelocities, Activation.DONT_ACTIVATE);
+
+		int active = 0;
+		int inactive = 0;
+		for (int i = 0; i < count; i++) {
+			int state = frame.states.get(JAVA_BYTE, i);
+			if ((state & ACTIVE) != 0)
+				activeIds.setAtIndex(JAVA_INT, active++, frame.bodyIds[i]);
+			else
+				inactiveIds.setAtIndex(JAVA_INT, inactive++, frame.bodyIds[i]);
+		}
+
+		// Setting velocities wakes bodies up, so deactivate afterwards.
+		if (active > 0)
+			bodyInterface.activateBodies(activeIds, active);
+		if (inactive > 0)
+			bodyInterface.deactivateBodies(inactiveIds, inactive);
+
+		return true;
+	}
+
+	/**
+	 * If the state of the tick is still stored.
+	 */
+	public boolean contains(long tick) {
+		return frames[slot(tick)].tick == tick;
+	}
+
+	/**
+	 * Number of bodies stored for the tick or -1 if the tick is not stored.
+	 */
+	public int getBodyCount(long tick) {
+		Frame frame = frames[slot(tick)];
+		return frame.tick == tick ? frame.count : -1;
+	}
+
+	public int getFrameCount() {
+		return frames.length;
+	}
+
+	private int slot(long tick) {
+		if (tick < 0)
+			throw new IllegalArgumentException("Tick must not be negative.");
+
+		return (int) (tick % frames.length);
+	}
+
+	private static final class Frame {
+
+		private final int[] bodyIds;
+
+		private final MemorySegment positions;
+		private final MemorySegment rotations;
+		private final MemorySegment linearVelocities;
+		private final MemorySegment angularVelocities;
+		private final MemorySegment states;
+
+		private long tick;
+		private int count;
+
+		private Frame(MemorySegment memory, int maxBodies) {
+			bodyIds = new int[maxBodies];
+
+			long offset = 0;
+
+			positions = memory.asSlice(offset, VEC3_SIZE * maxBodies);
+			offset += VEC3_SIZE * maxBodies;
+
+			linearVelocities = memory.asSlice(offset, VEC3_SIZE * maxBodies);
+			offset += VEC3_SIZE * maxBodies;
+
+			angularVelocities = memory.asSlice(offset, VEC3_SIZE * maxBodies);
+			offset += VEC3_SIZE * maxBodies;
+
+			rotations = memory.asSlice(offset, QUAT_SIZE * maxBodies);
+			offset += QUAT_SIZE * maxBodies;
+
+			states = memory.asSlice(offset, maxBodies);
+
+			tick = -1;
+		}
+
+		/**
+		 * Copies the state of the body at index from to index to.
+		 */
+		private void move(int from, int to) {
+			bodyIds[to] = bodyIds[from];
+
+			MemorySegment.copy(positions, from * VEC3_SIZE, positions, to * VEC3_SIZE, VEC3_SIZE);
+			MemorySegment.copy(rotations, from * QUAT_SIZE, rotations, to * QUAT_SIZE, QUAT_SIZE);
+			MemorySegment.copy(linearVelocities, from * VEC3_SIZE, linearVelocities, to * VEC3_SIZE, VEC3_SIZE);
+			MemorySegment.copy(angularVelocities, from * VEC3_SIZE, angularVelocities, to * VEC3_SIZE, VEC3_SIZE);
+		}
+
+	}
+
+}
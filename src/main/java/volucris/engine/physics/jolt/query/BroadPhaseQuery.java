@@ -3,18 +3,20 @@ package volucris.engine.physics.jolt.query;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.invoke.MethodHandle;
+import java.util.function.Supplier;
 
 import org.joml.Vector3f;
 
 import volucris.engine.physics.jolt.filter.BroadPhaseLayerFilter;
 import volucris.engine.physics.jolt.filter.ObjectLayerFilter;
 import volucris.engine.physics.jolt.math.AABox;
-import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.QueryEvent;
 import volucris.engine.physics.jolt.raycast.CollideShapeBodyCollectorCallback;
 import volucris.engine.physics.jolt.raycast.CollisionCollectorType;
 import volucris.engine.physics.jolt.raycast.RayCastBodyCollectorCallback;
 import volucris.engine.physics.jolt.raycast.RayCastBodyResultCallback;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
+import volucris.engine.physics.jolt.utils.ScratchBuffers;
 
 import static java.lang.foreign.ValueLayout.*;
 import static volucris.engine.physics.jolt.utils.FFMUtils.*;
@@ -35,8 +37,7 @@ public final class BroadPhaseQuery {
 
 	private final MemorySegment jphBroadPhaseQuery;
 
-	private Vec3 vecTmp;
-	private Vec3 vecTmp2;
+	private final Supplier<ScratchBuffers> scratch;
 
 	static {
 		//@formatter:off
@@ -55,8 +56,7 @@ public final class BroadPhaseQuery {
 	public BroadPhaseQuery(MemorySegment segment, Arena arena) {
 		jphBroadPhaseQuery = segment;
 
-		vecTmp = new Vec3(arena);
-		vecTmp2 = new Vec3(arena);
+		scratch = ScratchBuffers.create(arena);
 	}
 
 	/**
@@ -64,19 +64,28 @@ public final class BroadPhaseQuery {
 	 */
 	public boolean castRay(Vector3f origin, Vector3f direction, RayCastBodyCollectorCallback callback,
 			MemorySegment userData, BroadPhaseLayerFilter broadPhaseLayerFilter, ObjectLayerFilter objectLayerFilter) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(origin);
-			vecTmp2.set(direction);
+			tmp.vec().set(origin);
+			tmp.vec2().set(direction);
 
 			MemorySegment query = jphBroadPhaseQuery;
-			MemorySegment origAddr = vecTmp.memorySegment();
-			MemorySegment dirAddr = vecTmp2.memorySegment();
+			MemorySegment origAddr = tmp.vec().memorySegment();
+			MemorySegment dirAddr = tmp.vec2().memorySegment();
 			MemorySegment callAddr = callback.memorySegment();
 			MemorySegment filt1Addr = broadPhaseLayerFilter.memorySegment();
 			MemorySegment filt2Addr = objectLayerFilter.memorySegment();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BROAD_PHASE_QUERY_CAST_RAY;
-			return (boolean) method.invokeExact(query, origAddr, dirAddr, callAddr, userData, filt1Addr, filt2Addr);
+			boolean hit = (boolean) method.invokeExact(query, origAddr, dirAddr, callAddr, userData, filt1Addr,
+					filt2Addr);
+
+			QueryEvent.commit(event, "BroadPhaseQuery.castRay", hit);
+			return hit;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot cast ray: " + className);
@@ -89,21 +98,30 @@ public final class BroadPhaseQuery {
 	public boolean castRay(Vector3f origin, Vector3f direction, CollisionCollectorType collectorType,
 			RayCastBodyResultCallback callback, MemorySegment data, BroadPhaseLayerFilter broadPhaseLayerFilter,
 			ObjectLayerFilter objectLayerFilter) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(origin);
-			vecTmp2.set(direction);
+			tmp.vec().set(origin);
+			tmp.vec2().set(direction);
 
 			MemorySegment query = jphBroadPhaseQuery;
-			MemorySegment origAddr = vecTmp.memorySegment();
-			MemorySegment dirAddr = vecTmp2.memorySegment();
+			MemorySegment origAddr = tmp.vec().memorySegment();
+			MemorySegment dirAddr = tmp.vec2().memorySegment();
 			MemorySegment callAddr = callback.memorySegment();
 			MemorySegment filt1Addr = broadPhaseLayerFilter.memorySegment();
 			MemorySegment filt2Addr = objectLayerFilter.memorySegment();
 
 			int type = collectorType.id();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BROAD_PHASE_QUERY_CAST_RAY2;
-			return (boolean) method.invokeExact(query, origAddr, dirAddr, type, callAddr, data, filt1Addr, filt2Addr);
+			boolean hit = (boolean) method.invokeExact(query, origAddr, dirAddr, type, callAddr, data, filt1Addr,
+					filt2Addr);
+
+			QueryEvent.commit(event, "BroadPhaseQuery.castRay", hit);
+			return hit;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot cast ray: " + className);
@@ -122,8 +140,14 @@ public final class BroadPhaseQuery {
 			MemorySegment filt1Addr = broadPhaseLayerFilter.memorySegment();
 			MemorySegment filt2Addr = objectLayerFilter.memorySegment();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BROAD_PHASE_QUERY_COLLIDE_AABOX;
-			return (boolean) method.invokeExact(query, boxAddr, callAddr, userData, filt1Addr, filt2Addr);
+			boolean hit = (boolean) method.invokeExact(query, boxAddr, callAddr, userData, filt1Addr, filt2Addr);
+
+			QueryEvent.commit(event, "BroadPhaseQuery.collideAABox", hit);
+			return hit;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot call collide AABox: " + className);
@@ -136,17 +160,26 @@ public final class BroadPhaseQuery {
 	 */
 	public boolean collideSphere(Vector3f center, float radius, CollideShapeBodyCollectorCallback callback,
 			MemorySegment userData, BroadPhaseLayerFilter broadPhaseLayerFilter, ObjectLayerFilter objectLayerFilter) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(center);
+			tmp.vec().set(center);
 
 			MemorySegment query = jphBroadPhaseQuery;
-			MemorySegment centerAddr = vecTmp.memorySegment();
+			MemorySegment centerAddr = tmp.vec().memorySegment();
 			MemorySegment callAddr = callback.memorySegment();
 			MemorySegment filt1Addr = broadPhaseLayerFilter.memorySegment();
 			MemorySegment filt2Addr = objectLayerFilter.memorySegment();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BROAD_PHASE_QUERY_COLLIDE_SPHERE;
-			return (boolean) method.invokeExact(query, centerAddr, radius, callAddr, userData, filt1Addr, filt2Addr);
+			boolean hit = (boolean) method.invokeExact(query, centerAddr, radius, callAddr, userData, filt1Addr,
+					filt2Addr);
+
+			QueryEvent.commit(event, "BroadPhaseQuery.collideSphere", hit);
+			return hit;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot call collide sphere: " + className);
@@ -159,17 +192,25 @@ public final class BroadPhaseQuery {
 	 */
 	public boolean collidePoint(Vector3f point, CollideShapeBodyCollectorCallback callback, MemorySegment userData,
 			BroadPhaseLayerFilter broadPhaseLayerFilter, ObjectLayerFilter objectLayerFilter) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(point);
+			tmp.vec().set(point);
 
 			MemorySegment query = jphBroadPhaseQuery;
-			MemorySegment pointAddr = vecTmp.memorySegment();
+			MemorySegment pointAddr = tmp.vec().memorySegment();
 			MemorySegment callAddr = callback.memorySegment();
 			MemorySegment filt1Addr = broadPhaseLayerFilter.memorySegment();
 			MemorySegment filt2Addr = objectLayerFilter.memorySegment();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BROAD_PHASE_QUERY_COLLIDE_POINT;
-			return (boolean) method.invokeExact(query, pointAddr, callAddr, userData, filt1Addr, filt2Addr);
+			boolean hit = (boolean) method.invokeExact(query, pointAddr, callAddr, userData, filt1Addr, filt2Addr);
+
+			QueryEvent.commit(event, "BroadPhaseQuery.collidePoint", hit);
+			return hit;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot call collide point: " + className);
@@ -3,6 +3,7 @@ package volucris.engine.physics.jolt.query;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.invoke.MethodHandle;
+import java.util.function.Supplier;
 
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
@@ -11,8 +12,7 @@ import volucris.engine.physics.jolt.filter.BodyFilter;
 import volucris.engine.physics.jolt.filter.BroadPhaseLayerFilter;
 import volucris.engine.physics.jolt.filter.ObjectLayerFilter;
 import volucris.engine.physics.jolt.filter.ShapeFilter;
-import volucris.engine.physics.jolt.math.Mat4;
-import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.QueryEvent;
 import volucris.engine.physics.jolt.raycast.CastRayCollectorCallback;
 import volucris.engine.physics.jolt.raycast.CastRayResultCallback;
 import volucris.engine.physics.jolt.raycast.CastShapeCollectorCallback;
@@ -28,6 +28,7 @@ import volucris.engine.physics.jolt.raycast.RayCastSettings;
 import volucris.engine.physics.jolt.raycast.ShapeCastSettings;
 import volucris.engine.physics.jolt.shape.Shape;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
+import volucris.engine.physics.jolt.utils.ScratchBuffers;
 
 import static java.lang.foreign.ValueLayout.*;
 import static volucris.engine.physics.jolt.utils.FFMUtils.*;
@@ -52,10 +53,7 @@ public final class NarrowPhaseQuery {
 
 	private final MemorySegment jphNarrowPhaseQuery;
 
-	private Mat4 matTmp;
-
-	private Vec3 vecTmp;
-	private Vec3 vecTmp2;
+	private final Supplier<ScratchBuffers> scratch;
 
 	static {
 		//@formatter:off
@@ -78,10 +76,7 @@ public final class NarrowPhaseQuery {
 	public NarrowPhaseQuery(MemorySegment segment, Arena arena) {
 		jphNarrowPhaseQuery = segment;
 
-		matTmp = new Mat4(arena);
-		vecTmp = new Vec3(arena);
-		vecTmp2 = new Vec3(arena);
-
+		scratch = ScratchBuffers.create(arena);
 	}
 
 	/**
@@ -93,20 +88,28 @@ public final class NarrowPhaseQuery {
 	 */
 	public boolean castRay(Vector3f origin, Vector3f direction, RayCastResult hit,
 			BroadPhaseLayerFilter broadPhaseLayerFilter, ObjectLayerFilter objectLayerFilter, BodyFilter bodyFilter) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(origin);
-			vecTmp2.set(direction);
+			tmp.vec().set(origin);
+			tmp.vec2().set(direction);
 
 			MemorySegment query = jphNarrowPhaseQuery;
-			MemorySegment origAddr = vecTmp.memorySegment();
-			MemorySegment dirAddr = vecTmp2.memorySegment();
+			MemorySegment origAddr = tmp.vec().memorySegment();
+			MemorySegment dirAddr = tmp.vec2().memorySegment();
 			MemorySegment hitAddr = hit.memorySegment();
 			MemorySegment filt1 = broadPhaseLayerFilter.memorySegment();
 			MemorySegment filt2 = objectLayerFilter.memorySegment();
 			MemorySegment filt3 = bodyFilter.memorySegment();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_NARROW_PHASE_QUERY_CAST_RAY;
-			return (boolean) method.invokeExact(query, origAddr, dirAddr, hitAddr, filt1, filt2, filt3);
+			boolean found = (boolean) method.invokeExact(query, origAddr, dirAddr, hitAddr, filt1, filt2, filt3);
+
+			QueryEvent.commit(event, "NarrowPhaseQuery.castRay", found);
+			return found;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot cast ray: " + className);
@@ -133,13 +136,15 @@ public final class NarrowPhaseQuery {
 	public boolean castRay(Vector3f origin, Vector3f direction, RayCastSettings rayCastSettings,
 			CastRayCollectorCallback callback, MemorySegment data, BroadPhaseLayerFilter broadPhaseLayerFilter,
 			ObjectLayerFilter objectLayerFilter, BodyFilter bodyFilter, ShapeFilter shapeFilter) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(origin);
-			vecTmp2.set(direction);
+			tmp.vec().set(origin);
+			tmp.vec2().set(direction);
 
 			MemorySegment query = jphNarrowPhaseQuery;
-			MemorySegment orig = vecTmp.memorySegment();
-			MemorySegment dir = vecTmp2.memorySegment();
+			MemorySegment orig = tmp.vec().memorySegment();
+			MemorySegment dir = tmp.vec2().memorySegment();
 			MemorySegment settAddr = rayCastSettings.memorySegment();
 			MemorySegment callAddr = callback.memorySegment();
 			MemorySegment filt1 = broadPhaseLayerFilter.memorySegment();
@@ -147,8 +152,15 @@ public final class NarrowPhaseQuery {
 			MemorySegment filt3 = bodyFilter.memorySegment();
 			MemorySegment filt4 = shapeFilter.memorySegment();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_NARROW_PHASE_QUERY_CAST_RAY2;
-			return (boolean) method.invokeExact(query, orig, dir, settAddr, callAddr, data, filt1, filt2, filt3, filt4);
+			boolean hit = (boolean) method.invokeExact(query, orig, dir, settAddr, callAddr, data, filt1, filt2, filt3,
+					filt4);
+
+			QueryEvent.commit(event, "NarrowPhaseQuery.castRay", hit);
+			return hit;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot cast ray: " + className);
@@ -173,14 +185,16 @@ public final class NarrowPhaseQuery {
 			CollisionCollectorType collectorType, CastRayResultCallback callback, MemorySegment data,
 			BroadPhaseLayerFilter broadPhaseLayerFilter, ObjectLayerFilter objectLayerFilter, BodyFilter bodyFilter,
 			ShapeFilter shapeFilter) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 
-			vecTmp.set(origin);
-			vecTmp2.set(direction);
+			tmp.vec().set(origin);
+			tmp.vec2().set(direction);
 
 			MemorySegment query = jphNarrowPhaseQuery;
-			MemorySegment orig = vecTmp.memorySegment();
-			MemorySegment dir = vecTmp2.memorySegment();
+			MemorySegment orig = tmp.vec().memorySegment();
+			MemorySegment dir = tmp.vec2().memorySegment();
 			MemorySegment sett = rayCastSettings.memorySegment();
 			MemorySegment call = callback.memorySegment();
 			MemorySegment filt1 = broadPhaseLayerFilter.memorySegment();
@@ -190,8 +204,15 @@ public final class NarrowPhaseQuery {
 
 			int type = collectorType.id();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_NARROW_PHASE_QUERY_CAST_RAY3;
-			return (boolean) method.invokeExact(query, orig, dir, sett, type, call, data, filt1, filt2, filt3, filt4);
+			boolean hit = (boolean) method.invokeExact(query, orig, dir, sett, type, call, data, filt1, filt2, filt3,
+					filt4);
+
+			QueryEvent.commit(event, "NarrowPhaseQuery.castRay", hit);
+			return hit;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot cast ray: " + className);
@@ -220,19 +241,27 @@ public final class NarrowPhaseQuery {
 	public boolean collidePoint(Vector3f point, CollidePointCollectorCallback callback, MemorySegment data,
 			BroadPhaseLayerFilter broadPhaseLayerFilter, ObjectLayerFilter objectLayerFilter, BodyFilter bodyFilter,
 			ShapeFilter shapeFilter) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(point);
+			tmp.vec().set(point);
 
 			MemorySegment query = jphNarrowPhaseQuery;
-			MemorySegment pointAddr = vecTmp.memorySegment();
+			MemorySegment pointAddr = tmp.vec().memorySegment();
 			MemorySegment callAddr = callback.memorySegment();
 			MemorySegment filt1 = broadPhaseLayerFilter.memorySegment();
 			MemorySegment filt2 = objectLayerFilter.memorySegment();
 			MemorySegment filt3 = bodyFilter.memorySegment();
 			MemorySegment filt4 = shapeFilter.memorySegment();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_NARROW_PHASE_QUERY_COLLIDE_POINT;
-			return (boolean) method.invokeExact(query, pointAddr, callAddr, data, filt1, filt2, filt3, filt4);
+			boolean hit = (boolean) method.invokeExact(query, pointAddr, callAddr, data, filt1, filt2, filt3, filt4);
+
+			QueryEvent.commit(event, "NarrowPhaseQuery.collidePoint", hit);
+			return hit;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot call collide point: " + className);
@@ -245,11 +274,13 @@ public final class NarrowPhaseQuery {
 	public boolean collidePoint(Vector3f point, CollisionCollectorType collectorType,
 			CollidePointResultCallback callback, MemorySegment data, BroadPhaseLayerFilter broadPhaseLayerFilter,
 			ObjectLayerFilter objectLayerFilter, BodyFilter bodyFilter, ShapeFilter shapeFilter) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(point);
+			tmp.vec().set(point);
 
 			MemorySegment query = jphNarrowPhaseQuery;
-			MemorySegment pointAddr = vecTmp.memorySegment();
+			MemorySegment pointAddr = tmp.vec().memorySegment();
 			MemorySegment callAddr = callback.memorySegment();
 			MemorySegment filt1 = broadPhaseLayerFilter.memorySegment();
 			MemorySegment filt2 = objectLayerFilter.memorySegment();
@@ -258,8 +289,15 @@ public final class NarrowPhaseQuery {
 
 			int type = collectorType.id();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_NARROW_PHASE_QUERY_COLLIDE_POINT2;
-			return (boolean) method.invokeExact(query, pointAddr, type, callAddr, data, filt1, filt2, filt3, filt4);
+			boolean hit = (boolean) method.invokeExact(query, pointAddr, type, callAddr, data, filt1, filt2, filt3,
+					filt4);
+
+			QueryEvent.commit(event, "NarrowPhaseQuery.collidePoint", hit);
+			return hit;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot call collide point: " + className);
@@ -305,27 +343,35 @@ public final class NarrowPhaseQuery {
 			CollideShapeSettings settings, Vector3f baseOffset, CollideShapeCollectorCallback callback,
 			MemorySegment data, BroadPhaseLayerFilter broadPhaseLayerFilter, ObjectLayerFilter objectLayerFilter,
 			BodyFilter bodyFilter, ShapeFilter shapeFilter) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(scale);
-			vecTmp2.set(baseOffset);
+			tmp.vec().set(scale);
+			tmp.vec2().set(baseOffset);
 
-			matTmp.set(centerOfMassTransform);
+			tmp.mat().set(centerOfMassTransform);
 
 			MemorySegment query = jphNarrowPhaseQuery;
 			MemorySegment shapeAddr = shape.memorySegment();
-			MemorySegment scaleAddr = vecTmp.memorySegment();
-			MemorySegment matAddr = matTmp.memorySegment();
+			MemorySegment scaleAddr = tmp.vec().memorySegment();
+			MemorySegment matAddr = tmp.mat().memorySegment();
 			MemorySegment settAddr = settings.memorySegment();
-			MemorySegment offAddr = vecTmp2.memorySegment();
+			MemorySegment offAddr = tmp.vec2().memorySegment();
 			MemorySegment callAddr = callback.memorySegment();
 			MemorySegment filt1 = broadPhaseLayerFilter.memorySegment();
 			MemorySegment filt2 = objectLayerFilter.memorySegment();
 			MemorySegment filt3 = bodyFilter.memorySegment();
 			MemorySegment filt4 = shapeFilter.memorySegment();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_NARROW_PHASE_QUERY_COLLIDE_SHAPE;
-			return (boolean) method.invokeExact(query, shapeAddr, scaleAddr, matAddr, settAddr, offAddr, callAddr, data,
-					filt1, filt2, filt3, filt4);
+			boolean hit = (boolean) method.invokeExact(query, shapeAddr, scaleAddr, matAddr, settAddr, offAddr,
+					callAddr, data, filt1, filt2, filt3, filt4);
+
+			QueryEvent.commit(event, "NarrowPhaseQuery.collideShape", hit);
+			return hit;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot call collide shape: " + className);
@@ -339,18 +385,20 @@ public final class NarrowPhaseQuery {
 			CollideShapeSettings settings, Vector3f baseOffset, CollisionCollectorType collectorType,
 			CollideShapeResultCallback callback, MemorySegment userData, BroadPhaseLayerFilter broadPhaseLayerFilter,
 			ObjectLayerFilter objectLayerFilter, BodyFilter bodyFilter, ShapeFilter shapeFilter) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(scale);
-			vecTmp2.set(baseOffset);
+			tmp.vec().set(scale);
+			tmp.vec2().set(baseOffset);
 
-			matTmp.set(centerOfMassTransform);
+			tmp.mat().set(centerOfMassTransform);
 
 			MemorySegment query = jphNarrowPhaseQuery;
 			MemorySegment shapeAddr = shape.memorySegment();
-			MemorySegment scaleAddr = vecTmp.memorySegment();
-			MemorySegment matAddr = matTmp.memorySegment();
+			MemorySegment scaleAddr = tmp.vec().memorySegment();
+			MemorySegment matAddr = tmp.mat().memorySegment();
 			MemorySegment settAddr = settings.memorySegment();
-			MemorySegment offAddr = vecTmp2.memorySegment();
+			MemorySegment offAddr = tmp.vec2().memorySegment();
 			MemorySegment callAddr = callback.memorySegment();
 			MemorySegment filt1 = broadPhaseLayerFilter.memorySegment();
 			MemorySegment filt2 = objectLayerFilter.memorySegment();
@@ -359,9 +407,15 @@ public final class NarrowPhaseQuery {
 
 			int type = collectorType.id();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_NARROW_PHASE_QUERY_COLLIDE_SHAPE2;
-			return (boolean) method.invokeExact(query, shapeAddr, scaleAddr, matAddr, settAddr, offAddr, type, callAddr,
-					userData, filt1, filt2, filt3, filt4);
+			boolean hit = (boolean) method.invokeExact(query, shapeAddr, scaleAddr, matAddr, settAddr, offAddr, type,
+					callAddr, userData, filt1, filt2, filt3, filt4);
+
+			QueryEvent.commit(event, "NarrowPhaseQuery.collideShape", hit);
+			return hit;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot call collideShape2: " + className);
@@ -379,27 +433,35 @@ public final class NarrowPhaseQuery {
 			Vector3f baseOffset, CastShapeCollectorCallback callback, MemorySegment userData,
 			BroadPhaseLayerFilter broadPhaseLayerFilter, ObjectLayerFilter objectLayerFilter, BodyFilter bodyFilter,
 			ShapeFilter shapeFilter) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
-			vecTmp.set(direction);
-			vecTmp2.set(baseOffset);
+			tmp.vec().set(direction);
+			tmp.vec2().set(baseOffset);
 
-			matTmp.set(worldTransform);
+			tmp.mat().set(worldTransform);
 
 			MemorySegment query = jphNarrowPhaseQuery;
 			MemorySegment shapeAddr = shape.memorySegment();
-			MemorySegment dirAddr = vecTmp.memorySegment();
-			MemorySegment matAddr = matTmp.memorySegment();
+			MemorySegment dirAddr = tmp.vec().memorySegment();
+			MemorySegment matAddr = tmp.mat().memorySegment();
 			MemorySegment settAddr = settings.memorySegment();
-			MemorySegment offAddr = vecTmp2.memorySegment();
+			MemorySegment offAddr = tmp.vec2().memorySegment();
 			MemorySegment callAddr = callback.memorySegment();
 			MemorySegment filt1 = broadPhaseLayerFilter.memorySegment();
 			MemorySegment filt2 = objectLayerFilter.memorySegment();
 			MemorySegment filt3 = bodyFilter.memorySegment();
 			MemorySegment filt4 = shapeFilter.memorySegment();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_NARROW_PHASE_QUERY_CAST_SHAPE;
-			return (boolean) method.invokeExact(query, shapeAddr, matAddr, dirAddr, settAddr, offAddr, callAddr,
+			boolean hit = (boolean) method.invokeExact(query, shapeAddr, matAddr, dirAddr, settAddr, offAddr, callAddr,
 					userData, filt1, filt2, filt3, filt4);
+
+			QueryEvent.commit(event, "NarrowPhaseQuery.castShape", hit);
+			return hit;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot cast shape: " + className);
@@ -413,19 +475,21 @@ public final class NarrowPhaseQuery {
 			Vector3f baseOffset, CollisionCollectorType collectorType, CastShapeResultCallback callback,
 			MemorySegment userData, BroadPhaseLayerFilter broadPhaseLayerFilter, ObjectLayerFilter objectLayerFilter,
 			BodyFilter bodyFilter, ShapeFilter shapeFilter) {
+		ScratchBuffers tmp = scratch.get();
+
 		try {
 
-			vecTmp.set(direction);
-			vecTmp2.set(baseOffset);
+			tmp.vec().set(direction);
+			tmp.vec2().set(baseOffset);
 
-			matTmp.set(worldTransform);
+			tmp.mat().set(worldTransform);
 
 			MemorySegment query = jphNarrowPhaseQuery;
 			MemorySegment shapeAddr = shape.memorySegment();
-			MemorySegment dirAddr = vecTmp.memorySegment();
-			MemorySegment matAddr = matTmp.memorySegment();
+			MemorySegment dirAddr = tmp.vec().memorySegment();
+			MemorySegment matAddr = tmp.mat().memorySegment();
 			MemorySegment settAddr = settings.memorySegment();
-			MemorySegment offAddr = vecTmp2.memorySegment();
+			MemorySegment offAddr = tmp.vec2().memorySegment();
 			MemorySegment callAddr = callback.memorySegment();
 			MemorySegment filt1 = broadPhaseLayerFilter.memorySegment();
 			MemorySegment filt2 = objectLayerFilter.memorySegment();
@@ -434,9 +498,15 @@ public final class NarrowPhaseQuery {
 
 			int type = collectorType.id();
 
+			QueryEvent event = new QueryEvent();
+			event.begin();
+
 			MethodHandle method = JPH_NARROW_PHASE_QUERY_CAST_SHAPE2;
-			return (boolean) method.invokeExact(query, shapeAddr, matAddr, dirAddr, settAddr, offAddr, type, callAddr,
-					userData, filt1, filt2, filt3, filt4);
+			boolean hit = (boolean) method.invokeExact(query, shapeAddr, matAddr, dirAddr, settAddr, offAddr, type,
+					callAddr, userData, filt1, filt2, filt3, filt4);
+
+			QueryEvent.commit(event, "NarrowPhaseQuery.castShape", hit);
+			return hit;
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
 			throw new JoltRuntimeException("Cannot call cast shape: " + className);
@@ -0,0 +1,299 @@
+package volucris.engine.physics.jolt.scene;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import volucris.engine.physics.jolt.body.BodyEnums.MotionType;
+
+import static java.lang.foreign.ValueLayout.*;
+import static volucris.engine.physics.jolt.scene.SceneFormat.*;
+
+/**
+ * Writes shapes and bodies into a binary scene file that can be loaded with a
+ * {@link SceneLoader}. Shapes are referenced by bodies with the index returned
+ * when adding them, a shape can be used by any number of bodies.
+ * <p>
+ * The arrays passed to the exporter are not copied, they must not be modified
+ * until the scene has been written.
+ */
+public final class SceneExporter {
+
+	private final List<ShapeEntry> shapes;
+	private final List<BodyEntry> bodies;
+
+	public SceneExporter() {
+		shapes = new ArrayList<>();
+		bodies = new ArrayList<>();
+	}
+
+	public int addBox(Vector3f halfExtent, float convexRadius) {
+		ShapeEntry shape = new ShapeEntry(BOX);
+		shape.params = new float[] { halfExtent.x, halfExtent.y, halfExtent.z, convexRadius };
+		return addShape(shape);
+	}
+
+	public int addSphere(float radius) {
+		ShapeEntry shape = new ShapeEntry(SPHERE);
+		shape.params = new float[] { radius };
+		return addShape(shape);
+	}
+
+	public int addCapsule(float halfHeightOfCylinder, float radius) {
+		ShapeEntry shape = new ShapeEntry(CAPSULE);
+		shape.params = new float[] { halfHeightOfCylinder, radius };
+		return addShape(shape);
+	}
+
+	/**
+	 * @see #addMesh(float[], int[], int[])
+	 */
+	public int addMesh(float[] vertices, int[] triangles) {
+		return addMesh(vertices, triangles, null);
+	}
+
+	/**
+	 * Adds a mesh of packed vertices (three floats each) and triangles (three
+	 * indices each).
+	 *
+	 * @param materialIndices a material index per triangle or null
+	 */
+	public int addMesh(float[] vertices, int[] triangles, int[] materialIndices) {
+		if (vertices.length % 3 != 0 || triangles.length % 3 != 0)
+			throw new IllegalArgumentException("Vertices and triangles must have three elements each.");
+
+		ShapeEntry shape = new ShapeEntry(MESH);
+		shape.floats = vertices;
+		shape.ints = triangles;
+		shape.materials = materialIndices;
+		return addShape(shape);
+	}
+
+	/**
+	 * Adds a height field of sampleCount * sampleCount samples.
+	 *
+	 * @param materialIndices (sampleCount - 1)^2 material indices or null
+	 * @see volucris.engine.physics.jolt.shape.HeightFieldShapeSettings
+	 */
+	public int addHeightField(float[] samples, Vector3f offset, Vector3f scale, int sampleCount,
+			byte[] materialIndices) {
+		if (samples.length < sampleCount * sampleCount)
+			throw new IllegalArgumentException("Height field needs sampleCount^2 samples.");
+		if (materialIndices != null && materialIndices.length < (sampleCount - 1) * (sampleCount - 1))
+			throw new IllegalArgumentException("Height field needs (sampleCount - 1)^2 material indices.");
+
+		ShapeEntry shape = new ShapeEntry(HEIGHT_FIELD);
+		shape.params = new float[] { offset.x, offset.y, offset.z, scale.x, scale.y, scale.z };
+		shape.floats = samples;
+		shape.bytes = materialIndices;
+		shape.sampleCount = sampleCount;
+		return addShape(shape);
+	}
+
+	/**
+	 * Adds a body with the default friction (0.2) and restitution (0).
+	 */
+	public int addBody(int shape, Vector3f position, Quaternionf rotation, MotionType motionType, int objectLayer) {
+		return addBody(shape, position, rotation, motionType, objectLayer, 0.2f, 0f, 0L);
+	}
+
+	/**
+	 * @return the index of the body in the scene, bodies are created in this order
+	 */
+	public int addBody(int shape, Vector3f position, Quaternionf rotation, MotionType motionType, int objectLayer,
+			float friction, float restitution, long userData) {
+
+		if (shape < 0 || shape >= shapes.size())
+			throw new IndexOutOfBoundsException(shape);
+
+		BodyEntry body = new BodyEntry();
+		body.shape = shape;
+		body.position = new Vector3f(position);
+		body.rotation = new Quaternionf(rotation.x, rotation.y, rotation.z, rotation.w);
+		body.motionType = motionType;
+		body.objectLayer = objectLayer;
+		body.friction = friction;
+		body.restitution = restitution;
+		body.userData = userData;
+
+		bodies.add(body);
+		return bodies.size() - 1;
+	}
+
+	public int getShapeCount() {
+		return shapes.size();
+	}
+
+	public int getBodyCount() {
+		return bodies.size();
+	}
+
+	/**
+	 * Writes the scene to the file, replacing it if it exists.
+	 */
+	public void write(Path path) throws IOException {
+		long size = HEADER_SIZE + bodies.size() * BODY_SIZE;
+		for (ShapeEntry shape : shapes)
+			size += shape.size();
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+				Arena arena = Arena.ofConfined()) {
+
+			MemorySegment file = channel.map(MapMode.READ_WRITE, 0, size, arena);
+
+			file.set(JAVA_INT, 0, MAGIC);
+			file.set(JAVA_INT, 4, VERSION);
+			file.set(JAVA_INT, 8, shapes.size());
+			file.set(JAVA_INT, 12, bodies.size());
+
+			long offset = HEADER_SIZE;
+			for (ShapeEntry shape : shapes)
+				offset = shape.write(file, offset);
+
+			for (BodyEntry body : bodies) {
+				body.write(file, offset);
+				offset += BODY_SIZE;
+			}
+
+			file.force();
+		}
+	}
+
+	private int addShape(ShapeEntry shape) {
+		shapes.add(shape);
+		return shapes.size() - 1;
+	}
+
+	private static final class ShapeEntry {
+
+		private final int type;
+
+		private float[] params;
+		private float[] floats;
+		private int[] ints;
+		private int[] materials;
+		private byte[] bytes;
+		private int sampleCount;
+
+		private ShapeEntry(int type) {
+			this.type = type;
+		}
+
+		private long size() {
+			long size = Integer.BYTES;
+
+			switch (type) {
+			case MESH -> {
+				size += 2 * Integer.BYTES;
+				size += floats.length / 3 * VEC3_SIZE;
+				size += ints.length / 3 * INDEXED_TRIANGLE_SIZE;
+			}
+			case HEIGHT_FIELD -> {
+				size += Integer.BYTES + params.length * Float.BYTES + Integer.BYTES;
+				size += (long) sampleCount * sampleCount * Float.BYTES;
+				if (bytes != null)
+					size += align((long) (sampleCount - 1) * (sampleCount - 1));
+			}
+			default -> size += params.length * Float.BYTES;
+			}
+
+			return size;
+		}
+
+		private long write(MemorySegment file, long offset) {
+			file.set(JAVA_INT, offset, type);
+			offset += Integer.BYTES;
+
+			switch (type) {
+			case MESH -> {
+				int vertexCount = floats.length / 3;
+				int triangleCount = ints.length / 3;
+
+				file.set(JAVA_INT, offset, vertexCount);
+				file.set(JAVA_INT, offset + 4, triangleCount);
+				offset += 2 * Integer.BYTES;
+
+				MemorySegment.copy(floats, 0, file, JAVA_FLOAT, offset, vertexCount * 3);
+				offset += vertexCount * VEC3_SIZE;
+
+				for (int i = 0; i < triangleCount; i++) {
+					MemorySegment.copy(ints, i * 3, file, JAVA_INT, offset, 3);
+					file.set(JAVA_INT, offset + 12, materials != null ? materials[i] : 0);
+					file.set(JAVA_INT, offset + 16, 0);
+					offset += INDEXED_TRIANGLE_SIZE;
+				}
+			}
+			case HEIGHT_FIELD -> {
+				file.set(JAVA_INT, offset, sampleCount);
+				offset += Integer.BYTES;
+
+				MemorySegment.copy(params, 0, file, JAVA_FLOAT, offset, params.length);
+				offset += params.length * Float.BYTES;
+
+				file.set(JAVA_INT, offset, bytes != null ? 1 : 0);
+				offset += Integer.BYTES;
+
+				int samples = sampleCount * sampleCount;
+				MemorySegment.copy(floats, 0, file, JAVA_FLOAT, offset, samples);
+				offset += (long) samples * Float.BYTES;
+
+				if (bytes != null) {
+					int materialCount = (sampleCount - 1) * (sampleCount - 1);
+					MemorySegment.copy(bytes, 0, file, JAVA_BYTE, offset, materialCount);
+					offset += align(materialCount);
+				}
+			}
+			default -> {
+				MemorySegment.copy(params, 0, file, JAVA_FLOAT, offset, params.length);
+				offset += params.length * Float.BYTES;
+			}
+			}
+
+			return offset;
+		}
+
+	}
+
+	private static final class BodyEntry {
+
+		private int shape;
+		private Vector3f position;
+		private Quaternionf rotation;
+		private MotionType motionType;
+		private int objectLayer;
+		private float friction;
+		private float restitution;
+		private long userData;
+
+		private void write(MemorySegment file, long offset) {
+			file.set(JAVA_INT, offset + BODY_SHAPE, shape);
+
+			file.set(JAVA_FLOAT, offset + BODY_POSITION, position.x);
+			file.set(JAVA_FLOAT, offset + BODY_POSITION + 4, position.y);
+			file.set(JAVA_FLOAT, offset + BODY_POSITION + 8, position.z);
+
+			file.set(JAVA_FLOAT, offset + BODY_ROTATION, rotation.x);
+			file.set(JAVA_FLOAT, offset + BODY_ROTATION + 4, rotation.y);
+			file.set(JAVA_FLOAT, offset + BODY_ROTATION + 8, rotation.z);
+			file.set(JAVA_FLOAT, offset + BODY_ROTATION + 12, rotation.w);
+
+			file.set(JAVA_INT, offset + BODY_MOTION_TYPE, motionType.id());
+			file.set(JAVA_INT, offset + BODY_OBJECT_LAYER, objectLayer);
+			file.set(JAVA_FLOAT, offset + BODY_FRICTION, friction);
+			file.set(JAVA_FLOAT, offset + BODY_RESTITUTION, restitution);
+			file.set(JAVA_LONG_UNALIGNED, offset + BODY_USER_DATA, userData);
+		}
+
+	}
+
+}
@@ -0,0 +1,75 @@
+package volucris.engine.physics.jolt.scene;
+
+/**
+ * Layout of the binary scene files of {@link SceneExporter} and
+ * {@link SceneLoader}.
+ * <p>
+ * All values are 4-byte aligned and in native byte order (little endian on all
+ * supported platforms), so geometry blocks can be handed to Jolt directly from
+ * the mapped file. A file consists of:
+ * <ul>
+ * <li>Header: magic, version, shape count, body count (4 ints).</li>
+ * <li>Shapes: type (int) followed by the data of the type.</li>
+ * <li>Bodies: {@link #BODY_SIZE} bytes each.</li>
+ * </ul>
+ */
+final class SceneFormat {
+
+	/**
+	 * "JSCN" in little endian, a file written with a different byte order does not
+	 * match.
+	 */
+	static final int MAGIC = 'J' | 'S' << 8 | 'C' << 16 | 'N' << 24;
+	static final int VERSION = 1;
+
+	static final long HEADER_SIZE = 4 * Integer.BYTES;
+
+	/**
+	 * Half extent (3 floats), convex radius (float).
+	 */
+	static final int BOX = 0;
+
+	/**
+	 * Radius (float).
+	 */
+	static final int SPHERE = 1;
+
+	/**
+	 * Half height of the cylinder (float), radius (float).
+	 */
+	static final int CAPSULE = 2;
+
+	/**
+	 * Vertex count (int), triangle count (int), vertices (JPH_Vec3), triangles
+	 * (JPH_IndexedTriangle).
+	 */
+	static final int MESH = 3;
+
+	/**
+	 * Sample count (int), offset (3 floats), scale (3 floats), has material
+	 * indices (int), samples (floats), material indices (bytes, padded to 4).
+	 */
+	static final int HEIGHT_FIELD = 4;
+
+	static final long VEC3_SIZE = 3 * Float.BYTES;
+	static final long INDEXED_TRIANGLE_SIZE = 5 * Integer.BYTES;
+
+	static final long BODY_SHAPE = 0;
+	static final long BODY_POSITION = 4;
+	static final long BODY_ROTATION = 16;
+	static final long BODY_MOTION_TYPE = 32;
+	static final long BODY_OBJECT_LAYER = 36;
+	static final long BODY_FRICTION = 40;
+	static final long BODY_RESTITUTION = 44;
+	static final long BODY_USER_DATA = 48;
+	static final long BODY_SIZE = 56;
+
+	private SceneFormat() {
+
+	}
+
+	static long align(long size) {
+		return size + 3 & ~3L;
+	}
+
+}
@@ -0,0 +1,234 @@
+package volucris.engine.physics.jolt.scene;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import volucris.engine.physics.jolt.JoltEnums.Activation;
+import volucris.engine.physics.jolt.body.BodyCreationSettings;
+import volucris.engine.physics.jolt.body.BodyEnums.MotionType;
+import volucris.engine.physics.jolt.body.BodyInterface;
+import volucris.engine.physics.jolt.shape.BoxShape;
+import volucris.engine.physics.jolt.shape.CapsuleShape;
+import volucris.engine.physics.jolt.shape.HeightFieldShapeSettings;
+import volucris.engine.physics.jolt.shape.MeshShapeSettings;
+import volucris.engine.physics.jolt.shape.Shape;
+import volucris.engine.physics.jolt.shape.SphereShape;
+
+import static java.lang.foreign.ValueLayout.*;
+import static volucris.engine.physics.jolt.scene.SceneFormat.*;
+
+/**
+ * Loads a scene file of a {@link SceneExporter}. The file is memory-mapped and
+ * mesh and height field data is passed to Jolt straight from the mapping, so
+ * no geometry is copied to the Java heap.
+ * <p>
+ * Jolt copies the geometry while building the shapes, the loader can be closed
+ * right after {@link #load(BodyInterface, Activation)} to unmap the file.
+ */
+public final class SceneLoader implements AutoCloseable {
+
+	private static final MotionType[] MOTION_TYPES = MotionType.values();
+
+	private final Arena mappingArena;
+	private final MemorySegment file;
+
+	private final int shapeCount;
+	private final int bodyCount;
+
+	private Shape[] shapes;
+
+	public SceneLoader(Path path) throws IOException {
+		mappingArena = Arena.ofShared();
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			file = channel.map(MapMode.READ_ONLY, 0, channel.size(), mappingArena);
+		} catch (IOException | RuntimeException e) {
+			mappingArena.close();
+			throw e;
+		}
+
+		if (file.byteSize() < HEADER_SIZE || file.get(JAVA_INT, 0) != MAGIC) {
+			mappingArena.close();
+			throw new IOException("Not a scene file: " + path);
+		}
+
+		int version = file.get(JAVA_INT, 4);
+		if (version != VERSION) {
+			mappingArena.close();
+			throw new IOException("Unsupported scene version: " + version);
+		}
+
+		shapeCount = file.get(JAVA_INT, 8);
+		bodyCount = file.get(JAVA_INT, 12);
+	}
+
+	/**
+	 * Creates the shapes and adds the bodies of the scene to the body interface.
+	 *
+	 * @return the body IDs in the order the bodies have been exported
+	 */
+	public int[] load(BodyInterface bodyInterface, Activation activation) {
+		return load(bodyInterface, activation, Arena.ofAuto());
+	}
+
+	/**
+	 * @param arena arena of the created shapes
+	 */
+	public int[] load(BodyInterface bodyInterface, Activation activation, Arena arena) {
+		int[] bodyIds = new int[bodyCount];
+
+		try (Arena confinedArena = Arena.ofConfined()) {
+			long offset = loadShapes(arena, confinedArena);
+
+			Vector3f position = new Vector3f();
+			Quaternionf rotation = new Quaternionf();
+
+			for (int i = 0; i < bodyCount; i++) {
+				Shape shape = shapes[file.get(JAVA_INT, offset + BODY_SHAPE)];
+
+				position.x = file.get(JAVA_FLOAT, offset + BODY_POSITION);
+				position.y = file.get(JAVA_FLOAT, offset + BODY_POSITION + 4);
+				position.z = file.get(JAVA_FLOAT, offset + BODY_POSITION + 8);
+
+				rotation.x = file.get(JAVA_FLOAT, offset + BODY_ROTATION);
+				rotation.y = file.get(JAVA_FLOAT, offset + BODY_ROTATION + 4);
+				rotation.z = file.get(JAVA_FLOAT, offset + BODY_ROTATION + 8);
+				rotation.w = file.get(JAVA_FLOAT, offset + BODY_ROTATION + 12);
+
+				MotionType motionType = MOTION_TYPES[file.get(JAVA_INT, offset + BODY_MOTION_TYPE)];
+				int objectLayer = file.get(JAVA_INT, offset + BODY_OBJECT_LAYER);
+
+				try (Arena bodyArena = Arena.ofConfined()) {
+					BodyCreationSettings settings = new BodyCreationSettings(bodyArena, shape, position, rotation,
+							motionType, objectLayer);
+					settings.setFriction(file.get(JAVA_FLOAT, offset + BODY_FRICTION));
+					settings.setRestitution(file.get(JAVA_FLOAT, offset + BODY_RESTITUTION));
+					settings.setUserData(file.get(JAVA_LONG_UNALIGNED, offset + BODY_USER_DATA));
+
+					bodyIds[i] = bodyInterface.createAndAddBody(settings, activation);
+				}
+
+				offset += BODY_SIZE;
+			}
+		}
+
+		return bodyIds;
+	}
+
+	/**
+	 * The shapes of the last load, indexed like in the exporter. Null before the
+	 * first load.
+	 */
+	public Shape[] getShapes() {
+		return shapes;
+	}
+
+	public int getShapeCount() {
+		return shapeCount;
+	}
+
+	public int getBodyCount() {
+		return bodyCount;
+	}
+
+	/**
+	 * Unmaps the file, the loaded shapes and bodies stay valid.
+	 */
+	@Override
+	public void close() {
+		mappingArena.close();
+	}
+
+	/**
+	 * @return the offset of the first body
+	 */
+	private long loadShapes(Arena arena, Arena settingsArena) {
+		shapes = new Shape[shapeCount];
+
+		long offset = HEADER_SIZE;
+		for (int i = 0; i < shapeCount; i++) {
+			int type = file.get(JAVA_INT, offset);
+			offset += Integer.BYTES;
+
+			switch (type) {
+			case BOX -> {
+				float x = file.get(JAVA_FLOAT, offset);
+				float y = file.get(JAVA_FLOAT, offset + 4);
+				float z = file.get(JAVA_FLOAT, offset + 8);
+				float convexRadius = file.get(JAVA_FLOAT, offset + 12);
+				shapes[i] = new BoxShape(x, y, z, convexRadius, arena);
+				offset += 4 * Float.BYTES;
+			}
+			case SPHERE -> {
+				shapes[i] = new SphereShape(file.get(JAVA_FLOAT, offset), arena);
+				offset += Float.BYTES;
+			}
+			case CAPSULE -> {
+				float halfHeight = file.get(JAVA_FLOAT, offset);
+				float radius = file.get(JAVA_FLOAT, offset + 4);
+				shapes[i] = new CapsuleShape(halfHeight, radius, arena);
+				offset += 2 * Float.BYTES;
+			}
+			case MESH -> {
+				int vertexCount = file.get(JAVA_INT, offset);
+				int triangleCount = file.get(JAVA_INT, offset + 4);
+				offset += 2 * Integer.BYTES;
+
+				MemorySegment vertices = file.asSlice(offset, vertexCount * VEC3_SIZE);
+				offset += vertices.byteSize();
+
+				MemorySegment triangles = file.asSlice(offset, triangleCount * INDEXED_TRIANGLE_SIZE);
+				offset += triangles.byteSize();
+
+				MeshShapeSettings settings = new MeshShapeSettings(vertices, vertexCount, triangles, triangleCount,
+						settingsArena);
+				shapes[i] = settings.createShape(arena);
+			}
+			case HEIGHT_FIELD -> {
+				int sampleCount = file.get(JAVA_INT, offset);
+				offset += Integer.BYTES;
+
+				Vector3f heightFieldOffset = new Vector3f();
+				heightFieldOffset.x = file.get(JAVA_FLOAT, offset);
+				heightFieldOffset.y = file.get(JAVA_FLOAT, offset + 4);
+				heightFieldOffset.z = file.get(JAVA_FLOAT, offset + 8);
+
+				Vector3f scale = new Vector3f();
+				scale.x = file.get(JAVA_FLOAT, offset + 12);
+				scale.y = file.get(JAVA_FLOAT, offset + 16);
+				scale.z = file.get(JAVA_FLOAT, offset + 20);
+				offset += 6 * Float.BYTES;
+
+				boolean hasMaterials = file.get(JAVA_INT, offset) != 0;
+				offset += Integer.BYTES;
+
+				MemorySegment samples = file.asSlice(offset, (long) sampleCount * sampleCount * Float.BYTES);
+				offset += samples.byteSize();
+
+				MemorySegment materials = null;
+				if (hasMaterials) {
+					long materialCount = (long) (sampleCount - 1) * (sampleCount - 1);
+					materials = file.asSlice(offset, materialCount);
+					offset += align(materialCount);
+				}
+
+				HeightFieldShapeSettings settings = new HeightFieldShapeSettings(samples, heightFieldOffset, scale,
+						sampleCount, materials, settingsArena);
+				shapes[i] = settings.createShape(arena);
+			}
+			default -> throw new IllegalStateException("Unknown shape type: " + type);
+			}
+		}
+
+		return offset;
+	}
+
+}
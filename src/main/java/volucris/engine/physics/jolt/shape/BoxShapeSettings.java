@@ -7,6 +7,7 @@ import java.lang.invoke.MethodHandle;
 import org.joml.Vector3f;
 
 import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.CreateShapeEvent;
 import volucris.engine.physics.jolt.physicsSystem.PhysicsSettings;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
@@ -61,8 +62,14 @@ public final class BoxShapeSettings extends ConvexShapeSettings {
 
 	public BoxShape createShape(Arena arena) {
 		try {
+			CreateShapeEvent event = new CreateShapeEvent();
+			event.begin();
+
 			MethodHandle method = JPH_BOX_SHAPE_SETTINGS_CREATE_SHAPE;
 			MemorySegment segment = (MemorySegment) method.invokeExact(jphShapeSettings);
+
+			CreateShapeEvent.commit(event, this);
+
 			return new BoxShape(segment, arena);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
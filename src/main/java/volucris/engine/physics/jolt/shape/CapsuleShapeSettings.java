@@ -4,6 +4,7 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.invoke.MethodHandle;
 
+import volucris.engine.physics.jolt.metrics.CreateShapeEvent;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
 import static java.lang.foreign.ValueLayout.*;
@@ -46,8 +47,14 @@ public final class CapsuleShapeSettings extends ConvexShapeSettings {
 
 	public CapsuleShape createShape(Arena arena) {
 		try {
+			CreateShapeEvent event = new CreateShapeEvent();
+			event.begin();
+
 			MethodHandle method = JPH_CAPSULE_SHAPE_SETTINGS_CREATE_SHAPE;
 			MemorySegment segment = (MemorySegment) method.invokeExact(jphShapeSettings);
+
+			CreateShapeEvent.commit(event, this);
+
 			return new CapsuleShape(segment, arena);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
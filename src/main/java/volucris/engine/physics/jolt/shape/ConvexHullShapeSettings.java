@@ -8,6 +8,7 @@ import java.lang.invoke.MethodHandle;
 import org.joml.Vector3f;
 
 import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.CreateShapeEvent;
 import volucris.engine.physics.jolt.physicsSystem.PhysicsSettings;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
@@ -84,8 +85,14 @@ public final class ConvexHullShapeSettings extends ConvexShapeSettings {
 
 	public ConvexHullShape createShape(Arena arena) {
 		try {
+			CreateShapeEvent event = new CreateShapeEvent();
+			event.begin();
+
 			MethodHandle method = JPH_CONVEX_HULL_SHAPE_SETTINGS_CREATE_SHAPE;
 			MemorySegment segment = (MemorySegment) method.invokeExact(jphShapeSettings);
+
+			CreateShapeEvent.commit(event, this);
+
 			return new ConvexHullShape(segment, arena);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
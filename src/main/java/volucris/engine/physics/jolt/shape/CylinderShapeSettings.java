@@ -4,6 +4,7 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.invoke.MethodHandle;
 
+import volucris.engine.physics.jolt.metrics.CreateShapeEvent;
 import volucris.engine.physics.jolt.physicsSystem.PhysicsSettings;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
@@ -71,8 +72,14 @@ public final class CylinderShapeSettings extends ConvexShapeSettings {
 
 	public CylinderShape createShape(Arena arena) {
 		try {
+			CreateShapeEvent event = new CreateShapeEvent();
+			event.begin();
+
 			MethodHandle method = JPH_CYLINDER_SHAPE_SETTINGS_CREATE_SHAPE;
 			MemorySegment segment = (MemorySegment) method.invokeExact(jphShapeSettings);
+
+			CreateShapeEvent.commit(event, this);
+
 			return new CylinderShape(segment, arena);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
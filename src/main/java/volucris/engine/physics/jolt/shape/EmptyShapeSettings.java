@@ -7,6 +7,7 @@ import java.lang.invoke.MethodHandle;
 import org.joml.Vector3f;
 
 import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.CreateShapeEvent;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
 import static java.lang.foreign.ValueLayout.*;
@@ -51,8 +52,14 @@ public final class EmptyShapeSettings extends ShapeSettings {
 
 	public EmptyShape createShape(Arena arena) {
 		try {
+			CreateShapeEvent event = new CreateShapeEvent();
+			event.begin();
+
 			MethodHandle method = JPH_EMPTY_SHAPE_SETTINGS_CREATE_SHAPE;
 			MemorySegment segment = (MemorySegment) method.invokeExact(jphShapeSettings);
+
+			CreateShapeEvent.commit(event, this);
+
 			return new EmptyShape(segment, arena);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
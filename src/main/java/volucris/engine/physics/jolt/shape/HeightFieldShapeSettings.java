@@ -7,6 +7,7 @@ import java.lang.invoke.MethodHandle;
 import org.joml.Vector3f;
 
 import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.CreateShapeEvent;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
 import static java.lang.foreign.ValueLayout.*;
@@ -104,6 +105,38 @@ public final class HeightFieldShapeSettings extends ShapeSettings {
 		super(segment, arena);
 	}
 
+	/**
+	 * Segment version of
+	 * {@link #HeightFieldShapeSettings(float[], Vector3f, Vector3f, int, byte[], Arena)}.
+	 * Native segments are passed to Jolt without copying, e.g. samples in a
+	 * memory-mapped file. The material indices may be null.
+	 */
+	public HeightFieldShapeSettings(MemorySegment samples, Vector3f offset, Vector3f scale, int sampleCount,
+			MemorySegment materialIndices, Arena arena) {
+		MemorySegment segment;
+		try (Arena confinedArena = Arena.ofConfined()) {
+			Vec3 offsetVec = vecTmp = new Vec3(arena, offset);
+			Vec3 scaleVec = new Vec3(confinedArena, scale);
+
+			long samplesSize = (long) sampleCount * sampleCount * Float.BYTES;
+			long materialsSize = (long) (sampleCount - 1) * (sampleCount - 1);
+
+			MemorySegment offsetAddr = offsetVec.memorySegment();
+			MemorySegment scaleAddr = scaleVec.memorySegment();
+			MemorySegment samplesArray = toNative(samples, samplesSize, confinedArena);
+			MemorySegment matArray = MemorySegment.NULL;
+			if (materialIndices != null)
+				matArray = toNative(materialIndices, materialsSize, confinedArena);
+
+			MethodHandle method = JPH_HEIGHT_FIELD_SHAPE_SETTINGS_CREATE;
+			segment = (MemorySegment) method.invokeExact(samplesArray, offsetAddr, scaleAddr, sampleCount, matArray);
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot create height field shape settings: " + className);
+		}
+		super(segment, arena);
+	}
+
 	/**
 	 * @see #HeightFieldShapeSettings(float[], Vector3f, Vector3f, int, byte[])
 	 */
@@ -424,8 +457,14 @@ public final class HeightFieldShapeSettings extends ShapeSettings {
 
 	public HeightFieldShape createShape(Arena arena) {
 		try {
+			CreateShapeEvent event = new CreateShapeEvent();
+			event.begin();
+
 			MethodHandle method = JPH_HEIGHT_FIELD_SHAPE_SETTINGS_CREATE_SHAPE;
 			MemorySegment segment = (MemorySegment) method.invokeExact(jphShapeSettings);
+
+			CreateShapeEvent.commit(event, this);
+
 			return new HeightFieldShape(segment, arena);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
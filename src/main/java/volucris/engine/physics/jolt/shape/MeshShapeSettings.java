@@ -5,10 +5,13 @@ import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.StructLayout;
 import java.lang.invoke.MethodHandle;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 
 import volucris.engine.physics.jolt.math.IndexedTriangle;
 import volucris.engine.physics.jolt.math.Triangle;
 import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.CreateShapeEvent;
 import volucris.engine.physics.jolt.shape.ShapeEnums.BuildQuality;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
@@ -20,6 +23,13 @@ import static volucris.engine.physics.jolt.utils.FFMUtils.*;
  */
 public final class MeshShapeSettings extends ShapeSettings {
 
+	private static final long VEC3_SIZE = Vec3.LAYOUT().byteSize();
+	private static final long TRIANGLE_SIZE = Triangle.LAYOUT().byteSize();
+	private static final long TRIANGLE_MATERIAL_OFFSET = 3 * VEC3_SIZE;
+	private static final long INDEXED_TRIANGLE_SIZE = IndexedTriangle.LAYOUT().byteSize();
+	private static final long INDEXED_TRIANGLE_MATERIAL_OFFSET = 3 * Integer.BYTES;
+	private static final long INDEXED_TRIANGLE_USER_DATA_OFFSET = 4 * Integer.BYTES;
+
 	private static final MethodHandle JPH_MESH_SHAPE_SETTINGS_CREATE;
 	private static final MethodHandle JPH_MESH_SHAPE_SETTINGS_CREATE2;
 	private static final MethodHandle JPH_MESH_SHAPE_SETTINGS_GET_MAX_TRIANGLES_PER_LEAF;
@@ -67,19 +77,12 @@ public final class MeshShapeSettings extends ShapeSettings {
 		try (Arena confinedArena = Arena.ofConfined()) {
 			MemorySegment array = confinedArena.allocate(MemoryLayout.sequenceLayout(triangleCount, Triangle.LAYOUT()));
 
-			Triangle triangle = new Triangle(confinedArena);
-
-			int floatCount = 0;
 			for (int i = 0; i < triangleCount; i++) {
-				triangle.setVertex1(triangles[floatCount++], triangles[floatCount++], triangles[floatCount++]);
-				triangle.setVertex2(triangles[floatCount++], triangles[floatCount++], triangles[floatCount++]);
-				triangle.setVertex3(triangles[floatCount++], triangles[floatCount++], triangles[floatCount++]);
+				long offset = i * TRIANGLE_SIZE;
+				MemorySegment.copy(triangles, i * 9, array, JAVA_FLOAT, offset, 9);
 
 				if (materialIndices != null)
-					triangle.setMaterialIndex(materialIndices[i]);
-
-				long offset = i * Triangle.LAYOUT().byteSize();
-				MemorySegment.copy(triangle.memorySegment(), 0, array, offset, Triangle.LAYOUT().byteSize());
+					array.set(JAVA_INT, offset + TRIANGLE_MATERIAL_OFFSET, materialIndices[i]);
 			}
 
 			MethodHandle method = JPH_MESH_SHAPE_SETTINGS_CREATE;
@@ -91,6 +94,28 @@ public final class MeshShapeSettings extends ShapeSettings {
 		super(segment, arena);
 	}
 
+	/**
+	 * Creates the settings from triangles in JPH_Triangle layout (three JPH_Vec3
+	 * and the material index). Native memory is passed to Jolt without copying.
+	 */
+	public MeshShapeSettings(MemorySegment triangles, int triangleCount) {
+		this(triangles, triangleCount, Arena.ofAuto());
+	}
+
+	public MeshShapeSettings(MemorySegment triangles, int triangleCount, Arena arena) {
+		MemorySegment segment;
+		try (Arena confinedArena = Arena.ofConfined()) {
+			MemorySegment array = toNative(triangles, TRIANGLE_SIZE * triangleCount, confinedArena);
+
+			MethodHandle method = JPH_MESH_SHAPE_SETTINGS_CREATE;
+			segment = (MemorySegment) method.invokeExact(array, triangleCount);
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot create mesh shape settings: " + className);
+		}
+		super(segment, arena);
+	}
+
 	public MeshShapeSettings(float[] vertices, int verticesCount, int[] triangles, int triangleCount) {
 		this(vertices, verticesCount, triangles, triangleCount, Arena.ofAuto());
 	}
@@ -120,32 +145,20 @@ public final class MeshShapeSettings extends ShapeSettings {
 			MemoryLayout arrayLayout = MemoryLayout.sequenceLayout(verticesCount, Vec3.LAYOUT());
 			MemorySegment verticesArray = confinedArena.allocate(arrayLayout);
 
-			Vec3 vertex = new Vec3(confinedArena);
-			int vertexCounter = 0;
-			for (int i = 0; i < verticesCount; i++) {
-				vertex.set(vertices[vertexCounter++], vertices[vertexCounter++], vertices[vertexCounter++]);
-
-				long offset = i * Vec3.LAYOUT().byteSize();
-				MemorySegment.copy(vertex.memorySegment(), 0, verticesArray, offset, Vec3.LAYOUT().byteSize());
-			}
+			// The vertices are already packed like JPH_Vec3.
+			MemorySegment.copy(vertices, 0, verticesArray, JAVA_FLOAT, 0, verticesCount * 3);
 
 			StructLayout layout = IndexedTriangle.LAYOUT();
 			MemorySegment trianglesArray = confinedArena.allocate(MemoryLayout.sequenceLayout(triangleCount, layout));
 
-			IndexedTriangle triangle = new IndexedTriangle(confinedArena);
-			int triangleCounter = 0;
 			for (int i = 0; i < triangleCount; i++) {
-				triangle.setIndex1(triangles[triangleCounter++]);
-				triangle.setIndex2(triangles[triangleCounter++]);
-				triangle.setIndex3(triangles[triangleCounter++]);
+				long offset = i * INDEXED_TRIANGLE_SIZE;
+				MemorySegment.copy(triangles, i * 3, trianglesArray, JAVA_INT, offset, 3);
 
 				if (materialIndices != null)
-					triangle.setMaterialIndex(materialIndices[i]);
+					trianglesArray.set(JAVA_INT, offset + INDEXED_TRIANGLE_MATERIAL_OFFSET, materialIndices[i]);
 				if (userData != null)
-					triangle.setUserData(userData[i]);
-
-				long offset = i * layout.byteSize();
-				MemorySegment.copy(triangle.memorySegment(), 0, trianglesArray, offset, layout.byteSize());
+					trianglesArray.set(JAVA_INT, offset + INDEXED_TRIANGLE_USER_DATA_OFFSET, userData[i]);
 			}
 
 			MethodHandle method = JPH_MESH_SHAPE_SETTINGS_CREATE2;
@@ -157,6 +170,93 @@ public final class MeshShapeSettings extends ShapeSettings {
 		super(segment, arena);
 	}
 
+	/**
+	 * Creates the settings from vertices in JPH_Vec3 layout and triangles in
+	 * JPH_IndexedTriangle layout (three indices, material index and user data).
+	 * Native memory is passed to Jolt without copying.
+	 */
+	public MeshShapeSettings(MemorySegment vertices, int verticesCount, MemorySegment triangles, int triangleCount) {
+		this(vertices, verticesCount, triangles, triangleCount, Arena.ofAuto());
+	}
+
+	public MeshShapeSettings(MemorySegment vertices, int verticesCount, MemorySegment triangles, int triangleCount,
+			Arena arena) {
+		this(vertices, VEC3_SIZE, verticesCount, triangles, INDEXED_TRIANGLE_SIZE, triangleCount, arena);
+	}
+
+	/**
+	 * Creates the settings from interleaved or padded mesh data, e.g. a vertex
+	 * buffer with normals and a 32-bit index buffer. Every vertex starts with
+	 * three floats and every triangle with three int indices, the strides are the
+	 * distances in bytes between two vertices or triangles.
+	 * <p>
+	 * Data that already has the Jolt layout (strides of 12 and 20 bytes) in
+	 * native memory is passed without copying, anything else is converted into a
+	 * temporary native buffer first. Material indices and user data of converted
+	 * triangles are 0.
+	 */
+	public MeshShapeSettings(MemorySegment vertices, long vertexStride, int verticesCount, MemorySegment triangles,
+			long triangleStride, int triangleCount, Arena arena) {
+		if (vertexStride < VEC3_SIZE)
+			throw new IllegalArgumentException("Vertex stride must be at least " + VEC3_SIZE + " bytes.");
+		if (triangleStride < 3 * Integer.BYTES)
+			throw new IllegalArgumentException("Triangle stride must be at least 12 bytes.");
+
+		MemorySegment segment;
+		try (Arena confinedArena = Arena.ofConfined()) {
+			MemorySegment verticesArray;
+			if (vertexStride == VEC3_SIZE)
+				verticesArray = toNative(vertices, VEC3_SIZE * verticesCount, confinedArena);
+			else
+				verticesArray = restride(vertices, vertexStride, verticesCount, VEC3_SIZE, VEC3_SIZE, confinedArena);
+
+			MemorySegment trianglesArray;
+			if (triangleStride == INDEXED_TRIANGLE_SIZE)
+				trianglesArray = toNative(triangles, INDEXED_TRIANGLE_SIZE * triangleCount, confinedArena);
+			else
+				trianglesArray = restride(triangles, triangleStride, triangleCount, 3 * Integer.BYTES,
+						INDEXED_TRIANGLE_SIZE, confinedArena);
+
+			MethodHandle method = JPH_MESH_SHAPE_SETTINGS_CREATE2;
+			segment = (MemorySegment) method.invokeExact(verticesArray, verticesCount, trianglesArray, triangleCount);
+		} catch (Throwable e) {
+			String className = e.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot create mesh shape settings: " + className);
+		}
+		super(segment, arena);
+	}
+
+	/**
+	 * Creates the settings from a packed vertex buffer (three floats per vertex)
+	 * and an index buffer (three ints per triangle), starting at the current
+	 * position of each buffer. The buffer positions are not modified.
+	 * 
+	 * @throws IllegalArgumentException if a buffer is not in native byte order
+	 */
+	public MeshShapeSettings(FloatBuffer vertices, IntBuffer indices) {
+		this(vertices, indices, Arena.ofAuto());
+	}
+
+	public MeshShapeSettings(FloatBuffer vertices, IntBuffer indices, Arena arena) {
+		this(ofBuffer(vertices), VEC3_SIZE, vertices.remaining() / 3, ofBuffer(indices), 3 * Integer.BYTES,
+				indices.remaining() / 3, arena);
+	}
+
+	/**
+	 * Copies the first elementSize bytes of every element into a tightly packed
+	 * array with the target stride, the rest of each target element is zeroed.
+	 */
+	private static MemorySegment restride(MemorySegment source, long sourceStride, int count, long elementSize,
+			long targetStride, Arena arena) {
+
+		MemorySegment target = arena.allocate(targetStride * count, 4);
+
+		for (int i = 0; i < count; i++)
+			MemorySegment.copy(source, i * sourceStride, target, i * targetStride, elementSize);
+
+		return target;
+	}
+
 	/**
 	 * Maximum number of triangles in each leaf of the axis aligned box tree. This
 	 * is a balance between memory and performance. Can be in the range [1,
@@ -304,8 +404,14 @@ public final class MeshShapeSettings extends ShapeSettings {
 
 	public MeshShape createShape(Arena arena) {
 		try {
+			CreateShapeEvent event = new CreateShapeEvent();
+			event.begin();
+
 			MethodHandle method = JPH_MESH_SHAPE_SETTINGS_CREATE_SHAPE;
 			MemorySegment segment = (MemorySegment) method.invokeExact(jphShapeSettings);
+
+			CreateShapeEvent.commit(event, this);
+
 			return new MeshShape(segment, arena);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
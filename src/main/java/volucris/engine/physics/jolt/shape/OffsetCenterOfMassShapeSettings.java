@@ -7,6 +7,7 @@ import java.lang.invoke.MethodHandle;
 import org.joml.Vector3f;
 
 import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.CreateShapeEvent;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
 import static java.lang.foreign.ValueLayout.*;
@@ -71,8 +72,14 @@ public final class OffsetCenterOfMassShapeSettings extends ShapeSettings {
 
 	public OffsetCenterOfMassShape createShape(Arena arena) {
 		try {
+			CreateShapeEvent event = new CreateShapeEvent();
+			event.begin();
+
 			MethodHandle method = JPH_OFFSET_CENTER_OF_MASS_SHAPE_SETTINGS_CREATE_SHAPE;
 			MemorySegment segment = (MemorySegment) method.invokeExact(jphShapeSettings);
+
+			CreateShapeEvent.commit(event, this);
+
 			return new OffsetCenterOfMassShape(segment, arena);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
@@ -9,6 +9,7 @@ import org.joml.Vector3f;
 
 import volucris.engine.physics.jolt.math.Quat;
 import volucris.engine.physics.jolt.math.Vec3;
+import volucris.engine.physics.jolt.metrics.CreateShapeEvent;
 import volucris.engine.physics.jolt.utils.JoltRuntimeException;
 
 import static java.lang.foreign.ValueLayout.*;
@@ -82,8 +83,14 @@ public final class RotatedTranslatedShapeSettings extends ShapeSettings {
 
 	public RotatedTranslatedShape createShape(Arena arena) {
 		try {
+			CreateShapeEvent event = new CreateShapeEvent();
+			event.begin();
+
 			MethodHandle method = JPH_ROTATED_TRANSLATED_SHAPE_SETTINGS_CREATE_SHAPE;
 			MemorySegment segment = (MemorySegment) method.invokeExact(jphShapeSettings);
+
+			CreateShapeEvent.commit(event, this);
+
 			return new RotatedTranslatedShape(segment, arena);
 		} catch (Throwable e) {
 			String className = e.getClass().getSimpleName();
@@ -0,0 +1,349 @@
+package volucris.engine.physics.jolt.shape;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.joml.Vector3f;
+
+import volucris.engine.physics.jolt.physicsSystem.PhysicsSettings;
+
+/**
+ * Shares identical shapes between bodies. Shapes are looked up by their
+ * dimensions, convex radius, density and, for convex hulls, their points, so
+ * every distinct shape is only created once.
+ * <p>
+ * Every acquire increments the use count of the returned shape and should be
+ * paired with a {@link #release(Shape)} when the body using it is destroyed.
+ * Shapes that are not used anymore stay cached until the estimated native size
+ * of all unused shapes exceeds the budget, then the least recently released
+ * ones are dropped. Dropped shapes are destroyed once they are no longer
+ * referenced.
+ * <p>
+ * Cached shapes are shared, they must not be modified, e.g. with
+ * {@link ConvexShape#setDensity(float)}. All methods are thread-safe.
+ */
+public final class ShapeCache {
+
+	private static final float DEFAULT_DENSITY = 1000f;
+
+	private static final int BOX = 0;
+	private static final int SPHERE = 1;
+	private static final int CAPSULE = 2;
+	private static final int CONVEX_HULL = 3;
+
+	/**
+	 * Rough native sizes, Jolt does not report the memory of a shape.
+	 */
+	private static final long SHAPE_SIZE = 64;
+	private static final long HULL_POINT_SIZE = 48;
+
+	private final Map<Key, Entry> entries;
+	private final Map<Shape, Entry> entriesByShape;
+	private final LinkedHashMap<Key, Entry> unused;
+
+	private long maxUnusedBytes;
+	private long unusedBytes;
+
+	private long hits;
+	private long misses;
+	private long bytesSaved;
+
+	/**
+	 * Keeps up to 16 MB of unused shapes.
+	 */
+	public ShapeCache() {
+		this(16L << 20);
+	}
+
+	/**
+	 * @param maxUnusedBytes estimated native size of unused shapes that are kept
+	 */
+	public ShapeCache(long maxUnusedBytes) {
+		entries = new HashMap<>();
+		entriesByShape = new IdentityHashMap<>();
+		unused = new LinkedHashMap<>();
+
+		setMaxUnusedBytes(maxUnusedBytes);
+	}
+
+	public BoxShape acquireBox(Vector3f halfExtent) {
+		return acquireBox(halfExtent, PhysicsSettings.DEFAULT_CONVEX_RADIUS, DEFAULT_DENSITY);
+	}
+
+	public synchronized BoxShape acquireBox(Vector3f halfExtent, float convexRadius, float density) {
+		Key key = new Key(BOX, halfExtent.x, halfExtent.y, halfExtent.z, convexRadius, density);
+
+		Entry entry = lookup(key);
+		if (entry == null) {
+			BoxShape shape = new BoxShape(halfExtent, convexRadius);
+			shape.setDensity(density);
+			entry = add(key, shape, SHAPE_SIZE);
+		}
+
+		return (BoxShape) entry.shape;
+	}
+
+	public SphereShape acquireSphere(float radius) {
+		return acquireSphere(radius, DEFAULT_DENSITY);
+	}
+
+	public synchronized SphereShape acquireSphere(float radius, float density) {
+		Key key = new Key(SPHERE, radius, density);
+
+		Entry entry = lookup(key);
+		if (entry == null) {
+			SphereShape shape = new SphereShape(radius);
+			shape.setDensity(density);
+			entry = add(key, shape, SHAPE_SIZE);
+		}
+
+		return (SphereShape) entry.shape;
+	}
+
+	public CapsuleShape acquireCapsule(float halfHeightOfCylinder, float radius) {
+		return acquireCapsule(halfHeightOfCylinder, radius, DEFAULT_DENSITY);
+	}
+
+	public synchronized CapsuleShape acquireCapsule(float halfHeightOfCylinder, float radius, float density) {
+		Key key = new Key(CAPSULE, halfHeightOfCylinder, radius, density);
+
+		Entry entry = lookup(key);
+		if (entry == null) {
+			CapsuleShape shape = new CapsuleShape(halfHeightOfCylinder, radius);
+			shape.setDensity(density);
+			entry = add(key, shape, SHAPE_SIZE);
+		}
+
+		return (CapsuleShape) entry.shape;
+	}
+
+	public ConvexHullShape acquireConvexHull(Vector3f... points) {
+		return acquireConvexHull(PhysicsSettings.DEFAULT_CONVEX_RADIUS, DEFAULT_DENSITY, points);
+	}
+
+	/**
+	 * The order of the points does not matter, the same points in a different
+	 * order return the same hull.
+	 */
+	public synchronized ConvexHullShape acquireConvexHull(float maxConvexRadius, float density, Vector3f... points) {
+		float[] values = new float[2 + points.length * 3];
+		values[0] = maxConvexRadius;
+		values[1] = density;
+
+		Vector3f[] sorted = points.clone();
+		Arrays.sort(sorted, ShapeCache::comparePoints);
+		for (int i = 0; i < sorted.length; i++) {
+			values[2 + i * 3] = sorted[i].x;
+			values[3 + i * 3] = sorted[i].y;
+			values[4 + i * 3] = sorted[i].z;
+		}
+
+		Key key = new Key(CONVEX_HULL, values);
+
+		Entry entry = lookup(key);
+		if (entry == null) {
+			ConvexHullShape shape = new ConvexHullShapeSettings(maxConvexRadius, points).createShape();
+			shape.setDensity(density);
+			entry = add(key, shape, SHAPE_SIZE + points.length * HULL_POINT_SIZE);
+		}
+
+		return (ConvexHullShape) entry.shape;
+	}
+
+	/**
+	 * Decrements the use count of a shape returned by this cache. The shape stays
+	 * cached for reuse until it is evicted.
+	 */
+	public synchronized void release(Shape shape) {
+		Entry entry = entriesByShape.get(shape);
+		if (entry == null)
+			throw new IllegalArgumentException("Shape is not in the cache.");
+		if (entry.uses == 0)
+			throw new IllegalStateException("Shape has been released more often than acquired.");
+
+		if (--entry.uses == 0) {
+			unused.put(entry.key, entry);
+			unusedBytes += entry.size;
+			evict();
+		}
+	}
+
+	/**
+	 * Number of bodies that currently use the shape or -1 if it is not cached.
+	 */
+	public synchronized int getUseCount(Shape shape) {
+		Entry entry = entriesByShape.get(shape);
+		return entry != null ? entry.uses : -1;
+	}
+
+	/**
+	 * Drops all unused shapes.
+	 */
+	public synchronized void trim() {
+		long max = maxUnusedBytes;
+		maxUnusedBytes = 0;
+		evict();
+		maxUnusedBytes = max;
+	}
+
+	public synchronized long getMaxUnusedBytes() {
+		return maxUnusedBytes;
+	}
+
+	public synchronized void setMaxUnusedBytes(long maxUnusedBytes) {
+		if (maxUnusedBytes < 0)
+			throw new IllegalArgumentException("Max unused bytes must not be negative.");
+
+		this.maxUnusedBytes = maxUnusedBytes;
+		evict();
+	}
+
+	/**
+	 * Number of cached shapes, used or not.
+	 */
+	public synchronized int getShapeCount() {
+		return entries.size();
+	}
+
+	public synchronized int getUnusedShapeCount() {
+		return unused.size();
+	}
+
+	public synchronized long getUnusedBytes() {
+		return unusedBytes;
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Fraction of acquires that returned a cached shape, 0 before the first one.
+	 */
+	public synchronized double getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * Estimated native memory of the shapes that did not have to be created.
+	 */
+	public synchronized long getNativeBytesSaved() {
+		return bytesSaved;
+	}
+
+	public synchronized void resetStatistics() {
+		hits = 0;
+		misses = 0;
+		bytesSaved = 0;
+	}
+
+	private Entry lookup(Key key) {
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+
+		if (entry.uses++ == 0) {
+			unused.remove(key);
+			unusedBytes -= entry.size;
+		}
+
+		hits++;
+		bytesSaved += entry.size;
+
+		return entry;
+	}
+
+	private Entry add(Key key, Shape shape, long size) {
+		Entry entry = new Entry(key, shape, size);
+		entry.uses = 1;
+
+		entries.put(key, entry);
+		entriesByShape.put(shape, entry);
+
+		return entry;
+	}
+
+	private void evict() {
+		Iterator<Entry> iterator = unused.values().iterator();
+		while (unusedBytes > maxUnusedBytes && iterator.hasNext()) {
+			Entry entry = iterator.next();
+			iterator.remove();
+
+			entries.remove(entry.key);
+			entriesByShape.remove(entry.shape);
+			unusedBytes -= entry.size;
+		}
+	}
+
+	private static int comparePoints(Vector3f a, Vector3f b) {
+		int result = Float.compare(a.x, b.x);
+		if (result == 0)
+			result = Float.compare(a.y, b.y);
+		if (result == 0)
+			result = Float.compare(a.z, b.z);
+		return result;
+	}
+
+	private static final class Key {
+
+		private final int type;
+		private final float[] values;
+		private final int hash;
+
+		private Key(int type, float... values) {
+			// -0 and 0 describe the same shape but have different bits.
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] == 0)
+					values[i] = 0;
+			}
+
+			this.type = type;
+			this.values = values;
+			this.hash = 31 * type + Arrays.hashCode(values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key other))
+				return false;
+
+			return type == other.type && Arrays.equals(values, other.values);
+		}
+
+	}
+
+	private static final class Entry {
+
+		private final Key key;
+		private final Shape shape;
+		private final long size;
+
+		private int uses;
+
+		private Entry(Key key, Shape shape, long size) {
+			this.key = key;
+			this.shape = shape;
+			this.size = size;
+		}
+
+	}
+
+}
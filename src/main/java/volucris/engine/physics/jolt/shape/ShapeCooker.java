@@ -0,0 +1,211 @@
+package volucris.engine.physics.jolt.shape;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import volucris.engine.physics.jolt.shape.ShapeEnums.BuildQuality;
+
+/**
+ * Builds shapes on background threads, so expensive shapes like convex hulls,
+ * meshes and height fields do not stall the calling thread.
+ * <p>
+ * Requests with a higher priority are built first, requests with the same
+ * priority in the order they were made. A request can be cancelled by
+ * cancelling its future, it is skipped if it has not started yet. At most
+ * queueCapacity requests can wait at the same time, further requests fail with
+ * a {@link RejectedExecutionException}.
+ * <p>
+ * Bodies are usually created on the main thread. Continuations can be moved
+ * there with {@link #mainThread()}, they run when the main thread calls
+ * {@link #runCompletions(int)}:
+ *
+ * <pre>
+ * cooker.cook(settings, 0).thenAcceptAsync(shape -&gt; ..., cooker.mainThread());
+ * </pre>
+ *
+ * The settings must not be modified or destroyed until the future completes.
+ */
+public final class ShapeCooker implements AutoCloseable {
+
+	private final ThreadPoolExecutor executor;
+	private final int queueCapacity;
+
+	private final AtomicInteger queued;
+	private final AtomicLong sequence;
+
+	private final ConcurrentLinkedQueue<Runnable> completions;
+	private final Executor mainThread;
+
+	/**
+	 * Uses half of the available processors.
+	 */
+	public ShapeCooker() {
+		this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 1024);
+	}
+
+	/**
+	 * @param threads       number of build threads
+	 * @param queueCapacity maximum number of requests waiting to be built
+	 */
+	public ShapeCooker(int threads, int queueCapacity) {
+		if (threads < 1)
+			throw new IllegalArgumentException("Threads must be at least 1.");
+		if (queueCapacity < 1)
+			throw new IllegalArgumentException("Queue capacity must be at least 1.");
+
+		this.queueCapacity = queueCapacity;
+
+		queued = new AtomicInteger();
+		sequence = new AtomicLong();
+
+		AtomicInteger threadCount = new AtomicInteger();
+		executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+				runnable -> {
+					Thread thread = new Thread(runnable, "Jolt Shape Cooker " + threadCount.getAndIncrement());
+					thread.setDaemon(true);
+					return thread;
+				});
+
+		completions = new ConcurrentLinkedQueue<>();
+		mainThread = completions::add;
+	}
+
+	public CompletableFuture<ConvexHullShape> cook(ConvexHullShapeSettings settings, int priority) {
+		return submit(settings::createShape, priority);
+	}
+
+	public CompletableFuture<MeshShape> cook(MeshShapeSettings settings, int priority) {
+		return submit(settings::createShape, priority);
+	}
+
+	/**
+	 * Sets the build quality and optionally sanitizes the mesh on the build
+	 * thread before creating the shape.
+	 */
+	public CompletableFuture<MeshShape> cook(MeshShapeSettings settings, BuildQuality buildQuality, boolean sanitize,
+			int priority) {
+
+		return submit(() -> {
+			settings.setBuildQuality(buildQuality);
+			if (sanitize)
+				settings.sanitize();
+
+			return settings.createShape();
+		}, priority);
+	}
+
+	public CompletableFuture<HeightFieldShape> cook(HeightFieldShapeSettings settings, int priority) {
+		return submit(settings::createShape, priority);
+	}
+
+	/**
+	 * Runs any shape construction on the build threads.
+	 */
+	public <T extends Shape> CompletableFuture<T> submit(Supplier<T> builder, int priority) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+
+		if (queued.incrementAndGet() > queueCapacity) {
+			queued.decrementAndGet();
+			future.completeExceptionally(new RejectedExecutionException("Shape cooker queue is full."));
+			return future;
+		}
+
+		Request<T> request = new Request<>(builder, future, priority, sequence.getAndIncrement());
+		try {
+			executor.execute(request);
+		} catch (RejectedExecutionException e) {
+			queued.decrementAndGet();
+			future.completeExceptionally(e);
+		}
+
+		return future;
+	}
+
+	/**
+	 * Executor that queues tasks until {@link #runCompletions(int)} is called.
+	 */
+	public Executor mainThread() {
+		return mainThread;
+	}
+
+	/**
+	 * Runs up to maxCount tasks queued on {@link #mainThread()} on the calling
+	 * thread.
+	 *
+	 * @return the number of tasks that have been run
+	 */
+	public int runCompletions(int maxCount) {
+		int count = 0;
+
+		Runnable task;
+		while (count < maxCount && (task = completions.poll()) != null) {
+			task.run();
+			count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Number of requests that have not started yet.
+	 */
+	public int getQueuedCount() {
+		return queued.get();
+	}
+
+	/**
+	 * Stops the build threads after the queued requests have been built.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+	private final class Request<T extends Shape> implements Runnable, Comparable<Request<?>> {
+
+		private final Supplier<T> builder;
+		private final CompletableFuture<T> future;
+		private final int priority;
+		private final long sequence;
+
+		private Request(Supplier<T> builder, CompletableFuture<T> future, int priority, long sequence) {
+			this.builder = builder;
+			this.future = future;
+			this.priority = priority;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public void run() {
+			queued.decrementAndGet();
+
+			// Cancelled while waiting.
+			if (future.isDone())
+				return;
+
+			try {
+				future.complete(builder.get());
+			} catch (Throwable e) {
+				future.completeExceptionally(e);
+			}
+		}
+
+		@Override
+		public int compareTo(Request<?> other) {
+			if (priority != other.priority)
+				return Integer.compare(other.priority, priority);
+
+			return Long.compare(sequence, other.sequence);
+		}
+
+	}
+
+}
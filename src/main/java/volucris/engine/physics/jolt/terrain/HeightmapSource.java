@@ -0,0 +1,29 @@
+package volucris.engine.physics.jolt.terrain;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Provides the height samples of a terrain to a {@link TerrainStreamer}. The
+ * samples form a grid of width * depth values, x along the width and z along
+ * the depth.
+ */
+public abstract class HeightmapSource {
+
+	/**
+	 * Number of samples along x.
+	 */
+	public abstract int getWidth();
+
+	/**
+	 * Number of samples along z.
+	 */
+	public abstract int getDepth();
+
+	/**
+	 * Copies count samples of row z, starting at column x, into target as packed
+	 * floats. The range is always inside the heightmap. Called from the build
+	 * threads of the streamer, possibly concurrently.
+	 */
+	public abstract void readRow(int x, int z, int count, MemorySegment target);
+
+}
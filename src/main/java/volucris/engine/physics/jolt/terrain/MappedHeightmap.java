@@ -0,0 +1,69 @@
+package volucris.engine.physics.jolt.terrain;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Heightmap in a raw file of 32-bit floats in native byte order, stored row by
+ * row. The file is memory-mapped, rows are copied to the tiles without going
+ * through the Java heap.
+ */
+public final class MappedHeightmap extends HeightmapSource implements AutoCloseable {
+
+	private final Arena arena;
+	private final MemorySegment samples;
+
+	private final int width;
+	private final int depth;
+
+	public MappedHeightmap(Path path, int width, int depth) throws IOException {
+		if (width < 2 || depth < 2)
+			throw new IllegalArgumentException("Heightmap must have at least 2 x 2 samples.");
+
+		this.width = width;
+		this.depth = depth;
+
+		long size = (long) width * depth * Float.BYTES;
+
+		arena = Arena.ofShared();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() < size)
+				throw new IOException("Heightmap file is smaller than " + width + " x " + depth + " samples.");
+
+			samples = channel.map(MapMode.READ_ONLY, 0, size, arena);
+		} catch (IOException | RuntimeException e) {
+			arena.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getDepth() {
+		return depth;
+	}
+
+	@Override
+	public void readRow(int x, int z, int count, MemorySegment target) {
+		long offset = ((long) z * width + x) * Float.BYTES;
+		MemorySegment.copy(samples, offset, target, 0, (long) count * Float.BYTES);
+	}
+
+	/**
+	 * Unmaps the file. The streamer using this heightmap must be closed first.
+	 */
+	@Override
+	public void close() {
+		arena.close();
+	}
+
+}
@@ -0,0 +1,461 @@
+package volucris.engine.physics.jolt.terrain;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import volucris.engine.physics.jolt.JoltEnums.Activation;
+import volucris.engine.physics.jolt.body.BodyCreationSettings;
+import volucris.engine.physics.jolt.body.BodyEnums.MotionType;
+import volucris.engine.physics.jolt.body.BodyInterface;
+import volucris.engine.physics.jolt.shape.HeightFieldShapeSettings;
+import volucris.engine.physics.jolt.shape.Shape;
+import volucris.engine.physics.jolt.utils.JoltRuntimeException;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Streams a large heightmap as static height field tiles around a set of focus
+ * points, e.g. the player and the camera.
+ * <p>
+ * Every call to {@link #update(Vector3f...)} determines the tiles within the
+ * load radius of the focus points. Missing tile shapes are built on the
+ * executor, finished tiles are added as bodies and tiles that are out of range
+ * are removed. At most {@link #getBudget()} bodies are added or removed per
+ * update, so streaming does not cause spikes in the frame time. The shapes of
+ * removed tiles are kept in a cache and reused when the tile comes back into
+ * range.
+ * <p>
+ * Tiles share their edge samples with the neighbors. Parts of the last tiles
+ * that are outside the heightmap have no collision.
+ * <p>
+ * The streamer is not thread-safe, update it from one thread.
+ */
+public final class TerrainStreamer implements AutoCloseable {
+
+	/**
+	 * Height of samples without collision, cNoCollisionValue in Jolt.
+	 */
+	private static final float NO_COLLISION = Float.MAX_VALUE;
+
+	private static final int BUILDING = 0;
+	private static final int READY = 1;
+	private static final int LOADED = 2;
+
+	private final BodyInterface bodyInterface;
+	private final HeightmapSource source;
+	private final Executor executor;
+
+	private final int tileCells;
+	private final float cellSize;
+	private final float tileSize;
+	private final Vector3f origin;
+	private final int objectLayer;
+
+	private final int tilesX;
+	private final int tilesZ;
+
+	private final Map<Long, Tile> tiles;
+	private final ArrayDeque<Tile> ready;
+	private final ConcurrentLinkedQueue<Tile> built;
+	private final LinkedHashMap<Long, Shape> cache;
+
+	private int loadRadius;
+	private int budget;
+	private int cacheCapacity;
+
+	private long frame;
+
+	private final Vector3f positionTmp;
+	private final Quaternionf rotationTmp;
+
+	/**
+	 * Builds tiles on the common fork join pool.
+	 */
+	public TerrainStreamer(BodyInterface bodyInterface, HeightmapSource source, int tileCells, float cellSize,
+			Vector3f origin, int objectLayer) {
+		this(bodyInterface, source, tileCells, cellSize, origin, objectLayer, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param tileCells number of cells along each side of a tile, a tile has
+	 *                  tileCells + 1 samples per side
+	 * @param cellSize  distance between two samples
+	 * @param origin    world position of the first sample
+	 * @param executor  executor the tile shapes are built on
+	 */
+	public TerrainStreamer(BodyInterface bodyInterface, HeightmapSource source, int tileCells, float cellSize,
+			Vector3f origin, int objectLayer, Executor executor) {
+
+		if (tileCells < 1)
+			throw new IllegalArgumentException("Tile cells must be at least 1.");
+		if (cellSize <= 0)
+			throw new IllegalArgumentException("Cell size must be positive.");
+
+		this.bodyInterface = bodyInterface;
+		this.source = source;
+		this.executor = executor;
+		this.tileCells = tileCells;
+		this.cellSize = cellSize;
+		this.tileSize = tileCells * cellSize;
+		this.origin = new Vector3f(origin);
+		this.objectLayer = objectLayer;
+
+		tilesX = (source.getWidth() - 1 + tileCells - 1) / tileCells;
+		tilesZ = (source.getDepth() - 1 + tileCells - 1) / tileCells;
+
+		tiles = new HashMap<>();
+		ready = new ArrayDeque<>();
+		built = new ConcurrentLinkedQueue<>();
+
+		cache = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Shape> eldest) {
+				return size() > cacheCapacity;
+			}
+
+		};
+
+		loadRadius = 2;
+		budget = 4;
+		cacheCapacity = 64;
+
+		positionTmp = new Vector3f();
+		rotationTmp = new Quaternionf();
+	}
+
+	/**
+	 * Loads the tiles around the focus points and unloads the others, within the
+	 * budget.
+	 *
+	 * @return the number of bodies that have been added or removed
+	 * @throws JoltRuntimeException if a tile could not be built. The rest of the
+	 *                              update is still done, and the tile is built
+	 *                              again by the next update that requests it.
+	 */
+	public int update(Vector3f... focusPoints) {
+		frame++;
+
+		for (Vector3f focus : focusPoints)
+			requestTilesAround(focus);
+
+		Throwable error = null;
+
+		Tile finished;
+		while ((finished = built.poll()) != null) {
+			if (finished.error != null) {
+				// Forget the tile, so the next request builds it again.
+				if (!finished.cancelled)
+					tiles.remove(finished.key);
+
+				if (error == null)
+					error = finished.error;
+			} else if (finished.cancelled) {
+				cacheShape(finished);
+			} else {
+				finished.state = READY;
+				ready.add(finished);
+			}
+		}
+
+		int operations = 0;
+
+		Iterator<Tile> iterator = tiles.values().iterator();
+		while (iterator.hasNext()) {
+			Tile tile = iterator.next();
+			if (tile.frame == frame)
+				continue;
+
+			switch (tile.state) {
+			case LOADED -> {
+				if (operations >= budget)
+					continue;
+
+				bodyInterface.removeAndDestroyBody(tile.bodyId);
+				cacheShape(tile);
+				operations++;
+			}
+			case READY -> cacheShape(tile);
+			default -> {
+				// The shape is cached when the build finishes.
+			}
+			}
+
+			tile.cancelled = true;
+			iterator.remove();
+		}
+
+		while (operations < budget && !ready.isEmpty()) {
+			Tile tile = ready.poll();
+			if (tile.cancelled)
+				continue;
+
+			addBody(tile);
+			operations++;
+		}
+
+		if (error != null) {
+			String className = error.getClass().getSimpleName();
+			throw new JoltRuntimeException("Cannot build terrain tile: " + className);
+		}
+
+		return operations;
+	}
+
+	/**
+	 * Removes the bodies of all tiles. Tiles that are still being built are
+	 * discarded when they finish.
+	 */
+	@Override
+	public void close() {
+		for (Tile tile : tiles.values()) {
+			if (tile.state == LOADED)
+				bodyInterface.removeAndDestroyBody(tile.bodyId);
+
+			tile.cancelled = true;
+		}
+
+		tiles.clear();
+		ready.clear();
+		built.clear();
+		cache.clear();
+	}
+
+	/**
+	 * Body of the tile or -1 if it is not loaded.
+	 */
+	public int getTileBodyID(int tileX, int tileZ) {
+		Tile tile = tiles.get(key(tileX, tileZ));
+		return tile != null && tile.state == LOADED ? tile.bodyId : -1;
+	}
+
+	public int getLoadedTileCount() {
+		int count = 0;
+		for (Tile tile : tiles.values()) {
+			if (tile.state == LOADED)
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Number of tiles that are being built or waiting to be added.
+	 */
+	public int getPendingTileCount() {
+		return tiles.size() - getLoadedTileCount();
+	}
+
+	public int getCachedTileCount() {
+		return cache.size();
+	}
+
+	public int getTileCountX() {
+		return tilesX;
+	}
+
+	public int getTileCountZ() {
+		return tilesZ;
+	}
+
+	public float getTileSize() {
+		return tileSize;
+	}
+
+	public int getLoadRadius() {
+		return loadRadius;
+	}
+
+	/**
+	 * Radius in tiles around the focus points in which tiles are loaded.
+	 */
+	public void setLoadRadius(int loadRadius) {
+		if (loadRadius < 0)
+			throw new IllegalArgumentException("Load radius must not be negative.");
+
+		this.loadRadius = loadRadius;
+	}
+
+	public int getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Maximum number of bodies that are added or removed per update.
+	 */
+	public void setBudget(int budget) {
+		if (budget < 1)
+			throw new IllegalArgumentException("Budget must be at least 1.");
+
+		this.budget = budget;
+	}
+
+	public int getCacheCapacity() {
+		return cacheCapacity;
+	}
+
+	/**
+	 * Maximum number of unloaded tile shapes that are kept for reuse, the least
+	 * recently used shapes are released first.
+	 */
+	public void setCacheCapacity(int cacheCapacity) {
+		if (cacheCapacity < 0)
+			throw new IllegalArgumentException("Cache capacity must not be negative.");
+
+		this.cacheCapacity = cacheCapacity;
+
+		Iterator<Shape> iterator = cache.values().iterator();
+		while (cache.size() > cacheCapacity && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+	private void requestTilesAround(Vector3f focus) {
+		int centerX = (int) Math.floor((focus.x - origin.x) / tileSize);
+		int centerZ = (int) Math.floor((focus.z - origin.z) / tileSize);
+
+		int radius = loadRadius;
+
+		int minX = Math.max(0, centerX - radius);
+		int maxX = Math.min(tilesX - 1, centerX + radius);
+		int minZ = Math.max(0, centerZ - radius);
+		int maxZ = Math.min(tilesZ - 1, centerZ + radius);
+
+		for (int z = minZ; z <= maxZ; z++) {
+			for (int x = minX; x <= maxX; x++) {
+				int dx = x - centerX;
+				int dz = z - centerZ;
+				if (dx * dx + dz * dz <= radius * radius)
+					requestTile(x, z);
+			}
+		}
+	}
+
+	private void requestTile(int x, int z) {
+		long key = key(x, z);
+
+		Tile tile = tiles.get(key);
+		if (tile == null) {
+			tile = new Tile(key, x, z);
+			tiles.put(key, tile);
+
+			Shape shape = cache.remove(key);
+			if (shape != null) {
+				tile.shape = shape;
+				tile.state = READY;
+				ready.add(tile);
+			} else {
+				Tile request = tile;
+				executor.execute(() -> build(request));
+			}
+		}
+
+		tile.frame = frame;
+	}
+
+	/**
+	 * Runs on the executor.
+	 */
+	private void build(Tile tile) {
+		try {
+			int sampleCount = tileCells + 1;
+			int firstX = tile.x * tileCells;
+			int firstZ = tile.z * tileCells;
+
+			int countX = Math.min(sampleCount, source.getWidth() - firstX);
+			int countZ = Math.min(sampleCount, source.getDepth() - firstZ);
+
+			try (Arena arena = Arena.ofConfined()) {
+				long rowSize = (long) sampleCount * Float.BYTES;
+				MemorySegment samples = arena.allocate(rowSize * sampleCount, 4);
+
+				for (int z = 0; z < sampleCount; z++) {
+					MemorySegment row = samples.asSlice(z * rowSize, rowSize);
+
+					int filled = 0;
+					if (z < countZ) {
+						source.readRow(firstX, firstZ + z, countX, row);
+						filled = countX;
+					}
+
+					for (int x = filled; x < sampleCount; x++)
+						row.setAtIndex(JAVA_FLOAT, x, NO_COLLISION);
+				}
+
+				Vector3f offset = new Vector3f();
+				Vector3f scale = new Vector3f(cellSize, 1, cellSize);
+
+				HeightFieldShapeSettings settings = new HeightFieldShapeSettings(samples, offset, scale, sampleCount,
+						null, arena);
+				tile.shape = settings.createShape(Arena.ofAuto());
+			}
+		} catch (Throwable e) {
+			tile.error = e;
+		}
+
+		built.add(tile);
+	}
+
+	private void addBody(Tile tile) {
+		Vector3f position = positionTmp;
+		position.x = origin.x + tile.x * tileSize;
+		position.y = origin.y;
+		position.z = origin.z + tile.z * tileSize;
+
+		try (Arena arena = Arena.ofConfined()) {
+			BodyCreationSettings settings = new BodyCreationSettings(arena, tile.shape, position,
+					rotationTmp.identity(), MotionType.STATIC, objectLayer);
+
+			tile.bodyId = bodyInterface.createAndAddBody(settings, Activation.DONT_ACTIVATE);
+			tile.state = LOADED;
+		}
+	}
+
+	private void cacheShape(Tile tile) {
+		if (tile.shape != null && cacheCapacity > 0)
+			cache.put(tile.key, tile.shape);
+
+		tile.shape = null;
+	}
+
+	private static long key(int x, int z) {
+		return (long) x << 32 | z & 0xFFFFFFFFL;
+	}
+
+	private static final class Tile {
+
+		private final long key;
+		private final int x;
+		private final int z;
+
+		private int state;
+		private long frame;
+		private boolean cancelled;
+
+		private Shape shape;
+		private int bodyId;
+
+		private Throwable error;
+
+		private Tile(long key, int x, int z) {
+			this.key = key;
+			this.x = x;
+			this.z = z;
+		}
+
+	}
+
+}
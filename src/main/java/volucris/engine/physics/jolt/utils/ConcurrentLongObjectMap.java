@@ -0,0 +1,245 @@
+package volucris.engine.physics.jolt.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Open addressing hash map from native addresses to Java objects.
+ * <p>
+ * Lookups are wait-free and do not allocate: they only read from the current
+ * table with acquire semantics, so they can be called from jolt's job threads
+ * (e.g. in contact callbacks) while other threads register new objects.
+ * Mutations are serialized with a lock, they are rare compared to lookups.
+ * <p>
+ * The key 0 (the NULL address) is reserved and cannot be stored.
+ */
+public final class ConcurrentLongObjectMap<V> {
+
+	private static final VarHandle KEYS;
+	private static final VarHandle VALUES;
+
+	private static final long EMPTY = 0L;
+
+	private static final int MIN_CAPACITY = 16;
+
+	private volatile Table table;
+
+	private int size;
+	private int used;
+
+	static {
+		KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+		VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+	}
+
+	public ConcurrentLongObjectMap() {
+		this(MIN_CAPACITY);
+	}
+
+	public ConcurrentLongObjectMap(int initialCapacity) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < initialCapacity * 2)
+			capacity <<= 1;
+
+		table = new Table(capacity);
+	}
+
+	/**
+	 * Returns the value for the key or null. Wait-free.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		Table table = this.table;
+		long[] keys = table.keys;
+		int mask = keys.length - 1;
+
+		int index = hash(key) & mask;
+		while (true) {
+			long current = (long) KEYS.getAcquire(keys, index);
+
+			if (current == key)
+				return (V) VALUES.getAcquire(table.values, index);
+
+			if (current == EMPTY)
+				return null;
+
+			index = (index + 1) & mask;
+		}
+	}
+
+	public boolean containsKey(long key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * Storing null removes the key.
+	 * 
+	 * @return the previous value or null
+	 */
+	public synchronized V put(long key, V value) {
+		if (value == null)
+			return remove(key);
+
+		return put(key, value, false);
+	}
+
+	/**
+	 * @return the current value if there is one, otherwise null after storing the
+	 *         value
+	 */
+	public synchronized V putIfAbsent(long key, V value) {
+		return put(key, value, true);
+	}
+
+	/**
+	 * @return the removed value or null
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized V remove(long key) {
+		Table table = this.table;
+		int index = indexOf(table, key);
+		if (index < 0)
+			return null;
+
+		V previous = (V) table.values[index];
+		if (previous != null) {
+			// The key stays in the table as a tombstone so probe chains are not broken.
+			VALUES.setRelease(table.values, index, null);
+			size--;
+		}
+
+		return previous;
+	}
+
+	/**
+	 * Removes the key only if it is currently mapped to the given value (compared
+	 * by identity).
+	 *
+	 * @return true if the entry was removed
+	 */
+	public synchronized boolean remove(long key, V value) {
+		Table table = this.table;
+		int index = indexOf(table, key);
+		if (index < 0 || table.values[index] != value)
+			return false;
+
+		VALUES.setRelease(table.values, index, null);
+		size--;
+
+		return true;
+	}
+
+	/**
+	 * Number of entries.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	@SuppressWarnings("unchecked")
+	private V put(long key, V value, boolean onlyIfAbsent) {
+		if (key == EMPTY)
+			throw new IllegalArgumentException("Key 0 is reserved.");
+		if (value == null)
+			throw new IllegalArgumentException("Value must not be null.");
+
+		Table table = this.table;
+
+		int index = indexOf(table, key);
+		if (index >= 0) {
+			V previous = (V) table.values[index];
+			if (previous != null && onlyIfAbsent)
+				return previous;
+
+			VALUES.setRelease(table.values, index, value);
+			if (previous == null)
+				size++;
+
+			return previous;
+		}
+
+		if ((used + 1) * 2 > table.keys.length) {
+			table = rehash(table);
+			this.table = table;
+		}
+
+		insert(table, key, value);
+		used++;
+		size++;
+
+		return null;
+	}
+
+	private Table rehash(Table table) {
+		int capacity = table.keys.length;
+		while ((size + 1) * 4 > capacity)
+			capacity <<= 1;
+		while (capacity > MIN_CAPACITY && (size + 1) * 8 < capacity)
+			capacity >>= 1;
+
+		Table newTable = new Table(capacity);
+
+		int count = 0;
+		for (int i = 0; i < table.keys.length; i++) {
+			Object value = table.values[i];
+			if (value == null)
+				continue;
+
+			insert(newTable, table.keys[i], value);
+			count++;
+		}
+
+		used = count;
+
+		return newTable;
+	}
+
+	private static void insert(Table table, long key, Object value) {
+		long[] keys = table.keys;
+		int mask = keys.length - 1;
+
+		int index = hash(key) & mask;
+		while (keys[index] != EMPTY)
+			index = (index + 1) & mask;
+
+		// Publish the value before the key, a reader that sees the key also sees the value.
+		VALUES.setRelease(table.values, index, value);
+		KEYS.setRelease(keys, index, key);
+	}
+
+	private static int indexOf(Table table, long key) {
+		long[] keys = table.keys;
+		int mask = keys.length - 1;
+
+		int index = hash(key) & mask;
+		while (true) {
+			long current = keys[index];
+
+			if (current == key)
+				return index;
+
+			if (current == EMPTY)
+				return -1;
+
+			index = (index + 1) & mask;
+		}
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private static final class Table {
+
+		private final long[] keys;
+		private final Object[] values;
+
+		private Table(int capacity) {
+			keys = new long[capacity];
+			values = new Object[capacity];
+		}
+
+	}
+
+}
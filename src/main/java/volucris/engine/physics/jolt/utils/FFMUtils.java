@@ -2,31 +2,211 @@ package volucris.engine.physics.jolt.utils;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.GroupLayout;
 import java.lang.foreign.Linker;
 import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.MemoryLayout.PathElement;
+import java.lang.foreign.SegmentAllocator;
 import java.lang.foreign.SymbolLookup;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
 import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 
 public final class FFMUtils {
 
 	private static final Linker LINKER = Linker.nativeLinker();
 	private static final SymbolLookup SYMBOL_LOOKUP = SymbolLookup.loaderLookup();
 
+	private static volatile boolean criticalDowncalls;
+
+	private static volatile boolean lazyDowncalls;
+
+	private static volatile boolean linked;
+
+	static {
+		criticalDowncalls = Boolean.parseBoolean(System.getProperty("volucris.jolt.criticalDowncalls", "true"));
+		lazyDowncalls = Boolean.parseBoolean(System.getProperty("volucris.jolt.lazyDowncalls", "true"));
+	}
+
 	private FFMUtils() {
 
 	}
 
 	public static MethodHandle downcallHandleVoid(String name, MemoryLayout... argLayouts) {
-		return LINKER.downcallHandle(SYMBOL_LOOKUP.findOrThrow(name), FunctionDescriptor.ofVoid(argLayouts));
+		return downcallHandle(name, FunctionDescriptor.ofVoid(argLayouts));
 	}
 
 	public static MethodHandle downcallHandle(String name, MemoryLayout resLayout, MemoryLayout... argLayouts) {
-		return LINKER.downcallHandle(SYMBOL_LOOKUP.findOrThrow(name), FunctionDescriptor.of(resLayout, argLayouts));
+		return downcallHandle(name, FunctionDescriptor.of(resLayout, argLayouts));
+	}
+
+	/**
+	 * @see #criticalDowncallHandle(String, boolean, MemoryLayout, MemoryLayout...)
+	 */
+	public static MethodHandle criticalDowncallHandleVoid(String name, boolean allowHeapAccess,
+			MemoryLayout... argLayouts) {
+		FunctionDescriptor descriptor = FunctionDescriptor.ofVoid(argLayouts);
+		return downcallHandle(name, descriptor, criticalOptions(allowHeapAccess));
+	}
+
+	/**
+	 * Links a trivial function with {@link Linker.Option#critical(boolean)}, which
+	 * removes the thread state transitions of a regular downcall. The calling
+	 * thread cannot reach a safepoint while the function runs, so this is only
+	 * allowed for short functions that never block, never take a lock, never
+	 * allocate and never call back into Java, e.g. the getters and setters of a
+	 * body.
+	 * 
+	 * @param allowHeapAccess if heap segments may be passed as arguments
+	 */
+	public static MethodHandle criticalDowncallHandle(String name, boolean allowHeapAccess, MemoryLayout resLayout,
+			MemoryLayout... argLayouts) {
+		FunctionDescriptor descriptor = FunctionDescriptor.of(resLayout, argLayouts);
+		return downcallHandle(name, descriptor, criticalOptions(allowHeapAccess));
+	}
+
+	/**
+	 * The symbol is looked up right away, so missing functions still fail when
+	 * the class is loaded. Linking the handle is the expensive part and is
+	 * deferred to the first call if {@link #isLazyDowncalls() lazy downcalls} are
+	 * enabled.
+	 */
+	private static MethodHandle downcallHandle(String name, FunctionDescriptor descriptor, Linker.Option... options) {
+		MemorySegment symbol = SYMBOL_LOOKUP.findOrThrow(name);
+
+		linked = true;
+
+		if (!lazyDowncalls)
+			return LINKER.downcallHandle(symbol, descriptor, options);
+
+		return new LazyDowncall(symbol, descriptor, options).callSite.dynamicInvoker();
+	}
+
+	/**
+	 * Call site that starts out pointing at {@link #link(Object[])}, which links
+	 * the real downcall handle and installs it as the new target. Callers keep
+	 * the dynamic invoker in a static final field, so after the first call the
+	 * JIT inlines the linked handle like an eagerly linked one.
+	 */
+	private static final class LazyDowncall {
+
+		private static final MethodHandle LINK;
+
+		private final MemorySegment symbol;
+		private final FunctionDescriptor descriptor;
+		private final Linker.Option[] options;
+
+		private final MutableCallSite callSite;
+
+		private MethodHandle handle;
+
+		static {
+			try {
+				MethodType type = MethodType.methodType(Object.class, Object[].class);
+				LINK = MethodHandles.lookup().findVirtual(LazyDowncall.class, "link", type);
+			} catch (ReflectiveOperationException e) {
+				throw new ExceptionInInitializerError(e);
+			}
+		}
+
+		private LazyDowncall(MemorySegment symbol, FunctionDescriptor descriptor, Linker.Option[] options) {
+			this.symbol = symbol;
+			this.descriptor = descriptor;
+			this.options = options;
+
+			// Struct returns take a SegmentAllocator as first argument.
+			MethodType type = descriptor.toMethodType();
+			if (descriptor.returnLayout().orElse(null) instanceof GroupLayout)
+				type = type.insertParameterTypes(0, SegmentAllocator.class);
+
+			MethodHandle link = LINK.bindTo(this).asCollector(Object[].class, type.parameterCount());
+			callSite = new MutableCallSite(link.asType(type));
+		}
+
+		private Object link(Object[] args) throws Throwable {
+			MethodHandle target;
+			synchronized (this) {
+				if (handle == null) {
+					handle = LINKER.downcallHandle(symbol, descriptor, options);
+					callSite.setTarget(handle);
+					MutableCallSite.syncAll(new MutableCallSite[] { callSite });
+				}
+				target = handle;
+			}
+
+			return target.invokeWithArguments(args);
+		}
+
+	}
+
+	/**
+	 * If functions linked with
+	 * {@link #criticalDowncallHandle(String, boolean, MemoryLayout, MemoryLayout...)}
+	 * skip the thread state transitions. Disable this to link them like every
+	 * other function, e.g. when using a native library with custom callbacks in
+	 * these functions. Enabled by default, the default can also be set with the
+	 * system property {@code volucris.jolt.criticalDowncalls}.
+	 * 
+	 * @throws IllegalStateException if a function has already been linked
+	 */
+	public static void setCriticalDowncalls(boolean enabled) {
+		checkNotLinked();
+		criticalDowncalls = enabled;
+	}
+
+	/**
+	 * @see #setCriticalDowncalls(boolean)
+	 */
+	public static boolean isCriticalDowncalls() {
+		return criticalDowncalls;
+	}
+
+	/**
+	 * If downcall handles are linked on their first invocation instead of in the
+	 * static initializer of the class using them. Disable this to link every
+	 * function up front, e.g. to move the linking cost out of the first frames.
+	 * Enabled by default, the default can also be set with the system property
+	 * {@code volucris.jolt.lazyDowncalls}.
+	 * 
+	 * @throws IllegalStateException if a function has already been linked
+	 */
+	public static void setLazyDowncalls(boolean enabled) {
+		checkNotLinked();
+		lazyDowncalls = enabled;
+	}
+
+	/**
+	 * @see #setLazyDowncalls(boolean)
+	 */
+	public static boolean isLazyDowncalls() {
+		return lazyDowncalls;
+	}
+
+	private static void checkNotLinked() {
+		if (linked)
+			throw new IllegalStateException("Cannot change linking after the first function has been linked.");
+	}
+
+	private static Linker.Option[] criticalOptions(boolean allowHeapAccess) {
+		if (!criticalDowncalls)
+			return new Linker.Option[0];
+
+		return new Linker.Option[] { Linker.Option.critical(allowHeapAccess) };
+	}
+
+	/**
+	 * Creates a handle for calling native function pointers. The returned handle
+	 * takes the function pointer as first argument.
+	 */
+	public static MethodHandle functionPointerHandleVoid(MemoryLayout... argLayouts) {
+		return LINKER.downcallHandle(FunctionDescriptor.ofVoid(argLayouts));
 	}
 
 	public static VarHandle varHandle(MemoryLayout layout, String name) {
@@ -109,4 +289,44 @@ public final class FFMUtils {
 		return LINKER.upcallStub(method, descriptor, arena);
 	}
 
+	/**
+	 * View of the remaining elements of the buffer. Jolt reads and writes in
+	 * native byte order, so buffers in any other order are rejected, e.g. the big
+	 * endian view of {@code ByteBuffer.allocateDirect(n).asFloatBuffer()} if the
+	 * order of the byte buffer has not been set.
+	 * 
+	 * @throws IllegalArgumentException if the buffer is not in native byte order
+	 */
+	public static MemorySegment ofBuffer(FloatBuffer buffer) {
+		checkNativeOrder(buffer.order());
+		return MemorySegment.ofBuffer(buffer);
+	}
+
+	/**
+	 * @see #ofBuffer(FloatBuffer)
+	 */
+	public static MemorySegment ofBuffer(IntBuffer buffer) {
+		checkNativeOrder(buffer.order());
+		return MemorySegment.ofBuffer(buffer);
+	}
+
+	private static void checkNativeOrder(ByteOrder order) {
+		if (order != ByteOrder.nativeOrder())
+			throw new IllegalArgumentException("Buffer must be in native byte order.");
+	}
+
+	/**
+	 * Returns the first byteSize bytes of the segment if it is native, so it can
+	 * be passed to a downcall without copying. Heap segments are copied into the
+	 * arena.
+	 */
+	public static MemorySegment toNative(MemorySegment segment, long byteSize, Arena arena) {
+		if (segment.isNative())
+			return segment.asSlice(0, byteSize);
+
+		MemorySegment copy = arena.allocate(byteSize, 4);
+		MemorySegment.copy(segment, 0, copy, 0, byteSize);
+		return copy;
+	}
+
 }
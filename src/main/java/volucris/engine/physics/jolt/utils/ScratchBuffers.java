@@ -0,0 +1,128 @@
+package volucris.engine.physics.jolt.utils;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.util.function.Supplier;
+
+import volucris.engine.physics.jolt.Jolt;
+import volucris.engine.physics.jolt.math.Mat4;
+import volucris.engine.physics.jolt.math.Quat;
+import volucris.engine.physics.jolt.math.Vec3;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Native memory used by the wrapper classes to pass vectors, quaternions and
+ * matrices to and from jolt.
+ * <p>
+ * By default every wrapper object owns a single set of scratch buffers, so the
+ * same wrapper object must not be used by multiple threads at the same time.
+ * When {@link Jolt#setPerThreadScratchBuffers(boolean)} is enabled, wrapper
+ * objects created afterwards hand out one set per calling thread instead. The
+ * buffers of a thread are allocated on first use and reused afterwards, so no
+ * memory is allocated per call in either mode.
+ */
+public final class ScratchBuffers {
+
+	private static final ThreadLocal<ScratchBuffers> SHARED;
+
+	private final Quat quat;
+
+	private final Mat4 mat;
+
+	private final Vec3 vec;
+	private final Vec3 vec2;
+	private final Vec3 vec3;
+	private final Vec3 vec4;
+
+	private MemorySegment ints;
+
+	static {
+		SHARED = ThreadLocal.withInitial(ScratchBuffers::new);
+	}
+
+	public ScratchBuffers() {
+		this(Arena.ofAuto());
+	}
+
+	public ScratchBuffers(Arena arena) {
+		quat = new Quat(arena);
+
+		mat = new Mat4(arena);
+
+		vec = new Vec3(arena);
+		vec2 = new Vec3(arena);
+		vec3 = new Vec3(arena);
+		vec4 = new Vec3(arena);
+
+		ints = MemorySegment.NULL;
+	}
+
+	/**
+	 * Creates the scratch buffers for a single wrapper object. In per thread mode
+	 * every thread gets its own set for this object.
+	 */
+	public static Supplier<ScratchBuffers> create(Arena arena) {
+		if (Jolt.isPerThreadScratchBuffers()) {
+			ThreadLocal<ScratchBuffers> buffers = ThreadLocal.withInitial(ScratchBuffers::new);
+			return buffers::get;
+		}
+
+		ScratchBuffers buffers = new ScratchBuffers(arena);
+		return () -> buffers;
+	}
+
+	/**
+	 * Like {@link #create(Arena)}, but in per thread mode all objects created with
+	 * this method share the set of the calling thread. Only use this for wrappers
+	 * whose functions never call back into Java while the buffers are in use,
+	 * e.g. the many {@link volucris.engine.physics.jolt.body.Body Body} objects.
+	 */
+	public static Supplier<ScratchBuffers> createShared(Arena arena) {
+		if (Jolt.isPerThreadScratchBuffers())
+			return SHARED::get;
+
+		ScratchBuffers buffers = new ScratchBuffers(arena);
+		return () -> buffers;
+	}
+
+	public Quat quat() {
+		return quat;
+	}
+
+	public Mat4 mat() {
+		return mat;
+	}
+
+	public Vec3 vec() {
+		return vec;
+	}
+
+	public Vec3 vec2() {
+		return vec2;
+	}
+
+	public Vec3 vec3() {
+		return vec3;
+	}
+
+	public Vec3 vec4() {
+		return vec4;
+	}
+
+	/**
+	 * Native int array with room for at least count elements, e.g. for body IDs.
+	 * The array only grows and is reused by later calls, so its content is
+	 * undefined. Replaced arrays are freed by the garbage collector.
+	 */
+	public MemorySegment ints(int count) {
+		if (ints.byteSize() < (long) count * Integer.BYTES) {
+			long size = Math.max(count, ints.byteSize() / Integer.BYTES * 2);
+			ints = Arena.ofAuto().allocate(MemoryLayout.sequenceLayout(size, JAVA_INT));
+		}
+
+		return ints;
+	}
+
+}
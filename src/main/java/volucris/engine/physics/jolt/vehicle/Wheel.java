@@ -50,26 +50,26 @@ public sealed class Wheel permits WheelTV, WheelWV {
 		//@formatter:off
 		JPH_WHEEL_CREATE = downcallHandle("JPH_Wheel_Create", ADDRESS, ADDRESS);
 		JPH_WHEEL_DESTROY = downcallHandleVoid("JPH_Wheel_Destroy", ADDRESS);
-		JPH_WHEEL_GET_SETTINGS = downcallHandle("JPH_Wheel_GetSettings", ADDRESS, ADDRESS);
-		JPH_WHEEL_GET_ANGULAR_VELOCITY = downcallHandle("JPH_Wheel_GetAngularVelocity", JAVA_FLOAT, ADDRESS);
-		JPH_WHEEL_SET_ANGULAR_VELOCITY = downcallHandleVoid("JPH_Wheel_SetAngularVelocity", ADDRESS, JAVA_FLOAT);
-		JPH_WHEEL_GET_ROTATION_ANGLE = downcallHandle("JPH_Wheel_GetRotationAngle", JAVA_FLOAT, ADDRESS);
-		JPH_WHEEL_SET_ROTATION_ANGLE = downcallHandleVoid("JPH_Wheel_SetRotationAngle", ADDRESS, JAVA_FLOAT);
-		JPH_WHEEL_GET_STEER_ANGLE = downcallHandle("JPH_Wheel_GetSteerAngle", JAVA_FLOAT, ADDRESS);
-		JPH_WHEEL_SET_STEER_ANGLE = downcallHandleVoid("JPH_Wheel_SetSteerAngle", ADDRESS, JAVA_FLOAT);
-		JPH_WHEEL_HAS_CONTACT = downcallHandle("JPH_Wheel_HasContact", JAVA_BOOLEAN, ADDRESS);
-		JPH_WHEEL_GET_CONTACT_BODY_ID = downcallHandle("JPH_Wheel_GetContactBodyID", JAVA_INT, ADDRESS);
-		JPH_WHEEL_GET_CONTACT_SUB_SHAPE_ID = downcallHandle("JPH_Wheel_GetContactSubShapeID", JAVA_INT, ADDRESS);
-		JPH_WHEEL_GET_CONTACT_POSITION = downcallHandleVoid("JPH_Wheel_GetContactPosition", ADDRESS, ADDRESS);
-		JPH_WHEEL_GET_CONTACT_POINT_VELOCITY = downcallHandleVoid("JPH_Wheel_GetContactPointVelocity", ADDRESS, ADDRESS);
-		JPH_WHEEL_GET_CONTACT_NORMAL = downcallHandleVoid("JPH_Wheel_GetContactNormal", ADDRESS, ADDRESS);
-		JPH_WHEEL_GET_CONTACT_LONGITUDINAL = downcallHandleVoid("JPH_Wheel_GetContactLongitudinal", ADDRESS, ADDRESS);
-		JPH_WHEEL_GET_CONTACT_LATERAL = downcallHandleVoid("JPH_Wheel_GetContactLateral", ADDRESS, ADDRESS);
-		JPH_WHEEL_GET_SUSPENSION_LENGTH = downcallHandle("JPH_Wheel_GetSuspensionLength", JAVA_FLOAT, ADDRESS);
-		JPH_WHEEL_GET_SUSPENSION_LAMBDA = downcallHandle("JPH_Wheel_GetSuspensionLambda", JAVA_FLOAT, ADDRESS);
-		JPH_WHEEL_GET_LONGITUDINAL_LAMBDA = downcallHandle("JPH_Wheel_GetLongitudinalLambda", JAVA_FLOAT, ADDRESS);
-		JPH_WHEEL_GET_LATERAL_LAMBDA = downcallHandle("JPH_Wheel_GetLateralLambda", JAVA_FLOAT, ADDRESS);
-		JPH_WHEEL_HAS_HIT_HARD_POINT = downcallHandle("JPH_Wheel_HasHitHardPoint", JAVA_BOOLEAN, ADDRESS);
+		JPH_WHEEL_GET_SETTINGS = criticalDowncallHandle("JPH_Wheel_GetSettings", false, ADDRESS, ADDRESS);
+		JPH_WHEEL_GET_ANGULAR_VELOCITY = criticalDowncallHandle("JPH_Wheel_GetAngularVelocity", false, JAVA_FLOAT, ADDRESS);
+		JPH_WHEEL_SET_ANGULAR_VELOCITY = criticalDowncallHandleVoid("JPH_Wheel_SetAngularVelocity", false, ADDRESS, JAVA_FLOAT);
+		JPH_WHEEL_GET_ROTATION_ANGLE = criticalDowncallHandle("JPH_Wheel_GetRotationAngle", false, JAVA_FLOAT, ADDRESS);
+		JPH_WHEEL_SET_ROTATION_ANGLE = criticalDowncallHandleVoid("JPH_Wheel_SetRotationAngle", false, ADDRESS, JAVA_FLOAT);
+		JPH_WHEEL_GET_STEER_ANGLE = criticalDowncallHandle("JPH_Wheel_GetSteerAngle", false, JAVA_FLOAT, ADDRESS);
+		JPH_WHEEL_SET_STEER_ANGLE = criticalDowncallHandleVoid("JPH_Wheel_SetSteerAngle", false, ADDRESS, JAVA_FLOAT);
+		JPH_WHEEL_HAS_CONTACT = criticalDowncallHandle("JPH_Wheel_HasContact", false, JAVA_BOOLEAN, ADDRESS);
+		JPH_WHEEL_GET_CONTACT_BODY_ID = criticalDowncallHandle("JPH_Wheel_GetContactBodyID", false, JAVA_INT, ADDRESS);
+		JPH_WHEEL_GET_CONTACT_SUB_SHAPE_ID = criticalDowncallHandle("JPH_Wheel_GetContactSubShapeID", false, JAVA_INT, ADDRESS);
+		JPH_WHEEL_GET_CONTACT_POSITION = criticalDowncallHandleVoid("JPH_Wheel_GetContactPosition", false, ADDRESS, ADDRESS);
+		JPH_WHEEL_GET_CONTACT_POINT_VELOCITY = criticalDowncallHandleVoid("JPH_Wheel_GetContactPointVelocity", false, ADDRESS, ADDRESS);
+		JPH_WHEEL_GET_CONTACT_NORMAL = criticalDowncallHandleVoid("JPH_Wheel_GetContactNormal", false, ADDRESS, ADDRESS);
+		JPH_WHEEL_GET_CONTACT_LONGITUDINAL = criticalDowncallHandleVoid("JPH_Wheel_GetContactLongitudinal", false, ADDRESS, ADDRESS);
+		JPH_WHEEL_GET_CONTACT_LATERAL = criticalDowncallHandleVoid("JPH_Wheel_GetContactLateral", false, ADDRESS, ADDRESS);
+		JPH_WHEEL_GET_SUSPENSION_LENGTH = criticalDowncallHandle("JPH_Wheel_GetSuspensionLength", false, JAVA_FLOAT, ADDRESS);
+		JPH_WHEEL_GET_SUSPENSION_LAMBDA = criticalDowncallHandle("JPH_Wheel_GetSuspensionLambda", false, JAVA_FLOAT, ADDRESS);
+		JPH_WHEEL_GET_LONGITUDINAL_LAMBDA = criticalDowncallHandle("JPH_Wheel_GetLongitudinalLambda", false, JAVA_FLOAT, ADDRESS);
+		JPH_WHEEL_GET_LATERAL_LAMBDA = criticalDowncallHandle("JPH_Wheel_GetLateralLambda", false, JAVA_FLOAT, ADDRESS);
+		JPH_WHEEL_HAS_HIT_HARD_POINT = criticalDowncallHandle("JPH_Wheel_HasHitHardPoint", false, JAVA_BOOLEAN, ADDRESS);
 		//@formatter:on
 	}
 